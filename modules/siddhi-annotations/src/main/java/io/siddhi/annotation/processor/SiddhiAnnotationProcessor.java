@@ -86,6 +86,7 @@ public class SiddhiAnnotationProcessor extends AbstractProcessor {
                         AnnotationConstants.STREAM_PROCESSOR_SUPER_CLASS,
                         AnnotationConstants.STREAM_FUNCTION_PROCESSOR_SUPER_CLASS,
                         AnnotationConstants.STORE_SUPER_CLASS,
+                        AnnotationConstants.TABLE_SUPER_CLASS,
                         AnnotationConstants.SOURCE_SUPER_CLASS,
                         AnnotationConstants.SOURCE_MAPPER_SUPER_CLASS,
                         AnnotationConstants.WINDOW_PROCESSOR_CLASS,
@@ -137,6 +138,7 @@ public class SiddhiAnnotationProcessor extends AbstractProcessor {
                                     new SourceMapperValidationAnnotationProcessor(extensionClassFullName);
                             break;
                         case AnnotationConstants.STORE_SUPER_CLASS:
+                        case AnnotationConstants.TABLE_SUPER_CLASS:
                             abstractAnnotationProcessor =
                                     new StoreValidationAnnotationProcessor(extensionClassFullName);
                             break;
@@ -46,6 +46,7 @@ import io.siddhi.query.api.execution.query.OnDemandQuery;
 import io.siddhi.query.api.execution.query.StoreQuery;
 
 import java.beans.ExceptionListener;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -153,6 +154,8 @@ public interface SiddhiAppRuntime {
 
     void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException;
 
+    void restore(InputStream snapshot) throws CannotRestoreSiddhiAppStateException;
+
     void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException;
 
     String restoreLastRevision() throws CannotRestoreSiddhiAppStateException;
@@ -177,6 +180,17 @@ public interface SiddhiAppRuntime {
      */
     void setStatisticsLevel(Level level);
 
+    /**
+     * To change how the events of an async stream are batched on runtime.
+     *
+     * @param streamId              id of the stream annotated with @async
+     * @param minBatchSize          minimum number of events passed to the stream's receivers at once
+     * @param maxBatchSize          maximum number of events passed to the stream's receivers at once
+     * @param targetLatencyInMillis target batch latency, the batch size adapts between the limits when positive and
+     *                              stays at the maximum when 0
+     */
+    void setStreamBatching(String streamId, int minBatchSize, int maxBatchSize, double targetLatencyInMillis);
+
     /**
      * To enable and disable Siddhi App playback mode on runtime along with optional parameters.
      *
@@ -38,6 +38,8 @@ import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.output.callback.OutputCallback;
 import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.input.InputManager;
@@ -58,8 +60,12 @@ import io.siddhi.core.util.StringUtil;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.parser.OnDemandQueryParser;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
+import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
+import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
 import io.siddhi.core.util.snapshot.PersistenceReference;
+import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
@@ -79,6 +85,7 @@ import io.siddhi.query.compiler.SiddhiCompiler;
 import org.apache.log4j.Logger;
 
 import java.beans.ExceptionListener;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -638,10 +645,18 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         for (QueryRuntime queryRuntime : queryProcessorMap.values()) {
             streamRuntime.add(((QueryRuntimeImpl) queryRuntime).getStreamRuntime());
             streamCallbacks.add(((QueryRuntimeImpl) queryRuntime).getOutputCallback());
+            // Debugger breakpoints expose events to the user, hence they cannot be recycled.
+            ((QueryRuntimeImpl) queryRuntime).getSelector().setRecycleEvents(false);
         }
         for (StreamRuntime streamRuntime1 : streamRuntime) {
             for (SingleStreamRuntime singleStreamRuntime : streamRuntime1.getSingleStreamRuntimes()) {
                 singleStreamRuntime.getProcessStreamReceiver().setSiddhiDebugger(siddhiDebugger);
+                for (Processor processor = singleStreamRuntime.getProcessorChain(); processor != null;
+                     processor = processor.getNextProcessor()) {
+                    if (processor instanceof FilterProcessor) {
+                        ((FilterProcessor) processor).setRecycleEvents(false);
+                    }
+                }
             }
         }
         for (OutputCallback callback : streamCallbacks) {
@@ -652,33 +667,50 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
     }
 
     public PersistenceReference persist() {
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = null;
+        Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>>
+                incrementalSnapshot = null;
+        boolean isFullSnapshot = siddhiAppContext.getSiddhiContext().getPersistenceStore() != null;
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().fullSnapshot(),
-                        siddhiAppContext);
+            if (isFullSnapshot) {
+                fullSnapshot = snapshotService.captureFullSnapshot();
             } else {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().incrementalSnapshot(),
-                        siddhiAppContext);
+                incrementalSnapshot = snapshotService.captureIncrementalSnapshot();
             }
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
         }
+        // serialize the captured snapshots while the events are flowing
+        PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
+        if (persistenceStore instanceof StreamingPersistenceStore) {
+            return PersistenceHelper.persist(fullSnapshot, (StreamingPersistenceStore) persistenceStore,
+                    siddhiAppContext);
+        } else if (isFullSnapshot) {
+            return PersistenceHelper.persist(snapshotService.serializeFullSnapshot(fullSnapshot), siddhiAppContext);
+        } else {
+            return PersistenceHelper.persist(snapshotService.serializeIncrementalSnapshot(incrementalSnapshot),
+                    siddhiAppContext);
+        }
     }
 
     public byte[] snapshot() {
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot;
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            return siddhiAppContext.getSnapshotService().fullSnapshot();
+            fullSnapshot = snapshotService.captureFullSnapshot();
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
         }
+        return snapshotService.serializeFullSnapshot(fullSnapshot);
     }
 
     public void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException {
@@ -693,6 +725,18 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         }
     }
 
+    public void restore(InputStream snapshot) throws CannotRestoreSiddhiAppStateException {
+        try {
+            // first, pause all the event sources
+            sourceMap.values().forEach(list -> list.forEach(Source::pause));
+            // start the restoring process
+            siddhiAppContext.getSnapshotService().restore(snapshot);
+        } finally {
+            // at the end, resume the event sources
+            sourceMap.values().forEach(list -> list.forEach(Source::resume));
+        }
+    }
+
     public void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException {
         try {
             // first, pause all the event sources
@@ -871,6 +915,17 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         }
     }
 
+    public void setStreamBatching(String streamId, int minBatchSize, int maxBatchSize,
+                                  double targetLatencyInMillis) {
+        StreamJunction streamJunction = streamJunctionMap.get(streamId);
+        if (streamJunction == null) {
+            throw new DefinitionNotExistException("No stream found with name: " + streamId);
+        }
+        streamJunction.setBatching(minBatchSize, maxBatchSize, (long) (targetLatencyInMillis * 1000000));
+        log.info("Siddhi App '" + getName() + "' stream '" + streamId + "' batching changed to: min " +
+                minBatchSize + ", max " + maxBatchSize + ", target latency " + targetLatencyInMillis + " ms");
+    }
+
     /**
      * To enable and disable Siddhi App playback mode on runtime along with optional parameters.
      *
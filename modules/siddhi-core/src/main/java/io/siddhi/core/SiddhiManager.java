@@ -30,6 +30,8 @@ import io.siddhi.core.util.parser.SiddhiAppParser;
 import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.snapshot.codec.BinarySnapshotCodec;
+import io.siddhi.core.util.snapshot.codec.SnapshotCodec;
 import io.siddhi.query.api.SiddhiApp;
 import io.siddhi.query.api.definition.StreamDefinition;
 import io.siddhi.query.api.definition.TableDefinition;
@@ -168,6 +170,16 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the codec used to encode and decode state snapshots of the Siddhi Manager instance.
+     * {@link BinarySnapshotCodec} is used by default.
+     *
+     * @param snapshotCodec Snapshot Codec implementation to be used.
+     */
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.siddhiContext.setSnapshotCodec(snapshotCodec);
+    }
+
     /**
      * Method to set sink handler manager that would create sink handlers for each sink
      *
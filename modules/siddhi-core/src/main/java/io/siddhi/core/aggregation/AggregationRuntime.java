@@ -341,9 +341,10 @@ public class AggregationRuntime implements MemoryCalculable {
                 // No need to initialise executors if it is distributed
                 initialiseExecutors(false);
             }
-            return ((IncrementalAggregateCompileCondition) compiledCondition).find(matchingEvent,
-                    incrementalExecutorMap, aggregateProcessingExecutorsMap, groupByKeyGeneratorMap,
-                    shouldUpdateTimestamp);
+            return incrementalExecutorMap.get(incrementalDurations.get(0)).read(() ->
+                    ((IncrementalAggregateCompileCondition) compiledCondition).find(matchingEvent,
+                            incrementalExecutorMap, aggregateProcessingExecutorsMap, groupByKeyGeneratorMap,
+                            shouldUpdateTimestamp));
 
         } finally {
             SnapshotService.getSkipStateStorageThreadLocal().set(null);
@@ -24,6 +24,7 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.selector.GroupByKey;
 import io.siddhi.core.util.snapshot.state.PartitionSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.SingleSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.State;
@@ -32,6 +33,8 @@ import io.siddhi.core.util.snapshot.state.StateHolder;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Store for maintaining the base values related to incremental aggregation. (e.g. for average,
@@ -46,6 +49,11 @@ public class BaseIncrementalValueStore {
     private ExpressionExecutor shouldUpdateTimestamp;
 
     private StreamEventFactory streamEventFactory;
+    /**
+     * Values of different group-by keys can be processed concurrently, while reading or clearing the values of all
+     * the keys excludes them.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     public BaseIncrementalValueStore(String aggregatorName, long initialTimestamp,
                                      List<ExpressionExecutor> expressionExecutors,
@@ -69,23 +77,33 @@ public class BaseIncrementalValueStore {
         }
     }
 
-    public synchronized void clearValues(long startTimeOfNewAggregates, StreamEvent resetEvent) {
-        this.initialTimestamp = startTimeOfNewAggregates;
-        setTimestamp(startTimeOfNewAggregates);
-        setProcessed(false);
-        this.valueStateHolder.cleanGroupByStates();
+    public void clearValues(long startTimeOfNewAggregates, StreamEvent resetEvent) {
+        lock.writeLock().lock();
+        try {
+            this.initialTimestamp = startTimeOfNewAggregates;
+            setTimestamp(startTimeOfNewAggregates);
+            setProcessed(false);
+            this.valueStateHolder.cleanGroupByStates();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public List<ExpressionExecutor> getExpressionExecutors() {
         return expressionExecutors;
     }
 
-    public synchronized boolean isProcessed() {
-        StoreState state = this.storeStateHolder.getState();
+    public boolean isProcessed() {
+        lock.readLock().lock();
         try {
-            return state.isProcessed;
+            StoreState state = this.storeStateHolder.getState();
+            try {
+                return state.isProcessed;
+            } finally {
+                this.storeStateHolder.returnState(state);
+            }
         } finally {
-            this.storeStateHolder.returnState(state);
+            lock.readLock().unlock();
         }
     }
 
@@ -116,28 +134,33 @@ public class BaseIncrementalValueStore {
         }
     }
 
-    public synchronized Map<String, StreamEvent> getGroupedByEvents() {
-        Map<String, StreamEvent> groupedByEvents = new HashMap<>();
-
-        if (isProcessed()) {
-            Map<String, ValueState> baseIncrementalValueStoreMap = this.valueStateHolder.getAllGroupByStates();
-            try {
-                for (Map.Entry<String, ValueState> state : baseIncrementalValueStoreMap.entrySet()) {
-                    StreamEvent streamEvent = streamEventFactory.newInstance();
-                    long timestamp = getTimestamp();
-                    streamEvent.setTimestamp(timestamp);
-                    state.getValue().setValue(timestamp, 0);
-                    streamEvent.setOutputData(state.getValue().values);
-                    groupedByEvents.put(state.getKey(), streamEvent);
+    public Map<Object, StreamEvent> getGroupedByEvents() {
+        Map<Object, StreamEvent> groupedByEvents = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            if (isProcessed()) {
+                Map<Object, ValueState> baseIncrementalValueStoreMap = this.valueStateHolder.getAllGroupByStates();
+                try {
+                    for (Map.Entry<Object, ValueState> state : baseIncrementalValueStoreMap.entrySet()) {
+                        StreamEvent streamEvent = streamEventFactory.newInstance();
+                        long timestamp = getTimestamp();
+                        streamEvent.setTimestamp(timestamp);
+                        state.getValue().setValue(timestamp, 0);
+                        streamEvent.setOutputData(state.getValue().values);
+                        groupedByEvents.put(state.getKey(), streamEvent);
+                    }
+                } finally {
+                    this.valueStateHolder.returnGroupByStates(baseIncrementalValueStoreMap);
                 }
-            } finally {
-                this.valueStateHolder.returnGroupByStates(baseIncrementalValueStoreMap);
             }
+        } finally {
+            lock.writeLock().unlock();
         }
         return groupedByEvents;
     }
 
-    public synchronized void process(StreamEvent streamEvent) {
+    public void process(StreamEvent streamEvent) {
+        lock.readLock().lock();
         ValueState state = valueStateHolder.getState();
         try {
             boolean shouldUpdate = true;
@@ -155,14 +178,16 @@ public class BaseIncrementalValueStore {
             setProcessed(true);
         } finally {
             valueStateHolder.returnState(state);
+            lock.readLock().unlock();
         }
     }
 
-    public synchronized void process(Map<String, StreamEvent> groupedByEvents) {
-        for (Map.Entry<String, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
-            synchronized (this) {
-                SiddhiAppContext.startGroupByFlow(eventEntry.getKey() + "-" +
-                        eventEntry.getValue().getTimestamp());
+    public void process(Map<Object, StreamEvent> groupedByEvents) {
+        for (Map.Entry<Object, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
+            lock.readLock().lock();
+            try {
+                SiddhiAppContext.startGroupByFlow(GroupByKey.of(eventEntry.getKey(),
+                        eventEntry.getValue().getTimestamp()));
                 ValueState state = valueStateHolder.getState();
                 try {
                     boolean shouldUpdate = true;
@@ -182,6 +207,8 @@ public class BaseIncrementalValueStore {
                     valueStateHolder.returnState(state);
                     SiddhiAppContext.stopGroupByFlow();
                 }
+            } finally {
+                lock.readLock().unlock();
             }
         }
     }
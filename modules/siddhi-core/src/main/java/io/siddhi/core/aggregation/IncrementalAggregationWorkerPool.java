@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.aggregation;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Worker threads running the roll-ups of an incremental aggregation as a pipeline. Each {@link Stage} processes its
+ * tasks in submission order on its own thread through a bounded queue, such that the root executor hands over the
+ * roll-ups of the higher durations and the table writes without waiting for them, while being slowed down when the
+ * stages fall behind. Within a roll-up the group-by keys are processed by {@link #processInShards(List)} in parallel.
+ * <p>
+ * Tasks waiting in the stage queues are registered in the Siddhi App's {@link io.siddhi.core.util.ThreadBarrier},
+ * hence snapshots are taken only after the queues are drained. Stopping the pool is atomic with submitting tasks,
+ * and the tasks queued when the pool is stopped are run before {@link #stop()} returns. Reads of the in-memory
+ * aggregates wait for the queued tasks via {@link #awaitQueuedTasks()}, as the aggregates being rolled up are
+ * neither in the executor handing them over nor in the next one till the roll-up is run.
+ */
+public class IncrementalAggregationWorkerPool implements ExternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(IncrementalAggregationWorkerPool.class);
+    private static final Runnable STOP_TASK = () -> {
+    };
+    private final String aggregatorName;
+    private final int shardCount;
+    private final int bufferSize;
+    private final SiddhiAppContext siddhiAppContext;
+    private final List<Stage> stages = new ArrayList<>();
+    private boolean running = false;
+
+    public IncrementalAggregationWorkerPool(String aggregatorName, int shardCount, int bufferSize,
+                                            SiddhiAppContext siddhiAppContext) {
+        this.aggregatorName = aggregatorName;
+        this.shardCount = shardCount;
+        this.bufferSize = bufferSize;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Create a stage processing its tasks in order on its own thread.
+     *
+     * @param name name of the stage used when reporting errors
+     * @return the stage
+     */
+    public synchronized Stage createStage(String name) {
+        Stage stage = new Stage(name);
+        stages.add(stage);
+        if (running) {
+            stage.future = siddhiAppContext.getExecutorService().submit(stage);
+        }
+        return stage;
+    }
+
+    /**
+     * Run the given shards in parallel and wait for all of them to complete. The first shard is run by the calling
+     * thread.
+     *
+     * @param shards tasks of each shard, which are run in order within the shard
+     */
+    public void processInShards(List<List<Runnable>> shards) {
+        List<Future> futures = new ArrayList<>(shards.size());
+        for (int i = 1; i < shards.size(); i++) {
+            List<Runnable> shard = shards.get(i);
+            if (!shard.isEmpty()) {
+                futures.add(siddhiAppContext.getExecutorService().submit(() -> shard.forEach(Runnable::run)));
+            }
+        }
+        shards.get(0).forEach(Runnable::run);
+        for (Future future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when processing a roll-up " +
+                        "shard of aggregation '" + aggregatorName + "', " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Wait for the tasks queued so far, and the ones they queue on the subsequent stages, to be run. Stages are
+     * awaited in their creation order, hence they should be created from the root of the pipeline. Returns at once
+     * when called from a stage, as its own tasks cannot be run meanwhile.
+     */
+    public void awaitQueuedTasks() {
+        List<Stage> runningStages;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            runningStages = new ArrayList<>(stages);
+        }
+        for (Stage stage : runningStages) {
+            if (stage.worker == Thread.currentThread()) {
+                return;
+            }
+        }
+        for (Stage stage : runningStages) {
+            try {
+                stage.awaitQueuedTasks();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (Stage stage : stages) {
+            stage.future = siddhiAppContext.getExecutorService().submit(stage);
+        }
+    }
+
+    /**
+     * Stop the stages once they have run the tasks queued before the pool stopped. Tasks left behind by stages that
+     * got interrupted are run by the calling thread.
+     */
+    @Override
+    public void stop() {
+        List<Stage> stoppedStages;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            for (Stage stage : stages) {
+                stage.queue.add(STOP_TASK);
+            }
+            stoppedStages = new ArrayList<>(stages);
+        }
+        for (Stage stage : stoppedStages) {
+            if (stage.future != null) {
+                try {
+                    stage.future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when stopping " +
+                            stage.name + " of aggregation '" + aggregatorName + "', " + e.getCause().getMessage(),
+                            e.getCause());
+                }
+                stage.future = null;
+            }
+            for (Runnable task = stage.queue.poll(); task != null; task = stage.queue.poll()) {
+                if (task != STOP_TASK) {
+                    stage.capacity.release();
+                    stage.runQueued(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue of at most buffer size tasks processed in order by a single worker.
+     */
+    public class Stage implements Runnable {
+
+        private final String name;
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final Semaphore capacity = new Semaphore(bufferSize);
+        private Future future;
+        private volatile Thread worker;
+        private long queuedTasks = 0;
+        private long completedTasks = 0;
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Queue the task to be run by the stage, blocking while the queue is full. Tasks are run by the calling
+         * thread while the pool is not running, such as when the executors are initialised from the tables or once
+         * the pool is stopped.
+         *
+         * @param task task to be run
+         */
+        public void submit(Runnable task) {
+            try {
+                capacity.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when submitting to " + name +
+                        " of aggregation '" + aggregatorName + "', dropping the task as the submitting thread got " +
+                        "interrupted.");
+                return;
+            }
+            synchronized (IncrementalAggregationWorkerPool.this) {
+                if (running) {
+                    siddhiAppContext.getThreadBarrier().handOver();
+                    synchronized (this) {
+                        queuedTasks++;
+                    }
+                    queue.add(task);
+                    return;
+                }
+            }
+            capacity.release();
+            task.run();
+        }
+
+        private synchronized void awaitQueuedTasks() throws InterruptedException {
+            long tasks = queuedTasks;
+            while (completedTasks < tasks) {
+                wait();
+            }
+        }
+
+        @Override
+        public void run() {
+            worker = Thread.currentThread();
+            try {
+                while (true) {
+                    Runnable task = queue.take();
+                    if (task == STOP_TASK) {
+                        return;
+                    }
+                    capacity.release();
+                    runQueued(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                worker = null;
+            }
+        }
+
+        private void runQueued(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when processing " + name +
+                        " of aggregation '" + aggregatorName + "', " + t.getMessage(), t);
+            } finally {
+                siddhiAppContext.getThreadBarrier().completeHandOver();
+                synchronized (this) {
+                    completedTasks++;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -36,11 +36,13 @@ import io.siddhi.core.util.snapshot.state.StateHolder;
 import io.siddhi.query.api.aggregation.TimePeriod;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Incremental executor class which is responsible for performing incremental aggregation.
@@ -62,6 +64,10 @@ public class IncrementalExecutor implements Executor {
     private StreamEventFactory streamEventFactory;
     private Scheduler scheduler;
     private ExecutorService executorService;
+    private IncrementalAggregationWorkerPool workerPool;
+    private IncrementalAggregationWorkerPool.Stage rollUpStage;
+    private IncrementalAggregationWorkerPool.Stage tableWriteStage;
+    private List<List<Runnable>> shards;
 
     private BaseIncrementalValueStore baseIncrementalValueStore;
 
@@ -99,6 +105,26 @@ public class IncrementalExecutor implements Executor {
         this.scheduler = scheduler;
     }
 
+    /**
+     * Run the roll-ups to the next executor and the table writes on the stages of the given worker pool, and
+     * process the group-by keys of non root executors in the shards of the pool.
+     *
+     * @param workerPool worker pool of the aggregation
+     */
+    public void setWorkerPool(IncrementalAggregationWorkerPool workerPool) {
+        this.workerPool = workerPool;
+        if (next != null) {
+            this.rollUpStage = workerPool.createStage("roll-up from " + duration);
+        }
+        this.tableWriteStage = workerPool.createStage("table writes for " + duration);
+        if (!isRoot && groupByKeyGenerator != null && workerPool.getShardCount() > 1) {
+            this.shards = new ArrayList<>(workerPool.getShardCount());
+            for (int i = 0; i < workerPool.getShardCount(); i++) {
+                shards.add(new ArrayList<>());
+            }
+        }
+    }
+
     @Override
     public synchronized void execute(ComplexEventChunk streamEventChunk) {
         if (LOG.isDebugEnabled()) {
@@ -115,18 +141,46 @@ public class IncrementalExecutor implements Executor {
                 executorState.startTimeOfAggregates = IncrementalTimeConverterUtil.getStartTimeOfAggregates(
                         timestamp, duration);
                 if (timestamp >= executorState.nextEmitTime) {
+                    processShards();
                     executorState.nextEmitTime = IncrementalTimeConverterUtil.getNextEmitTime(
                             timestamp, duration, null);
                     dispatchAggregateEvents(executorState.startTimeOfAggregates);
                     sendTimerEvent(executorState);
                 }
                 if (streamEvent.getType() == ComplexEvent.Type.CURRENT) {
-                    processAggregates(streamEvent, executorState);
+                    if (shards != null) {
+                        addToShard(streamEvent);
+                    } else {
+                        processAggregates(streamEvent, executorState);
+                    }
                 }
             } finally {
                 stateHolder.returnState(executorState);
             }
         }
+        processShards();
+    }
+
+    private void addToShard(StreamEvent streamEvent) {
+        Object groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+        shards.get(Math.floorMod(groupedByKey.hashCode(), shards.size())).add(() -> {
+            try {
+                SiddhiAppContext.startGroupByFlow(groupedByKey);
+                baseIncrementalValueStore.process(streamEvent);
+            } finally {
+                SiddhiAppContext.stopGroupByFlow();
+            }
+        });
+    }
+
+    private void processShards() {
+        if (shards != null) {
+            // Keys are processed in parallel, but all of them before the aggregates are dispatched
+            workerPool.processInShards(shards);
+            for (List<Runnable> shard : shards) {
+                shard.clear();
+            }
+        }
     }
 
     private void sendTimerEvent(ExecutorState executorState) {
@@ -136,7 +190,7 @@ public class IncrementalExecutor implements Executor {
             timerEvent.setTimestamp(executorState.startTimeOfAggregates);
             ComplexEventChunk<StreamEvent> timerStreamEventChunk = new ComplexEventChunk<>();
             timerStreamEventChunk.add(timerEvent);
-            next.execute(timerStreamEventChunk);
+            sendToNextExecutor(timerStreamEventChunk);
         }
     }
 
@@ -172,7 +226,7 @@ public class IncrementalExecutor implements Executor {
         synchronized (this) {
             if (groupByKeyGenerator != null) {
                 try {
-                    String groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+                    Object groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
                     SiddhiAppContext.startGroupByFlow(groupedByKey);
                     baseIncrementalValueStore.process(streamEvent);
                 } finally {
@@ -191,12 +245,12 @@ public class IncrementalExecutor implements Executor {
 
     private void dispatchEvent(long startTimeOfNewAggregates, BaseIncrementalValueStore aBaseIncrementalValueStore) {
         if (aBaseIncrementalValueStore.isProcessed()) {
-            Map<String, StreamEvent> streamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
+            Map<Object, StreamEvent> streamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
             ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>();
             for (StreamEvent event : streamEventMap.values()) {
                 eventChunk.add(event);
             }
-            Map<String, StreamEvent> tableStreamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
+            Map<Object, StreamEvent> tableStreamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
             ComplexEventChunk<StreamEvent> tableEventChunk = new ComplexEventChunk<>();
             for (StreamEvent event : tableStreamEventMap.values()) {
                 tableEventChunk.add(event);
@@ -205,25 +259,37 @@ public class IncrementalExecutor implements Executor {
                 LOG.debug("Event dispatched by " + this.duration + " incremental executor: " + eventChunk.toString());
             }
             if (isProcessingExecutor) {
-                executorService.execute(() -> {
-                            try {
-                                table.addEvents(tableEventChunk, streamEventMap.size());
-                            } catch (Throwable t) {
-                                LOG.error("Exception occurred at siddhi app '" + this.siddhiAppName +
-                                        "' when performing table writes of aggregation '" + this.aggregatorName +
-                                        "' for duration '" + this.duration + "'. This should be investigated as this " +
-                                        "can cause accuracy loss.", t);
-                            }
-                        }
-                );
+                Runnable tableWrite = () -> {
+                    try {
+                        table.addEvents(tableEventChunk, streamEventMap.size());
+                    } catch (Throwable t) {
+                        LOG.error("Exception occurred at siddhi app '" + this.siddhiAppName +
+                                "' when performing table writes of aggregation '" + this.aggregatorName +
+                                "' for duration '" + this.duration + "'. This should be investigated as this " +
+                                "can cause accuracy loss.", t);
+                    }
+                };
+                if (tableWriteStage != null) {
+                    tableWriteStage.submit(tableWrite);
+                } else {
+                    executorService.execute(tableWrite);
+                }
             }
             if (getNextExecutor() != null) {
-                next.execute(eventChunk);
+                sendToNextExecutor(eventChunk);
             }
         }
         cleanBaseIncrementalValueStore(startTimeOfNewAggregates, aBaseIncrementalValueStore);
     }
 
+    private void sendToNextExecutor(ComplexEventChunk<StreamEvent> eventChunk) {
+        if (rollUpStage != null) {
+            rollUpStage.submit(() -> next.execute(eventChunk));
+        } else {
+            next.execute(eventChunk);
+        }
+    }
+
     private void cleanBaseIncrementalValueStore(long startTimeOfNewAggregates,
                                                 BaseIncrementalValueStore baseIncrementalValueStore) {
         baseIncrementalValueStore.clearValues(startTimeOfNewAggregates, resetEvent);
@@ -232,6 +298,25 @@ public class IncrementalExecutor implements Executor {
         }
     }
 
+    /**
+     * Perform a read of the aggregates once the roll-ups and table writes queued on the worker pool are run, while
+     * holding back this root executor from dispatching further aggregates. Otherwise the aggregates being rolled up
+     * would be missed by the read, as they are cleared from this executor before the next executor processes them.
+     *
+     * @param reader read of the aggregates
+     * @param <T>    type of the read result
+     * @return result of the read
+     */
+    public <T> T read(Supplier<T> reader) {
+        if (workerPool == null) {
+            return reader.get();
+        }
+        synchronized (this) {
+            workerPool.awaitQueuedTasks();
+            return reader.get();
+        }
+    }
+
     BaseIncrementalValueStore getBaseIncrementalValueStore() {
         return baseIncrementalValueStore;
     }
@@ -71,10 +71,10 @@ public class OutOfOrderEventsDataAggregator {
 
     public ComplexEventChunk<StreamEvent> aggregateData(ComplexEventChunk<StreamEvent> retrievedData) {
 
-        Set<String> groupByKeys = new HashSet<>();
+        Set<Object> groupByKeys = new HashSet<>();
         while (retrievedData.hasNext()) {
             StreamEvent streamEvent = retrievedData.next();
-            String groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+            Object groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
             groupByKeys.add(groupByKey);
             SiddhiAppContext.startGroupByFlow(groupByKey);
             synchronized (this) {
@@ -100,7 +100,7 @@ public class OutOfOrderEventsDataAggregator {
         }
 
         //clean all executors
-        for (String groupByKey : groupByKeys) {
+        for (Object groupByKey : groupByKeys) {
             SiddhiAppContext.startGroupByFlow(groupByKey);
             try {
                 for (ExpressionExecutor expressionExecutor : baseExecutors) {
@@ -125,7 +125,7 @@ public class OutOfOrderEventsDataAggregator {
 
     private synchronized ComplexEventChunk<StreamEvent> createEventChunkFromAggregatedData() {
         ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<>();
-        Map<String, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
+        Map<Object, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
         try {
             for (State aState : valueStoreMap.values()) {
                 ValueState state = (ValueState) aState;
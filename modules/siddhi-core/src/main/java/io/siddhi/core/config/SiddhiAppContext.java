@@ -25,9 +25,11 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.Scheduler;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.TimerWheel;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.snapshot.state.EmptyStateHolder;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.core.util.snapshot.state.SingleStateHolder;
 import io.siddhi.core.util.snapshot.state.SingleSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.StateFactory;
@@ -46,18 +48,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Holder object for context information of {@link SiddhiApp}.
  */
 public class SiddhiAppContext {
 
-    private static final ThreadLocal<String> GROUP_BY_KEY = new ThreadLocal<>();
-    private static final ThreadLocal<String> PARTITION_KEY = new ThreadLocal<>();
+    private static final ThreadLocal<Object> GROUP_BY_KEY = new ThreadLocal<>();
+    private static final ThreadLocal<PartitionFlow> PARTITION_FLOW = new ThreadLocal<>();
     private SiddhiContext siddhiContext = null;
     private String name;
     private boolean playback;
     private boolean enforceOrder;
+    private boolean optimizeExpressions;
     private Level rootMetricsLevel;
     private StatisticsManager statisticsManager = null;
     private ExecutorService executorService;
@@ -67,6 +71,7 @@ public class SiddhiAppContext {
     private SnapshotService snapshotService;
     private ThreadBarrier threadBarrier = null;
     private TimestampGenerator timestampGenerator = null;
+    private TimerWheel timerWheel = null;
     private IdGenerator idGenerator;
     private Map<String, Script> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
@@ -77,6 +82,7 @@ public class SiddhiAppContext {
     private boolean transportChannelCreationEnabled;
     private List<Scheduler> schedulerList;
     private SiddhiApp siddhiApp;
+    private AtomicInteger partitionStateSlotCounter = new AtomicInteger();
 
     public SiddhiAppContext() {
         this.externalReferencedHolders = Collections.synchronizedList(new LinkedList<>());
@@ -86,7 +92,7 @@ public class SiddhiAppContext {
         this.rootMetricsLevel = Level.OFF;
     }
 
-    public static void startGroupByFlow(String key) {
+    public static void startGroupByFlow(Object key) {
         GROUP_BY_KEY.set(key);
     }
 
@@ -95,22 +101,31 @@ public class SiddhiAppContext {
     }
 
     public static void startPartitionFlow(String key) {
-        PARTITION_KEY.set(key);
+        PARTITION_FLOW.set(key == null ? null : new PartitionFlow(key));
+    }
+
+    public static void startPartitionFlow(PartitionFlow partitionFlow) {
+        PARTITION_FLOW.set(partitionFlow);
     }
 
     public static void stopPartitionFlow() {
-        PARTITION_KEY.set(null);
+        PARTITION_FLOW.set(null);
     }
 
     public static String getCurrentFlowId() {
-        return PARTITION_KEY.get() + "--" + GROUP_BY_KEY.get();
+        return getPartitionFlowId() + "--" + GROUP_BY_KEY.get();
     }
 
     public static String getPartitionFlowId() {
-        return PARTITION_KEY.get();
+        PartitionFlow partitionFlow = PARTITION_FLOW.get();
+        return partitionFlow == null ? null : partitionFlow.getKey();
     }
 
-    public static String getGroupByFlowId() {
+    public static PartitionFlow getPartitionFlow() {
+        return PARTITION_FLOW.get();
+    }
+
+    public static Object getGroupByFlowId() {
         return GROUP_BY_KEY.get();
     }
 
@@ -155,6 +170,14 @@ public class SiddhiAppContext {
         this.enforceOrder = enforceOrder;
     }
 
+    public boolean isOptimizeExpressions() {
+        return optimizeExpressions;
+    }
+
+    public void setOptimizeExpressions(boolean optimizeExpressions) {
+        this.optimizeExpressions = optimizeExpressions;
+    }
+
     public Level getRootMetricsLevel() {
         return rootMetricsLevel;
     }
@@ -219,6 +242,14 @@ public class SiddhiAppContext {
         this.timestampGenerator = timestampGenerator;
     }
 
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public SnapshotService getSnapshotService() {
         return snapshotService;
     }
@@ -315,6 +346,15 @@ public class SiddhiAppContext {
         return schedulerList;
     }
 
+    /**
+     * Index of a new partitioned state holder's states in {@link PartitionFlow}s of this Siddhi App
+     *
+     * @return state slot
+     */
+    public int createPartitionStateSlot() {
+        return partitionStateSlotCounter.getAndIncrement();
+    }
+
     public StateHolder generateStateHolder(String name, StateFactory stateFactory) {
         return generateStateHolder(name, stateFactory, false);
     }
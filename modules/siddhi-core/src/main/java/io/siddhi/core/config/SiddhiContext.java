@@ -30,6 +30,8 @@ import io.siddhi.core.util.config.InMemoryConfigManager;
 import io.siddhi.core.util.extension.holder.AbstractExtensionHolder;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.snapshot.codec.BinarySnapshotCodec;
+import io.siddhi.core.util.snapshot.codec.SnapshotCodec;
 import io.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
 import org.apache.log4j.Logger;
 
@@ -49,6 +51,7 @@ public class SiddhiContext {
     private Map<String, Class> siddhiExtensions = new HashMap<>();
     private PersistenceStore persistenceStore = null;
     private IncrementalPersistenceStore incrementalPersistenceStore = null;
+    private SnapshotCodec snapshotCodec = new BinarySnapshotCodec();
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap
@@ -113,6 +116,14 @@ public class SiddhiContext {
         this.incrementalPersistenceStore = incrementalPersistenceStore;
     }
 
+    public SnapshotCodec getSnapshotCodec() {
+        return snapshotCodec;
+    }
+
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
     public ConfigManager getConfigManager() {
         return configManager;
     }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.config;
 
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
 import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.snapshot.SnapshotService;
@@ -47,6 +48,9 @@ public class SiddhiQueryContext {
     private LatencyTracker latencyTracker;
     private IdGenerator idGenerator;
     private boolean stateful = false;
+    private boolean fifoExpiry = false;
+    private boolean concurrentStates = false;
+    private PaneSpec paneSpec;
 
     public SiddhiQueryContext(SiddhiAppContext siddhiAppContext, String queryName) {
         this(siddhiAppContext, queryName, SiddhiConstants.PARTITION_ID_DEFAULT);
@@ -114,14 +118,20 @@ public class SiddhiQueryContext {
     public StateHolder generateStateHolder(String name, boolean groupBy, StateFactory stateFactory, boolean unSafe) {
         if (stateFactory != null) {
             StateHolder stateHolder;
-            if (unSafe) {
-                if (partitioned || groupBy) {
+            if (unSafe && !concurrentStates) {
+                if (partitioned) {
+                    stateHolder = new PartitionStateHolder(stateFactory,
+                            siddhiAppContext.createPartitionStateSlot());
+                } else if (groupBy) {
                     stateHolder = new PartitionStateHolder(stateFactory);
                 } else {
                     stateHolder = new SingleStateHolder(stateFactory);
                 }
             } else {
-                if (partitioned || groupBy) {
+                if (partitioned) {
+                    stateHolder = new PartitionSyncStateHolder(stateFactory,
+                            siddhiAppContext.createPartitionStateSlot());
+                } else if (groupBy) {
                     stateHolder = new PartitionSyncStateHolder(stateFactory);
                 } else {
                     stateHolder = new SingleSyncStateHolder(stateFactory);
@@ -144,4 +154,40 @@ public class SiddhiQueryContext {
     public boolean isStateful() {
         return stateful;
     }
+
+    /**
+     * @return true if the events reaching the selector expire in the same order as they arrived
+     */
+    public boolean isFifoExpiry() {
+        return fifoExpiry;
+    }
+
+    public void setFifoExpiry(boolean fifoExpiry) {
+        this.fifoExpiry = fifoExpiry;
+    }
+
+    public boolean isConcurrentStates() {
+        return concurrentStates;
+    }
+
+    /**
+     * Set when the states of the query are accessed by several threads at once, such as when the group-by keys of
+     * an aggregation are processed in parallel shards, such that synchronized state holders are always generated.
+     *
+     * @param concurrentStates whether the states are accessed concurrently
+     */
+    public void setConcurrentStates(boolean concurrentStates) {
+        this.concurrentStates = concurrentStates;
+    }
+
+    /**
+     * @return pane layout of the window feeding the selector, or null if the window is not pane based
+     */
+    public PaneSpec getPaneSpec() {
+        return paneSpec;
+    }
+
+    public void setPaneSpec(PaneSpec paneSpec) {
+        this.paneSpec = paneSpec;
+    }
 }
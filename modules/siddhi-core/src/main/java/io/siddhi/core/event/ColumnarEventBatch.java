@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event;
+
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batch of events stored column-wise, with one primitive array per attribute and a timestamp array, that can be
+ * sent through {@link io.siddhi.core.stream.input.InputHandler#send(ColumnarEventBatch)} without creating an
+ * {@link Event} per row.
+ */
+public class ColumnarEventBatch {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final Attribute.Type[] attributeTypes;
+    private final Object[] columns;
+    private final boolean[][] nullFlags;
+    private long[] timestamps;
+    private int capacity;
+    private int size;
+
+    public ColumnarEventBatch(AbstractDefinition definition) {
+        this(definition, DEFAULT_CAPACITY);
+    }
+
+    public ColumnarEventBatch(AbstractDefinition definition, int capacity) {
+        this(getAttributeTypes(definition.getAttributeList()), capacity);
+    }
+
+    public ColumnarEventBatch(Attribute.Type[] attributeTypes, int capacity) {
+        this.attributeTypes = attributeTypes.clone();
+        this.capacity = Math.max(capacity, 1);
+        this.timestamps = new long[this.capacity];
+        this.columns = new Object[attributeTypes.length];
+        this.nullFlags = new boolean[attributeTypes.length][];
+        for (int i = 0; i < attributeTypes.length; i++) {
+            columns[i] = newColumn(attributeTypes[i], this.capacity);
+        }
+    }
+
+    private static Attribute.Type[] getAttributeTypes(List<Attribute> attributeList) {
+        Attribute.Type[] attributeTypes = new Attribute.Type[attributeList.size()];
+        for (int i = 0; i < attributeTypes.length; i++) {
+            attributeTypes[i] = attributeList.get(i).getType();
+        }
+        return attributeTypes;
+    }
+
+    private static Object newColumn(Attribute.Type type, int capacity) {
+        switch (type) {
+            case INT:
+                return new int[capacity];
+            case LONG:
+                return new long[capacity];
+            case FLOAT:
+                return new float[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            case BOOL:
+                return new boolean[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    private static Object copyColumn(Attribute.Type type, Object column, int capacity) {
+        switch (type) {
+            case INT:
+                return Arrays.copyOf((int[]) column, capacity);
+            case LONG:
+                return Arrays.copyOf((long[]) column, capacity);
+            case FLOAT:
+                return Arrays.copyOf((float[]) column, capacity);
+            case DOUBLE:
+                return Arrays.copyOf((double[]) column, capacity);
+            case BOOL:
+                return Arrays.copyOf((boolean[]) column, capacity);
+            default:
+                return Arrays.copyOf((Object[]) column, capacity);
+        }
+    }
+
+    /**
+     * Add a new row to the batch. Until they are set, the numeric and bool attributes of the new row are zero or
+     * false, and the other attributes are null.
+     *
+     * @param timestamp timestamp of the event
+     * @return index of the added row
+     */
+    public int addRow(long timestamp) {
+        if (size == capacity) {
+            grow();
+        }
+        int row = size++;
+        timestamps[row] = timestamp;
+        for (int i = 0; i < columns.length; i++) {
+            if (attributeTypes[i] == Attribute.Type.STRING || attributeTypes[i] == Attribute.Type.OBJECT) {
+                ((Object[]) columns[i])[row] = null;
+            } else {
+                clearValue(row, i);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Add a new row to the batch with the given data.
+     *
+     * @param timestamp timestamp of the event
+     * @param data      attribute values of the event
+     * @return index of the added row
+     */
+    public int addRow(long timestamp, Object[] data) {
+        int row = addRow(timestamp);
+        for (int i = 0; i < columns.length; i++) {
+            setObject(row, i, data[i]);
+        }
+        return row;
+    }
+
+    private void grow() {
+        capacity = capacity << 1;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = copyColumn(attributeTypes[i], columns[i], capacity);
+            if (nullFlags[i] != null) {
+                nullFlags[i] = Arrays.copyOf(nullFlags[i], capacity);
+            }
+        }
+    }
+
+    private void clearValue(int row, int column) {
+        switch (attributeTypes[column]) {
+            case INT:
+                ((int[]) columns[column])[row] = 0;
+                break;
+            case LONG:
+                ((long[]) columns[column])[row] = 0L;
+                break;
+            case FLOAT:
+                ((float[]) columns[column])[row] = 0F;
+                break;
+            case DOUBLE:
+                ((double[]) columns[column])[row] = 0D;
+                break;
+            default:
+                ((boolean[]) columns[column])[row] = false;
+        }
+        setNullFlag(row, column, false);
+    }
+
+    private void setNullFlag(int row, int column, boolean isNull) {
+        boolean[] columnNullFlags = nullFlags[column];
+        if (columnNullFlags == null) {
+            if (!isNull) {
+                return;
+            }
+            columnNullFlags = new boolean[capacity];
+            nullFlags[column] = columnNullFlags;
+        }
+        columnNullFlags[row] = isNull;
+    }
+
+    private void checkType(int column, Attribute.Type type) {
+        if (attributeTypes[column] != type) {
+            throw new OperationNotSupportedException("Attribute at column " + column + " is of type " +
+                    attributeTypes[column] + ", hence cannot be accessed as " + type);
+        }
+    }
+
+    public void setInt(int row, int column, int value) {
+        checkType(column, Attribute.Type.INT);
+        ((int[]) columns[column])[row] = value;
+        setNullFlag(row, column, false);
+    }
+
+    public void setLong(int row, int column, long value) {
+        checkType(column, Attribute.Type.LONG);
+        ((long[]) columns[column])[row] = value;
+        setNullFlag(row, column, false);
+    }
+
+    public void setFloat(int row, int column, float value) {
+        checkType(column, Attribute.Type.FLOAT);
+        ((float[]) columns[column])[row] = value;
+        setNullFlag(row, column, false);
+    }
+
+    public void setDouble(int row, int column, double value) {
+        checkType(column, Attribute.Type.DOUBLE);
+        ((double[]) columns[column])[row] = value;
+        setNullFlag(row, column, false);
+    }
+
+    public void setBool(int row, int column, boolean value) {
+        checkType(column, Attribute.Type.BOOL);
+        ((boolean[]) columns[column])[row] = value;
+        setNullFlag(row, column, false);
+    }
+
+    public void setNull(int row, int column) {
+        switch (attributeTypes[column]) {
+            case STRING:
+            case OBJECT:
+                ((Object[]) columns[column])[row] = null;
+                break;
+            default:
+                setNullFlag(row, column, true);
+        }
+    }
+
+    /**
+     * Set the attribute value of the given row from its boxed representation.
+     *
+     * @param row    index of the row
+     * @param column index of the attribute
+     * @param value  attribute value, or null
+     */
+    public void setObject(int row, int column, Object value) {
+        if (value == null) {
+            setNull(row, column);
+            return;
+        }
+        switch (attributeTypes[column]) {
+            case INT:
+                setInt(row, column, (Integer) value);
+                break;
+            case LONG:
+                setLong(row, column, (Long) value);
+                break;
+            case FLOAT:
+                setFloat(row, column, (Float) value);
+                break;
+            case DOUBLE:
+                setDouble(row, column, (Double) value);
+                break;
+            case BOOL:
+                setBool(row, column, (Boolean) value);
+                break;
+            default:
+                ((Object[]) columns[column])[row] = value;
+        }
+    }
+
+    public boolean isNull(int row, int column) {
+        switch (attributeTypes[column]) {
+            case STRING:
+            case OBJECT:
+                return ((Object[]) columns[column])[row] == null;
+            default:
+                return nullFlags[column] != null && nullFlags[column][row];
+        }
+    }
+
+    public int getInt(int row, int column) {
+        checkType(column, Attribute.Type.INT);
+        return ((int[]) columns[column])[row];
+    }
+
+    /**
+     * Get the attribute value of the given row as a long, widening INT attributes.
+     *
+     * @param row    index of the row
+     * @param column index of the attribute
+     * @return attribute value
+     */
+    public long getLong(int row, int column) {
+        if (attributeTypes[column] == Attribute.Type.INT) {
+            return ((int[]) columns[column])[row];
+        }
+        checkType(column, Attribute.Type.LONG);
+        return ((long[]) columns[column])[row];
+    }
+
+    /**
+     * Get the attribute value of the given row as a float, widening INT and LONG attributes.
+     *
+     * @param row    index of the row
+     * @param column index of the attribute
+     * @return attribute value
+     */
+    public float getFloat(int row, int column) {
+        switch (attributeTypes[column]) {
+            case INT:
+                return ((int[]) columns[column])[row];
+            case LONG:
+                return ((long[]) columns[column])[row];
+            default:
+                checkType(column, Attribute.Type.FLOAT);
+                return ((float[]) columns[column])[row];
+        }
+    }
+
+    /**
+     * Get the attribute value of the given row as a double, widening INT, LONG and FLOAT attributes.
+     *
+     * @param row    index of the row
+     * @param column index of the attribute
+     * @return attribute value
+     */
+    public double getDouble(int row, int column) {
+        switch (attributeTypes[column]) {
+            case INT:
+                return ((int[]) columns[column])[row];
+            case LONG:
+                return ((long[]) columns[column])[row];
+            case FLOAT:
+                return ((float[]) columns[column])[row];
+            default:
+                checkType(column, Attribute.Type.DOUBLE);
+                return ((double[]) columns[column])[row];
+        }
+    }
+
+    public boolean getBool(int row, int column) {
+        checkType(column, Attribute.Type.BOOL);
+        return ((boolean[]) columns[column])[row];
+    }
+
+    /**
+     * Get the boxed attribute value of the given row.
+     *
+     * @param row    index of the row
+     * @param column index of the attribute
+     * @return attribute value, or null
+     */
+    public Object getObject(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        switch (attributeTypes[column]) {
+            case INT:
+                return ((int[]) columns[column])[row];
+            case LONG:
+                return ((long[]) columns[column])[row];
+            case FLOAT:
+                return ((float[]) columns[column])[row];
+            case DOUBLE:
+                return ((double[]) columns[column])[row];
+            case BOOL:
+                return ((boolean[]) columns[column])[row];
+            default:
+                return ((Object[]) columns[column])[row];
+        }
+    }
+
+    public long getTimestamp(int row) {
+        return timestamps[row];
+    }
+
+    public Object[] getData(int row) {
+        Object[] data = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            data[i] = getObject(row, i);
+        }
+        return data;
+    }
+
+    public Attribute.Type[] getAttributeTypes() {
+        return attributeTypes.clone();
+    }
+
+    public int getAttributeCount() {
+        return columns.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all the rows while keeping the allocated columns, so that the batch can be reused.
+     */
+    public void clear() {
+        for (int i = 0; i < columns.length; i++) {
+            if (attributeTypes[i] == Attribute.Type.STRING || attributeTypes[i] == Attribute.Type.OBJECT) {
+                Arrays.fill((Object[]) columns[i], 0, size, null);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Convert the rows of the batch to events, used by the consumers that cannot process the batch directly.
+     *
+     * @return events of the batch
+     */
+    public Event[] toEvents() {
+        Event[] events = new Event[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = new Event(timestamps[i], getData(i));
+        }
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarEventBatch{" +
+                "attributeTypes=" + Arrays.toString(attributeTypes) +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -25,10 +25,10 @@ public class GroupedComplexEvent implements ComplexEvent {
 
     private static final long serialVersionUID = 3654677405648232168L;
     private final ComplexEvent complexEvent;
-    private String groupKey;
+    private Object groupKey;
     private ComplexEvent next;
 
-    public GroupedComplexEvent(String groupKey, ComplexEvent complexEvent) {
+    public GroupedComplexEvent(Object groupKey, ComplexEvent complexEvent) {
         this.groupKey = groupKey;
         this.complexEvent = complexEvent;
     }
@@ -82,11 +82,11 @@ public class GroupedComplexEvent implements ComplexEvent {
         return complexEvent;
     }
 
-    public String getGroupKey() {
+    public Object getGroupKey() {
         return groupKey;
     }
 
-    public void setGroupKey(String groupKey) {
+    public void setGroupKey(Object groupKey) {
         this.groupKey = groupKey;
     }
 
@@ -48,6 +48,8 @@ public class StateEvent implements ComplexEvent {
     protected Type type = Type.CURRENT;
     protected Object[] outputData;      //Attributes to sent as output
     private long id;
+    transient StateEventFactory pool;      //Pooled factory that owns the event
+    transient boolean recycled;            //Whether the event is in the free list of its pool
 
 
     public StateEvent(int streamEventsSize, int outputSize) {
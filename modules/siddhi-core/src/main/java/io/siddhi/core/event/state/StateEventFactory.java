@@ -18,14 +18,21 @@
 package io.siddhi.core.event.state;
 
 import com.lmax.disruptor.EventFactory;
+import io.siddhi.core.event.ComplexEvent;
+
+import java.util.Arrays;
 
 /**
- * Event Factory to create new StateEvents
+ * Event Factory to create new StateEvents. When created with a pool size, the factory keeps a bounded free list of
+ * the events returned through {@link #recycle(StateEvent)} and reuses them for new instances.
  */
 public class StateEventFactory implements EventFactory<StateEvent> {
 
     private int eventSize;
     private int outputDataSize;
+    private int poolSize;
+    private StateEvent[] freeEvents;
+    private int freeEventCount;
 
     public StateEventFactory(int eventSize, int outputDataSize) {
         this.eventSize = eventSize;
@@ -37,8 +44,72 @@ public class StateEventFactory implements EventFactory<StateEvent> {
         this.outputDataSize = metaStateEvent.getOutputDataAttributes().size();
     }
 
+    public StateEventFactory(MetaStateEvent metaStateEvent, int poolSize) {
+        this(metaStateEvent);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Return the given event to the pool of the factory that created it. Events that were not created by a pooled
+     * factory are ignored. The stream events held by the state event are not recycled, and the caller must
+     * guarantee that the state event is no longer referenced.
+     *
+     * @param stateEvent event to be recycled
+     */
+    public static void recycle(StateEvent stateEvent) {
+        StateEventFactory pool = stateEvent.pool;
+        if (pool != null) {
+            pool.returnEvent(stateEvent);
+        }
+    }
+
     public StateEvent newInstance() {
+        if (poolSize > 0) {
+            StateEvent stateEvent = borrowEvent();
+            if (stateEvent == null) {
+                stateEvent = new StateEvent(eventSize, outputDataSize);
+                stateEvent.pool = this;
+            }
+            return stateEvent;
+        }
         return new StateEvent(eventSize, outputDataSize);
     }
 
+    public boolean isPooled() {
+        return poolSize > 0;
+    }
+
+    private synchronized StateEvent borrowEvent() {
+        if (freeEventCount == 0) {
+            return null;
+        }
+        StateEvent stateEvent = freeEvents[--freeEventCount];
+        freeEvents[freeEventCount] = null;
+        stateEvent.recycled = false;
+        return stateEvent;
+    }
+
+    private void returnEvent(StateEvent stateEvent) {
+        synchronized (this) {
+            if (stateEvent.recycled || freeEventCount == poolSize) {
+                return;
+            }
+            stateEvent.recycled = true;
+        }
+        stateEvent.setNext(null);
+        stateEvent.setType(ComplexEvent.Type.CURRENT);
+        stateEvent.setTimestamp(-1);
+        stateEvent.setId(0);
+        Arrays.fill(stateEvent.getStreamEvents(), null);
+        Arrays.fill(stateEvent.getOutputData(), null);
+        synchronized (this) {
+            if (freeEvents == null) {
+                freeEvents = new StateEvent[poolSize];
+            }
+            if (freeEventCount < poolSize) {
+                freeEvents[freeEventCount++] = stateEvent;
+            }
+        }
+    }
+
 }
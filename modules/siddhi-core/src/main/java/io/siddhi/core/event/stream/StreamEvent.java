@@ -43,6 +43,8 @@ public class StreamEvent implements ComplexEvent {
     private Object[] beforeWindowData;          //Attributes before window execution
     private Object[] onAfterWindowData;         //Attributes on and after window execution
     private StreamEvent next;
+    transient StreamEventFactory pool;          //Pooled factory that owns the event
+    transient boolean recycled;                 //Whether the event is in the free list of its pool
 
     public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize) {
         if (beforeWindowDataSize > 0) {
@@ -18,11 +18,14 @@
 package io.siddhi.core.event.stream;
 
 import com.lmax.disruptor.EventFactory;
+import io.siddhi.core.event.ComplexEvent;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
- * Event Factory to create new StreamEvents
+ * Event Factory to create new StreamEvents. When created with a pool size, the factory keeps a bounded free list of
+ * the events returned through {@link #recycle(StreamEvent)} and reuses them for new instances.
  */
 public class StreamEventFactory implements EventFactory<StreamEvent>, Serializable {
 
@@ -30,6 +33,9 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
     private int beforeWindowDataSize;
     private int onAfterWindowDataSize;
     private int outputDataSize;
+    private int poolSize;
+    private transient StreamEvent[] freeEvents;
+    private transient int freeEventCount;
 
     /**
      * Initialization of the factory using MetaStreamEvent
@@ -55,13 +61,88 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
         this.outputDataSize = outputDataSize;
     }
 
+    /**
+     * Initialization of the factory with a pool of recyclable events
+     *
+     * @param metaStreamEvent meta stream event
+     * @param poolSize        maximum number of recycled events kept for reuse
+     */
+    public StreamEventFactory(MetaStreamEvent metaStreamEvent, int poolSize) {
+        this(metaStreamEvent);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Return the given event to the pool of the factory that created it. Events that were not created by a pooled
+     * factory are ignored. The caller must guarantee that the event is no longer referenced.
+     *
+     * @param streamEvent event to be recycled
+     */
+    public static void recycle(StreamEvent streamEvent) {
+        StreamEventFactory pool = streamEvent.pool;
+        if (pool != null) {
+            pool.returnEvent(streamEvent);
+        }
+    }
+
     /**
      * Constructs new Events
      *
      * @return StreamEvent
      */
     public StreamEvent newInstance() {
+        if (poolSize > 0) {
+            StreamEvent streamEvent = borrowEvent();
+            if (streamEvent == null) {
+                streamEvent = new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+                streamEvent.pool = this;
+            }
+            return streamEvent;
+        }
         return new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
     }
 
+    public boolean isPooled() {
+        return poolSize > 0;
+    }
+
+    private synchronized StreamEvent borrowEvent() {
+        if (freeEventCount == 0) {
+            return null;
+        }
+        StreamEvent streamEvent = freeEvents[--freeEventCount];
+        freeEvents[freeEventCount] = null;
+        streamEvent.recycled = false;
+        return streamEvent;
+    }
+
+    private void returnEvent(StreamEvent streamEvent) {
+        synchronized (this) {
+            if (streamEvent.recycled || freeEventCount == poolSize) {
+                return;
+            }
+            streamEvent.recycled = true;
+        }
+        streamEvent.setNext(null);
+        streamEvent.setType(ComplexEvent.Type.CURRENT);
+        streamEvent.setTimestamp(-1);
+        clear(streamEvent.getBeforeWindowData());
+        clear(streamEvent.getOnAfterWindowData());
+        clear(streamEvent.getOutputData());
+        synchronized (this) {
+            if (freeEvents == null) {
+                freeEvents = new StreamEvent[poolSize];
+            }
+            if (freeEventCount < poolSize) {
+                freeEvents[freeEventCount++] = streamEvent;
+            }
+        }
+    }
+
+    private static void clear(Object[] data) {
+        if (data != null) {
+            Arrays.fill(data, null);
+        }
+    }
+
 }
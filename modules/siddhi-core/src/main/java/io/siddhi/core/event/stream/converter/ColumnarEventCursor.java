@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream.converter;
+
+import io.siddhi.core.event.ColumnarEventBatch;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.OperationNotSupportedException;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Read only {@link ComplexEvent} view over a row of a {@link ColumnarEventBatch}, which resolves the stream event
+ * positions of a query to the batch columns so that expressions can be evaluated without creating a
+ * {@link StreamEvent} for the row.
+ */
+public class ColumnarEventCursor implements ComplexEvent {
+
+    private static final long serialVersionUID = -2153727519224637543L;
+
+    private final int[][] columnMapping;
+    private transient ColumnarEventBatch batch;
+    private int row;
+
+    public ColumnarEventCursor(MetaStreamEvent metaStreamEvent) {
+        this(StreamEventConverterFactory.constructColumnMapping(metaStreamEvent));
+    }
+
+    /**
+     * @param columnMapping mapping constructed by {@link StreamEventConverterFactory#constructColumnMapping}
+     */
+    public ColumnarEventCursor(int[][] columnMapping) {
+        this.columnMapping = columnMapping;
+    }
+
+    /**
+     * Point the cursor to the given row of the batch.
+     *
+     * @param batch batch to be read
+     * @param row   index of the row
+     */
+    public void moveTo(ColumnarEventBatch batch, int row) {
+        this.batch = batch;
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    private int getColumn(int[] position) {
+        return columnMapping[position[STREAM_ATTRIBUTE_TYPE_INDEX]][position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+    }
+
+    public boolean isNull(int[] position) {
+        int column = getColumn(position);
+        return column < 0 || batch.isNull(row, column);
+    }
+
+    public int getInt(int[] position) {
+        return batch.getInt(row, getColumn(position));
+    }
+
+    public long getLong(int[] position) {
+        return batch.getLong(row, getColumn(position));
+    }
+
+    public float getFloat(int[] position) {
+        return batch.getFloat(row, getColumn(position));
+    }
+
+    public double getDouble(int[] position) {
+        return batch.getDouble(row, getColumn(position));
+    }
+
+    /**
+     * Populate the given stream event with the data of the current row.
+     *
+     * @param streamEvent stream event to be populated
+     */
+    public void populate(StreamEvent streamEvent) {
+        populate(columnMapping[BEFORE_WINDOW_DATA_INDEX], streamEvent.getBeforeWindowData());
+        populate(columnMapping[ON_AFTER_WINDOW_DATA_INDEX], streamEvent.getOnAfterWindowData());
+        populate(columnMapping[OUTPUT_DATA_INDEX], streamEvent.getOutputData());
+        streamEvent.setTimestamp(batch.getTimestamp(row));
+        streamEvent.setType(Type.CURRENT);
+    }
+
+    private void populate(int[] mapping, Object[] data) {
+        for (int i = 0; i < mapping.length; i++) {
+            if (mapping[i] >= 0) {
+                data[i] = batch.getObject(row, mapping[i]);
+            }
+        }
+    }
+
+    @Override
+    public ComplexEvent getNext() {
+        return null;
+    }
+
+    @Override
+    public void setNext(ComplexEvent events) {
+        throw new OperationNotSupportedException("ColumnarEventCursor cannot be chained");
+    }
+
+    @Override
+    public Object[] getOutputData() {
+        Object[] outputData = new Object[columnMapping[OUTPUT_DATA_INDEX].length];
+        populate(columnMapping[OUTPUT_DATA_INDEX], outputData);
+        return outputData;
+    }
+
+    @Override
+    public void setOutputData(Object object, int index) {
+        throw new OperationNotSupportedException("ColumnarEventCursor is read only");
+    }
+
+    @Override
+    public long getTimestamp() {
+        return batch.getTimestamp(row);
+    }
+
+    @Override
+    public Object getAttribute(int[] position) {
+        int column = getColumn(position);
+        if (column < 0) {
+            return null;
+        }
+        return batch.getObject(row, column);
+    }
+
+    @Override
+    public void setAttribute(Object object, int[] position) {
+        throw new OperationNotSupportedException("ColumnarEventCursor is read only");
+    }
+
+    @Override
+    public Type getType() {
+        return Type.CURRENT;
+    }
+
+    @Override
+    public void setType(Type type) {
+        throw new OperationNotSupportedException("ColumnarEventCursor is read only");
+    }
+}
@@ -22,6 +22,7 @@ import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -55,6 +56,29 @@ public class StreamEventConverterFactory {
         }
     }
 
+    /**
+     * Construct the mapping from the stream event data positions to the attribute positions of the input
+     * definition, used to read {@link io.siddhi.core.event.ColumnarEventBatch} rows as stream events.
+     *
+     * @param metaStreamEvent meta stream event of the receiving query
+     * @return input attribute positions indexed by [attribute type index][attribute index], -1 if not mapped
+     */
+    public static int[][] constructColumnMapping(MetaStreamEvent metaStreamEvent) {
+        int[][] columnMapping = new int[][]{
+                new int[metaStreamEvent.getBeforeWindowData().size()],
+                new int[metaStreamEvent.getOnAfterWindowData().size()],
+                new int[metaStreamEvent.getOutputData().size()]};
+        for (int[] mapping : columnMapping) {
+            Arrays.fill(mapping, -1);
+        }
+        for (StreamEventConverter.ConversionMapping conversionMapping : getConversionElements(metaStreamEvent,
+                columnMapping[0].length + columnMapping[1].length + columnMapping[2].length)) {
+            int[] toPosition = conversionMapping.getToPosition();
+            columnMapping[toPosition[0]][toPosition[1]] = conversionMapping.getFromPosition();
+        }
+        return columnMapping;
+    }
+
     private static List<StreamEventConverter.ConversionMapping> getConversionElements(
             MetaStreamEvent metaStreamEvent, int size) {
 
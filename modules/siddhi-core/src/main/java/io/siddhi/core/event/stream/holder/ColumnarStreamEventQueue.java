@@ -0,0 +1,623 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream.holder;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue that holds the events of a window in column oriented chunks instead of as linked {@link StreamEvent}s.
+ * Timestamps and attribute values are kept in primitive arrays according to the attribute types of the
+ * {@link MetaStreamEvent}, and chunks are allocated as the queue grows and released as events expire.
+ * {@link StreamEvent}s are only created when events are polled, while find operations iterate the columns through
+ * a single reused event.
+ */
+public class ColumnarStreamEventQueue implements Serializable {
+
+    private static final long serialVersionUID = -3104865474367212315L;
+    private static final int INITIAL_CHUNK_SIZE = 16;
+    private static final int MAX_CHUNK_SIZE = 1024;
+
+    private transient MetaStreamEvent metaStreamEvent;
+    private transient StreamEventFactory streamEventFactory;
+    private ComplexEvent.Type eventType;
+    private Attribute.Type[] types;
+    private int beforeWindowDataSize;
+    private int onAfterWindowDataSize;
+    private int outputDataSize;
+    private ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+    private long headSequence;
+    private long tailSequence;
+
+    private transient boolean forceFullSnapshot = true;
+    private transient int sizeAtLastSnapshot;
+    private transient long addedSinceLastSnapshot;
+
+    /**
+     * Creates a queue whose column layout is resolved from the given meta at the first insertion, as the meta is
+     * finalized only after the window is initialized.
+     *
+     * @param metaStreamEvent meta of the events held by the queue
+     * @param eventType       type of the events returned by the queue
+     */
+    public ColumnarStreamEventQueue(MetaStreamEvent metaStreamEvent, ComplexEvent.Type eventType) {
+        this.metaStreamEvent = metaStreamEvent;
+        this.eventType = eventType;
+    }
+
+    private ColumnarStreamEventQueue(ColumnarStreamEventQueue queue) {
+        this.eventType = queue.eventType;
+        this.types = queue.types;
+        this.beforeWindowDataSize = queue.beforeWindowDataSize;
+        this.onAfterWindowDataSize = queue.onAfterWindowDataSize;
+        this.outputDataSize = queue.outputDataSize;
+    }
+
+    /**
+     * Sets the factory of the events returned by {@link #poll()}. As the queue does not retain polled events, the
+     * factory can be pooled when the receiver of the events recycles them.
+     *
+     * @param streamEventFactory factory of the polled events
+     */
+    public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
+        this.streamEventFactory = streamEventFactory;
+    }
+
+    public void add(StreamEvent streamEvent) {
+        if (types == null) {
+            initLayout();
+        }
+        Chunk chunk = chunks.peekLast();
+        if (chunk == null || chunk.isFull()) {
+            int chunkSize = chunk == null ? INITIAL_CHUNK_SIZE : Math.min(chunk.capacity() << 1, MAX_CHUNK_SIZE);
+            chunk = new Chunk(tailSequence, chunkSize, types);
+            chunks.addLast(chunk);
+        }
+        chunk.add(streamEvent, beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+        tailSequence++;
+        addedSinceLastSnapshot++;
+    }
+
+    public boolean isEmpty() {
+        return headSequence == tailSequence;
+    }
+
+    public int size() {
+        return (int) (tailSequence - headSequence);
+    }
+
+    /**
+     * Timestamp of the oldest event in the queue, the queue should not be empty.
+     *
+     * @return timestamp of the first event
+     */
+    public long getFirstTimestamp() {
+        Chunk chunk = chunks.peekFirst();
+        return chunk.timestamps[(int) (headSequence - chunk.startSequence)];
+    }
+
+    /**
+     * Removes the oldest event of the queue.
+     *
+     * @return removed event or null if the queue is empty
+     */
+    public StreamEvent poll() {
+        if (isEmpty()) {
+            return null;
+        }
+        StreamEvent streamEvent = createEvent(headSequence);
+        removeFirst();
+        return streamEvent;
+    }
+
+    /**
+     * Iterates the events of the queue from the oldest, reading them from the columns into a single reused
+     * {@link StreamEvent}. Hence each returned event is only valid until the next call, and should be copied to be
+     * retained. The queue should not be modified while being iterated.
+     *
+     * @return iterator over the events of the queue
+     */
+    public Iterator<StreamEvent> iterator() {
+        StreamEvent streamEvent = new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+        streamEvent.setType(eventType);
+        Iterator<Chunk> chunkIterator = chunks.iterator();
+        return new Iterator<StreamEvent>() {
+            private long sequence = headSequence;
+            private Chunk chunk = null;
+
+            @Override
+            public boolean hasNext() {
+                return sequence < tailSequence;
+            }
+
+            @Override
+            public StreamEvent next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (chunk == null || sequence >= chunk.startSequence + chunk.capacity()) {
+                    chunk = chunkIterator.next();
+                }
+                readRow(chunk, (int) (sequence - chunk.startSequence), streamEvent);
+                sequence++;
+                return streamEvent;
+            }
+        };
+    }
+
+    public void clear() {
+        chunks.clear();
+        headSequence = tailSequence;
+        forceFullSnapshot = true;
+    }
+
+    public Snapshot getSnapshot() {
+        int size = size();
+        int retained = (int) Math.min(addedSinceLastSnapshot, size);
+        Snapshot snapshot;
+        // The rows are copied into new queues, hence the snapshots are detached from this queue
+        if (forceFullSnapshot || retained == size || SnapshotRequest.isRequestForFullSnapshot()) {
+            forceFullSnapshot = false;
+            snapshot = new Snapshot(copy(headSequence, size), false, true);
+        } else {
+            int removed = sizeAtLastSnapshot - (size - retained);
+            snapshot = new Snapshot(new Increment(removed, copy(tailSequence - retained, retained)), true, true);
+        }
+        sizeAtLastSnapshot = size;
+        addedSinceLastSnapshot = 0;
+        return snapshot;
+    }
+
+    public void restore(SnapshotStateList snapshotStateList) {
+        for (Map.Entry<Long, Snapshot> snapshotEntry : snapshotStateList.getSnapshotStates().entrySet()) {
+            Snapshot snapshot = snapshotEntry.getValue();
+            if (!snapshot.isIncrementalSnapshot()) {
+                clear();
+                addAll((ColumnarStreamEventQueue) snapshot.getState());
+            } else {
+                Increment increment = (Increment) snapshot.getState();
+                for (int i = 0; i < increment.removed && !isEmpty(); i++) {
+                    removeFirst();
+                }
+                addAll(increment.added);
+            }
+        }
+        forceFullSnapshot = false;
+        sizeAtLastSnapshot = size();
+        addedSinceLastSnapshot = 0;
+    }
+
+    private void initLayout() {
+        List<Attribute> beforeWindowData = metaStreamEvent.getBeforeWindowData();
+        List<Attribute> onAfterWindowData = metaStreamEvent.getOnAfterWindowData();
+        List<Attribute> outputData = metaStreamEvent.getOutputData();
+        beforeWindowDataSize = beforeWindowData.size();
+        onAfterWindowDataSize = onAfterWindowData.size();
+        outputDataSize = outputData.size();
+        Attribute.Type[] types = new Attribute.Type[beforeWindowDataSize + onAfterWindowDataSize + outputDataSize];
+        int index = 0;
+        for (Attribute attribute : beforeWindowData) {
+            types[index++] = attribute.getType();
+        }
+        for (Attribute attribute : onAfterWindowData) {
+            types[index++] = attribute.getType();
+        }
+        for (Attribute attribute : outputData) {
+            types[index++] = attribute.getType();
+        }
+        this.types = types;
+    }
+
+    private void removeFirst() {
+        Chunk chunk = chunks.peekFirst();
+        int row = (int) (headSequence - chunk.startSequence);
+        chunk.release(row);
+        headSequence++;
+        if (row == chunk.capacity() - 1) {
+            chunks.pollFirst();
+        }
+    }
+
+    private StreamEvent createEvent(long sequence) {
+        if (streamEventFactory == null) {
+            streamEventFactory = new StreamEventFactory(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+        }
+        StreamEvent streamEvent = streamEventFactory.newInstance();
+        streamEvent.setType(eventType);
+        Chunk chunk = findChunk(sequence);
+        readRow(chunk, (int) (sequence - chunk.startSequence), streamEvent);
+        return streamEvent;
+    }
+
+    private void readRow(Chunk chunk, int row, StreamEvent streamEvent) {
+        streamEvent.setTimestamp(chunk.timestamps[row]);
+        int column = 0;
+        for (int i = 0; i < beforeWindowDataSize; i++) {
+            streamEvent.getBeforeWindowData()[i] = chunk.columns[column++].get(row);
+        }
+        for (int i = 0; i < onAfterWindowDataSize; i++) {
+            streamEvent.getOnAfterWindowData()[i] = chunk.columns[column++].get(row);
+        }
+        for (int i = 0; i < outputDataSize; i++) {
+            streamEvent.getOutputData()[i] = chunk.columns[column++].get(row);
+        }
+    }
+
+    private Chunk findChunk(long sequence) {
+        for (Chunk chunk : chunks) {
+            if (sequence < chunk.startSequence + chunk.capacity()) {
+                return chunk;
+            }
+        }
+        throw new IllegalStateException("Sequence " + sequence + " is not available in the queue");
+    }
+
+    private ColumnarStreamEventQueue copy(long fromSequence, int count) {
+        ColumnarStreamEventQueue copy = new ColumnarStreamEventQueue(this);
+        Chunk chunk = null;
+        for (long sequence = fromSequence; sequence < fromSequence + count; sequence++) {
+            if (chunk == null || sequence >= chunk.startSequence + chunk.capacity()) {
+                chunk = findChunk(sequence);
+            }
+            copy.addRow(chunk, (int) (sequence - chunk.startSequence), count);
+        }
+        return copy;
+    }
+
+    private void addAll(ColumnarStreamEventQueue queue) {
+        if (types == null) {
+            initLayout();
+        }
+        for (Chunk chunk : queue.chunks) {
+            for (int row = (int) Math.max(queue.headSequence - chunk.startSequence, 0); row < chunk.size; row++) {
+                addRow(chunk, row, MAX_CHUNK_SIZE);
+            }
+        }
+    }
+
+    private void addRow(Chunk source, int row, int expectedSize) {
+        Chunk chunk = chunks.peekLast();
+        if (chunk == null || chunk.isFull()) {
+            int chunkSize = chunk == null ? Math.min(Math.max(expectedSize, 1), MAX_CHUNK_SIZE) :
+                    Math.min(chunk.capacity() << 1, MAX_CHUNK_SIZE);
+            chunk = new Chunk(tailSequence, chunkSize, types);
+            chunks.addLast(chunk);
+        }
+        chunk.timestamps[chunk.size] = source.timestamps[row];
+        for (int i = 0; i < types.length; i++) {
+            chunk.set(i, source.columns[i].get(row));
+        }
+        chunk.size++;
+        tailSequence++;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarStreamEventQueue{" +
+                "size=" + size() +
+                ", chunks=" + chunks.size() +
+                '}';
+    }
+
+    /**
+     * Changes of the queue since the previous snapshot.
+     */
+    private static class Increment implements Serializable {
+
+        private static final long serialVersionUID = 4469321735486190117L;
+        private final int removed;
+        private final ColumnarStreamEventQueue added;
+
+        private Increment(int removed, ColumnarStreamEventQueue added) {
+            this.removed = removed;
+            this.added = added;
+        }
+    }
+
+    /**
+     * Fixed size block of consecutive events of the queue.
+     */
+    private static class Chunk implements Serializable {
+
+        private static final long serialVersionUID = -8316434409165011434L;
+        private final long startSequence;
+        private final long[] timestamps;
+        private final Column[] columns;
+        private int size;
+
+        private Chunk(long startSequence, int capacity, Attribute.Type[] types) {
+            this.startSequence = startSequence;
+            this.timestamps = new long[capacity];
+            this.columns = new Column[types.length];
+            for (int i = 0; i < types.length; i++) {
+                columns[i] = Column.create(types[i], capacity);
+            }
+        }
+
+        private int capacity() {
+            return timestamps.length;
+        }
+
+        private boolean isFull() {
+            return size == timestamps.length;
+        }
+
+        private void add(StreamEvent streamEvent, int beforeWindowDataSize, int onAfterWindowDataSize,
+                         int outputDataSize) {
+            timestamps[size] = streamEvent.getTimestamp();
+            int column = 0;
+            for (int i = 0; i < beforeWindowDataSize; i++) {
+                set(column++, streamEvent.getBeforeWindowData()[i]);
+            }
+            for (int i = 0; i < onAfterWindowDataSize; i++) {
+                set(column++, streamEvent.getOnAfterWindowData()[i]);
+            }
+            for (int i = 0; i < outputDataSize; i++) {
+                set(column++, streamEvent.getOutputData()[i]);
+            }
+            size++;
+        }
+
+        private void set(int column, Object value) {
+            try {
+                columns[column].set(size, value);
+            } catch (ClassCastException e) {
+                // value does not conform to the attribute type, hence fall back to keeping references
+                columns[column] = columns[column].toObjectColumn(size);
+                columns[column].set(size, value);
+            }
+        }
+
+        private void release(int row) {
+            for (Column column : columns) {
+                column.release(row);
+            }
+        }
+    }
+
+    /**
+     * Values of a single attribute, stored in a primitive array where the attribute type permits.
+     */
+    private abstract static class Column implements Serializable {
+
+        private static final long serialVersionUID = 2212254766312360513L;
+        protected boolean[] nulls;
+
+        private static Column create(Attribute.Type type, int capacity) {
+            switch (type) {
+                case INT:
+                    return new IntColumn(capacity);
+                case LONG:
+                    return new LongColumn(capacity);
+                case FLOAT:
+                    return new FloatColumn(capacity);
+                case DOUBLE:
+                    return new DoubleColumn(capacity);
+                case BOOL:
+                    return new BoolColumn(capacity);
+                default:
+                    return new ObjectColumn(capacity);
+            }
+        }
+
+        void set(int row, Object value) {
+            if (value == null) {
+                if (nulls == null) {
+                    nulls = new boolean[capacity()];
+                }
+                nulls[row] = true;
+            } else {
+                setValue(row, value);
+            }
+        }
+
+        Object get(int row) {
+            if (nulls != null && nulls[row]) {
+                return null;
+            }
+            return getValue(row);
+        }
+
+        void release(int row) {
+            //Do nothing
+        }
+
+        Column toObjectColumn(int size) {
+            ObjectColumn objectColumn = new ObjectColumn(capacity());
+            for (int row = 0; row < size; row++) {
+                objectColumn.values[row] = get(row);
+            }
+            return objectColumn;
+        }
+
+        abstract int capacity();
+
+        abstract void setValue(int row, Object value);
+
+        abstract Object getValue(int row);
+    }
+
+    private static class IntColumn extends Column {
+
+        private static final long serialVersionUID = -1419287403788757101L;
+        private final int[] values;
+
+        private IntColumn(int capacity) {
+            values = new int[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = (Integer) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class LongColumn extends Column {
+
+        private static final long serialVersionUID = 7546413468420322547L;
+        private final long[] values;
+
+        private LongColumn(int capacity) {
+            values = new long[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = (Long) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class FloatColumn extends Column {
+
+        private static final long serialVersionUID = 5930285496457925183L;
+        private final float[] values;
+
+        private FloatColumn(int capacity) {
+            values = new float[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = (Float) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+
+        private static final long serialVersionUID = -5214689226520346131L;
+        private final double[] values;
+
+        private DoubleColumn(int capacity) {
+            values = new double[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = (Double) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class BoolColumn extends Column {
+
+        private static final long serialVersionUID = 3301587713941470683L;
+        private final boolean[] values;
+
+        private BoolColumn(int capacity) {
+            values = new boolean[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = (Boolean) value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+
+        private static final long serialVersionUID = -6996153263860171424L;
+        private final Object[] values;
+
+        private ObjectColumn(int capacity) {
+            values = new Object[capacity];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void setValue(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void release(int row) {
+            values[row] = null;
+        }
+    }
+}
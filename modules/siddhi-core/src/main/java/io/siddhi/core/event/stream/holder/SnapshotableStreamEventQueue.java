@@ -64,7 +64,10 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             if (isOperationLogEnabled) {
                 operationChangeLog.add(new Operation(Operator.ADD, copyEvents(events)));
             }
-            operationChangeLogSize++;
+            // Counted per event, as the compacted change log records consecutive adds as a single add
+            for (StreamEvent event = events; event != null; event = event.getNext()) {
+                operationChangeLogSize++;
+            }
         } else {
             operationChangeLog.clear();
             operationChangeLogSize = 0;
@@ -99,6 +102,9 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         }
         if (previousToLastReturned != null) {
             previousToLastReturned.setNext(lastReturned.getNext());
+            if (lastReturned.getNext() == null) {
+                last = previousToLastReturned;
+            }
         } else {
             first = lastReturned.getNext();
             if (first == null) {
@@ -276,12 +282,147 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             forceFullSnapshot = false;
             return new Snapshot(this.getFirst(), false);
         } else {
-            Snapshot snapshot = new Snapshot(operationChangeLog, true);
+            ArrayList<Operation> compactedOperationChangeLog = compactOperationChangeLog();
+            Snapshot snapshot = new Snapshot(compactedOperationChangeLog, true);
             operationChangeLog = new ArrayList<>();
             return snapshot;
         }
     }
 
+    /**
+     * Compact the operation change log such that events added and then removed or overwritten within the same
+     * increment are not recorded. The events existed at the last snapshot always precede the events added after
+     * that, hence operations on them are retained in order, and the surviving added events are recorded as a single
+     * add operation at the end.
+     *
+     * @return compacted operation change log
+     */
+    private ArrayList<Operation> compactOperationChangeLog() {
+        int lastClearIndex = -1;
+        for (int i = 0; i < operationChangeLog.size(); i++) {
+            if (operationChangeLog.get(i).operation == Operator.CLEAR) {
+                lastClearIndex = i;
+            }
+        }
+        int netSizeChange = 0;
+        for (int i = lastClearIndex + 1; i < operationChangeLog.size(); i++) {
+            Operation op = operationChangeLog.get(i);
+            if (op.operation == Operator.ADD) {
+                for (StreamEvent event = (StreamEvent) op.parameters; event != null; event = event.getNext()) {
+                    netSizeChange++;
+                }
+            } else if (op.operation == Operator.REMOVE || op.operation == Operator.DELETE_BY_INDEX) {
+                netSizeChange--;
+            }
+        }
+        int baseSize = 0;
+        if (lastClearIndex == -1) {
+            for (StreamEvent event = first; event != null; event = event.getNext()) {
+                baseSize++;
+            }
+            baseSize -= netSizeChange;
+            if (baseSize < 0) {
+                return operationChangeLog;
+            }
+        }
+        ArrayList<Operation> compactedOperationChangeLog = new ArrayList<>();
+        if (lastClearIndex != -1) {
+            compactedOperationChangeLog.add(operationChangeLog.get(lastClearIndex));
+        }
+        ArrayList<StreamEvent> addedEvents = new ArrayList<>();
+        int addedEventsHead = 0;
+        for (int i = lastClearIndex + 1; i < operationChangeLog.size(); i++) {
+            Operation op = operationChangeLog.get(i);
+            switch (op.operation) {
+                case ADD:
+                    for (StreamEvent event = (StreamEvent) op.parameters; event != null; event = event.getNext()) {
+                        addedEvents.add(event);
+                    }
+                    break;
+                case REMOVE:
+                    if (baseSize > 0) {
+                        compactedOperationChangeLog.add(op);
+                        baseSize--;
+                    } else if (addedEventsHead < addedEvents.size()) {
+                        addedEvents.set(addedEventsHead++, null);
+                    } else {
+                        return operationChangeLog;
+                    }
+                    break;
+                case DELETE_BY_INDEX:
+                    int deleteIndex = (int) op.parameters;
+                    if (deleteIndex < baseSize) {
+                        compactedOperationChangeLog.add(op);
+                        baseSize--;
+                    } else if (deleteIndex == baseSize && addedEventsHead < addedEvents.size()) {
+                        addedEvents.set(addedEventsHead++, null);
+                    } else if (addedEventsHead + deleteIndex - baseSize < addedEvents.size()) {
+                        addedEvents.remove(addedEventsHead + deleteIndex - baseSize);
+                    } else {
+                        return operationChangeLog;
+                    }
+                    break;
+                case OVERWRITE:
+                    int overwriteIndex = (int) ((Object[]) op.parameters)[0];
+                    if (overwriteIndex < baseSize) {
+                        compactedOperationChangeLog.add(op);
+                    } else if (addedEventsHead + overwriteIndex - baseSize < addedEvents.size()) {
+                        addedEvents.set(addedEventsHead + overwriteIndex - baseSize,
+                                (StreamEvent) ((Object[]) op.parameters)[1]);
+                    } else {
+                        return operationChangeLog;
+                    }
+                    break;
+                default:
+                    // other operations do not change the queue
+                    break;
+            }
+        }
+        StreamEvent lastAddedEvent = null;
+        for (int i = addedEvents.size() - 1; i >= addedEventsHead; i--) {
+            StreamEvent addedEvent = addedEvents.get(i);
+            addedEvent.setNext(lastAddedEvent);
+            lastAddedEvent = addedEvent;
+        }
+        if (lastAddedEvent != null) {
+            compactedOperationChangeLog.add(new Operation(Operator.ADD, lastAddedEvent));
+        }
+        return compactedOperationChangeLog;
+    }
+
+    /**
+     * Merge a base snapshot and the increments taken after it into a new base snapshot. The events of the given
+     * snapshots are reused by the merged snapshot.
+     *
+     * @param snapshotStateList base snapshot followed by its increments
+     * @return merged base snapshot, or null if the snapshots are not of a {@link SnapshotableStreamEventQueue}
+     */
+    public static Snapshot merge(SnapshotStateList snapshotStateList) {
+        TreeMap<Long, Snapshot> snapshots = snapshotStateList.getSnapshotStates();
+        if (snapshots.isEmpty() || snapshots.firstEntry().getValue().isIncrementalSnapshot()) {
+            return null;
+        }
+        for (Snapshot snapshot : snapshots.values()) {
+            if (!isMergeable(snapshot)) {
+                return null;
+            }
+        }
+        SnapshotableStreamEventQueue eventQueue = new SnapshotableStreamEventQueue(null);
+        eventQueue.restore(snapshotStateList);
+        return new Snapshot(eventQueue.getFirst(), false);
+    }
+
+    /**
+     * Check whether the snapshot can be merged by {@link #merge(SnapshotStateList)}.
+     *
+     * @param snapshot base or incremental snapshot
+     * @return true if the snapshot is of a {@link SnapshotableStreamEventQueue}
+     */
+    public static boolean isMergeable(Snapshot snapshot) {
+        return snapshot.isIncrementalSnapshot() ? snapshot.getState() instanceof ArrayList :
+                snapshot.getState() == null || snapshot.getState() instanceof StreamEvent;
+    }
+
     private boolean isFullSnapshot() {
         return operationChangeLogSize > 100 || operationChangeLogSize > operationChangeLogThreshold
                 || forceFullSnapshot || SnapshotRequest.isRequestForFullSnapshot();
@@ -314,6 +455,9 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
                         case OVERWRITE:
                             int overwriteIndex = (int) ((Object[]) op.parameters)[0];
                             StreamEvent streamEvent = (StreamEvent) ((Object[]) op.parameters)[1];
+                            if (overwriteIndex <= eventIndex) {
+                                reset();
+                            }
                             while (hasNext()) {
                                 next();
                                 if (overwriteIndex == eventIndex) {
@@ -326,6 +470,9 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
                             break;
                         case DELETE_BY_INDEX:
                             int deleteIndex = (int) op.parameters;
+                            if (deleteIndex <= eventIndex) {
+                                reset();
+                            }
                             while (hasNext()) {
                                 next();
                                 if (deleteIndex == eventIndex) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor;
+
+import io.siddhi.core.event.ComplexEvent;
+
+/**
+ * Expression Executor that can evaluate its result as a Java primitive without boxing. Callers must first check
+ * {@link #isNull(ComplexEvent)}, as primitive results cannot represent Siddhi null values, and should only use the
+ * primitive methods when {@link #isPrimitive()} returns true.
+ */
+public interface PrimitiveExpressionExecutor extends ExpressionExecutor {
+
+    /**
+     * Checks whether the given executor and all of its operands can be evaluated through the primitive methods.
+     *
+     * @param expressionExecutor executor to be checked
+     * @return true if primitive evaluation is supported
+     */
+    static boolean canExecutePrimitive(ExpressionExecutor expressionExecutor) {
+        return expressionExecutor instanceof PrimitiveExpressionExecutor &&
+                ((PrimitiveExpressionExecutor) expressionExecutor).isPrimitive();
+    }
+
+    /**
+     * @return true if this executor and all of its operands support primitive evaluation
+     */
+    boolean isPrimitive();
+
+    /**
+     * @param event the event to be evaluated
+     * @return true if the result of the expression for the given event is null
+     */
+    boolean isNull(ComplexEvent event);
+
+    default int executeInt(ComplexEvent event) {
+        return ((Number) execute(event)).intValue();
+    }
+
+    default long executeLong(ComplexEvent event) {
+        return ((Number) execute(event)).longValue();
+    }
+
+    default float executeFloat(ComplexEvent event) {
+        return ((Number) execute(event)).floatValue();
+    }
+
+    default double executeDouble(ComplexEvent event) {
+        return ((Number) execute(event)).doubleValue();
+    }
+
+}
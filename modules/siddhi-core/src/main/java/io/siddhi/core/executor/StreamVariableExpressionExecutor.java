@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Optimized form of {@link VariableExpressionExecutor} used by single stream queries. The attribute position is
+ * resolved once the query is parsed, and the attribute is read directly from the data array of the
+ * {@link StreamEvent} without going through the position array.
+ */
+public class StreamVariableExpressionExecutor extends VariableExpressionExecutor {
+
+    private final int attributeTypeIndex;
+    private final int attributeIndex;
+
+    public StreamVariableExpressionExecutor(VariableExpressionExecutor variableExpressionExecutor) {
+        super(variableExpressionExecutor.getAttribute(), 0, 0);
+        int[] position = variableExpressionExecutor.getPosition();
+        setPosition(position);
+        this.attributeTypeIndex = position[STREAM_ATTRIBUTE_TYPE_INDEX];
+        this.attributeIndex = position[STREAM_ATTRIBUTE_INDEX_IN_TYPE];
+    }
+
+    @Override
+    public Object execute(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            StreamEvent streamEvent = (StreamEvent) event;
+            switch (attributeTypeIndex) {
+                case BEFORE_WINDOW_DATA_INDEX:
+                    return streamEvent.getBeforeWindowData()[attributeIndex];
+                case ON_AFTER_WINDOW_DATA_INDEX:
+                    return streamEvent.getOnAfterWindowData()[attributeIndex];
+                default:
+                    return streamEvent.getOutputData()[attributeIndex];
+            }
+        }
+        return super.execute(event);
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return execute(event) == null;
+        }
+        return super.isNull(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return ((Number) execute(event)).intValue();
+        }
+        return super.executeInt(event);
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return ((Number) execute(event)).longValue();
+        }
+        return super.executeLong(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return ((Number) execute(event)).floatValue();
+        }
+        return super.executeFloat(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return ((Number) execute(event)).doubleValue();
+        }
+        return super.executeDouble(event);
+    }
+}
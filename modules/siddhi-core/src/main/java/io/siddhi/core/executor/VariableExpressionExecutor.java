@@ -19,6 +19,7 @@
 package io.siddhi.core.executor;
 
 import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.converter.ColumnarEventCursor;
 import io.siddhi.query.api.definition.Attribute;
 
 import static io.siddhi.core.util.SiddhiConstants.STREAM_EVENT_CHAIN_INDEX;
@@ -29,7 +30,7 @@ import static io.siddhi.core.util.SiddhiConstants.UNKNOWN_STATE;
  * Executor class for Siddhi event attributes. This executor is used to extract attribute value from
  * {@link ComplexEvent}.
  */
-public class VariableExpressionExecutor implements ExpressionExecutor {
+public class VariableExpressionExecutor implements PrimitiveExpressionExecutor {
     private Attribute attribute;
     private int[] position = new int[]{UNKNOWN_STATE, UNKNOWN_STATE, UNKNOWN_STATE, UNKNOWN_STATE};
     //Position[stream event chain index, stream event index, stream attribute type index, stream attribute index]
@@ -46,6 +47,59 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return event.getAttribute(position);
     }
 
+    @Override
+    public boolean isPrimitive() {
+        switch (attribute.getType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        if (event instanceof ColumnarEventCursor) {
+            return ((ColumnarEventCursor) event).isNull(position);
+        }
+        return event.getAttribute(position) == null;
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        if (event instanceof ColumnarEventCursor) {
+            return ((ColumnarEventCursor) event).getInt(position);
+        }
+        return ((Number) event.getAttribute(position)).intValue();
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        if (event instanceof ColumnarEventCursor) {
+            return ((ColumnarEventCursor) event).getLong(position);
+        }
+        return ((Number) event.getAttribute(position)).longValue();
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        if (event instanceof ColumnarEventCursor) {
+            return ((ColumnarEventCursor) event).getFloat(position);
+        }
+        return ((Number) event.getAttribute(position)).floatValue();
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        if (event instanceof ColumnarEventCursor) {
+            return ((ColumnarEventCursor) event).getDouble(position);
+        }
+        return ((Number) event.getAttribute(position)).doubleValue();
+    }
+
 
     public Attribute.Type getReturnType() {
         return attribute.getType();
@@ -49,4 +49,13 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return executeBoolean(conditionExecutor, event);
+    }
+
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
 }
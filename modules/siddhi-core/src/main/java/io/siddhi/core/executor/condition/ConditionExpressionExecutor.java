@@ -34,4 +34,23 @@ public abstract class ConditionExpressionExecutor implements ExpressionExecutor
 
     public abstract Boolean execute(ComplexEvent event);
 
+    /**
+     * Evaluates the condition as a primitive, treating null results as false.
+     *
+     * @param event the event to be evaluated
+     * @return result of the condition
+     */
+    public boolean executeBoolean(ComplexEvent event) {
+        Boolean result = execute(event);
+        return result != null && result;
+    }
+
+    protected static boolean executeBoolean(ExpressionExecutor conditionExecutor, ComplexEvent event) {
+        if (conditionExecutor instanceof ConditionExpressionExecutor) {
+            return ((ConditionExpressionExecutor) conditionExecutor).executeBoolean(event);
+        }
+        Object result = conditionExecutor.execute(event);
+        return result != null && (Boolean) result;
+    }
+
 }
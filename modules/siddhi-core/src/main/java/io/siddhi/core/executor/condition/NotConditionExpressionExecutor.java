@@ -41,12 +41,16 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
     }
 
     public Boolean execute(ComplexEvent event) {
-        Boolean result = (Boolean) conditionExecutor.execute(event);
-        if (result == Boolean.TRUE) {
-            return Boolean.FALSE;
-        } else {
-            return Boolean.TRUE;
-        }
+        return executeBoolean(event) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return !executeBoolean(conditionExecutor, event);
+    }
+
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
     }
 
 }
@@ -63,16 +63,20 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
     }
 
     public Boolean execute(ComplexEvent event) {
-        Object leftResult = leftConditionExecutor.execute(event);
-        if (leftResult != null && (Boolean) leftResult) {
-            return Boolean.TRUE;
-        } else {
-            Object rightResult = rightConditionExecutor.execute(event);
-            if (rightResult != null && (Boolean) rightResult) {
-                return Boolean.TRUE;
-            }
-        }
-        return Boolean.FALSE;
+        return executeBoolean(event) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return executeBoolean(leftConditionExecutor, event) || executeBoolean(rightConditionExecutor, event);
+    }
+
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
     }
 
 }
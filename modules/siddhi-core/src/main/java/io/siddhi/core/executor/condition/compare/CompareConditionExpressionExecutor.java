@@ -19,6 +19,7 @@ package io.siddhi.core.executor.condition.compare;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.PrimitiveExpressionExecutor;
 import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 
 /**
@@ -27,15 +28,31 @@ import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 public abstract class CompareConditionExpressionExecutor extends ConditionExpressionExecutor {
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    protected PrimitiveExpressionExecutor leftPrimitiveExecutor;
+    protected PrimitiveExpressionExecutor rightPrimitiveExecutor;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (PrimitiveExpressionExecutor.canExecutePrimitive(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.canExecutePrimitive(rightExpressionExecutor)) {
+            this.leftPrimitiveExecutor = (PrimitiveExpressionExecutor) leftExpressionExecutor;
+            this.rightPrimitiveExecutor = (PrimitiveExpressionExecutor) rightExpressionExecutor;
+        }
     }
 
 
     public Boolean execute(ComplexEvent event) {
+        return executeBoolean(event) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        if (leftPrimitiveExecutor != null) {
+            return !(leftPrimitiveExecutor.isNull(event) || rightPrimitiveExecutor.isNull(event)) &&
+                    executePrimitive(event);
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
@@ -43,6 +60,17 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected abstract Boolean execute(Object left, Object right);
 
+    /**
+     * Compares the operands through their primitive values. Only invoked when both operands support primitive
+     * evaluation and neither of them evaluates to null.
+     *
+     * @param event the event to be evaluated
+     * @return result of the comparison
+     */
+    protected boolean executePrimitive(ComplexEvent event) {
+        return execute(leftExpressionExecutor.execute(event), rightExpressionExecutor.execute(event));
+    }
+
     public ExpressionExecutor getLeftExpressionExecutor() {
         return leftExpressionExecutor;
     }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -39,4 +40,10 @@ public class EqualCompareConditionExpressionExecutorDoubleDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left == right;
+    }
 }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class EqualCompareConditionExpressionExecutorDoubleInt extends
         return (Double) left == ((Integer) right).doubleValue();
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left == (double) right;
+    }
 }
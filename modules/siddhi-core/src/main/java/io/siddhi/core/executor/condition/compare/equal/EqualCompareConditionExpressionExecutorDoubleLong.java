@@ -18,6 +18,7 @@
 
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class EqualCompareConditionExpressionExecutorDoubleLong extends
         return (Double) left == ((Long) right).doubleValue();
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return left == (double) right;
+    }
 }
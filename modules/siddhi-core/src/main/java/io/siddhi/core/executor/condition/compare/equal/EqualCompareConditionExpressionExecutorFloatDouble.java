@@ -18,6 +18,7 @@
 
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class EqualCompareConditionExpressionExecutorFloatDouble extends
         return ((Float) left).doubleValue() == (Double) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return (double) left == right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,10 @@ public class EqualCompareConditionExpressionExecutorFloatFloat extends
         return ((Float) left).floatValue() == ((Float) right).floatValue();
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return left == right;
+    }
 }
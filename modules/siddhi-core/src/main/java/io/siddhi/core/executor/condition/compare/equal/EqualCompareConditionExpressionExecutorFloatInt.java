@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class EqualCompareConditionExpressionExecutorFloatInt extends
         return (Float) left == ((Integer) right).floatValue();
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left == (float) right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class EqualCompareConditionExpressionExecutorFloatLong extends
         return ((Float) left).doubleValue() == ((Long) right).doubleValue();
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return (double) left == (double) right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class EqualCompareConditionExpressionExecutorIntDouble extends
         return ((Integer) left).doubleValue() == (Double) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return (double) left == right;
+    }
 }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class EqualCompareConditionExpressionExecutorIntFloat extends
         return ((Integer) left).floatValue() == (Float) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return (float) left == right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class EqualCompareConditionExpressionExecutorIntLong extends
     protected Boolean execute(Object left, Object right) {
         return ((Integer) left).longValue() == (Long) right;
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return (long) left == right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class EqualCompareConditionExpressionExecutorLongFloat
     protected Boolean execute(Object left, Object right) {
         return ((Long) left).doubleValue() == ((Float) right).doubleValue();
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        long left = leftPrimitiveExecutor.executeLong(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return (double) left == (double) right;
+    }
 }
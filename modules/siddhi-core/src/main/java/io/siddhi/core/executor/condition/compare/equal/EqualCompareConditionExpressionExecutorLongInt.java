@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.equal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class EqualCompareConditionExpressionExecutorLongInt extends
     protected Boolean execute(Object left, Object right) {
         return (Long) left == ((Integer) right).longValue();
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        long left = leftPrimitiveExecutor.executeLong(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left == (long) right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleDouble extends
     protected Boolean execute(Object left, Object right) {
         return (Double) left > (Double) right;
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -35,4 +36,11 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleFloat extends
     protected Boolean execute(Object left, Object right) {
         return (Double) left > (Float) right;
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return left > right;
+    }
 }
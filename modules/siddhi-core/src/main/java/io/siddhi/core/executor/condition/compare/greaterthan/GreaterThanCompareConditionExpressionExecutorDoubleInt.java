@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,10 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleInt extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class GreaterThanCompareConditionExpressionExecutorFloatDouble extends
         return (Float) left > (Double) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,10 @@ public class GreaterThanCompareConditionExpressionExecutorFloatFloat extends
         return (Float) left > (Float) right;
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,10 @@ public class GreaterThanCompareConditionExpressionExecutorFloatInt extends
         return (Float) left > (Integer) right;
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class GreaterThanCompareConditionExpressionExecutorFloatLong extends
         return (Float) left > (Long) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return left > right;
+    }
 }
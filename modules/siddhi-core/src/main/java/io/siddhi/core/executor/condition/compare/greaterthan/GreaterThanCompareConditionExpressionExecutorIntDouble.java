@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,10 @@ public class GreaterThanCompareConditionExpressionExecutorIntDouble extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,10 @@ public class GreaterThanCompareConditionExpressionExecutorIntInt extends Greater
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -37,4 +38,11 @@ public class GreaterThanCompareConditionExpressionExecutorIntLong extends
         return (Integer) left > (Long) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return left > right;
+    }
 }
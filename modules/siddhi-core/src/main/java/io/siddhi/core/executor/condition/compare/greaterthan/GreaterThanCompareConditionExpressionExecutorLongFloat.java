@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class GreaterThanCompareConditionExpressionExecutorLongFloat
         return (Long) left > (Float) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        long left = leftPrimitiveExecutor.executeLong(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return left > right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class GreaterThanCompareConditionExpressionExecutorLongInt extends
         return (Long) left > (Integer) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        long left = leftPrimitiveExecutor.executeLong(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left > right;
+    }
 }
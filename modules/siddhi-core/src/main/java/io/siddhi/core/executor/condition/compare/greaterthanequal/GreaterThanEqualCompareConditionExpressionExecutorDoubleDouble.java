@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -39,4 +40,10 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble exte
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left >= right;
+    }
 }
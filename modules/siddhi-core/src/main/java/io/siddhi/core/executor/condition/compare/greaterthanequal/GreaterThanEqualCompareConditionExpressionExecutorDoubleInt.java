@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -39,4 +40,10 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleInt extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left >= right;
+    }
 }
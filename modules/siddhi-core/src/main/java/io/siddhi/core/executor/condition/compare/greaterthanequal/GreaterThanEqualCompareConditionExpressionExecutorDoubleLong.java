@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -39,4 +40,10 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleLong extend
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        long right = rightPrimitiveExecutor.executeLong(event);
+        return left >= right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class GreaterThanEqualCompareConditionExpressionExecutorFloatDouble exten
         return (Float) left >= (Double) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        float left = leftPrimitiveExecutor.executeFloat(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left >= right;
+    }
 }
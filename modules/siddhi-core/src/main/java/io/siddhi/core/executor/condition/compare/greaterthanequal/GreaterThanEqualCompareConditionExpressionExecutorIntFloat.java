@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class GreaterThanEqualCompareConditionExpressionExecutorIntFloat extends
         return (Integer) left >= (Float) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        float right = rightPrimitiveExecutor.executeFloat(event);
+        return left >= right;
+    }
 }
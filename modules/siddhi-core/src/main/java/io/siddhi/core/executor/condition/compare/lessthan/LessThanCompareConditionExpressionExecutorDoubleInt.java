@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.lessthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,10 @@ public class LessThanCompareConditionExpressionExecutorDoubleInt extends
 
     }
 
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left < right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.lessthan;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -36,4 +37,11 @@ public class LessThanCompareConditionExpressionExecutorIntInt extends LessThanCo
         return (Integer) left < (Integer) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        int left = leftPrimitiveExecutor.executeInt(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left < right;
+    }
 }
@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.lessthanequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class LessThanEqualCompareConditionExpressionExecutorDoubleInt extends
         return (Double) left <= (Integer) right;
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        int right = rightPrimitiveExecutor.executeInt(event);
+        return left <= right;
+    }
 }
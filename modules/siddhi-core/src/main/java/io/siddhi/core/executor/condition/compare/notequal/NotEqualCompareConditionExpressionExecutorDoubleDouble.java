@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.executor.condition.compare.notequal;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
 
 /**
@@ -38,4 +39,11 @@ public class NotEqualCompareConditionExpressionExecutorDoubleDouble extends
         return ((Double) left).doubleValue() != ((Double) right).doubleValue();
 
     }
+
+    @Override
+    protected boolean executePrimitive(ComplexEvent event) {
+        double left = leftPrimitiveExecutor.executeDouble(event);
+        double right = rightPrimitiveExecutor.executeDouble(event);
+        return left != right;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.function;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.HyperLogLog;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+
+/**
+ * Executor class for createHyperLogLog function. Function execution logic is implemented in execute here.
+ */
+@Extension(
+        name = "createHyperLogLog",
+        namespace = "",
+        description = "Includes the given input parameter in a HyperLogLog sketch and returns the sketch.",
+        parameters = {
+                @Parameter(name = "input",
+                        description = "The input that needs to be added into the sketch.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE,
+                                DataType.FLOAT, DataType.STRING, DataType.BOOL},
+                        dynamic = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"input"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "The HyperLogLog sketch that includes the input element.",
+                type = {DataType.OBJECT}),
+        examples = @Example(
+                syntax = "from pageVisitStream \n" +
+                        "select createHyperLogLog(userId) as userSketch \n" +
+                        "insert into sketchStream;",
+                description = "For every incoming pageVisitStream event, the sketchStream stream will produce a " +
+                        "HyperLogLog sketch object having only the userId in the incoming pageVisitStream."
+        )
+)
+public class CreateHyperLogLogFunctionExecutor extends FunctionExecutor {
+
+    @Override
+    protected StateFactory init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                                SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new SiddhiAppValidationException("createHyperLogLog() function has to have exactly 1 parameter, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.OBJECT) {
+            throw new OperationNotSupportedException("createHyperLogLog() function not supported for type: " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        return null;
+    }
+
+    @Override
+    protected Object execute(Object[] data, State state) {
+        return null; //Since the createHyperLogLog function takes in only 1 parameter, this method does not get
+        // called. Hence, not implemented.
+    }
+
+    @Override
+    protected Object execute(Object data, State state) {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        hyperLogLog.offer(data);
+        return hyperLogLog;
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.OBJECT;
+    }
+}
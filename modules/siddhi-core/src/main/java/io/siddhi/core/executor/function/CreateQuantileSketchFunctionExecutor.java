@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.function;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.QuantileSketch;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+
+/**
+ * Executor class for createQuantileSketch function. Function execution logic is implemented in execute here.
+ */
+@Extension(
+        name = "createQuantileSketch",
+        namespace = "",
+        description = "Includes the given input parameter in a quantile sketch having a relative error of 1% and " +
+                "returns the sketch.",
+        parameters = {
+                @Parameter(name = "input",
+                        description = "The input that needs to be added into the sketch.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT},
+                        dynamic = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"input"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "The quantile sketch that includes the input element.",
+                type = {DataType.OBJECT}),
+        examples = @Example(
+                syntax = "from requestStream \n" +
+                        "select createQuantileSketch(latency) as latencySketch \n" +
+                        "insert into sketchStream;",
+                description = "For every incoming requestStream event, the sketchStream stream will produce a " +
+                        "quantile sketch object having only the latency in the incoming requestStream."
+        )
+)
+public class CreateQuantileSketchFunctionExecutor extends FunctionExecutor {
+
+    @Override
+    protected StateFactory init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                                SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new SiddhiAppValidationException("createQuantileSketch() function has to have exactly 1 " +
+                    "parameter, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        switch (attributeExpressionExecutors[0].getReturnType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return null;
+            default:
+                throw new OperationNotSupportedException("createQuantileSketch() function not supported for " +
+                        "type: " + attributeExpressionExecutors[0].getReturnType());
+        }
+    }
+
+    @Override
+    protected Object execute(Object[] data, State state) {
+        return null; //Since the createQuantileSketch function takes in only 1 parameter, this method does not get
+        // called. Hence, not implemented.
+    }
+
+    @Override
+    protected Object execute(Object data, State state) {
+        QuantileSketch quantileSketch = new QuantileSketch();
+        if (data != null) {
+            quantileSketch.add(((Number) data).doubleValue());
+        }
+        return quantileSketch;
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.OBJECT;
+    }
+}
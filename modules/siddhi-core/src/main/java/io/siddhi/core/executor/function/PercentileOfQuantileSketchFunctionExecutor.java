@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.function;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.QuantileSketch;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+
+/**
+ * Executor class for percentileOfQuantileSketch function. Function execution logic is implemented in execute here.
+ */
+@Extension(
+        name = "percentileOfQuantileSketch",
+        namespace = "",
+        description = "Returns the estimated value at the given percentile of the elements included in a quantile " +
+                "sketch.",
+        parameters = {
+                @Parameter(name = "sketch",
+                        description = "The quantile sketch object. A sketch object may be created by the " +
+                                "'createQuantileSketch' function and merged by the 'unionSketch' attribute " +
+                                "aggregator in Siddhi.",
+                        type = {DataType.OBJECT},
+                        dynamic = true),
+                @Parameter(name = "percentile",
+                        description = "The percentile to be estimated, between 0 and 100.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT})
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"sketch", "percentile"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "The estimated value at the given percentile, or null if the sketch is empty.",
+                type = {DataType.DOUBLE}),
+        examples = @Example(
+                syntax = "from sketchStream#window.timeBatch(1 min) \n" +
+                        "select percentileOfQuantileSketch(unionSketch(latencySketch), 99) as p99Latency \n" +
+                        "insert into latencyStream;",
+                description = "The latencyStream stream will output the estimated 99th percentile of the latency " +
+                        "during each minute."
+        )
+)
+public class PercentileOfQuantileSketchFunctionExecutor extends FunctionExecutor {
+
+    private double quantile;
+
+    @Override
+    protected StateFactory init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                                SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 2) {
+            throw new SiddhiAppValidationException("percentileOfQuantileSketch() function has to have exactly 2 " +
+                    "parameters, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.OBJECT) {
+            throw new OperationNotSupportedException("First parameter given for percentileOfQuantileSketch() " +
+                    "function has to be of type object, but found: " +
+                    attributeExpressionExecutors[0].getReturnType());
+        }
+        if (!(attributeExpressionExecutors[1] instanceof ConstantExpressionExecutor)) {
+            throw new SiddhiAppValidationException("Percentile of percentileOfQuantileSketch() function has to be " +
+                    "a constant");
+        }
+        double percentile = ((Number) attributeExpressionExecutors[1].execute(null)).doubleValue();
+        if (percentile < 0 || percentile > 100) {
+            throw new SiddhiAppValidationException("Percentile of percentileOfQuantileSketch() function has to be " +
+                    "between 0 and 100, but found " + percentile);
+        }
+        quantile = percentile / 100;
+        return null;
+    }
+
+    @Override
+    protected Object execute(Object[] data, State state) {
+        if (data[0] == null) {
+            return null;
+        }
+        if (!(data[0] instanceof QuantileSketch)) {
+            throw new SiddhiAppRuntimeException("Input to percentileOfQuantileSketch() function should be a " +
+                    "quantile sketch, but found " + data[0].getClass().getCanonicalName());
+        }
+        return ((QuantileSketch) data[0]).getQuantile(quantile);
+    }
+
+    @Override
+    protected Object execute(Object data, State state) {
+        return null; //Since the percentileOfQuantileSketch function takes in 2 parameters, this method does not get
+        // called. Hence, not implemented.
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+}
@@ -19,20 +19,29 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.PrimitiveExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorDouble implements ExpressionExecutor {
+public class AddExpressionExecutorDouble implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private PrimitiveExpressionExecutor leftPrimitiveExecutor;
+    private PrimitiveExpressionExecutor rightPrimitiveExecutor;
 
 
     public AddExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (PrimitiveExpressionExecutor.canExecutePrimitive(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.canExecutePrimitive(rightExpressionExecutor)) {
+            this.leftPrimitiveExecutor = (PrimitiveExpressionExecutor) leftExpressionExecutor;
+            this.rightPrimitiveExecutor = (PrimitiveExpressionExecutor) rightExpressionExecutor;
+        }
     }
 
     @Override
@@ -45,8 +54,33 @@ public class AddExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() + ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public boolean isPrimitive() {
+        return leftPrimitiveExecutor != null;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftPrimitiveExecutor.isNull(event) || rightPrimitiveExecutor.isNull(event);
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return leftPrimitiveExecutor.executeDouble(event) + rightPrimitiveExecutor.executeDouble(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
 }
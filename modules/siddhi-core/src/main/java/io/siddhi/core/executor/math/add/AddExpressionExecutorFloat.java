@@ -19,19 +19,28 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.PrimitiveExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorFloat implements ExpressionExecutor {
+public class AddExpressionExecutorFloat implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private PrimitiveExpressionExecutor leftPrimitiveExecutor;
+    private PrimitiveExpressionExecutor rightPrimitiveExecutor;
 
     public AddExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
                                       ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (PrimitiveExpressionExecutor.canExecutePrimitive(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.canExecutePrimitive(rightExpressionExecutor)) {
+            this.leftPrimitiveExecutor = (PrimitiveExpressionExecutor) leftExpressionExecutor;
+            this.rightPrimitiveExecutor = (PrimitiveExpressionExecutor) rightExpressionExecutor;
+        }
     }
 
     @Override
@@ -44,8 +53,33 @@ public class AddExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() + ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public boolean isPrimitive() {
+        return leftPrimitiveExecutor != null;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftPrimitiveExecutor.isNull(event) || rightPrimitiveExecutor.isNull(event);
+    }
+
+    @Override
+    public float executeFloat(ComplexEvent event) {
+        return leftPrimitiveExecutor.executeFloat(event) + rightPrimitiveExecutor.executeFloat(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
 }
@@ -19,19 +19,28 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.PrimitiveExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorInt implements ExpressionExecutor {
+public class AddExpressionExecutorInt implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private PrimitiveExpressionExecutor leftPrimitiveExecutor;
+    private PrimitiveExpressionExecutor rightPrimitiveExecutor;
 
     public AddExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                     ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (PrimitiveExpressionExecutor.canExecutePrimitive(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.canExecutePrimitive(rightExpressionExecutor)) {
+            this.leftPrimitiveExecutor = (PrimitiveExpressionExecutor) leftExpressionExecutor;
+            this.rightPrimitiveExecutor = (PrimitiveExpressionExecutor) rightExpressionExecutor;
+        }
     }
 
     @Override
@@ -45,8 +54,33 @@ public class AddExpressionExecutorInt implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean isPrimitive() {
+        return leftPrimitiveExecutor != null;
+    }
+
+    @Override
+    public boolean isNull(ComplexEvent event) {
+        return leftPrimitiveExecutor.isNull(event) || rightPrimitiveExecutor.isNull(event);
+    }
+
+    @Override
+    public int executeInt(ComplexEvent event) {
+        return leftPrimitiveExecutor.executeInt(event) + rightPrimitiveExecutor.executeInt(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
 }
@@ -34,6 +34,7 @@ import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
@@ -91,6 +92,8 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
     private ConcurrentMap<String, StreamJunction> streamJunctionMap;
     private List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
     private ConcurrentMap<String, PartitionStreamReceiver> partitionStreamReceivers = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, PartitionFlow> partitionFlows = new ConcurrentHashMap<>();
+    private PartitionWorkerPool workerPool;
     private SiddhiAppContext siddhiAppContext;
 
     public PartitionRuntimeImpl(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
@@ -145,6 +148,45 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
                 purgeExecutionInterval = Expression.Time.timeToLong(interval);
             }
         }
+        Annotation parallel = AnnotationHelper.getAnnotation(SiddhiConstants.NAMESPACE_PARALLEL,
+                partition.getAnnotations());
+        if (parallel != null) {
+            String workers = parallel.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+            if (workers == null) {
+                throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.NAMESPACE_PARALLEL +
+                        " is missing element '" + SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "'");
+            }
+            int workerCount;
+            try {
+                workerCount = Integer.parseInt(workers);
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Invalid value for " +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + ": " + workers + ". Please use an integer", e);
+            }
+            if (workerCount <= 0) {
+                throw new SiddhiAppCreationException("Invalid value for " +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + ": " + workers + ". Please use a value " +
+                        "greater than zero");
+            }
+            int bufferSize = PartitionWorkerPool.DEFAULT_BUFFER_SIZE;
+            String buffer = parallel.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+            if (buffer != null) {
+                try {
+                    bufferSize = Integer.parseInt(buffer);
+                } catch (NumberFormatException e) {
+                    throw new SiddhiAppCreationException("Invalid value for " +
+                            SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE + ": " + buffer + ". Please use an " +
+                            "integer", e);
+                }
+                if (bufferSize <= 0) {
+                    throw new SiddhiAppCreationException("Invalid value for " +
+                            SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE + ": " + buffer + ". Please use a value " +
+                            "greater than zero");
+                }
+            }
+            workerPool = new PartitionWorkerPool(workerCount, bufferSize, this, siddhiAppContext);
+            siddhiAppContext.addEternalReferencedHolder(workerPool);
+        }
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
         this.windowDefinitionMap = windowDefinitionMap;
@@ -377,6 +419,7 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
                             for (Map.Entry<String, Long> partition : partitions.entrySet()) {
                                 if (partition.getValue() + purgeIdlePeriod < currentTime) {
                                     state.partitionKeys.remove(partition.getKey());
+                                    partitionFlows.remove(partition.getKey());
                                     SiddhiAppContext.startPartitionFlow(partition.getKey());
                                     try {
                                         for (QueryRuntime queryRuntime : queryRuntimeList) {
@@ -401,6 +444,28 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         }
     }
 
+    /**
+     * Get the handle of the partition key, through which the states of the partition key are resolved.
+     *
+     * @param key partition key
+     * @return partition flow of the key
+     */
+    public PartitionFlow getPartitionFlow(String key) {
+        PartitionFlow partitionFlow = partitionFlows.get(key);
+        if (partitionFlow == null) {
+            partitionFlow = partitionFlows.computeIfAbsent(key, PartitionFlow::new);
+        }
+        return partitionFlow;
+    }
+
+    /**
+     * @return worker pool processing the partition instances in parallel, or null if the partition instances are
+     * processed by the threads sending the events
+     */
+    public PartitionWorkerPool getWorkerPool() {
+        return workerPool;
+    }
+
     public Set<String> getPartitionKeys() {
         PartitionState state = stateHolder.getState();
         try {
@@ -23,6 +23,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
@@ -31,6 +32,7 @@ import io.siddhi.core.query.QueryRuntime;
 import io.siddhi.core.query.QueryRuntimeImpl;
 import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.query.api.definition.StreamDefinition;
 
 import java.util.HashMap;
@@ -52,6 +54,8 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private PartitionRuntimeImpl partitionRuntime;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> streamJunctionMap = new HashMap<>();
+    private PartitionWorkerPool workerPool;
+    private StreamEventCloner streamEventCloner;
 
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
@@ -65,7 +69,8 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         this.siddhiAppContext = siddhiAppContext;
         this.streamId = streamDefinition.getId();
         this.streamEventFactory = new StreamEventFactory(metaStreamEvent);
-
+        this.workerPool = this.partitionRuntime.getWorkerPool();
+        this.streamEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
     }
 
     public void init() {
@@ -100,46 +105,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                     send(key, newEvent);
                 }
             } else {
-                ComplexEventChunk<ComplexEvent> complexEventChunk = new ComplexEventChunk<ComplexEvent>();
-                complexEventChunk.add(complexEvent);
-                ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>();
-                String currentKey = null;
-                while (complexEventChunk.hasNext()) {
-                    ComplexEvent aEvent = complexEventChunk.next();
-                    complexEventChunk.remove();
+                PartitionedEventChain eventChain = new PartitionedEventChain();
+                for (ComplexEvent aEvent = complexEvent; aEvent != null; aEvent = aEvent.getNext()) {
                     StreamEvent newEvent = streamEventFactory.newInstance();
                     streamEventConverter.convertComplexEvent(aEvent, newEvent);
-                    boolean currentEventMatchedPrevPartitionExecutor = false;
-                    for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                        String key = partitionExecutor.execute(newEvent);
-                        if (key != null) {
-                            if (currentKey == null) {
-                                currentKey = key;
-                            } else if (!currentKey.equals(key)) {
-                                if (!currentEventMatchedPrevPartitionExecutor) {
-                                    ComplexEvent firstEvent = outputEventChunk.getFirst();
-                                    send(currentKey, firstEvent);
-                                    currentKey = key;
-                                    outputEventChunk.clear();
-                                } else {
-                                    ComplexEvent firstEvent = outputEventChunk.getFirst();
-                                    send(currentKey, firstEvent);
-                                    currentKey = key;
-                                    outputEventChunk.clear();
-                                    StreamEvent cloneEvent = streamEventFactory.newInstance();
-                                    streamEventConverter.convertComplexEvent(aEvent, cloneEvent);
-                                    outputEventChunk.add(cloneEvent);
-                                }
-                            }
-                            if (!currentEventMatchedPrevPartitionExecutor) {
-                                outputEventChunk.add(newEvent);
-                            }
-                            currentEventMatchedPrevPartitionExecutor = true;
-                        }
-                    }
+                    eventChain.add(newEvent);
                 }
-                send(currentKey, outputEventChunk.getFirst());
-                outputEventChunk.clear();
+                eventChain.send();
             }
         }
 
@@ -152,6 +124,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         for (PartitionExecutor partitionExecutor : partitionExecutors) {
             String key = partitionExecutor.execute(newEvent);
             send(key, newEvent);
+            newEvent = copyIfSentToWorker(key, newEvent);
         }
         if (partitionExecutors.size() == 0) {
             send(newEvent);
@@ -168,6 +141,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             for (PartitionExecutor partitionExecutor : partitionExecutors) {
                 String key = partitionExecutor.execute(newEvent);
                 send(key, newEvent);
+                newEvent = copyIfSentToWorker(key, newEvent);
             }
         }
     }
@@ -187,30 +161,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             }
             send(firstEvent);
         } else {
-            String key = null;
-            StreamEvent firstEvent = null;
-            StreamEvent currentEvent = null;
+            PartitionedEventChain eventChain = new PartitionedEventChain();
             for (Event event : events) {
                 StreamEvent nextEvent = streamEventFactory.newInstance();
                 streamEventConverter.convertEvent(event, nextEvent);
-                for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                    String currentKey = partitionExecutor.execute(nextEvent);
-                    if (currentKey != null) {
-                        if (key == null) {
-                            key = currentKey;
-                            firstEvent = nextEvent;
-                        } else if (!currentKey.equals(key)) {
-                            send(key, firstEvent);
-                            key = currentKey;
-                            firstEvent = nextEvent;
-                        } else {
-                            currentEvent.setNext(nextEvent);
-                        }
-                        currentEvent = nextEvent;
-                    }
-                }
+                eventChain.add(nextEvent);
             }
-            send(key, firstEvent);
+            eventChain.send();
         }
 
     }
@@ -232,36 +189,24 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             }
             send(firstEvent);
         } else {
-            String key = null;
-            StreamEvent firstEvent = null;
-            StreamEvent currentEvent = null;
+            PartitionedEventChain eventChain = new PartitionedEventChain();
             for (Event event : events) {
                 StreamEvent nextEvent = streamEventFactory.newInstance();
                 streamEventConverter.convertEvent(event, nextEvent);
-                for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                    String currentKey = partitionExecutor.execute(nextEvent);
-                    if (currentKey != null) {
-                        if (key == null) {
-                            key = currentKey;
-                            firstEvent = nextEvent;
-                        } else if (!currentKey.equals(key)) {
-                            send(key, firstEvent);
-                            key = currentKey;
-                            firstEvent = nextEvent;
-                        } else {
-                            currentEvent.setNext(nextEvent);
-                        }
-                        currentEvent = nextEvent;
-                    }
-                }
+                eventChain.add(nextEvent);
             }
-            send(key, firstEvent);
+            eventChain.send();
         }
     }
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
-            SiddhiAppContext.startPartitionFlow(key);
+            PartitionFlow partitionFlow = partitionRuntime.getPartitionFlow(key);
+            if (workerPool != null) {
+                workerPool.send(partitionFlow, streamJunctionMap.get(streamId), event);
+                return;
+            }
+            SiddhiAppContext.startPartitionFlow(partitionFlow);
             try {
                 partitionRuntime.initPartition();
                 streamJunctionMap.get(streamId).sendEvent(event);
@@ -273,7 +218,12 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private void send(ComplexEvent event) {
         for (String key : partitionRuntime.getPartitionKeys()) {
-            SiddhiAppContext.startPartitionFlow(key);
+            PartitionFlow partitionFlow = partitionRuntime.getPartitionFlow(key);
+            if (workerPool != null) {
+                workerPool.send(partitionFlow, streamJunctionMap.get(streamId), copyEvents((StreamEvent) event));
+                continue;
+            }
+            SiddhiAppContext.startPartitionFlow(partitionFlow);
             try {
                 streamJunctionMap.get(streamId).sendEvent(event);
             } finally {
@@ -282,6 +232,70 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * Events queued to partition workers are processed concurrently, hence an event sent to a worker is not reused
+     * for another partition key.
+     */
+    private StreamEvent copyIfSentToWorker(String key, StreamEvent event) {
+        if (key != null && workerPool != null && partitionExecutors.size() > 1) {
+            return streamEventCloner.copyStreamEvent(event);
+        }
+        return event;
+    }
+
+    /**
+     * Chains consecutive events of the same partition key, sending the chain once an event of another key arrives.
+     * An event matching several partition executors is copied for each additional key, and a chain is never
+     * modified once sent, as chains sent to partition workers are processed concurrently.
+     */
+    private class PartitionedEventChain {
+
+        private String key;
+        private StreamEvent firstEvent;
+        private StreamEvent lastEvent;
+
+        private void add(StreamEvent event) {
+            boolean matched = false;
+            for (PartitionExecutor partitionExecutor : partitionExecutors) {
+                String currentKey = partitionExecutor.execute(event);
+                if (currentKey != null) {
+                    StreamEvent partitionEvent = matched ? streamEventCloner.copyStreamEvent(event) : event;
+                    matched = true;
+                    if (firstEvent != null && !currentKey.equals(key)) {
+                        send();
+                    }
+                    if (firstEvent == null) {
+                        key = currentKey;
+                        firstEvent = partitionEvent;
+                    } else {
+                        lastEvent.setNext(partitionEvent);
+                    }
+                    lastEvent = partitionEvent;
+                }
+            }
+        }
+
+        private void send() {
+            if (firstEvent != null) {
+                PartitionStreamReceiver.this.send(key, firstEvent);
+            }
+            key = null;
+            firstEvent = null;
+            lastEvent = null;
+        }
+    }
+
+    private StreamEvent copyEvents(StreamEvent event) {
+        StreamEvent firstEvent = streamEventCloner.copyStreamEvent(event);
+        StreamEvent lastEvent = firstEvent;
+        for (StreamEvent nextEvent = event.getNext(); nextEvent != null; nextEvent = nextEvent.getNext()) {
+            StreamEvent copiedEvent = streamEventCloner.copyStreamEvent(nextEvent);
+            lastEvent.setNext(copiedEvent);
+            lastEvent = copiedEvent;
+        }
+        return firstEvent;
+    }
+
     /**
      * create local streamJunctions through which events received by partitionStreamReceiver, are sent to
      * queryStreamReceivers
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.partition;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Worker threads processing the partition instances of a {@link PartitionRuntimeImpl} in parallel. Each partition
+ * key is assigned to a worker by its hash, and the worker processes the events of its keys in arrival order, so
+ * that the events of a partition key are processed in order and its states are only used by one worker.
+ * <p>
+ * Each worker queues at most buffer size events sent from outside the pool, blocking the senders while its queue is
+ * full. Events sent by the workers themselves, such as through a stream feeding back into a partition, are always
+ * queued, as blocking a worker on a queue drained only by workers could deadlock.
+ * <p>
+ * Events waiting in the worker queues are registered in the Siddhi App's {@link ThreadBarrier}, hence snapshots
+ * are taken only after the queues are drained. Events are processed by the sending thread while the pool is not
+ * running, and the events queued when the pool is stopped are processed before {@link #stop()} returns.
+ */
+public class PartitionWorkerPool implements ExternalReferencedHolder {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final Logger log = Logger.getLogger(PartitionWorkerPool.class);
+    private static final ThreadLocal<Boolean> WORKER_THREAD = new ThreadLocal<>();
+    private static final PartitionTask STOP_TASK = new PartitionTask(null, null, null, false);
+    private final PartitionRuntimeImpl partitionRuntime;
+    private final SiddhiAppContext siddhiAppContext;
+    private final Worker[] workers;
+    private boolean running = false;
+
+    public PartitionWorkerPool(int workerCount, int bufferSize, PartitionRuntimeImpl partitionRuntime,
+                               SiddhiAppContext siddhiAppContext) {
+        this.partitionRuntime = partitionRuntime;
+        this.siddhiAppContext = siddhiAppContext;
+        this.workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(bufferSize);
+        }
+    }
+
+    /**
+     * Index of the worker processing the events of the given partition key.
+     *
+     * @param partitionKey partition key
+     * @param workerCount  number of workers
+     * @return index of the worker
+     */
+    public static int getWorkerIndex(String partitionKey, int workerCount) {
+        return Math.floorMod(partitionKey.hashCode(), workerCount);
+    }
+
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Queue the event to be processed by the worker of its partition key. The event must not be used by the caller
+     * once sent, as it is processed concurrently by the worker.
+     *
+     * @param partitionFlow  partition key of the event
+     * @param streamJunction stream junction of the partition to send the event
+     * @param event          event to be processed
+     */
+    public void send(PartitionFlow partitionFlow, StreamJunction streamJunction, ComplexEvent event) {
+        Worker worker = workers[getWorkerIndex(partitionFlow.getKey(), workers.length)];
+        boolean bounded = WORKER_THREAD.get() == null;
+        if (bounded) {
+            try {
+                worker.capacity.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when sending events to " +
+                        "partition '" + partitionRuntime.getPartitionName() + "', dropping events of partition " +
+                        "key '" + partitionFlow.getKey() + "' as the sending thread got interrupted.");
+                return;
+            }
+        }
+        PartitionTask task = new PartitionTask(partitionFlow, streamJunction, event, bounded);
+        synchronized (this) {
+            if (running) {
+                siddhiAppContext.getThreadBarrier().handOver();
+                worker.queue.add(task);
+                return;
+            }
+        }
+        if (bounded) {
+            worker.capacity.release();
+        }
+        process(task);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (Worker worker : workers) {
+            worker.future = siddhiAppContext.getExecutorService().submit(worker);
+        }
+    }
+
+    /**
+     * Stop the workers once they have processed the events queued before the pool stopped. Events left behind by
+     * workers that got interrupted are processed by the calling thread.
+     */
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            for (Worker worker : workers) {
+                worker.queue.add(STOP_TASK);
+            }
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when stopping worker of " +
+                        "partition '" + partitionRuntime.getPartitionName() + "', " + e.getCause().getMessage(),
+                        e.getCause());
+            }
+            worker.future = null;
+            for (PartitionTask task = worker.queue.poll(); task != null; task = worker.queue.poll()) {
+                if (task != STOP_TASK) {
+                    worker.dequeued(task);
+                    processQueued(task);
+                }
+            }
+        }
+    }
+
+    private void processQueued(PartitionTask task) {
+        try {
+            process(task);
+        } finally {
+            siddhiAppContext.getThreadBarrier().completeHandOver();
+        }
+    }
+
+    private void process(PartitionTask task) {
+        SiddhiAppContext.startPartitionFlow(task.partitionFlow);
+        try {
+            partitionRuntime.initPartition();
+            task.streamJunction.sendEvent(task.event);
+        } catch (Throwable t) {
+            log.error("Error in Siddhi App '" + siddhiAppContext.getName() + "' when processing events of " +
+                    "partition '" + partitionRuntime.getPartitionName() + "' for partition key '" +
+                    task.partitionFlow.getKey() + "', " + t.getMessage(), t);
+        } finally {
+            SiddhiAppContext.stopPartitionFlow();
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final BlockingQueue<PartitionTask> queue = new LinkedBlockingQueue<>();
+        private final Semaphore capacity;
+        private Future future;
+
+        Worker(int bufferSize) {
+            this.capacity = new Semaphore(bufferSize);
+        }
+
+        @Override
+        public void run() {
+            WORKER_THREAD.set(Boolean.TRUE);
+            try {
+                while (true) {
+                    PartitionTask task = queue.take();
+                    if (task == STOP_TASK) {
+                        return;
+                    }
+                    dequeued(task);
+                    processQueued(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                WORKER_THREAD.remove();
+            }
+        }
+
+        private void dequeued(PartitionTask task) {
+            if (task.bounded) {
+                capacity.release();
+            }
+        }
+    }
+
+    private static class PartitionTask {
+
+        private final PartitionFlow partitionFlow;
+        private final StreamJunction streamJunction;
+        private final ComplexEvent event;
+        private final boolean bounded;
+
+        PartitionTask(PartitionFlow partitionFlow, StreamJunction streamJunction, ComplexEvent event,
+                      boolean bounded) {
+            this.partitionFlow = partitionFlow;
+            this.streamJunction = streamJunction;
+            this.event = event;
+            this.bounded = bounded;
+        }
+    }
+}
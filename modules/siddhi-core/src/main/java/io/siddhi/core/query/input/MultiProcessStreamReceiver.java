@@ -18,6 +18,7 @@
 package io.siddhi.core.query.input;
 
 import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
@@ -212,6 +213,13 @@ public class MultiProcessStreamReceiver extends ProcessStreamReceiver {
         }
     }
 
+    @Override
+    public void receive(ColumnarEventBatch batch) {
+        if (!batch.isEmpty()) {
+            receive(batch.toEvents());
+        }
+    }
+
     @Override
     public void receive(long timestamp, Object[] data) {
         List<ReturnEventHolder> returnEventHolderList = new ArrayList<>(eventSequence.length);
@@ -19,18 +19,22 @@ package io.siddhi.core.query.input;
 
 import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.debugger.SiddhiDebugger;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.event.stream.converter.ColumnarEventCursor;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
 import io.siddhi.core.query.input.stream.state.PreStateProcessor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.util.lock.LockWrapper;
+import io.siddhi.core.util.parser.ExpressionOptimizer;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
 
@@ -55,6 +59,8 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     private MetaStreamEvent metaStreamEvent;
     private StreamEventFactory streamEventFactory;
     private SiddhiDebugger siddhiDebugger;
+    private int[][] columnMapping;
+    private volatile FilterProcessor[] columnarFilters;
 
     public ProcessStreamReceiver(String streamId,
                                  SiddhiQueryContext siddhiQueryContext) {
@@ -72,6 +78,16 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     }
 
     private void process(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        process(streamEventChunk, null);
+    }
+
+    /**
+     * Process the chunk under the query lock.
+     *
+     * @param streamEventChunk events to be processed
+     * @param processor        processor to receive the events, or null to process them from the start of the query
+     */
+    private void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor processor) {
         if (lockWrapper != null) {
             lockWrapper.lock();
         }
@@ -81,12 +97,12 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
                     latencyTracker != null) {
                 try {
                     latencyTracker.markIn();
-                    processAndClear(streamEventChunk);
+                    processAndClear(streamEventChunk, processor);
                 } finally {
                     latencyTracker.markOut();
                 }
             } else {
-                processAndClear(streamEventChunk);
+                processAndClear(streamEventChunk, processor);
             }
         } finally {
             if (lockWrapper != null) {
@@ -178,6 +194,85 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         process(new ComplexEventChunk<StreamEvent>(newEvent, newEvent));
     }
 
+    @Override
+    public void receive(ColumnarEventBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (siddhiDebugger != null) {
+            receive(batch.toEvents());
+            return;
+        }
+        ColumnarEventCursor cursor = new ColumnarEventCursor(columnMapping);
+        FilterProcessor[] filters = getColumnarFilters();
+        StreamEvent firstEvent = null;
+        StreamEvent currentEvent = null;
+        for (int row = 0, size = batch.size(); row < size; row++) {
+            cursor.moveTo(batch, row);
+            if (!evaluate(filters, cursor)) {
+                continue;
+            }
+            StreamEvent nextEvent = streamEventFactory.newInstance();
+            cursor.populate(nextEvent);
+            if (firstEvent == null) {
+                firstEvent = nextEvent;
+            } else {
+                currentEvent.setNext(nextEvent);
+            }
+            currentEvent = nextEvent;
+        }
+        if (firstEvent != null) {
+            if (filters.length > 0) {
+                process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent),
+                        filters[filters.length - 1].getNextProcessor());
+            } else {
+                process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent));
+            }
+        }
+    }
+
+    private static boolean evaluate(FilterProcessor[] filters, ColumnarEventCursor cursor) {
+        for (FilterProcessor filter : filters) {
+            if (!filter.evaluate(cursor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filters at the start of the query that only depend on the attributes of the incoming events, which are hence
+     * evaluated on the columnar batches before converting their rows to stream events.
+     *
+     * @return the leading filters of the query
+     */
+    private FilterProcessor[] getColumnarFilters() {
+        FilterProcessor[] filters = columnarFilters;
+        if (filters == null) {
+            List<FilterProcessor> filterList = new ArrayList<FilterProcessor>();
+            if (getClass() == ProcessStreamReceiver.class) {
+                Processor processor = next;
+                while (processor instanceof FilterProcessor && ExpressionOptimizer.dependsOnlyOnStreamAttributes(
+                        ((FilterProcessor) processor).getConditionExecutor())) {
+                    filterList.add((FilterProcessor) processor);
+                    processor = processor.getNextProcessor();
+                }
+            }
+            filters = filterList.toArray(new FilterProcessor[filterList.size()]);
+            columnarFilters = filters;
+        }
+        return filters;
+    }
+
+    private void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk, Processor processor) {
+        if (processor == null) {
+            processAndClear(streamEventChunk);
+        } else {
+            processor.process(streamEventChunk);
+            streamEventChunk.clear();
+        }
+    }
+
     protected void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk) {
         next.process(streamEventChunk);
         streamEventChunk.clear();
@@ -194,6 +289,7 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
 
     public void setNext(Processor next) {
         this.next = next;
+        this.columnarFilters = null;
     }
 
     public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
@@ -206,6 +302,7 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
 
     public void init() {
         streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+        columnMapping = StreamEventConverterFactory.constructColumnMapping(metaStreamEvent);
     }
 
     public void addStatefulProcessorForStream(PreStateProcessor stateProcessor) {
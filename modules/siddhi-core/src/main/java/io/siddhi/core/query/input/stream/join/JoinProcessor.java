@@ -30,6 +30,7 @@ import io.siddhi.core.query.processor.stream.window.QueryableProcessor;
 import io.siddhi.core.query.processor.stream.window.TableWindowProcessor;
 import io.siddhi.core.query.selector.QuerySelector;
 import io.siddhi.core.query.selector.SelectorTypeComplexEventChunk;
+import io.siddhi.core.table.InMemoryTable;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.collection.operator.CompiledCondition;
 import io.siddhi.core.util.collection.operator.CompiledSelection;
@@ -56,6 +57,7 @@ public class JoinProcessor implements Processor {
     private boolean isOptimisedQuery;
     private Attribute[] expectedOutputAttributes;
     private FindableProcessor findableProcessor;
+    private Table batchFindableTable;
     private Processor nextProcessor;
     private QuerySelector selector;
     private String siddhiAppName;
@@ -109,6 +111,8 @@ public class JoinProcessor implements Processor {
         StateEvent joinStateEvent = new StateEvent(2, 0);
         StreamEvent nextEvent = (StreamEvent) complexEventChunk.getFirst();
         complexEventChunk.clear();
+        StreamEvent[] batchFoundEvents = batchFind(nextEvent);
+        int batchIndex = 0;
         while (nextEvent != null) {
             StreamEvent streamEvent = nextEvent;
             nextEvent = streamEvent.getNext();
@@ -130,7 +134,9 @@ public class JoinProcessor implements Processor {
                 joinStateEvent.setEvent(matchingStreamIndex, streamEvent);
 
                 StreamEvent foundStreamEvent;
-                if (this.isOptimisedQuery) {
+                if (batchFoundEvents != null) {
+                    foundStreamEvent = batchFoundEvents[batchIndex++];
+                } else if (this.isOptimisedQuery) {
                     try {
                         foundStreamEvent = query(joinStateEvent);
                     } catch (SiddhiAppRuntimeException e) {
@@ -189,6 +195,38 @@ public class JoinProcessor implements Processor {
         }
     }
 
+    /**
+     * Look up the matches of all the events of the chunk at once, when joining with an in-memory table, such that
+     * the table is locked once per chunk rather than once per event.
+     *
+     * @param firstEvent first event of the chunk
+     * @return matches in the order of the events to be joined, or null when the chunk is to be looked up per event
+     */
+    private StreamEvent[] batchFind(StreamEvent firstEvent) {
+        if (batchFindableTable == null || isOptimisedQuery) {
+            return null;
+        }
+        int eventCount = 0;
+        for (StreamEvent event = firstEvent; event != null; event = event.getNext()) {
+            if (event.getType() != ComplexEvent.Type.TIMER && event.getType() != ComplexEvent.Type.RESET) {
+                eventCount++;
+            }
+        }
+        if (eventCount < 2) {
+            return null;
+        }
+        StateEvent[] matchingEvents = new StateEvent[eventCount];
+        int index = 0;
+        for (StreamEvent event = firstEvent; event != null; event = event.getNext()) {
+            if (event.getType() != ComplexEvent.Type.TIMER && event.getType() != ComplexEvent.Type.RESET) {
+                StateEvent matchingEvent = new StateEvent(2, 0);
+                matchingEvent.setEvent(matchingStreamIndex, event);
+                matchingEvents[index++] = matchingEvent;
+            }
+        }
+        return batchFindableTable.find(matchingEvents, compiledCondition);
+    }
+
     private StreamEvent query(StateEvent joinStateEvent) throws SiddhiAppRuntimeException {
         Table table = ((TableWindowProcessor) findableProcessor).getTable();
         if (table.getIsConnected()) {
@@ -258,6 +296,12 @@ public class JoinProcessor implements Processor {
 
     public void setFindableProcessor(FindableProcessor findableProcessor) {
         this.findableProcessor = findableProcessor;
+        if (findableProcessor instanceof TableWindowProcessor &&
+                ((TableWindowProcessor) findableProcessor).getTable() instanceof InMemoryTable) {
+            this.batchFindableTable = ((TableWindowProcessor) findableProcessor).getTable();
+        } else {
+            this.batchFindableTable = null;
+        }
     }
 
     public CompiledCondition getCompiledCondition() {
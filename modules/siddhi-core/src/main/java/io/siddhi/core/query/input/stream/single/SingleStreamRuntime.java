@@ -22,6 +22,7 @@ import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
 import io.siddhi.core.query.selector.QuerySelector;
 
 import java.util.ArrayList;
@@ -36,6 +37,8 @@ public class SingleStreamRuntime implements StreamRuntime {
     private ProcessingMode overallProcessingMode;
     private MetaComplexEvent metaComplexEvent;
     private ProcessStreamReceiver processStreamReceiver;
+    private boolean fifoExpiry;
+    private PaneSpec paneSpec;
 
     public SingleStreamRuntime(ProcessStreamReceiver processStreamReceiver, Processor processorChain,
                                ProcessingMode overallProcessingMode,
@@ -88,4 +91,32 @@ public class SingleStreamRuntime implements StreamRuntime {
     public ProcessingMode getProcessingMode() {
         return overallProcessingMode;
     }
+
+    public void setProcessingMode(ProcessingMode overallProcessingMode) {
+        this.overallProcessingMode = overallProcessingMode;
+    }
+
+    /**
+     * @return true if the events are expired in their arrival order, as the processor chain ends with a
+     * {@link io.siddhi.core.query.processor.stream.window.FifoWindowProcessor}
+     */
+    public boolean isFifoExpiry() {
+        return fifoExpiry;
+    }
+
+    public void setFifoExpiry(boolean fifoExpiry) {
+        this.fifoExpiry = fifoExpiry;
+    }
+
+    /**
+     * @return pane layout of the window ending the processor chain, or null if the chain does not end with a
+     * {@link io.siddhi.core.query.processor.stream.window.PaneWindowProcessor}
+     */
+    public PaneSpec getPaneSpec() {
+        return paneSpec;
+    }
+
+    public void setPaneSpec(PaneSpec paneSpec) {
+        this.paneSpec = paneSpec;
+    }
 }
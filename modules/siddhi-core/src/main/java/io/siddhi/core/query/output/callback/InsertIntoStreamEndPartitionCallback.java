@@ -22,6 +22,7 @@ import io.siddhi.core.debugger.SiddhiDebugger;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.query.api.definition.StreamDefinition;
 
 /**
@@ -42,7 +43,7 @@ public class InsertIntoStreamEndPartitionCallback extends InsertIntoStreamCallba
         }
         complexEventChunk.reset();
         if (complexEventChunk.getFirst() != null) {
-            String flowId = SiddhiAppContext.getPartitionFlowId();
+            PartitionFlow partitionFlow = SiddhiAppContext.getPartitionFlow();
             SiddhiAppContext.stopPartitionFlow();
             try {
                 while (complexEventChunk.hasNext()) {
@@ -53,7 +54,7 @@ public class InsertIntoStreamEndPartitionCallback extends InsertIntoStreamCallba
                 }
                 publisher.send(complexEventChunk.getFirst());
             } finally {
-                SiddhiAppContext.startPartitionFlow(flowId);
+                SiddhiAppContext.startPartitionFlow(partitionFlow);
             }
         }
     }
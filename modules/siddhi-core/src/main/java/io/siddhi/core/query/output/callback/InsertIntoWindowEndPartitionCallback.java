@@ -23,6 +23,7 @@ import io.siddhi.core.debugger.SiddhiDebugger;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.core.window.Window;
 import io.siddhi.query.api.definition.StreamDefinition;
 
@@ -52,7 +53,7 @@ public class InsertIntoWindowEndPartitionCallback extends InsertIntoWindowCallba
         // If events are inserted directly from another window, expired events can arrive
         complexEventChunk.reset();
         if (complexEventChunk.getFirst() != null) {
-            String flowId = SiddhiAppContext.getCurrentFlowId();
+            PartitionFlow partitionFlow = SiddhiAppContext.getPartitionFlow();
             SiddhiAppContext.stopPartitionFlow();
             try {
                 while (complexEventChunk.hasNext()) {
@@ -63,7 +64,7 @@ public class InsertIntoWindowEndPartitionCallback extends InsertIntoWindowCallba
                 }
                 window.add(complexEventChunk);
             } finally {
-                SiddhiAppContext.startPartitionFlow(flowId);
+                SiddhiAppContext.startPartitionFlow(partitionFlow);
             }
         }
     }
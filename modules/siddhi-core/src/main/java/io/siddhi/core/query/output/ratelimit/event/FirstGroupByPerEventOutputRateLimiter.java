@@ -82,7 +82,7 @@ public class FirstGroupByPerEventOutputRateLimiter
     }
 
     class RateLimiterState extends State {
-        private Map<String, Integer> groupByOutputTime = new HashMap();
+        private Map<Object, Integer> groupByOutputTime = new HashMap();
 
         @Override
         public boolean canDestroy() {
@@ -98,7 +98,7 @@ public class FirstGroupByPerEventOutputRateLimiter
 
         @Override
         public void restore(Map<String, Object> state) {
-            groupByOutputTime = (Map<String, Integer>) state.get("GroupByOutputTime");
+            groupByOutputTime = (Map<Object, Integer>) state.get("GroupByOutputTime");
         }
     }
 
@@ -90,7 +90,7 @@ public class LastGroupByPerEventOutputRateLimiter extends
     class RateLimiterState extends State {
 
         private volatile int counter = 0;
-        private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+        private Map<Object, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
 
         @Override
         public boolean canDestroy() {
@@ -108,7 +108,7 @@ public class LastGroupByPerEventOutputRateLimiter extends
         @Override
         public void restore(Map<String, Object> state) {
             counter = (int) state.get("Counter");
-            allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+            allGroupByKeyEvents = (Map<Object, ComplexEvent>) state.get("AllGroupByKeyEvents");
         }
     }
 }
@@ -66,7 +66,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
         try {
             synchronized (state) {
                 complexEventChunk.reset();
-                String currentGroupByKey = null;
+                Object currentGroupByKey = null;
                 Map<Integer, Object> currentAggregateAttributeValueMap = null;
                 while (complexEventChunk.hasNext()) {
                     ComplexEvent event = complexEventChunk.next();
@@ -132,9 +132,9 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
     private void constructOutputChunk(List<ComplexEventChunk> outputEventChunks,
                                       AggregationGroupByRateLimiterState state) {
         ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<>();
-        Set<String> outputGroupingKeys = new HashSet<>();
+        Set<Object> outputGroupingKeys = new HashSet<>();
         for (GroupedComplexEvent originalComplexEvent : state.eventList) {
-            String currentGroupByKey = originalComplexEvent.getGroupKey();
+            Object currentGroupByKey = originalComplexEvent.getGroupKey();
             if (!outputGroupingKeys.contains(currentGroupByKey)) {
                 outputGroupingKeys.add(currentGroupByKey);
                 Map<Integer, Object> currentAggregateAttributeValueMap = state.groupByAggregateAttributeValueMap.get
@@ -152,7 +152,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
     class AggregationGroupByRateLimiterState extends AggregationRateLimiterState {
 
         private List<GroupedComplexEvent> eventList;
-        private Map<String, Map<Integer, Object>> groupByAggregateAttributeValueMap;
+        private Map<Object, Map<Integer, Object>> groupByAggregateAttributeValueMap;
 
         public AggregationGroupByRateLimiterState() {
             groupByAggregateAttributeValueMap = new HashMap<>();
@@ -176,7 +176,7 @@ public class AggregationGroupByWindowedPerSnapshotOutputRateLimiter extends
         @Override
         public void restore(Map<String, Object> state) {
             eventList = (List<GroupedComplexEvent>) state.get("EventList");
-            groupByAggregateAttributeValueMap = (Map<String, Map<Integer, Object>>) state.get
+            groupByAggregateAttributeValueMap = (Map<Object, Map<Integer, Object>>) state.get
                     ("GroupByAggregateAttributeValueMap");
             scheduledTime = (Long) state.get("ScheduledTime");
         }
@@ -103,9 +103,9 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter
                                 RateLimiterState state) {
         if (event.getTimestamp() >= state.scheduledTime) {
             ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<>();
-            for (Iterator<Map.Entry<String, LastEventHolder>> iterator = state.groupByKeyEvents.entrySet().iterator();
+            for (Iterator<Map.Entry<Object, LastEventHolder>> iterator = state.groupByKeyEvents.entrySet().iterator();
                  iterator.hasNext(); ) {
-                Map.Entry<String, LastEventHolder> lastEventHolderEntry = iterator.next();
+                Map.Entry<Object, LastEventHolder> lastEventHolderEntry = iterator.next();
 
                 //clearing expired events after update
                 lastEventHolderEntry.getValue().checkAndClearLastInEvent();
@@ -158,7 +158,7 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter
 
     class RateLimiterState extends State {
         public long scheduledTime;
-        private Map<String, LastEventHolder> groupByKeyEvents = new LinkedHashMap<>();
+        private Map<Object, LastEventHolder> groupByKeyEvents = new LinkedHashMap<>();
 
         @Override
         public boolean canDestroy() {
@@ -175,7 +175,7 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter
 
         @Override
         public void restore(Map<String, Object> state) {
-            groupByKeyEvents = (Map<String, LastEventHolder>) state.get("GroupByKeyEvents");
+            groupByKeyEvents = (Map<Object, LastEventHolder>) state.get("GroupByKeyEvents");
             scheduledTime = (Long) state.get("ScheduledTime");
         }
     }
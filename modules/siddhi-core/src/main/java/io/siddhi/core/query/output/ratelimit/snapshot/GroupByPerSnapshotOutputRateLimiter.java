@@ -118,7 +118,7 @@ public class GroupByPerSnapshotOutputRateLimiter
 
     class RateLimiterState extends State {
         public long scheduledTime;
-        private Map<String, ComplexEvent> groupByKeyEvents = new LinkedHashMap<>();
+        private Map<Object, ComplexEvent> groupByKeyEvents = new LinkedHashMap<>();
 
         @Override
         public boolean canDestroy() {
@@ -135,7 +135,7 @@ public class GroupByPerSnapshotOutputRateLimiter
 
         @Override
         public void restore(Map<String, Object> state) {
-            groupByKeyEvents = (Map<String, ComplexEvent>) state.get("groupByKeyEvents");
+            groupByKeyEvents = (Map<Object, ComplexEvent>) state.get("groupByKeyEvents");
             scheduledTime = (Long) state.get("ScheduledTime");
         }
     }
@@ -86,7 +86,7 @@ public class FirstGroupByPerTimeOutputRateLimiter
 
     class RateLimiterState extends State {
 
-        private Map<String, Long> groupByOutputTime = new HashMap();
+        private Map<Object, Long> groupByOutputTime = new HashMap();
 
         @Override
         public boolean canDestroy() {
@@ -102,7 +102,7 @@ public class FirstGroupByPerTimeOutputRateLimiter
 
         @Override
         public void restore(Map<String, Object> state) {
-            groupByOutputTime = (Map<String, Long>) state.get("GroupByOutputTime");
+            groupByOutputTime = (Map<Object, Long>) state.get("GroupByOutputTime");
         }
     }
 }
@@ -114,7 +114,7 @@ public class LastGroupByPerTimeOutputRateLimiter
     class RateLimiterState extends State {
 
         public long scheduledTime;
-        private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+        private Map<Object, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
 
         @Override
         public boolean canDestroy() {
@@ -131,7 +131,7 @@ public class LastGroupByPerTimeOutputRateLimiter
 
         @Override
         public void restore(Map<String, Object> state) {
-            allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+            allGroupByKeyEvents = (Map<Object, ComplexEvent>) state.get("AllGroupByKeyEvents");
             scheduledTime = (Long) state.get("ScheduledTime");
         }
     }
@@ -19,8 +19,11 @@ package io.siddhi.core.query.processor.filter;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.query.api.definition.Attribute;
 
@@ -33,10 +36,25 @@ public class FilterProcessor implements Processor {
 
     protected Processor next;
     private ExpressionExecutor conditionExecutor;
+    private ConditionExpressionExecutor primitiveConditionExecutor;
+    private boolean recycleEvents = false;
 
     public FilterProcessor(ExpressionExecutor conditionExecutor) {
+        setConditionExecutor(conditionExecutor);
+    }
+
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
+    public void setConditionExecutor(ExpressionExecutor conditionExecutor) {
         if (Attribute.Type.BOOL.equals(conditionExecutor.getReturnType())) {
             this.conditionExecutor = conditionExecutor;
+            if (conditionExecutor instanceof ConditionExpressionExecutor) {
+                this.primitiveConditionExecutor = (ConditionExpressionExecutor) conditionExecutor;
+            } else {
+                this.primitiveConditionExecutor = null;
+            }
         } else {
             throw new OperationNotSupportedException("Return type of " + conditionExecutor.toString() + " should be " +
                     "of type BOOL. " +
@@ -49,9 +67,11 @@ public class FilterProcessor implements Processor {
         complexEventChunk.reset();
         while (complexEventChunk.hasNext()) {
             ComplexEvent complexEvent = complexEventChunk.next();
-            Object result = conditionExecutor.execute(complexEvent);
-            if (result == null || !(Boolean) result) {
+            if (!evaluate(complexEvent)) {
                 complexEventChunk.remove();
+                if (recycleEvents && complexEvent instanceof StreamEvent) {
+                    StreamEventFactory.recycle((StreamEvent) complexEvent);
+                }
             }
         }
         if (complexEventChunk.getFirst() != null) {
@@ -59,6 +79,20 @@ public class FilterProcessor implements Processor {
         }
     }
 
+    /**
+     * Evaluate the filter condition against the given event.
+     *
+     * @param complexEvent event to be evaluated
+     * @return true if the event passes the filter
+     */
+    public boolean evaluate(ComplexEvent complexEvent) {
+        if (primitiveConditionExecutor != null) {
+            return primitiveConditionExecutor.executeBoolean(complexEvent);
+        }
+        Object result = conditionExecutor.execute(complexEvent);
+        return result != null && (Boolean) result;
+    }
+
 
     @Override
     public void process(List<ComplexEventChunk> complexEventChunks) {
@@ -69,6 +103,20 @@ public class FilterProcessor implements Processor {
         process(complexEventChunk);
     }
 
+    public boolean isRecycleEvents() {
+        return recycleEvents;
+    }
+
+    /**
+     * Enable returning the events dropped by the filter to their pools. Should only be enabled when the events
+     * reaching the filter are not retained by any preceding processor.
+     *
+     * @param recycleEvents whether the dropped events are recycled
+     */
+    public void setRecycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+    }
+
     @Override
     public Processor getNextProcessor() {
         return next;
@@ -185,10 +185,10 @@ public class CronWindowProcessor extends BatchingWindowProcessor<CronWindowProce
     }
 
     public void dispatchEvents() {
-        Map<String, Map<String, WindowState>> allStates = stateHolder.getAllStates();
+        Map<String, Map<Object, WindowState>> allStates = stateHolder.getAllStates();
         try {
-            for (Map.Entry<String, Map<String, WindowState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, WindowState> stateEntry : allStatesEntry.getValue().entrySet()) {
+            for (Map.Entry<String, Map<Object, WindowState>> allStatesEntry : allStates.entrySet()) {
+                for (Map.Entry<Object, WindowState> stateEntry : allStatesEntry.getValue().entrySet()) {
                     WindowState windowState = stateEntry.getValue();
                     ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<StreamEvent>();
                     synchronized (windowState) {
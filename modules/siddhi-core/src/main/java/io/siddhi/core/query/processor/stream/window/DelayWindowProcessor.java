@@ -185,7 +185,7 @@ public class DelayWindowProcessor extends TimeWindowProcessor {
         private volatile long lastTimestamp = Long.MIN_VALUE;
 
         DelayedWindowState(StreamEventClonerHolder streamEventClonerHolder) {
-            super(streamEventClonerHolder);
+            super();
             this.delayedEventQueue = new SnapshotableStreamEventQueue(streamEventClonerHolder);
         }
 
@@ -89,7 +89,8 @@ import java.util.Map;
         )
 )
 public class ExternalTimeWindowProcessor
-        extends SlidingFindableWindowProcessor<ExternalTimeWindowProcessor.WindowState> {
+        extends SlidingFindableWindowProcessor<ExternalTimeWindowProcessor.WindowState>
+        implements FifoWindowProcessor {
     private static final Logger log = Logger.getLogger(ExternalTimeWindowProcessor.class);
     private long timeToKeep;
     private VariableExpressionExecutor timeStampVariableExpressionExecutor;
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.processor.stream.window;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
+import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.util.Scheduler;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link HopingWindowProcessor} which represent a hopping Time Window.
+ */
+@Extension(
+        name = "hoppingTime",
+        namespace = "",
+        description = "A hopping time window that emits, every 'hop.time' period, the events that arrived during " +
+                "the last 'window.time' period. When all the aggregators of the query are sum, count, avg, min, " +
+                "max or stdDev, the window is sliced into panes of the GCD of 'window.time' and 'hop.time', and " +
+                "the aggregations are computed by combining the per pane partial aggregations, such that only the " +
+                "events of the current hop are emitted and an output is produced for each group that received " +
+                "events during the hop. Otherwise all the events of the window are re-emitted on every hop.",
+        parameters = {
+                @Parameter(name = "window.time",
+                        description = "The time period of the events that are aggregated on each hop.",
+                        type = {DataType.INT, DataType.LONG, DataType.TIME}),
+                @Parameter(name = "hop.time",
+                        description = "The time period between two consecutive emissions, this should not be " +
+                                "greater than 'window.time'.",
+                        type = {DataType.INT, DataType.LONG, DataType.TIME})
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"window.time", "hop.time"})
+        },
+        examples = {
+                @Example(
+                        syntax = "define stream InputEventStream (symbol string, price float, volume int);\n\n" +
+                                "@info(name = 'query1')\n" +
+                                "from InputEventStream#window.hoppingTime(1 hour, 1 min)\n" +
+                                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice\n" +
+                                "group by symbol\n" +
+                                "insert into OutputStream;",
+                        description = "Every minute, this outputs the total and the average price of each symbol " +
+                                "over the last hour, by combining the partial aggregations of 60 one minute panes."
+                )
+        }
+)
+public class HoppingTimeWindowProcessor extends HopingWindowProcessor<HoppingTimeWindowProcessor.WindowState>
+        implements SchedulingProcessor, PaneWindowProcessor {
+
+    private long windowTime;
+    private long hopTime;
+    private PaneSpec paneSpec;
+    private Scheduler scheduler;
+    private SiddhiQueryContext siddhiQueryContext;
+
+    @Override
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public PaneSpec getPaneSpec() {
+        return paneSpec;
+    }
+
+    @Override
+    protected StateFactory<WindowState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                             ConfigReader configReader, boolean outputExpectsExpiredEvents,
+                                             SiddhiQueryContext siddhiQueryContext) {
+        this.siddhiQueryContext = siddhiQueryContext;
+        if (attributeExpressionExecutors.length != 2) {
+            throw new SiddhiAppValidationException("HoppingTime window should only have two parameters " +
+                    "(<int|long|time> window.time, <int|long|time> hop.time), but found " +
+                    attributeExpressionExecutors.length + " input parameters.");
+        }
+        windowTime = getTime(attributeExpressionExecutors[0], "window.time");
+        hopTime = getTime(attributeExpressionExecutors[1], "hop.time");
+        if (hopTime <= 0 || windowTime < hopTime) {
+            throw new SiddhiAppValidationException("HoppingTime window's 'hop.time' should be greater than zero " +
+                    "and not greater than 'window.time', but found window.time: " + windowTime +
+                    " and hop.time: " + hopTime);
+        }
+        paneSpec = new PaneSpec(windowTime, hopTime);
+        return () -> new WindowState(streamEventClonerHolder);
+    }
+
+    private long getTime(ExpressionExecutor attributeExpressionExecutor, String parameterName) {
+        if (!(attributeExpressionExecutor instanceof ConstantExpressionExecutor)) {
+            throw new SiddhiAppValidationException("HoppingTime window's '" + parameterName + "' parameter " +
+                    "should be a constant but found a dynamic attribute " +
+                    attributeExpressionExecutor.getClass().getCanonicalName());
+        }
+        Object value = ((ConstantExpressionExecutor) attributeExpressionExecutor).getValue();
+        if (attributeExpressionExecutor.getReturnType() == Attribute.Type.INT) {
+            return (Integer) value;
+        } else if (attributeExpressionExecutor.getReturnType() == Attribute.Type.LONG) {
+            return (Long) value;
+        } else {
+            throw new SiddhiAppValidationException("HoppingTime window's '" + parameterName + "' parameter " +
+                    "should be either int or long, but found " + attributeExpressionExecutor.getReturnType());
+        }
+    }
+
+    @Override
+    protected void processEventChunk(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
+                                     StreamEventCloner streamEventCloner,
+                                     HopingTimestampPopulator hopingTimestampPopulator) {
+        List<Long> hopEnds = new ArrayList<>(1);
+        List<ComplexEventChunk<StreamEvent>> hopChunks = new ArrayList<>(1);
+        WindowState state = stateHolder.getState();
+        try {
+            synchronized (state) {
+                long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
+                if (state.nextEmitTime == -1) {
+                    state.nextEmitTime = (Math.floorDiv(currentTime, hopTime) + 1) * hopTime;
+                    scheduler.notifyAt(state.nextEmitTime);
+                }
+                if (currentTime >= state.nextEmitTime) {
+                    while (currentTime >= state.nextEmitTime) {
+                        ComplexEventChunk<StreamEvent> hopChunk = emitHop(state, state.nextEmitTime,
+                                streamEventCloner, hopingTimestampPopulator);
+                        if (hopChunk.getFirst() != null) {
+                            hopEnds.add(state.nextEmitTime);
+                            hopChunks.add(hopChunk);
+                        }
+                        if (state.hopEventQueue.getFirst() == null && state.windowEventQueue.getFirst() == null) {
+                            state.nextEmitTime = (Math.floorDiv(currentTime, hopTime) + 1) * hopTime;
+                        } else {
+                            state.nextEmitTime += hopTime;
+                        }
+                    }
+                    scheduler.notifyAt(state.nextEmitTime);
+                }
+                while (streamEventChunk.hasNext()) {
+                    StreamEvent streamEvent = streamEventChunk.next();
+                    if (streamEvent.getType() == ComplexEvent.Type.CURRENT) {
+                        state.hopEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+                    }
+                }
+                streamEventChunk.clear();
+            }
+        } finally {
+            stateHolder.returnState(state);
+        }
+        for (int i = 0; i < hopChunks.size(); i++) {
+            paneSpec.startHop(hopEnds.get(i));
+            try {
+                nextProcessor.process(hopChunks.get(i));
+            } finally {
+                paneSpec.endHop();
+            }
+        }
+    }
+
+    private ComplexEventChunk<StreamEvent> emitHop(WindowState state, long hopEnd,
+                                                   StreamEventCloner streamEventCloner,
+                                                   HopingTimestampPopulator hopingTimestampPopulator) {
+        ComplexEventChunk<StreamEvent> hopChunk = new ComplexEventChunk<>(true);
+        String hopKey = String.valueOf(hopEnd);
+        if (paneSpec.isPaneExecution()) {
+            // aggregators combine the panes, hence only the events of the current hop are emitted
+            state.hopEventQueue.reset();
+            while (state.hopEventQueue.hasNext()) {
+                hopingTimestampPopulator.populateComplexEvent(state.hopEventQueue.next(), hopKey);
+            }
+            if (state.hopEventQueue.getFirst() != null) {
+                hopChunk.add(state.hopEventQueue.getFirst());
+                state.hopEventQueue.clear();
+            }
+            return hopChunk;
+        }
+        if (state.hopEventQueue.getFirst() != null) {
+            state.windowEventQueue.add(state.hopEventQueue.getFirst());
+            state.hopEventQueue.clear();
+        }
+        state.windowEventQueue.reset();
+        while (state.windowEventQueue.hasNext()) {
+            StreamEvent streamEvent = state.windowEventQueue.next();
+            if (streamEvent.getTimestamp() < hopEnd - windowTime) {
+                state.windowEventQueue.remove();
+            } else {
+                break;
+            }
+        }
+        state.windowEventQueue.reset();
+        if (state.windowEventQueue.getFirst() != null) {
+            StreamEvent resetEvent = streamEventCloner.copyStreamEvent(state.windowEventQueue.getFirst());
+            resetEvent.setType(ComplexEvent.Type.RESET);
+            hopChunk.add(resetEvent);
+            while (state.windowEventQueue.hasNext()) {
+                StreamEvent streamEvent = streamEventCloner.copyStreamEvent(state.windowEventQueue.next());
+                hopingTimestampPopulator.populateComplexEvent(streamEvent, hopKey);
+                hopChunk.add(streamEvent);
+            }
+            state.windowEventQueue.reset();
+        }
+        return hopChunk;
+    }
+
+    @Override
+    public void start() {
+        //Do nothing
+    }
+
+    @Override
+    public void stop() {
+        //Do nothing
+    }
+
+    class WindowState extends State {
+
+        private long nextEmitTime = -1;
+        private SnapshotableStreamEventQueue hopEventQueue;
+        private SnapshotableStreamEventQueue windowEventQueue;
+
+        WindowState(StreamEventClonerHolder streamEventClonerHolder) {
+            this.hopEventQueue = new SnapshotableStreamEventQueue(streamEventClonerHolder);
+            this.windowEventQueue = new SnapshotableStreamEventQueue(streamEventClonerHolder);
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return hopEventQueue.getFirst() == null && windowEventQueue.getFirst() == null;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("NextEmitTime", nextEmitTime);
+            state.put("HopEventQueue", hopEventQueue.getSnapshot());
+            state.put("WindowEventQueue", windowEventQueue.getSnapshot());
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            nextEmitTime = (long) state.get("NextEmitTime");
+            hopEventQueue.clear();
+            hopEventQueue.restore((SnapshotStateList) state.get("HopEventQueue"));
+            windowEventQueue.clear();
+            windowEventQueue.restore((SnapshotStateList) state.get("WindowEventQueue"));
+        }
+    }
+}
@@ -28,7 +28,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.state.StateEvent;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventCloner;
-import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
+import io.siddhi.core.event.stream.holder.ColumnarStreamEventQueue;
 import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
@@ -78,7 +78,8 @@ import java.util.Map;
                 description = "This will process last 10 events in a sliding manner."
         )
 )
-public class LengthWindowProcessor extends SlidingFindableWindowProcessor<LengthWindowProcessor.WindowState> {
+public class LengthWindowProcessor extends SlidingFindableWindowProcessor<LengthWindowProcessor.WindowState>
+        implements FifoWindowProcessor {
 
     private int length;
 
@@ -109,18 +110,18 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
             long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
             while (streamEventChunk.hasNext()) {
                 StreamEvent streamEvent = streamEventChunk.next();
-                StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
-                clonedEvent.setType(StreamEvent.Type.EXPIRED);
                 if (state.count < length) {
                     state.count++;
-                    state.expiredEventQueue.add(clonedEvent);
+                    state.expiredEventQueue.add(streamEvent);
                 } else {
                     StreamEvent firstEvent = state.expiredEventQueue.poll();
                     if (firstEvent != null) {
                         firstEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(firstEvent);
-                        state.expiredEventQueue.add(clonedEvent);
+                        state.expiredEventQueue.add(streamEvent);
                     } else {
+                        StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
+                        clonedEvent.setType(StreamEvent.Type.EXPIRED);
                         StreamEvent resetEvent = streamEventCloner.copyStreamEvent(streamEvent);
                         resetEvent.setType(ComplexEvent.Type.RESET);
                         // adding resetEvent and clonedEvent event to the streamEventChunk
@@ -153,8 +154,9 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
     @Override
     public StreamEvent find(StateEvent matchingEvent, CompiledCondition compiledCondition,
                             StreamEventCloner streamEventCloner, WindowState state) {
-        return ((Operator) compiledCondition).find(matchingEvent, state.expiredEventQueue, streamEventCloner);
-
+        synchronized (state) {
+            return ((Operator) compiledCondition).find(matchingEvent, state.expiredEventQueue, streamEventCloner);
+        }
     }
 
     @Override
@@ -171,12 +173,16 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
     class WindowState extends State {
 
         private int count = 0;
-        private SnapshotableStreamEventQueue expiredEventQueue =
-                new SnapshotableStreamEventQueue(streamEventClonerHolder, length);
+        private ColumnarStreamEventQueue expiredEventQueue =
+                new ColumnarStreamEventQueue(metaStreamEvent, StreamEvent.Type.EXPIRED);
+
+        WindowState() {
+            expiredEventQueue.setStreamEventFactory(expiredEventFactory);
+        }
 
         @Override
         public boolean canDestroy() {
-            return count == 0 && expiredEventQueue.getFirst() == null;
+            return count == 0 && expiredEventQueue.isEmpty();
         }
 
         @Override
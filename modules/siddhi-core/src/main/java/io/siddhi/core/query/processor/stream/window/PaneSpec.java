@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.processor.stream.window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Pane layout of a hopping time window. The window is sliced into non-overlapping panes of the GCD of the window and
+ * the hop length, such that each emission can be computed by combining the partial aggregates of the panes of the
+ * window. Pane based execution is only used when all the aggregators of the query are able to aggregate panes,
+ * otherwise the window re-emits all its events on every hop.
+ */
+public class PaneSpec {
+
+    private final ThreadLocal<Long> hopEnd = new ThreadLocal<>();
+    private final List<LongConsumer> hopListeners = new ArrayList<>();
+    private final long windowTime;
+    private final long hopTime;
+    private final long paneTime;
+    private int paneAggregatorCount = 0;
+    private boolean unsupportedAggregatorFound = false;
+
+    public PaneSpec(long windowTime, long hopTime) {
+        this.windowTime = windowTime;
+        this.hopTime = hopTime;
+        this.paneTime = gcd(windowTime, hopTime);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long temp = a % b;
+            a = b;
+            b = temp;
+        }
+        return a;
+    }
+
+    public long getWindowTime() {
+        return windowTime;
+    }
+
+    public long getHopTime() {
+        return hopTime;
+    }
+
+    public long getPaneTime() {
+        return paneTime;
+    }
+
+    /**
+     * @return number of panes covered by the window
+     */
+    public int getPaneCount() {
+        return (int) (windowTime / paneTime);
+    }
+
+    /**
+     * Registers an aggregator of the query, this is called when the aggregators are initialized.
+     *
+     * @param paneAggregator whether the aggregator can aggregate panes
+     */
+    public void registerAggregator(boolean paneAggregator) {
+        if (paneAggregator) {
+            paneAggregatorCount++;
+        } else {
+            unsupportedAggregatorFound = true;
+        }
+    }
+
+    /**
+     * Registers a listener to be notified with the end time of each hop before its events are emitted, this is
+     * called when the aggregators are initialized.
+     *
+     * @param hopListener listener to be notified
+     */
+    public void addHopListener(LongConsumer hopListener) {
+        hopListeners.add(hopListener);
+    }
+
+    /**
+     * @return true if the window should only emit the events of the current hop and let the aggregators combine
+     * panes
+     */
+    public boolean isPaneExecution() {
+        return paneAggregatorCount > 0 && !unsupportedAggregatorFound;
+    }
+
+    /**
+     * Marks the start of the emission of the hop ending at the given time, for the current thread.
+     *
+     * @param hopEnd end time (exclusive) of the emitted hop
+     */
+    public void startHop(long hopEnd) {
+        this.hopEnd.set(hopEnd);
+        for (LongConsumer hopListener : hopListeners) {
+            hopListener.accept(hopEnd);
+        }
+    }
+
+    public void endHop() {
+        hopEnd.remove();
+    }
+
+    /**
+     * @return end time of the hop being emitted by the current thread, or null if no hop is being emitted
+     */
+    public Long getHopEnd() {
+        return hopEnd.get();
+    }
+}
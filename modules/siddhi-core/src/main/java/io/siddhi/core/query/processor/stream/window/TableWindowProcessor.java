@@ -27,6 +27,7 @@ import io.siddhi.core.exception.ConnectionUnavailableException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.table.InMemoryTable;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.table.record.AbstractQueryableRecordTable;
 import io.siddhi.core.util.collection.operator.CompiledCondition;
@@ -82,6 +83,10 @@ public class TableWindowProcessor extends BatchingWindowProcessor implements Que
     public CompiledCondition compileCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, SiddhiQueryContext siddhiQueryContext) {
+        if (table instanceof InMemoryTable) {
+            return ((InMemoryTable) table).compileJoinCondition(condition, matchingMetaInfoHolder,
+                    variableExpressionExecutors, tableMap, siddhiQueryContext);
+        }
         return table.compileCondition(condition, matchingMetaInfoHolder, variableExpressionExecutors, tableMap,
                 siddhiQueryContext);
     }
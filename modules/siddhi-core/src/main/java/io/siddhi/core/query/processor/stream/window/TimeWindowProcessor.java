@@ -27,8 +27,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.state.StateEvent;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventCloner;
-import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
-import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.event.stream.holder.ColumnarStreamEventQueue;
 import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
@@ -84,7 +83,7 @@ import java.util.Map;
         }
 )
 public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWindowProcessor.WindowState>
-        implements SchedulingProcessor {
+        implements SchedulingProcessor, FifoWindowProcessor {
 
     private long timeInMilliSeconds;
     private Scheduler scheduler;
@@ -126,24 +125,22 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
             throw new SiddhiAppValidationException("Time window should only have one parameter (<int|long|time> " +
                     "windowTime), but found " + attributeExpressionExecutors.length + " input attributes");
         }
-        return () -> new WindowState(streamEventClonerHolder);
+        return () -> new WindowState();
     }
 
     @Override
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, WindowState state) {
         synchronized (state) {
-            SnapshotableStreamEventQueue expiredEventQueue = state.expiredEventQueue;
+            ColumnarStreamEventQueue expiredEventQueue = state.expiredEventQueue;
             while (streamEventChunk.hasNext()) {
                 StreamEvent streamEvent = streamEventChunk.next();
                 long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
 
-                expiredEventQueue.reset();
-                while (expiredEventQueue.hasNext()) {
-                    StreamEvent expiredEvent = expiredEventQueue.next();
-                    long timeDiff = expiredEvent.getTimestamp() - currentTime + timeInMilliSeconds;
+                while (!expiredEventQueue.isEmpty()) {
+                    long timeDiff = expiredEventQueue.getFirstTimestamp() - currentTime + timeInMilliSeconds;
                     if (timeDiff <= 0) {
-                        expiredEventQueue.remove();
+                        StreamEvent expiredEvent = expiredEventQueue.poll();
                         expiredEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(expiredEvent);
                     } else {
@@ -152,18 +149,15 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
                 }
 
                 if (streamEvent.getType() == StreamEvent.Type.CURRENT) {
-                    StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
-                    clonedEvent.setType(StreamEvent.Type.EXPIRED);
-                    expiredEventQueue.add(clonedEvent);
-                    if (state.lastTimestamp < clonedEvent.getTimestamp()) {
-                        scheduler.notifyAt(clonedEvent.getTimestamp() + timeInMilliSeconds);
-                        state.lastTimestamp = clonedEvent.getTimestamp();
+                    expiredEventQueue.add(streamEvent);
+                    if (state.lastTimestamp < streamEvent.getTimestamp()) {
+                        scheduler.notifyAt(streamEvent.getTimestamp() + timeInMilliSeconds);
+                        state.lastTimestamp = streamEvent.getTimestamp();
                     }
                 } else {
                     streamEventChunk.remove();
                 }
             }
-            expiredEventQueue.reset();
         }
         nextProcessor.process(streamEventChunk);
     }
@@ -180,7 +174,9 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
     @Override
     public StreamEvent find(StateEvent matchingEvent, CompiledCondition compiledCondition,
                             StreamEventCloner streamEventCloner, WindowState state) {
-        return ((Operator) compiledCondition).find(matchingEvent, state.expiredEventQueue, streamEventCloner);
+        synchronized (state) {
+            return ((Operator) compiledCondition).find(matchingEvent, state.expiredEventQueue, streamEventCloner);
+        }
     }
 
     @Override
@@ -194,12 +190,13 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
     }
 
     class WindowState extends State {
-        protected SnapshotableStreamEventQueue expiredEventQueue;
+        protected ColumnarStreamEventQueue expiredEventQueue;
         protected volatile long lastTimestamp = Long.MIN_VALUE;
 
 
-        WindowState(StreamEventClonerHolder streamEventClonerHolder) {
-            expiredEventQueue = new SnapshotableStreamEventQueue(streamEventClonerHolder);
+        WindowState() {
+            expiredEventQueue = new ColumnarStreamEventQueue(metaStreamEvent, StreamEvent.Type.EXPIRED);
+            expiredEventQueue.setStreamEventFactory(expiredEventFactory);
         }
 
         @Override
@@ -217,7 +214,7 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
 
         @Override
         public boolean canDestroy() {
-            return expiredEventQueue.getFirst() == null;
+            return expiredEventQueue.isEmpty();
         }
     }
 }
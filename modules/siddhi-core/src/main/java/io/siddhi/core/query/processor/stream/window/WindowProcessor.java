@@ -17,6 +17,7 @@
  */
 package io.siddhi.core.query.processor.stream.window;
 
+import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.query.api.definition.Attribute;
@@ -32,6 +33,17 @@ import java.util.List;
  */
 public abstract class WindowProcessor<S extends State> extends AbstractStreamProcessor<S> {
 
+    protected StreamEventFactory expiredEventFactory;
+
+    /**
+     * Set the factory of the expired events that the window no longer retains once they are emitted. The factory is
+     * pooled when the query recycles its events after the selector has consumed them.
+     *
+     * @param expiredEventFactory factory of the emitted expired events
+     */
+    public void setExpiredEventFactory(StreamEventFactory expiredEventFactory) {
+        this.expiredEventFactory = expiredEventFactory;
+    }
 
     @Override
     public List<Attribute> getReturnAttributes() {
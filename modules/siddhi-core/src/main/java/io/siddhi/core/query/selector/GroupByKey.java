@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector;
+
+import io.siddhi.core.util.SiddhiConstants;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Typed key of a GroupBy group. Keys are hashed once when created and compared by value, and their
+ * {@link #toString()} returns the delimited String form used as the group by key in snapshots.
+ */
+public abstract class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = -3017264393537213413L;
+
+    protected final int hashCode;
+
+    protected GroupByKey(int hashCode) {
+        this.hashCode = hashCode;
+    }
+
+    public static GroupByKey of(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return new LongKey(((Number) value).longValue());
+        }
+        return new ObjectKey(value);
+    }
+
+    public static GroupByKey of(Object[] values) {
+        return new CompositeKey(values);
+    }
+
+    /**
+     * Key of a group within an aggregation bucket starting at the given timestamp.
+     *
+     * @param key       group by key of the group
+     * @param timestamp start time of the bucket
+     * @return typed key of the group within the bucket
+     */
+    public static GroupByKey of(Object key, long timestamp) {
+        return new TimestampedKey(key, timestamp);
+    }
+
+    @Override
+    public final int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Key of a single int or long group by attribute, compared without boxing.
+     */
+    static final class LongKey extends GroupByKey {
+
+        private static final long serialVersionUID = 4502457911843270165L;
+        private final long value;
+
+        LongKey(long value) {
+            super(Long.hashCode(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof LongKey && ((LongKey) o).value == value);
+        }
+
+        @Override
+        public String toString() {
+            return value + SiddhiConstants.KEY_DELIMITER;
+        }
+    }
+
+    /**
+     * Key of a single group by attribute.
+     */
+    static final class ObjectKey extends GroupByKey {
+
+        private static final long serialVersionUID = -7739616378640462213L;
+        private final Object value;
+
+        ObjectKey(Object value) {
+            super(value == null ? 0 : value.hashCode());
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ObjectKey) || ((ObjectKey) o).hashCode != hashCode) {
+                return false;
+            }
+            Object other = ((ObjectKey) o).value;
+            return value == null ? other == null : value.equals(other);
+        }
+
+        @Override
+        public String toString() {
+            return value + SiddhiConstants.KEY_DELIMITER;
+        }
+    }
+
+    /**
+     * Key of multiple group by attributes.
+     */
+    static final class CompositeKey extends GroupByKey {
+
+        private static final long serialVersionUID = 1489311760312345082L;
+        private final Object[] values;
+
+        CompositeKey(Object[] values) {
+            super(Arrays.hashCode(values));
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof CompositeKey && ((CompositeKey) o).hashCode == hashCode &&
+                    Arrays.equals(((CompositeKey) o).values, values));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Object value : values) {
+                sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Key of a group within an aggregation bucket, its String form being the group by key followed by the start time
+     * of the bucket.
+     */
+    static final class TimestampedKey extends GroupByKey {
+
+        private static final long serialVersionUID = 6213790853162208478L;
+        private final Object key;
+        private final long timestamp;
+
+        TimestampedKey(Object key, long timestamp) {
+            super(31 * (key == null ? 0 : key.hashCode()) + Long.hashCode(timestamp));
+            this.key = key;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimestampedKey) || ((TimestampedKey) o).hashCode != hashCode ||
+                    ((TimestampedKey) o).timestamp != timestamp) {
+                return false;
+            }
+            Object other = ((TimestampedKey) o).key;
+            return key == null ? other == null : key.equals(other);
+        }
+
+        @Override
+        public String toString() {
+            return key + "-" + timestamp;
+        }
+    }
+}
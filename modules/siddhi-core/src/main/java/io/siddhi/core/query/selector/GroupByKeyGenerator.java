@@ -24,7 +24,6 @@ import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.Table;
-import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.parser.ExpressionParser;
 import io.siddhi.query.api.expression.Expression;
 
@@ -60,13 +59,16 @@ public class GroupByKeyGenerator {
      * @param event complexEvent
      * @return GroupByKey
      */
-    public String constructEventKey(ComplexEvent event) {
+    public GroupByKey constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append(SiddhiConstants.KEY_DELIMITER);
+            if (groupByExecutors.length == 1) {
+                return GroupByKey.of(groupByExecutors[0].execute(event));
             }
-            return sb.toString();
+            Object[] values = new Object[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                values[i] = groupByExecutors[i].execute(event);
+            }
+            return GroupByKey.of(values);
         } else {
             return null;
         }
@@ -22,8 +22,11 @@ import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.GroupedComplexEvent;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.state.StateEventFactory;
 import io.siddhi.core.event.state.populater.StateEventPopulator;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import io.siddhi.core.query.output.ratelimit.OutputRateLimiter;
@@ -45,6 +48,7 @@ public class QuerySelector implements Processor {
 
 
     private static final Logger log = Logger.getLogger(QuerySelector.class);
+    private static final ThreadLocal<List<ComplexEvent>> CONSUMED_EVENTS = ThreadLocal.withInitial(ArrayList::new);
     private Selector selector;
     private SiddhiQueryContext siddhiQueryContext;
     private boolean currentOn = false;
@@ -62,6 +66,7 @@ public class QuerySelector implements Processor {
     private boolean batchingEnabled = true;
     private long limit = SiddhiConstants.UNKNOWN_STATE;
     private long offset = SiddhiConstants.UNKNOWN_STATE;
+    private boolean recycleEvents = false;
 
     public QuerySelector(String id, Selector selector, boolean currentOn, boolean expiredOn, SiddhiQueryContext
             siddhiQueryContext) {
@@ -77,6 +82,60 @@ public class QuerySelector implements Processor {
         if (log.isTraceEnabled()) {
             log.trace("event is processed by selector " + id + this);
         }
+        if (recycleEvents) {
+            processAndRecycle(complexEventChunk);
+        } else {
+            processEvents(complexEventChunk);
+        }
+    }
+
+    /**
+     * Process the chunk and return its events to their pools once the output callbacks have consumed them. The
+     * events are collected up front, as the selector unlinks the events that it drops from the chunk.
+     *
+     * @param complexEventChunk events to be processed
+     */
+    private void processAndRecycle(ComplexEventChunk complexEventChunk) {
+        List<ComplexEvent> consumedEvents = CONSUMED_EVENTS.get();
+        int start = consumedEvents.size();
+        collectEvents(complexEventChunk, consumedEvents);
+        boolean processed = false;
+        try {
+            processEvents(complexEventChunk);
+            processed = true;
+        } finally {
+            recycleEvents(consumedEvents, start, processed);
+        }
+    }
+
+    private static void collectEvents(ComplexEventChunk complexEventChunk, List<ComplexEvent> consumedEvents) {
+        for (ComplexEvent event = complexEventChunk.getFirst(); event != null; event = event.getNext()) {
+            consumedEvents.add(event);
+        }
+    }
+
+    /**
+     * Return the events collected from the given position onwards to their pools. Only the events borrowed from a
+     * pooled factory of this query are recycled, as the factory ignores events that it did not create.
+     *
+     * @param consumedEvents events handed to the selector
+     * @param start          position of the first event of the current invocation
+     * @param processed      whether the events were successfully processed
+     */
+    private static void recycleEvents(List<ComplexEvent> consumedEvents, int start, boolean processed) {
+        for (int i = consumedEvents.size() - 1; i >= start; i--) {
+            ComplexEvent event = consumedEvents.remove(i);
+            if (processed) {
+                if (event instanceof StreamEvent) {
+                    StreamEventFactory.recycle((StreamEvent) event);
+                } else if (event instanceof StateEvent) {
+                    StateEventFactory.recycle((StateEvent) event);
+                }
+            }
+        }
+    }
+
+    private void processEvents(ComplexEventChunk complexEventChunk) {
         ComplexEventChunk outputComplexEventChunk = null;
         if (complexEventChunk.isBatch() && batchingEnabled) {
             if (isGroupBy) {
@@ -99,6 +158,25 @@ public class QuerySelector implements Processor {
     }
 
     public void process(List<ComplexEventChunk> complexEventChunks) {
+        if (!recycleEvents) {
+            processEvents(complexEventChunks);
+            return;
+        }
+        List<ComplexEvent> consumedEvents = CONSUMED_EVENTS.get();
+        int start = consumedEvents.size();
+        for (ComplexEventChunk complexEventChunk : complexEventChunks) {
+            collectEvents(complexEventChunk, consumedEvents);
+        }
+        boolean processed = false;
+        try {
+            processEvents(complexEventChunks);
+            processed = true;
+        } finally {
+            recycleEvents(consumedEvents, start, processed);
+        }
+    }
+
+    private void processEvents(List<ComplexEventChunk> complexEventChunks) {
         List<ComplexEventChunk> returnEventChunks = new ArrayList<>(complexEventChunks.size());
         for (ComplexEventChunk complexEventChunk : complexEventChunks) {
             if (complexEventChunk.getFirst() != null) {
@@ -217,7 +295,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        GroupByKey groupByKey = groupByKeyGenerator.constructEventKey(event);
                         SiddhiAppContext.startGroupByFlow(groupByKey);
                         try {
                             for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -313,7 +391,7 @@ public class QuerySelector implements Processor {
     }
 
     private ComplexEventChunk processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<GroupByKey, ComplexEvent> groupedEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
         complexEventChunk.reset();
 
         synchronized (this) {
@@ -324,7 +402,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        GroupByKey groupByKey = groupByKeyGenerator.constructEventKey(event);
                         SiddhiAppContext.startGroupByFlow(groupByKey);
                         try {
                             for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -354,7 +432,7 @@ public class QuerySelector implements Processor {
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<GroupByKey, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(),
                         groupedEventEntry.getValue()));
             }
@@ -429,6 +507,20 @@ public class QuerySelector implements Processor {
         this.batchingEnabled = batchingEnabled;
     }
 
+    public boolean isRecycleEvents() {
+        return recycleEvents;
+    }
+
+    /**
+     * Enable returning the processed events to their pools. Should only be enabled when the events are not retained
+     * after they are sent to the output callbacks.
+     *
+     * @param recycleEvents whether the processed events are recycled
+     */
+    public void setRecycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+    }
+
     public void setEventPopulator(StateEventPopulator eventPopulator) {
         this.eventPopulator = eventPopulator;
     }
@@ -22,11 +22,13 @@ import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.extension.validator.InputParameterValidator;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Abstract parent class for attribute aggregators. Attribute aggregators are used to perform aggregate operations
@@ -39,6 +41,8 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
     protected ExpressionExecutor[] attributeExpressionExecutors;
     private int attributeSize;
     private StateHolder<S> stateHolder;
+    private PaneSpec paneSpec;
+    private StateHolder<PaneAggregatorState> paneStateHolder;
 
     public void initAggregator(ExpressionExecutor[] attributeExpressionExecutors, ProcessingMode processingMode,
                                boolean outputExpectsExpiredEvents,
@@ -51,13 +55,32 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
                     outputExpectsExpiredEvents, configReader, siddhiQueryContext);
             stateHolder = siddhiQueryContext.generateStateHolder(this.getClass().getName(),
                     groupBy, stateFactory, true);
+            paneSpec = siddhiQueryContext.getPaneSpec();
+            if (paneSpec != null) {
+                PaneAggregatorState.Function paneFunction = getPaneFunction();
+                if (paneFunction != null) {
+                    Attribute.Type type = attributeSize == 1 && paneFunction != PaneAggregatorState.Function.COUNT ?
+                            attributeExpressionExecutors[0].getReturnType() : null;
+                    PaneSpec spec = paneSpec;
+                    paneStateHolder = siddhiQueryContext.generateStateHolder(this.getClass().getName() + "-pane",
+                            groupBy, () -> new PaneAggregatorState(paneFunction, type, spec), true);
+                    paneSpec.addHopListener(hopEnd -> {
+                        if (paneSpec.isPaneExecution()) {
+                            PaneAggregatorState.expire(paneStateHolder, hopEnd);
+                        }
+                    });
+                }
+                paneSpec.registerAggregator(paneFunction != null);
+            }
         } catch (Throwable t) {
             throw new SiddhiAppCreationException(t);
         }
     }
 
     public Object execute(ComplexEvent event) {
-        if (attributeSize > 1) {
+        if (paneStateHolder != null && paneSpec.isPaneExecution()) {
+            return processPane(event);
+        } else if (attributeSize > 1) {
             return processAttributeArray(event);
         } else if (attributeSize == 1) {
             return processAttribute(event);
@@ -106,6 +129,27 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
         return null;
     }
 
+    private Object processPane(ComplexEvent event) {
+        Long hopEnd = paneSpec.getHopEnd();
+        if (event.getType() == ComplexEvent.Type.RESET) {
+            PaneAggregatorState state = paneStateHolder.cleanGroupByStates();
+            if (state != null) {
+                state.clear();
+            }
+            return null;
+        }
+        PaneAggregatorState state = paneStateHolder.getState();
+        try {
+            if (event.getType() == ComplexEvent.Type.CURRENT && hopEnd != null) {
+                Object data = attributeSize == 1 ? attributeExpressionExecutors[0].execute(event) : null;
+                return state.add(event.getTimestamp(), data, hopEnd);
+            }
+            return state.currentValue();
+        } finally {
+            paneStateHolder.returnState(state);
+        }
+    }
+
     private Object processAdd(Object data) {
         S state = stateHolder.getState();
         try {
@@ -175,5 +219,15 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
 
     public abstract Object reset(S state);
 
+    /**
+     * The function to be used when the aggregator is executed over the panes of a hopping window, aggregators that
+     * cannot be computed from pane partials return null.
+     *
+     * @return pane aggregation function or null
+     */
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return null;
+    }
+
 
 }
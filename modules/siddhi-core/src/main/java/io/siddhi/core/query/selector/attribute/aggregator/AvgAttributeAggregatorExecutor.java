@@ -140,6 +140,11 @@ public class AvgAttributeAggregatorExecutor
         return state.reset();
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.AVG;
+    }
+
     class AvgAttributeAggregatorStateDouble extends AvgAttributeState {
 
         private double value = 0.0;
@@ -122,6 +122,11 @@ public class CountAttributeAggregatorExecutor
         return state.count;
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.COUNT;
+    }
+
 
     class AggregatorState extends State {
         private long count = 0L;
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.HyperLogLog;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregatorExecutor} to estimate the distinct count of an event attribute using a
+ * {@link HyperLogLog} sketch of fixed memory.
+ */
+@Extension(
+        name = "distinctCountApprox",
+        namespace = "",
+        description = "This returns an estimate of the count of distinct occurrences for a given arg, using a " +
+                "HyperLogLog sketch having a standard error of about 1.6% and a fixed memory of 4 KB per group. " +
+                "As values cannot be removed from the sketch, this can be used with batch windows and " +
+                "incremental aggregations, but not with sliding windows.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The object for which the number of distinct occurrences needs to be " +
+                                "estimated.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT, DataType.STRING,
+                                DataType.BOOL},
+                        dynamic = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"arg"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the estimated count of distinct occurrences for a given arg.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = "from pageVisitStream#window.timeBatch(1 day)\n" +
+                        "select distinctCountApprox(userId) as visitors\n" +
+                        "insert into visitorCountStream;",
+                description = "distinctCountApprox(userId) returns the estimated number of distinct users visited " +
+                        "during each day."
+        )
+)
+public class DistinctCountApproxAttributeAggregatorExecutor
+        extends AttributeAggregatorExecutor<DistinctCountApproxAttributeAggregatorExecutor.AggregatorState> {
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param processingMode               query processing mode
+     * @param outputExpectsExpiredEvents   is expired events sent as output
+     * @param configReader                 this hold the {@link DistinctCountApproxAttributeAggregatorExecutor}
+     *                                     configuration reader.
+     * @param siddhiQueryContext           Siddhi query runtime context
+     */
+    @Override
+    protected StateFactory<AggregatorState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                                 ProcessingMode processingMode,
+                                                 boolean outputExpectsExpiredEvents, ConfigReader configReader,
+                                                 SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new OperationNotSupportedException("Distinct count approx aggregator has to have exactly 1 " +
+                    "parameter, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (processingMode != ProcessingMode.BATCH && processingMode != ProcessingMode.RESET &&
+                processingMode != ProcessingMode.HOP) {
+            throw new OperationNotSupportedException("Distinct count approx aggregator cannot remove expired " +
+                    "values, hence it does not support " + processingMode + " processing mode, use distinctCount " +
+                    "aggregator or a batch window instead");
+        }
+        return () -> new AggregatorState();
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    public Object processAdd(Object data, AggregatorState state) {
+        state.hyperLogLog.offer(data);
+        return state.hyperLogLog.cardinality();
+    }
+
+    @Override
+    public Object processAdd(Object[] data, AggregatorState state) {
+        return new IllegalStateException(
+                "Distinct count approx aggregator cannot process data array, but found " + Arrays.deepToString(data));
+    }
+
+    @Override
+    public Object processRemove(Object data, AggregatorState state) {
+        // Expired events of batch windows are followed by a reset, hence the removal can be ignored
+        return state.hyperLogLog.cardinality();
+    }
+
+    @Override
+    public Object processRemove(Object[] data, AggregatorState state) {
+        return new IllegalStateException(
+                "Distinct count approx aggregator cannot process data array, but found " + Arrays.deepToString(data));
+    }
+
+    @Override
+    public Object reset(AggregatorState state) {
+        state.hyperLogLog = new HyperLogLog();
+        return 0L;
+    }
+
+    class AggregatorState extends State {
+
+        private HyperLogLog hyperLogLog = new HyperLogLog();
+
+        @Override
+        public boolean canDestroy() {
+            return hyperLogLog.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("HyperLogLog", hyperLogLog);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            hyperLogLog = (HyperLogLog) state.get("HyperLogLog");
+        }
+    }
+}
@@ -95,7 +95,20 @@ public class MaxAttributeAggregatorExecutor
             trackFutureStates = true;
         }
         returnType = attributeExpressionExecutors[0].getReturnType();
+        switch (returnType) {
+            case FLOAT:
+            case INT:
+            case LONG:
+            case DOUBLE:
+                break;
+            default:
+                throw new OperationNotSupportedException("Max not supported for " + returnType);
+        }
         boolean finalTrackFutureStates = trackFutureStates;
+        if (trackFutureStates && siddhiQueryContext.isFifoExpiry()) {
+            // Events expire in their arrival order, hence a monotonic deque is sufficient
+            return () -> new MaxAttributeAggregatorStateFifo();
+        }
         return () -> {
             switch (returnType) {
                 case FLOAT:
@@ -149,6 +162,11 @@ public class MaxAttributeAggregatorExecutor
         return state.reset();
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.MAX;
+    }
+
     class MaxAttributeAggregatorStateDouble extends MaxAggregatorState {
 
         private Deque<Double> maxDeque = null;
@@ -456,6 +474,50 @@ public class MaxAttributeAggregatorExecutor
 
     }
 
+    class MaxAttributeAggregatorStateFifo extends MaxAggregatorState {
+
+        private MonotonicDeque maxDeque = new MonotonicDeque(true, returnType);
+
+        @Override
+        public Object processAdd(Object data) {
+            maxDeque.add(data);
+            return maxDeque.peek();
+        }
+
+        @Override
+        public Object processRemove(Object data) {
+            maxDeque.remove();
+            return maxDeque.peek();
+        }
+
+        @Override
+        public Object reset() {
+            maxDeque.clear();
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return maxDeque.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("MaxDeque", maxDeque);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            maxDeque = (MonotonicDeque) state.get("MaxDeque");
+        }
+
+        protected Object currentValue() {
+            return maxDeque.peek();
+        }
+    }
+
     abstract class MaxAggregatorState extends State {
         public abstract Object processAdd(Object data);
 
@@ -97,7 +97,20 @@ public class MinAttributeAggregatorExecutor
             trackFutureStates = true;
         }
         returnType = attributeExpressionExecutors[0].getReturnType();
+        switch (returnType) {
+            case FLOAT:
+            case INT:
+            case LONG:
+            case DOUBLE:
+                break;
+            default:
+                throw new OperationNotSupportedException("Min not supported for " + returnType);
+        }
         boolean finalTrackFutureStates = trackFutureStates;
+        if (trackFutureStates && siddhiQueryContext.isFifoExpiry()) {
+            // Events expire in their arrival order, hence a monotonic deque is sufficient
+            return () -> new MinAttributeAggregatorStateFifo();
+        }
         return new StateFactory<MinAggregatorState>() {
             @Override
             public MinAggregatorState createNewState() {
@@ -155,6 +168,11 @@ public class MinAttributeAggregatorExecutor
         return state.reset();
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.MIN;
+    }
+
     class MinAttributeAggregatorStateDouble extends MinAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
@@ -482,6 +500,50 @@ public class MinAttributeAggregatorExecutor
 
     }
 
+    class MinAttributeAggregatorStateFifo extends MinAggregatorState {
+
+        private MonotonicDeque minDeque = new MonotonicDeque(false, returnType);
+
+        @Override
+        public Object processAdd(Object data) {
+            minDeque.add(data);
+            return minDeque.peek();
+        }
+
+        @Override
+        public Object processRemove(Object data) {
+            minDeque.remove();
+            return minDeque.peek();
+        }
+
+        @Override
+        public Object reset() {
+            minDeque.clear();
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return minDeque.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("MinDeque", minDeque);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            minDeque = (MonotonicDeque) state.get("MinDeque");
+        }
+
+        protected Object currentValue() {
+            return minDeque.peek();
+        }
+    }
+
     abstract class MinAggregatorState extends State {
         public abstract Object processAdd(Object data);
 
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.core.util.snapshot.SnapshotCopyable;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+
+/**
+ * Monotonic deque used to find the max or min value of a sliding window in amortized O(1) time, when the events
+ * expire in the same order as they arrived.
+ * <p>
+ * Values are kept in primitive ring buffers together with their arrival sequence numbers, hence an expiring event
+ * only needs to be compared with the head of the deque. Float and double values are stored using an order
+ * preserving long encoding of their bits.
+ */
+public class MonotonicDeque implements SnapshotCopyable, Serializable {
+
+    private static final long serialVersionUID = -2417562306381232474L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean max;
+    private final Attribute.Type type;
+    private long[] values = new long[INITIAL_CAPACITY];
+    private long[] sequences = new long[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+    private long addSequence = 0;
+    private long removeSequence = 0;
+
+    /**
+     * @param max  true to track the max value, and false to track the min value
+     * @param type type of the values
+     */
+    public MonotonicDeque(boolean max, Attribute.Type type) {
+        this.max = max;
+        this.type = type;
+    }
+
+    /**
+     * Add the value of an arriving event.
+     *
+     * @param data value of the arriving event
+     */
+    public void add(Object data) {
+        long value = encode(data);
+        // Older values which can never be the max/min while this value is in the window are dropped
+        while (size > 0) {
+            long last = values[index(size - 1)];
+            if (max ? last <= value : last >= value) {
+                size--;
+            } else {
+                break;
+            }
+        }
+        if (size == values.length) {
+            grow();
+        }
+        int index = index(size);
+        values[index] = value;
+        sequences[index] = addSequence++;
+        size++;
+    }
+
+    /**
+     * Remove the value of the oldest event in the window.
+     */
+    public void remove() {
+        if (size > 0 && sequences[head] == removeSequence) {
+            head = index(1);
+            size--;
+        }
+        removeSequence++;
+    }
+
+    /**
+     * @return the max/min value of the window, or null if the window is empty
+     */
+    public Object peek() {
+        if (size == 0) {
+            return null;
+        }
+        return decode(values[head]);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        addSequence = 0;
+        removeSequence = 0;
+    }
+
+    @Override
+    public Object copyForSnapshot() {
+        MonotonicDeque copy = new MonotonicDeque(max, type);
+        copy.values = values.clone();
+        copy.sequences = sequences.clone();
+        copy.head = head;
+        copy.size = size;
+        copy.addSequence = addSequence;
+        copy.removeSequence = removeSequence;
+        return copy;
+    }
+
+    private int index(int offset) {
+        return (head + offset) & (values.length - 1);
+    }
+
+    private void grow() {
+        long[] newValues = new long[values.length << 1];
+        long[] newSequences = new long[sequences.length << 1];
+        for (int i = 0; i < size; i++) {
+            newValues[i] = values[index(i)];
+            newSequences[i] = sequences[index(i)];
+        }
+        values = newValues;
+        sequences = newSequences;
+        head = 0;
+    }
+
+    private long encode(Object data) {
+        switch (type) {
+            case FLOAT:
+                return encodeDouble((Float) data);
+            case DOUBLE:
+                return encodeDouble((Double) data);
+            case INT:
+                return (Integer) data;
+            default:
+                return (Long) data;
+        }
+    }
+
+    private Object decode(long value) {
+        switch (type) {
+            case FLOAT:
+                return (float) decodeDouble(value);
+            case DOUBLE:
+                return decodeDouble(value);
+            case INT:
+                return (int) value;
+            default:
+                return value;
+        }
+    }
+
+    private static long encodeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double decodeDouble(long value) {
+        return Double.longBitsToDouble(value ^ ((value >> 63) & Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
+import io.siddhi.core.util.snapshot.SnapshotCopyable;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of an aggregator executed over the panes of a hopping time window. It keeps a partial aggregate per pane
+ * of the window, the combination of the panes preceding the current hop, and a running partial of the current hop,
+ * such that each event is aggregated in constant time and the preceding panes are combined once per hop.
+ */
+public class PaneAggregatorState extends State {
+
+    private final Function function;
+    private final Attribute.Type type;
+    private final long paneTime;
+    private final long hopTime;
+    private final int paneCount;
+    private Partial[] panes;
+    private long[] paneIds;
+    private long hopEnd = Long.MIN_VALUE;
+    private Partial precedingPanes;
+    private Partial currentHop;
+    private final Partial result;
+
+    public PaneAggregatorState(Function function, Attribute.Type type, PaneSpec paneSpec) {
+        this.function = function;
+        this.type = type;
+        this.paneTime = paneSpec.getPaneTime();
+        this.hopTime = paneSpec.getHopTime();
+        this.paneCount = paneSpec.getPaneCount();
+        this.precedingPanes = new Partial(type);
+        this.currentHop = new Partial(type);
+        this.result = new Partial(type);
+    }
+
+    /**
+     * Expires the panes that fall before the window of the hop ending at the given time from all the group by states
+     * of the current partition, and drops the states that no longer hold any pane. As the window only emits the
+     * events of the current hop, the states of the groups that stop receiving events are otherwise never released.
+     *
+     * @param stateHolder holder of the pane aggregator states
+     * @param hopEnd      end time of the hop about to be emitted
+     */
+    public static void expire(StateHolder<PaneAggregatorState> stateHolder, long hopEnd) {
+        Map<Object, PaneAggregatorState> states = stateHolder.getAllGroupByStates();
+        try {
+            for (PaneAggregatorState state : states.values()) {
+                state.expire(hopEnd);
+            }
+        } finally {
+            stateHolder.returnGroupByStates(states);
+        }
+    }
+
+    /**
+     * Aggregates a value of the hop ending at the given time.
+     *
+     * @param timestamp timestamp of the event
+     * @param value     value to be aggregated
+     * @param hopEnd    end time of the hop being emitted
+     * @return aggregated value of the window
+     */
+    public Object add(long timestamp, Object value, long hopEnd) {
+        if (this.hopEnd != hopEnd) {
+            startHop(hopEnd);
+        }
+        long hopStartPane = Math.floorDiv(hopEnd - hopTime, paneTime);
+        long paneId = Math.min(Math.max(Math.floorDiv(timestamp, paneTime), hopStartPane),
+                Math.floorDiv(hopEnd, paneTime) - 1);
+        int slot = (int) Math.floorMod(paneId, (long) paneCount);
+        if (paneIds[slot] != paneId) {
+            panes[slot].clear();
+            paneIds[slot] = paneId;
+        }
+        panes[slot].add(value);
+        currentHop.add(value);
+        return currentValue();
+    }
+
+    public Object currentValue() {
+        result.clear();
+        result.merge(precedingPanes);
+        result.merge(currentHop);
+        return function.compute(result, type);
+    }
+
+    public void clear() {
+        panes = null;
+        paneIds = null;
+        hopEnd = Long.MIN_VALUE;
+        precedingPanes.clear();
+        currentHop.clear();
+    }
+
+    private void expire(long hopEnd) {
+        if (panes == null) {
+            return;
+        }
+        long windowStartPane = Math.floorDiv(hopEnd, paneTime) - paneCount;
+        for (int i = 0; i < paneCount; i++) {
+            if (paneIds[i] != Long.MIN_VALUE && paneIds[i] < windowStartPane) {
+                panes[i].clear();
+                paneIds[i] = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    private void startHop(long hopEnd) {
+        if (panes == null) {
+            panes = new Partial[paneCount];
+            paneIds = new long[paneCount];
+            for (int i = 0; i < paneCount; i++) {
+                panes[i] = new Partial(type);
+                paneIds[i] = Long.MIN_VALUE;
+            }
+        }
+        this.hopEnd = hopEnd;
+        precedingPanes.clear();
+        currentHop.clear();
+        long hopStartPane = Math.floorDiv(hopEnd - hopTime, paneTime);
+        for (long paneId = Math.floorDiv(hopEnd, paneTime) - paneCount; paneId < hopStartPane; paneId++) {
+            int slot = (int) Math.floorMod(paneId, (long) paneCount);
+            if (paneIds[slot] == paneId) {
+                precedingPanes.merge(panes[slot]);
+            }
+        }
+    }
+
+    @Override
+    public boolean canDestroy() {
+        if (panes != null) {
+            for (Partial pane : panes) {
+                if (pane.events > 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Panes", panes);
+        state.put("PaneIds", paneIds);
+        state.put("HopEnd", hopEnd);
+        state.put("PrecedingPanes", precedingPanes);
+        state.put("CurrentHop", currentHop);
+        return state;
+    }
+
+    @Override
+    public void restore(Map<String, Object> state) {
+        panes = (Partial[]) state.get("Panes");
+        paneIds = (long[]) state.get("PaneIds");
+        hopEnd = (long) state.get("HopEnd");
+        precedingPanes = (Partial) state.get("PrecedingPanes");
+        currentHop = (Partial) state.get("CurrentHop");
+    }
+
+    /**
+     * Aggregation functions that can be computed from pane partials.
+     */
+    public enum Function {
+        SUM {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                if (partial.count == 0) {
+                    return null;
+                }
+                return type == Attribute.Type.INT || type == Attribute.Type.LONG ? partial.longSum : partial.sum;
+            }
+        },
+        COUNT {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                return partial.events;
+            }
+        },
+        AVG {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                if (partial.count == 0) {
+                    return null;
+                }
+                return partial.sum / partial.count;
+            }
+        },
+        MIN {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                if (partial.count == 0) {
+                    return null;
+                }
+                return partial.toType(partial.minLong, partial.min);
+            }
+        },
+        MAX {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                if (partial.count == 0) {
+                    return null;
+                }
+                return partial.toType(partial.maxLong, partial.max);
+            }
+        },
+        STD_DEV {
+            @Override
+            Object compute(Partial partial, Attribute.Type type) {
+                if (partial.count == 0) {
+                    return null;
+                } else if (partial.count == 1) {
+                    return 0.0;
+                }
+                return Math.sqrt(partial.m2 / partial.count);
+            }
+        };
+
+        abstract Object compute(Partial partial, Attribute.Type type);
+    }
+
+    /**
+     * Partial aggregate of a set of events, holding the moments needed by all the {@link Function}s.
+     */
+    static class Partial implements SnapshotCopyable, Serializable {
+
+        private static final long serialVersionUID = 6244512906117418361L;
+        private final Attribute.Type type;
+        private long events;
+        private long count;
+        private long longSum;
+        private double sum;
+        private double mean;
+        private double m2;
+        private long minLong;
+        private long maxLong;
+        private double min;
+        private double max;
+
+        Partial(Attribute.Type type) {
+            this.type = type;
+            clear();
+        }
+
+        @Override
+        public Object copyForSnapshot() {
+            Partial copy = new Partial(type);
+            copy.events = events;
+            copy.count = count;
+            copy.longSum = longSum;
+            copy.sum = sum;
+            copy.mean = mean;
+            copy.m2 = m2;
+            copy.minLong = minLong;
+            copy.maxLong = maxLong;
+            copy.min = min;
+            copy.max = max;
+            return copy;
+        }
+
+        void clear() {
+            events = 0;
+            count = 0;
+            longSum = 0;
+            sum = 0.0;
+            mean = 0.0;
+            m2 = 0.0;
+            minLong = Long.MAX_VALUE;
+            maxLong = Long.MIN_VALUE;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+
+        void add(Object value) {
+            events++;
+            if (value == null || type == null) {
+                return;
+            }
+            double doubleValue;
+            if (type == Attribute.Type.INT || type == Attribute.Type.LONG) {
+                long longValue = ((Number) value).longValue();
+                longSum += longValue;
+                minLong = Math.min(minLong, longValue);
+                maxLong = Math.max(maxLong, longValue);
+                doubleValue = longValue;
+            } else {
+                doubleValue = ((Number) value).doubleValue();
+                min = Math.min(min, doubleValue);
+                max = Math.max(max, doubleValue);
+            }
+            count++;
+            sum += doubleValue;
+            double delta = doubleValue - mean;
+            mean += delta / count;
+            m2 += delta * (doubleValue - mean);
+        }
+
+        void merge(Partial partial) {
+            events += partial.events;
+            if (partial.count == 0) {
+                return;
+            }
+            long total = count + partial.count;
+            double delta = partial.mean - mean;
+            mean += delta * partial.count / total;
+            m2 += partial.m2 + delta * delta * count * partial.count / total;
+            count = total;
+            longSum += partial.longSum;
+            sum += partial.sum;
+            minLong = Math.min(minLong, partial.minLong);
+            maxLong = Math.max(maxLong, partial.maxLong);
+            min = Math.min(min, partial.min);
+            max = Math.max(max, partial.max);
+        }
+
+        Object toType(long longValue, double doubleValue) {
+            switch (type) {
+                case INT:
+                    return (int) longValue;
+                case LONG:
+                    return longValue;
+                case FLOAT:
+                    return (float) doubleValue;
+                default:
+                    return doubleValue;
+            }
+        }
+    }
+}
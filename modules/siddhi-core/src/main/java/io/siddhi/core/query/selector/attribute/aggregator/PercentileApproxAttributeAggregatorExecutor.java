@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.QuantileSketch;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregatorExecutor} to estimate a percentile of an event attribute using a
+ * {@link QuantileSketch} of bounded memory.
+ */
+@Extension(
+        name = "percentileApprox",
+        namespace = "",
+        description = "This returns an estimate of the given percentile of the arg values, using a quantile sketch " +
+                "having a relative error of 1% and a bounded memory per group. Values are removed from the sketch " +
+                "when they expire, hence this can be used with sliding windows as well as incremental aggregations.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value for which the percentile needs to be estimated.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT},
+                        dynamic = true),
+                @Parameter(name = "percentile",
+                        description = "The percentile to be estimated, between 0 and 100.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT})
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"arg", "percentile"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the estimated value at the given percentile.",
+                type = {DataType.DOUBLE}),
+        examples = @Example(
+                syntax = "from requestStream#window.time(1 min)\n" +
+                        "select percentileApprox(latency, 99) as p99Latency\n" +
+                        "insert into latencyStream;",
+                description = "percentileApprox(latency, 99) returns the estimated 99th percentile of the latency " +
+                        "values received during the last minute."
+        )
+)
+public class PercentileApproxAttributeAggregatorExecutor
+        extends AttributeAggregatorExecutor<PercentileApproxAttributeAggregatorExecutor.AggregatorState> {
+
+    private double quantile;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param processingMode               query processing mode
+     * @param outputExpectsExpiredEvents   is expired events sent as output
+     * @param configReader                 this hold the {@link PercentileApproxAttributeAggregatorExecutor}
+     *                                     configuration reader.
+     * @param siddhiQueryContext           Siddhi query runtime context
+     */
+    @Override
+    protected StateFactory<AggregatorState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                                 ProcessingMode processingMode,
+                                                 boolean outputExpectsExpiredEvents, ConfigReader configReader,
+                                                 SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 2) {
+            throw new OperationNotSupportedException("Percentile approx aggregator has to have exactly 2 " +
+                    "parameters, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (!(attributeExpressionExecutors[1] instanceof ConstantExpressionExecutor)) {
+            throw new OperationNotSupportedException("Percentile of the percentile approx aggregator has to be " +
+                    "a constant");
+        }
+        double percentile = ((Number) attributeExpressionExecutors[1].execute(null)).doubleValue();
+        if (percentile < 0 || percentile > 100) {
+            throw new OperationNotSupportedException("Percentile of the percentile approx aggregator has to be " +
+                    "between 0 and 100, but found " + percentile);
+        }
+        quantile = percentile / 100;
+        return () -> new AggregatorState();
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+
+    @Override
+    public Object processAdd(Object data, AggregatorState state) {
+        // will not occur
+        return new IllegalStateException("Percentile approx cannot process a single data item, but found " + data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data, AggregatorState state) {
+        if (data[0] != null) {
+            state.quantileSketch.add(((Number) data[0]).doubleValue());
+        }
+        return state.quantileSketch.getQuantile(quantile);
+    }
+
+    @Override
+    public Object processRemove(Object data, AggregatorState state) {
+        // will not occur
+        return new IllegalStateException("Percentile approx cannot process a single data item, but found " + data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data, AggregatorState state) {
+        if (data[0] != null) {
+            state.quantileSketch.remove(((Number) data[0]).doubleValue());
+        }
+        return state.quantileSketch.getQuantile(quantile);
+    }
+
+    @Override
+    public Object reset(AggregatorState state) {
+        state.quantileSketch = new QuantileSketch();
+        return null;
+    }
+
+    class AggregatorState extends State {
+
+        private QuantileSketch quantileSketch = new QuantileSketch();
+
+        @Override
+        public boolean canDestroy() {
+            return quantileSketch.getCount() == 0;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("QuantileSketch", quantileSketch);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            quantileSketch = (QuantileSketch) state.get("QuantileSketch");
+        }
+    }
+}
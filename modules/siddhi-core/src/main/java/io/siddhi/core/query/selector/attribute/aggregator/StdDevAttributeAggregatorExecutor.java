@@ -142,6 +142,11 @@ public class StdDevAttributeAggregatorExecutor
         return state.reset();
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.STD_DEV;
+    }
+
     /**
      * Standard deviation abstrct aggregator for Double values
      */
@@ -161,6 +161,11 @@ public class SumAttributeAggregatorExecutor
         return state.reset();
     }
 
+    @Override
+    protected PaneAggregatorState.Function getPaneFunction() {
+        return PaneAggregatorState.Function.SUM;
+    }
+
     class AggregatorStateDouble extends AggregatorState {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
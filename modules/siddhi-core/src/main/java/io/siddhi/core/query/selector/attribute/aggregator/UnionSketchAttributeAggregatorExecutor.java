@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.sketch.MergeableSketch;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregatorExecutor} to merge {@link MergeableSketch}es, used to roll up the sketches of
+ * incremental aggregations.
+ */
+@Extension(
+        name = "unionSketch",
+        namespace = "",
+        description = "Merges multiple sketches of the same type, such as the ones created by createHyperLogLog() " +
+                "and createQuantileSketch() functions, and returns the merged sketch. As sketches cannot be " +
+                "un-merged, this can be used with batch windows and incremental aggregations, but not with sliding " +
+                "windows.",
+        parameters =
+        @Parameter(name = "sketch",
+                description = "The sketch object that needs to be merged.",
+                type = {DataType.OBJECT},
+                dynamic = true),
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"sketch"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the sketch object merging all the aggregated sketches.",
+                type = {DataType.OBJECT}),
+        examples = @Example(
+                syntax = "from pageVisitStream \n" +
+                        "select createHyperLogLog(userId) as userSketch \n" +
+                        "insert into sketchStream \n\n" +
+                        "" +
+                        "from sketchStream#window.timeBatch(10 sec) \n" +
+                        "select sizeOfHyperLogLog(unionSketch(userSketch)) as visitors \n" +
+                        "insert into visitorCountStream;",
+                description = "visitorCountStream will return the estimated number of distinct users visited " +
+                        "during each 10 seconds."
+        )
+)
+public class UnionSketchAttributeAggregatorExecutor
+        extends AttributeAggregatorExecutor<UnionSketchAttributeAggregatorExecutor.AggregatorState> {
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param processingMode               query processing mode
+     * @param outputExpectsExpiredEvents   is expired events sent as output
+     * @param configReader                 this hold the {@link UnionSketchAttributeAggregatorExecutor}
+     *                                     configuration reader.
+     * @param siddhiQueryContext           Siddhi query runtime context
+     */
+    @Override
+    protected StateFactory<AggregatorState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                                 ProcessingMode processingMode,
+                                                 boolean outputExpectsExpiredEvents, ConfigReader configReader,
+                                                 SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new OperationNotSupportedException("unionSketch aggregator has to have exactly 1 parameter, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.OBJECT) {
+            throw new OperationNotSupportedException("Parameter passed to unionSketch aggregator should be of type" +
+                    " object but found: " + attributeExpressionExecutors[0].getReturnType());
+        }
+        if (processingMode != ProcessingMode.BATCH && processingMode != ProcessingMode.RESET &&
+                processingMode != ProcessingMode.HOP) {
+            throw new OperationNotSupportedException("unionSketch aggregator cannot remove expired sketches, " +
+                    "hence it does not support " + processingMode + " processing mode");
+        }
+        return () -> new AggregatorState();
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.OBJECT;
+    }
+
+    @Override
+    public Object processAdd(Object data, AggregatorState state) {
+        if (data == null) {
+            return state.sketch;
+        }
+        if (!(data instanceof MergeableSketch)) {
+            throw new SiddhiAppRuntimeException("Input to unionSketch aggregator should be a sketch, but found " +
+                    data.getClass().getCanonicalName());
+        }
+        if (state.sketch == null) {
+            state.sketch = ((MergeableSketch) data).copy();
+        } else {
+            state.sketch.merge((MergeableSketch) data);
+        }
+        // The returned sketch is not cleared on reset but replaced, hence it can be kept until the aggregated
+        // values are inserted into the store
+        return state.sketch;
+    }
+
+    @Override
+    public Object processAdd(Object[] data, AggregatorState state) {
+        //unionSketch can have only one input parameter, hence this will not be invoked.
+        return null;
+    }
+
+    @Override
+    public Object processRemove(Object data, AggregatorState state) {
+        // Expired events of batch windows are followed by a reset, hence the removal can be ignored
+        return state.sketch;
+    }
+
+    @Override
+    public Object processRemove(Object[] data, AggregatorState state) {
+        //unionSketch can have only one input parameter, hence this will not be invoked.
+        return null;
+    }
+
+    @Override
+    public Object reset(AggregatorState state) {
+        state.sketch = null;
+        return null;
+    }
+
+    class AggregatorState extends State {
+
+        private MergeableSketch sketch = null;
+
+        @Override
+        public boolean canDestroy() {
+            return sketch == null;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Sketch", sketch);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            sketch = (MergeableSketch) state.get("Sketch");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator.incremental;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.expression.Expression;
+
+/**
+ * {@link IncrementalAttributeAggregator} to estimate the distinct count based on an event attribute, by rolling up
+ * HyperLogLog sketches.
+ */
+@Extension(
+        name = "distinctCountApprox",
+        namespace = "incrementalAggregator",
+        description = "Returns an estimate of the distinct count of all events, in incremental event processing, " +
+                "using HyperLogLog sketches of fixed memory which are merged across the durations.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The attribute that needs to be counted.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE,
+                                DataType.FLOAT, DataType.STRING, DataType.BOOL},
+                        dynamic = true)
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"arg"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the estimated distinct event count as a long.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = " define aggregation pageVisitAggregation\n from pageVisitStream\n" +
+                        " select distinctCountApprox(userId) as visitors,\n aggregate by timeStamp every sec ... " +
+                        "day;",
+                description = "distinctCountApprox(userId) returns the estimated distinct count of all the users " +
+                        "for sec, min, hour and day durations."
+        )
+)
+public class DistinctCountApproxIncrementalAttributeAggregator extends IncrementalAttributeAggregator {
+
+    private Attribute[] baseAttributes;
+    private Expression[] baseAttributesInitialValues;
+
+    @Override
+    public void init(String attributeName, Attribute.Type attributeType) {
+        if (attributeType.equals(Attribute.Type.OBJECT)) {
+            throw new SiddhiAppRuntimeException(
+                    "Distinct count approx aggregation cannot be executed on attribute type " +
+                            attributeType.toString());
+        }
+        Attribute sketch = new Attribute("AGG_HLL_".concat(attributeName), Attribute.Type.OBJECT);
+        Expression sketchInitialValue = Expression.function("createHyperLogLog",
+                Expression.variable(attributeName));
+
+        this.baseAttributes = new Attribute[]{sketch};
+        this.baseAttributesInitialValues = new Expression[]{sketchInitialValue};
+    }
+
+    @Override
+    public Expression aggregate() {
+        return Expression.function("sizeOfHyperLogLog", Expression.variable(baseAttributes[0].getName()));
+    }
+
+    @Override
+    public Attribute[] getBaseAttributes() {
+        return this.baseAttributes;
+    }
+
+    @Override
+    public Expression[] getBaseAttributeInitialValues() {
+        return this.baseAttributesInitialValues;
+    }
+
+    @Override
+    public Expression[] getBaseAggregators() {
+        Expression sketchAggregator = Expression.function("unionSketch",
+                Expression.variable(getBaseAttributes()[0].getName()));
+        return new Expression[]{sketchAggregator};
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+}
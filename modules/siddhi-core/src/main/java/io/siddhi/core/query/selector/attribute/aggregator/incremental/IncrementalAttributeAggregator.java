@@ -18,8 +18,10 @@
 
 package io.siddhi.core.query.selector.attribute.aggregator.incremental;
 
+import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.constant.Constant;
 
 /**
  * Abstract class for incremental aggregators
@@ -28,6 +30,21 @@ public abstract class IncrementalAttributeAggregator {
 
     public abstract void init(String attributeName, Attribute.Type attributeType);
 
+    /**
+     * Initialise aggregators accepting constant parameters after the aggregated attribute, such as a percentile.
+     *
+     * @param attributeName      name of the aggregated attribute
+     * @param attributeType      type of the aggregated attribute
+     * @param constantParameters constant parameters following the aggregated attribute
+     */
+    public void init(String attributeName, Attribute.Type attributeType, Constant[] constantParameters) {
+        if (constantParameters.length != 0) {
+            throw new SiddhiAppCreationException("Incremental aggregator requires only one parameter. "
+                    + "Found " + (constantParameters.length + 1));
+        }
+        init(attributeName, attributeType);
+    }
+
     public abstract Expression aggregate();
 
     public abstract Attribute[] getBaseAttributes();
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator.incremental;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ParameterOverload;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.expression.constant.Constant;
+import io.siddhi.query.api.expression.Expression;
+
+/**
+ * {@link IncrementalAttributeAggregator} to estimate a percentile based on an event attribute, by rolling up
+ * quantile sketches.
+ */
+@Extension(
+        name = "percentileApprox",
+        namespace = "incrementalAggregator",
+        description = "Returns an estimate of the given percentile of all events, in incremental event processing, " +
+                "using quantile sketches of bounded memory which are merged across the durations.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The attribute for which the percentile needs to be estimated.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT},
+                        dynamic = true),
+                @Parameter(name = "percentile",
+                        description = "The percentile to be estimated, between 0 and 100.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT})
+        },
+        parameterOverloads = {
+                @ParameterOverload(parameterNames = {"arg", "percentile"})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the estimated value at the given percentile as a double.",
+                type = {DataType.DOUBLE}),
+        examples = @Example(
+                syntax = " define aggregation latencyAggregation\n from requestStream\n" +
+                        " select percentileApprox(latency, 99) as p99Latency,\n aggregate by timeStamp every sec " +
+                        "... hour;",
+                description = "percentileApprox(latency, 99) returns the estimated 99th percentile of the latency " +
+                        "for sec, min and hour durations."
+        )
+)
+public class PercentileApproxIncrementalAttributeAggregator extends IncrementalAttributeAggregator {
+
+    private Attribute[] baseAttributes;
+    private Expression[] baseAttributesInitialValues;
+    private Constant percentile;
+
+    @Override
+    public void init(String attributeName, Attribute.Type attributeType) {
+        throw new SiddhiAppRuntimeException("Percentile approx aggregation requires the percentile as its second " +
+                "parameter");
+    }
+
+    @Override
+    public void init(String attributeName, Attribute.Type attributeType, Constant[] constantParameters) {
+        if (constantParameters.length != 1) {
+            throw new SiddhiAppRuntimeException("Percentile approx aggregation requires the percentile as its " +
+                    "second parameter, but found " + (constantParameters.length + 1) + " parameters");
+        }
+        switch (attributeType) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                break;
+            default:
+                throw new SiddhiAppRuntimeException(
+                        "Percentile approx aggregation cannot be executed on attribute type " +
+                                attributeType.toString());
+        }
+        this.percentile = constantParameters[0];
+        Attribute sketch = new Attribute("AGG_QUANTILE_SKETCH_".concat(attributeName), Attribute.Type.OBJECT);
+        Expression sketchInitialValue = Expression.function("createQuantileSketch",
+                Expression.variable(attributeName));
+
+        this.baseAttributes = new Attribute[]{sketch};
+        this.baseAttributesInitialValues = new Expression[]{sketchInitialValue};
+    }
+
+    @Override
+    public Expression aggregate() {
+        return Expression.function("percentileOfQuantileSketch",
+                Expression.variable(baseAttributes[0].getName()), (Expression) percentile);
+    }
+
+    @Override
+    public Attribute[] getBaseAttributes() {
+        return this.baseAttributes;
+    }
+
+    @Override
+    public Expression[] getBaseAttributeInitialValues() {
+        return this.baseAttributesInitialValues;
+    }
+
+    @Override
+    public Expression[] getBaseAggregators() {
+        Expression sketchAggregator = Expression.function("unionSketch",
+                Expression.variable(getBaseAttributes()[0].getName()));
+        return new Expression[]{sketchAggregator};
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+
+}
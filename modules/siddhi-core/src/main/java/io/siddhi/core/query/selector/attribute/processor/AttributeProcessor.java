@@ -53,4 +53,8 @@ public class AttributeProcessor {
         return expressionExecutor;
     }
 
+    public void setExpressionExecutor(ExpressionExecutor expressionExecutor) {
+        this.expressionExecutor = expressionExecutor;
+    }
+
 }
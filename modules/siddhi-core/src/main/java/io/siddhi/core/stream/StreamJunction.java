@@ -19,24 +19,34 @@
 package io.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.InsufficientCapacityException;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.FaultStreamEventConverter;
+import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.input.InputProcessor;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.event.handler.AdaptiveBatchController;
 import io.siddhi.core.util.event.handler.EventExchangeHolder;
 import io.siddhi.core.util.event.handler.EventExchangeHolderFactory;
 import io.siddhi.core.util.event.handler.StreamHandler;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.statistics.EventBufferHolder;
+import io.siddhi.core.util.statistics.HistogramTracker;
 import io.siddhi.core.util.statistics.ThroughputTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.query.api.annotation.Annotation;
@@ -60,9 +70,20 @@ import java.util.concurrent.ExecutorService;
  */
 public class StreamJunction implements EventBufferHolder {
     private static final Logger log = Logger.getLogger(StreamJunction.class);
+    private static final String WAIT_STRATEGY_BLOCKING = "blocking";
+    private static final String WAIT_STRATEGY_BUSY_SPIN = "busy.spin";
+    private static final String WAIT_STRATEGY_YIELDING = "yielding";
+    private static final String WAIT_STRATEGY_SLEEPING = "sleeping";
+    private static final String INGESTION_CALLER = "caller";
+    private static final String INGESTION_RING = "ring";
     private final SiddhiAppContext siddhiAppContext;
     private final StreamDefinition streamDefinition;
     private int batchSize;
+    private int minBatchSize = 1;
+    private long targetLatency = 0;
+    private String waitStrategy = WAIT_STRATEGY_BLOCKING;
+    private AdaptiveBatchController batchController;
+    private boolean ringIngestion = false;
     private int workers = -1;
     private int bufferSize;
     private List<Receiver> receivers = new LinkedList<>();
@@ -71,6 +92,7 @@ public class StreamJunction implements EventBufferHolder {
     private boolean async = false;
     private Disruptor<EventExchangeHolder> disruptor;
     private RingBuffer<EventExchangeHolder> ringBuffer;
+    private ThreadBarrier ringThreadBarrier;
     private ThroughputTracker throughputTracker = null;
     private boolean isTraceEnabled;
     private StreamJunction faultStreamJunction = null;
@@ -128,6 +150,74 @@ public class StreamJunction implements EventBufferHolder {
                                 siddhiAppContext.getSiddhiAppString());
                     }
                 }
+                String minBatchSizeString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_MIN_BATCH_SIZE);
+                if (minBatchSizeString != null) {
+                    this.minBatchSize = Integer.parseInt(minBatchSizeString);
+                    if (minBatchSize <= 0 || minBatchSize > batchSize) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_MIN_BATCH_SIZE + "' should be positive and not " +
+                                "greater than '" + SiddhiConstants.ANNOTATION_ELEMENT_MAX_BATCH_SIZE + "' (" +
+                                batchSize + "), but found, '" + minBatchSize + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String targetLatencyString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_TARGET_LATENCY);
+                if (targetLatencyString != null) {
+                    double targetLatencyInMillis = Double.parseDouble(targetLatencyString);
+                    if (targetLatencyInMillis <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_TARGET_LATENCY + "' cannot be negative or zero, " +
+                                "but found, '" + targetLatencyString + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                    this.targetLatency = (long) (targetLatencyInMillis * 1000000);
+                }
+                String waitStrategyString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    this.waitStrategy = waitStrategyString.toLowerCase();
+                    if (!Arrays.asList(WAIT_STRATEGY_BLOCKING, WAIT_STRATEGY_BUSY_SPIN, WAIT_STRATEGY_YIELDING,
+                            WAIT_STRATEGY_SLEEPING).contains(waitStrategy)) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY + "' should be one of '" +
+                                WAIT_STRATEGY_BLOCKING + "', '" + WAIT_STRATEGY_BUSY_SPIN + "', '" +
+                                WAIT_STRATEGY_YIELDING + "' or '" + WAIT_STRATEGY_SLEEPING + "', but found, '" +
+                                waitStrategyString + "'.", asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String ingestionString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_INGESTION);
+                if (ingestionString != null) {
+                    if (INGESTION_RING.equalsIgnoreCase(ingestionString)) {
+                        this.ringIngestion = true;
+                    } else if (!INGESTION_CALLER.equalsIgnoreCase(ingestionString)) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_INGESTION + "' should be either '" +
+                                INGESTION_CALLER + "' or '" + INGESTION_RING + "', but found, '" +
+                                ingestionString + "'.", asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                HistogramTracker batchSizeTracker = null;
+                HistogramTracker batchLatencyTracker = null;
+                if (siddhiAppContext.getStatisticsManager() != null) {
+                    batchSizeTracker = QueryParserHelper.createHistogramTracker(siddhiAppContext,
+                            streamDefinition.getId(), SiddhiConstants.METRIC_INFIX_STREAMS,
+                            SiddhiConstants.METRIC_TYPE_BATCH_SIZE);
+                    batchLatencyTracker = QueryParserHelper.createHistogramTracker(siddhiAppContext,
+                            streamDefinition.getId(), SiddhiConstants.METRIC_INFIX_STREAMS,
+                            SiddhiConstants.METRIC_TYPE_BATCH_LATENCY);
+                }
+                batchController = new AdaptiveBatchController(minBatchSize, batchSize, targetLatency, this,
+                        batchSizeTracker, batchLatencyTracker, siddhiAppContext);
             }
             Annotation onErrorAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ON_ERROR,
                     streamDefinition.getAnnotations());
@@ -153,7 +243,7 @@ public class StreamJunction implements EventBufferHolder {
                 if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
                     throughputTracker.eventIn();
                 }
-                long sequenceNo = ringBuffer.next();
+                long sequenceNo = nextSequence();
                 try {
                     EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
                     eventExchangeHolder.getEvent().copyFrom(complexEventList);
@@ -186,7 +276,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace(event + " event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            long sequenceNo = ringBuffer.next();
+            long sequenceNo = nextSequence();
             try {
                 EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
                 eventExchangeHolder.getEvent().copyFrom(event);
@@ -210,7 +300,7 @@ public class StreamJunction implements EventBufferHolder {
         }
         if (disruptor != null) {
             for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+                long sequenceNo = nextSequence();
                 try {
                     EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
                     eventExchangeHolder.getEvent().copyFrom(event);
@@ -232,7 +322,7 @@ public class StreamJunction implements EventBufferHolder {
         }
         if (disruptor != null) {
             for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+                long sequenceNo = nextSequence();
                 try {
                     EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
                     eventExchangeHolder.getEvent().copyFrom(event);
@@ -248,12 +338,43 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    private void sendEvent(ColumnarEventBatch batch) {
+        if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+            throughputTracker.eventsIn(batch.size());
+        }
+        if (isTraceEnabled) {
+            log.trace("Event is received by streamJunction " + this);
+        }
+        if (disruptor != null) {
+            for (int row = 0, size = batch.size(); row < size; row++) {
+                long sequenceNo = nextSequence();
+                try {
+                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
+                    eventExchangeHolder.getAndSetIsProcessed(false);
+                    Event event = eventExchangeHolder.getEvent();
+                    event.setTimestamp(batch.getTimestamp(row));
+                    event.setIsExpired(false);
+                    Object[] data = event.getData();
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = batch.getObject(row, i);
+                    }
+                } finally {
+                    ringBuffer.publish(sequenceNo);
+                }
+            }
+        } else {
+            for (Receiver receiver : receivers) {
+                receiver.receive(batch);
+            }
+        }
+    }
+
     private void sendData(long timeStamp, Object[] data) {
         if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
             throughputTracker.eventIn();
         }
         if (disruptor != null) {
-            long sequenceNo = ringBuffer.next();
+            long sequenceNo = nextSequence();
             try {
                 EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
                 eventExchangeHolder.getAndSetIsProcessed(false);
@@ -270,19 +391,42 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    /**
+     * Claim the next slot of the ring buffer. With ring ingestion the threads processing the ring enter the
+     * {@link ThreadBarrier}, hence a publishing thread within the barrier leaves it while waiting for a full ring, as
+     * otherwise a snapshot waiting for the publisher would stop the ring from being drained.
+     */
+    private long nextSequence() {
+        if (ringThreadBarrier == null) {
+            return ringBuffer.next();
+        }
+        try {
+            return ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            int depth = ringThreadBarrier.suspend();
+            try {
+                return ringBuffer.next();
+            } finally {
+                ringThreadBarrier.resume(depth);
+            }
+        }
+    }
+
     /**
      * Create and start disruptor based on annotations given in the streamDefinition.
      */
     public void startProcessing() {
         this.exceptionListener = siddhiAppContext.getRuntimeExceptionListener();
         if (!receivers.isEmpty() && async) {
+            ThreadBarrier threadBarrier = ringIngestion ? siddhiAppContext.getThreadBarrier() : null;
+            ringThreadBarrier = threadBarrier;
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
                     ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<EventExchangeHolder>(
                             new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
                             bufferSize, executorService, producerType,
-                            new BlockingWaitStrategy());
+                            createWaitStrategy());
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -295,12 +439,14 @@ public class StreamJunction implements EventBufferHolder {
             }
             if (workers > 0) {
                 for (int i = 0; i < workers; i++) {
-                    disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
-                            siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
+                    disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, batchController, threadBarrier,
+                            streamDefinition.getId(), siddhiAppContext.getName(), faultStreamJunction, onErrorAction,
+                            exceptionListener));
                 }
             } else {
-                disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
-                        siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
+                disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, batchController, threadBarrier,
+                        streamDefinition.getId(), siddhiAppContext.getName(), faultStreamJunction, onErrorAction,
+                        exceptionListener));
             }
             ringBuffer = disruptor.start();
         } else {
@@ -312,6 +458,40 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    private WaitStrategy createWaitStrategy() {
+        switch (waitStrategy) {
+            case WAIT_STRATEGY_BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case WAIT_STRATEGY_YIELDING:
+                return new YieldingWaitStrategy();
+            case WAIT_STRATEGY_SLEEPING:
+                return new SleepingWaitStrategy();
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+
+    /**
+     * Change how the events of an async StreamJunction are batched before they are passed to the receivers. A
+     * positive target latency lets the batch size adapt between the given limits based on the queued events and the
+     * observed batch latency, while 0 always uses the maximum batch size.
+     *
+     * @param minBatchSize  minimum number of events passed to the receivers at once
+     * @param maxBatchSize  maximum number of events passed to the receivers at once
+     * @param targetLatency target latency of a batch in nanoseconds
+     */
+    public void setBatching(int minBatchSize, int maxBatchSize, long targetLatency) {
+        if (batchController == null) {
+            throw new OperationNotSupportedException("Batching cannot be configured for Stream '" +
+                    streamDefinition.getId() + "' as it is not annotated with @" +
+                    SiddhiConstants.ANNOTATION_ASYNC.toLowerCase());
+        }
+        batchController.configure(minBatchSize, maxBatchSize, targetLatency);
+        this.minBatchSize = minBatchSize;
+        this.batchSize = maxBatchSize;
+        this.targetLatency = targetLatency;
+    }
+
     public void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
@@ -342,6 +522,15 @@ public class StreamJunction implements EventBufferHolder {
         return streamDefinition.getId();
     }
 
+    /**
+     * @return true if producers only publish events into the ring buffer of this StreamJunction without entering
+     * the Siddhi App's {@link ThreadBarrier}, leaving it to the threads processing the ring to enter the barrier
+     * once per batch
+     */
+    public boolean isRingIngestion() {
+        return async && ringIngestion;
+    }
+
     public StreamDefinition getStreamDefinition() {
         return streamDefinition;
     }
@@ -447,6 +636,18 @@ public class StreamJunction implements EventBufferHolder {
         void receive(long timeStamp, Object[] data);
 
         void receive(Event[] events);
+
+        /**
+         * Receive a columnar batch of events. Receivers that cannot consume the batch directly receive its rows as
+         * events.
+         *
+         * @param batch batch of events
+         */
+        default void receive(ColumnarEventBatch batch) {
+            if (!batch.isEmpty()) {
+                receive(batch.toEvents());
+            }
+        }
     }
 
     /**
@@ -495,6 +696,15 @@ public class StreamJunction implements EventBufferHolder {
             }
         }
 
+        @Override
+        public void send(ColumnarEventBatch batch, int streamIndex) {
+            try {
+                streamJunction.sendEvent(batch);
+            } catch (Exception e) {
+                streamJunction.handleError(batch.toEvents(), e);
+            }
+        }
+
         @Override
         public void send(long timeStamp, Object[] data, int streamIndex) {
             try {
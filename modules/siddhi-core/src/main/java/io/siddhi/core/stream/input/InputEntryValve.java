@@ -19,6 +19,7 @@
 package io.siddhi.core.stream.input;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.util.ThreadBarrier;
 
@@ -77,4 +78,14 @@ public class InputEntryValve implements InputProcessor {
             barrier.exit();
         }
     }
+
+    @Override
+    public void send(ColumnarEventBatch batch, int streamIndex) {
+        barrier.enter();
+        try {
+            inputProcessor.send(batch, streamIndex);
+        } finally {
+            barrier.exit();
+        }
+    }
 }
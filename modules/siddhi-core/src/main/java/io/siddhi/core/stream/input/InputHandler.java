@@ -18,6 +18,7 @@
 package io.siddhi.core.stream.input;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.Event;
 import org.apache.log4j.Logger;
 
@@ -95,6 +96,26 @@ public class InputHandler {
         }
     }
 
+    /**
+     * Send a columnar batch of events. The batch is consumed before the method returns, hence it can be cleared and
+     * reused by the caller afterwards.
+     *
+     * @param batch batch of events with the attributes of the stream
+     * @throws InterruptedException if the Siddhi app is not running
+     */
+    public void send(ColumnarEventBatch batch) throws InterruptedException {
+        // Set timestamp to system if Siddhi is in playback mode
+        if (siddhiAppContext.isPlayback() && !batch.isEmpty()) {
+            this.siddhiAppContext.getTimestampGenerator().setCurrentTimestamp(batch.getTimestamp(batch.size() - 1));
+        }
+        if (inputProcessor != null) {
+            inputProcessor.send(batch, streamIndex);
+        } else {
+            throw new InterruptedException("Siddhi app '" + this.siddhiAppContext.getName() + "' is not " +
+                    "running, cannot send events");
+        }
+    }
+
     void connect() {
         this.inputProcessor = this.pausedInputPublisher;
     }
@@ -78,13 +78,15 @@ public class InputManager {
     }
 
     public InputHandler constructInputHandler(String streamId) {
-        InputHandler inputHandler = new InputHandler(streamId, inputHandlerMap.size(),
-                inputEntryValve, siddhiAppContext);
         StreamJunction streamJunction = streamJunctionMap.get(streamId);
         if (streamJunction == null) {
             throw new DefinitionNotExistException("Stream with stream ID " + streamId + " has not been defined");
         }
-        inputDistributor.addInputProcessor(streamJunctionMap.get(streamId).constructPublisher());
+        StreamJunction.Publisher publisher = streamJunction.constructPublisher();
+        // Ring ingestion streams only copy the events into their ring buffer, hence they can skip the entry valve.
+        InputHandler inputHandler = new InputHandler(streamId, inputHandlerMap.size(),
+                streamJunction.isRingIngestion() ? publisher : inputEntryValve, siddhiAppContext);
+        inputDistributor.addInputProcessor(publisher);
         inputHandlerMap.put(streamId, inputHandler);
         return inputHandler;
     }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.stream.input;
 
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.stream.StreamJunction;
 
@@ -37,5 +38,17 @@ public interface InputProcessor {
 
     void send(long timestamp, Object[] data, int streamIndex);
 
+    /**
+     * Send a columnar batch of events. Processors that cannot consume the batch directly send its rows as events.
+     *
+     * @param batch       batch of events
+     * @param streamIndex index of the stream
+     */
+    default void send(ColumnarEventBatch batch, int streamIndex) {
+        if (!batch.isEmpty()) {
+            send(batch.toEvents(), streamIndex);
+        }
+    }
+
 }
 
@@ -30,12 +30,16 @@ import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.holder.EventHolder;
+import io.siddhi.core.table.holder.IndexEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import io.siddhi.core.table.record.RecordTableHandler;
 import io.siddhi.core.util.collection.AddingStreamEventExtractor;
 import io.siddhi.core.util.collection.operator.CompiledCondition;
+import io.siddhi.core.util.collection.operator.IndexOperator;
 import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import io.siddhi.core.util.collection.operator.Operator;
 import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.parser.CollectionExpressionParser;
 import io.siddhi.core.util.parser.EventHolderPasser;
 import io.siddhi.core.util.parser.ExpressionParser;
 import io.siddhi.core.util.parser.OperatorParser;
@@ -45,6 +49,7 @@ import io.siddhi.core.util.snapshot.state.StateHolder;
 import io.siddhi.query.api.definition.TableDefinition;
 import io.siddhi.query.api.execution.query.output.stream.UpdateSet;
 import io.siddhi.query.api.expression.Expression;
+import org.apache.log4j.Logger;
 
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +61,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * In-memory event table implementation of SiddhiQL.
  */
 public class InMemoryTable extends Table {
+    private static final Logger log = Logger.getLogger(InMemoryTable.class);
     StreamEventCloner tableStreamEventCloner;
     ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
     StateHolder<TableState> stateHolder;
@@ -66,12 +72,17 @@ public class InMemoryTable extends Table {
                      RecordTableHandler recordTableHandler) {
         this.tableDefinition = tableDefinition;
         this.tableStreamEventCloner = storeEventCloner;
-        EventHolder eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext, false);
+        EventHolder eventHolder = createEventHolder(tableDefinition, storeEventPool, siddhiAppContext);
 
         stateHolder = siddhiAppContext.generateStateHolder(tableDefinition.getId(),
                 () -> new TableState(eventHolder));
     }
 
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventFactory storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        return EventHolderPasser.parse(tableDefinition, storeEventPool, siddhiAppContext, false);
+    }
+
     @Override
     public TableDefinition getTableDefinition() {
         return tableDefinition;
@@ -209,6 +220,115 @@ public class InMemoryTable extends Table {
         }
     }
 
+    @Override
+    protected StreamEvent[] find(CompiledCondition compiledCondition, StateEvent[] matchingEvents) {
+        StreamEvent[] foundEvents = new StreamEvent[matchingEvents.length];
+        Operator operator = (Operator) ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        TableState state = stateHolder.getState();
+        readWriteLock.readLock().lock();
+        try {
+            for (int i = 0; i < matchingEvents.length; i++) {
+                foundEvents[i] = operator.find(matchingEvents[i], state.eventHolder, tableStreamEventCloner);
+            }
+        } finally {
+            stateHolder.returnState(state);
+            readWriteLock.readLock().unlock();
+        }
+        return foundEvents;
+    }
+
+    /**
+     * Compile the condition of a join with the table. When none of the table attributes the condition matches by
+     * equality is indexed, the first of them gets indexed such that each join lookup becomes an index lookup rather
+     * than a scan of the table. The chosen lookup is logged at debug level.
+     * <p>
+     * Only tables holding their events by primary key are indexed automatically. Tables without a primary key or
+     * index keep their list holder, as switching it to an index holder would lose the insertion order of their
+     * events and could not hold null keys. Joins with named windows are not indexed either, as windows hold their
+     * events in expiry order.
+     *
+     * @param condition                  join condition
+     * @param matchingMetaInfoHolder     matchingMetaInfoHolder
+     * @param variableExpressionExecutors variableExpressionExecutors
+     * @param tableMap                   tableMap
+     * @param siddhiQueryContext         siddhiQueryContext
+     * @return compiled join condition
+     */
+    public CompiledCondition compileJoinCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                  List<VariableExpressionExecutor> variableExpressionExecutors,
+                                                  Map<String, Table> tableMap, SiddhiQueryContext siddhiQueryContext) {
+        List<String> equalityAttributes = CollectionExpressionParser.findEqualityAttributes(condition,
+                matchingMetaInfoHolder);
+        String indexedAttribute = null;
+        if (!equalityAttributes.isEmpty()) {
+            indexedAttribute = indexJoinAttributes(equalityAttributes);
+        }
+        CompiledCondition compiledCondition = compileCondition(condition, matchingMetaInfoHolder,
+                variableExpressionExecutors, tableMap, siddhiQueryContext);
+        if (log.isDebugEnabled()) {
+            log.debug("Query '" + siddhiQueryContext.getName() + "' of Siddhi App '" +
+                    siddhiQueryContext.getSiddhiAppContext().getName() + "' joins table '" +
+                    tableDefinition.getId() + "' using " + getLookupPlan(compiledCondition) +
+                    (indexedAttribute == null ? "" : ", with an index created on '" + indexedAttribute + "'"));
+        }
+        return compiledCondition;
+    }
+
+    /**
+     * Index the first of the given attributes, unless any of them is already indexed. Tables that are not held by
+     * an {@link IndexEventHolder} are left as they are.
+     *
+     * @param equalityAttributes attributes matched by equality in the join condition
+     * @return the attribute that got indexed, or null if no index was created
+     */
+    protected String indexJoinAttributes(List<String> equalityAttributes) {
+        readWriteLock.writeLock().lock();
+        TableState state = stateHolder.getState();
+        try {
+            if (state.eventHolder instanceof IndexEventHolder) {
+                return indexJoinAttributes((IndexEventHolder) state.eventHolder, equalityAttributes);
+            }
+            return null;
+        } finally {
+            stateHolder.returnState(state);
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    static String indexJoinAttributes(IndexEventHolder eventHolder, List<String> equalityAttributes) {
+        int matchedPrimaryKeys = 0;
+        for (String attribute : equalityAttributes) {
+            if (eventHolder.isAttributeIndexed(attribute)) {
+                return null;
+            }
+            if (eventHolder.isMultiPrimaryKeyAttribute(attribute)) {
+                matchedPrimaryKeys++;
+            }
+        }
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = eventHolder.getPrimaryKeyReferenceHolders();
+        if (primaryKeyReferenceHolders == null || primaryKeyReferenceHolders.length == matchedPrimaryKeys) {
+            //null values can only be left out of the indexes of holders having a primary key
+            return null;
+        }
+        eventHolder.addIndex(equalityAttributes.get(0));
+        return equalityAttributes.get(0);
+    }
+
+    private static String getLookupPlan(CompiledCondition compiledCondition) {
+        Object operator = ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        if (operator instanceof IndexOperator) {
+            switch (((IndexOperator) operator).getCollectionExecutor().getDefaultCost()) {
+                case SINGLE_RETURN_INDEX_MATCHING:
+                    return "an index lookup";
+                case MULTI_RETURN_INDEX_MATCHING:
+                    return "an index range scan";
+                default:
+                    return "a table scan";
+            }
+        }
+        return "a table scan";
+    }
+
     @Override
     public CompiledCondition compileCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.table.holder.EventHolder;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.parser.EventHolderPasser;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.definition.TableDefinition;
+import io.siddhi.query.api.util.AnnotationHelper;
+
+/**
+ * In-memory event table implementation of SiddhiQL that keeps its events and indexes in off-heap memory.
+ */
+@Extension(
+        name = "offheap",
+        namespace = "store",
+        description = "In-memory table that stores its events and the indexes defined via the '@PrimaryKey' and " +
+                "'@Index' annotations in off-heap memory in a binary form, such that tables holding large number of " +
+                "events do not increase the garbage collection overhead. Events are materialized when they are " +
+                "read, and 'object' attributes are stored using Java serialization.",
+        parameters = {
+                @Parameter(
+                        name = "segment.size",
+                        description = "Size of an off-heap memory segment allocated to store the events in bytes.",
+                        type = {DataType.INT},
+                        optional = true,
+                        defaultValue = "4194304"
+                )
+        },
+        examples = {
+                @Example(
+                        syntax = "@store(type='offheap')\n" +
+                                "@PrimaryKey('symbol')\n" +
+                                "define table StockTable (symbol string, price float, volume long);",
+                        description = "Defines the 'StockTable' keeping its events and its primary key index " +
+                                "off-heap."
+                )
+        }
+)
+public class OffHeapTable extends InMemoryTable {
+
+    private static final String SEGMENT_SIZE = "segment.size";
+    private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    @Override
+    protected EventHolder createEventHolder(TableDefinition tableDefinition, StreamEventFactory storeEventPool,
+                                            SiddhiAppContext siddhiAppContext) {
+        int segmentSize = DEFAULT_SEGMENT_SIZE;
+        Annotation storeAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STORE,
+                tableDefinition.getAnnotations());
+        String segmentSizeValue = storeAnnotation == null ? null : storeAnnotation.getElement(SEGMENT_SIZE);
+        if (segmentSizeValue != null) {
+            try {
+                segmentSize = Integer.parseInt(segmentSizeValue.trim());
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("'" + SEGMENT_SIZE + "' of table '" + tableDefinition.getId() +
+                        "' should be an integer, but found '" + segmentSizeValue + "'", e);
+            }
+            if (segmentSize <= 0) {
+                throw new SiddhiAppCreationException("'" + SEGMENT_SIZE + "' of table '" + tableDefinition.getId() +
+                        "' should be greater than zero, but found '" + segmentSizeValue + "'");
+            }
+        }
+        return EventHolderPasser.parseOffHeap(tableDefinition, segmentSize, siddhiAppContext);
+    }
+}
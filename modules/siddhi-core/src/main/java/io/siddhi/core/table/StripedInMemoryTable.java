@@ -0,0 +1,768 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.table.holder.EventHolder;
+import io.siddhi.core.table.holder.IndexEventHolder;
+import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import io.siddhi.core.table.record.RecordTableHandler;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.collection.AddingStreamEventExtractor;
+import io.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
+import io.siddhi.core.util.collection.executor.CollectionExecutor;
+import io.siddhi.core.util.collection.executor.CompareCollectionExecutor;
+import io.siddhi.core.util.collection.operator.CompiledCondition;
+import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
+import io.siddhi.core.util.collection.operator.Operator;
+import io.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.parser.ExpressionParser;
+import io.siddhi.core.util.parser.OperatorParser;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.definition.TableDefinition;
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.condition.Compare;
+import io.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory event table that partitions its events by the hash of their primary key into lock stripes, each having
+ * its own event holder and read write lock. Enabled by annotating a table having a primary key with
+ * {@code @Concurrency(lock.stripes='N')}.
+ * <p>
+ * Operations whose condition matches the whole primary key only lock the stripe owning the key, hence finds and
+ * updates on different keys do not contend with each other. Other finds, deletes and updates visit the stripes one
+ * after the other, holding a single stripe lock at a time; therefore they are atomic per stripe but not across the
+ * whole table. Update or insert operations not matching by the primary key, and updates that may change the primary
+ * key of an event, hold the locks of all stripes, such that no duplicate keys are inserted and relocated events are
+ * never missed by readers.
+ */
+public class StripedInMemoryTable extends InMemoryTable {
+
+    public static final int DEFAULT_LOCK_STRIPES = 16;
+    private static final String STRIPE_COUNT = "StripeCount";
+    private static final String EVENT_HOLDER = "EventHolder-";
+
+    private int stripeCount;
+    private StreamEventFactory storeEventPool;
+    private SiddhiAppContext siddhiAppContext;
+    private ReadWriteLock[] stripeLocks;
+    private PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private StateHolder<StripedTableState> stripedStateHolder;
+
+    @Override
+    public void init(TableDefinition tableDefinition, StreamEventFactory storeEventPool,
+                     StreamEventCloner storeEventCloner, ConfigReader configReader, SiddhiAppContext siddhiAppContext,
+                     RecordTableHandler recordTableHandler) {
+        this.tableDefinition = tableDefinition;
+        this.tableStreamEventCloner = storeEventCloner;
+        this.storeEventPool = storeEventPool;
+        this.siddhiAppContext = siddhiAppContext;
+        Annotation concurrencyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENCY,
+                tableDefinition.getAnnotations());
+        stripeCount = DEFAULT_LOCK_STRIPES;
+        String lockStripes = concurrencyAnnotation == null ? null :
+                concurrencyAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_LOCK_STRIPES);
+        if (lockStripes != null) {
+            try {
+                stripeCount = Integer.parseInt(lockStripes.trim());
+            } catch (NumberFormatException e) {
+                stripeCount = -1;
+            }
+            if (stripeCount <= 0) {
+                throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.ANNOTATION_CONCURRENCY +
+                        " of table '" + tableDefinition.getId() + "' expects a positive integer for '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_LOCK_STRIPES + "', but found '" + lockStripes + "'",
+                        concurrencyAnnotation, siddhiAppContext);
+            }
+        }
+        IndexedEventHolder[] eventHolders = new IndexedEventHolder[stripeCount];
+        StripeEventHolder[] stripes = new StripeEventHolder[stripeCount];
+        stripeLocks = new ReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            EventHolder eventHolder = createEventHolder(tableDefinition, storeEventPool, siddhiAppContext);
+            if (!(eventHolder instanceof IndexedEventHolder) ||
+                    ((IndexedEventHolder) eventHolder).getPrimaryKeyReferenceHolders() == null) {
+                throw new SiddhiAppCreationException("Table '" + tableDefinition.getId() + "' annotated with @" +
+                        SiddhiConstants.ANNOTATION_CONCURRENCY + " must define a @" +
+                        SiddhiConstants.ANNOTATION_PRIMARY_KEY + ", as its events are striped by their primary key",
+                        tableDefinition, siddhiAppContext);
+            }
+            eventHolders[i] = (IndexedEventHolder) eventHolder;
+            stripes[i] = new StripeEventHolder(i, eventHolders[i]);
+            stripeLocks[i] = new ReentrantReadWriteLock();
+        }
+        primaryKeyReferenceHolders = eventHolders[0].getPrimaryKeyReferenceHolders();
+        stripedStateHolder = siddhiAppContext.generateStateHolder(tableDefinition.getId(),
+                () -> new StripedTableState(eventHolders, stripes));
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        List<StreamEvent> events = toList(addingEventChunk);
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            List<List<StreamEvent>> groups = new ArrayList<>(Collections.nCopies(stripeCount, null));
+            for (StreamEvent event : events) {
+                addToGroup(groups, stripeOf(primaryKeyOf(event)), event);
+            }
+            for (int i = 0; i < stripeCount; i++) {
+                if (groups.get(i) != null) {
+                    stripeLocks[i].writeLock().lock();
+                    try {
+                        state.eventHolders[i].add(link(groups.get(i)));
+                    } finally {
+                        stripeLocks[i].writeLock().unlock();
+                    }
+                }
+            }
+        } finally {
+            link(events);
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
+        Operator operator = (Operator) ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        List<StateEvent> events = toList(deletingEventChunk);
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            List<List<StateEvent>> groups = groupByStripe(operator, events);
+            for (int i = 0; i < stripeCount; i++) {
+                if (groups == null || groups.get(i) != null) {
+                    stripeLocks[i].writeLock().lock();
+                    try {
+                        operator.delete(groups == null ? link(events) : link(groups.get(i)), state.stripes[i]);
+                    } finally {
+                        stripeLocks[i].writeLock().unlock();
+                    }
+                }
+            }
+        } finally {
+            link(events);
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
+                       CompiledUpdateSet compiledUpdateSet) {
+        Operator operator = (Operator) ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        List<StateEvent> events = toList(updatingEventChunk);
+        StripedTableState state = stripedStateHolder.getState();
+        boolean lockAllStripes = isPrimaryKeyUpdated(compiledUpdateSet);
+        if (lockAllStripes) {
+            lockAllStripes();
+        }
+        try {
+            List<List<StateEvent>> groups = groupByStripe(operator, events);
+            for (int i = 0; i < stripeCount; i++) {
+                if (groups == null || groups.get(i) != null) {
+                    stripeLocks[i].writeLock().lock();
+                    try {
+                        operator.update(groups == null ? link(events) : link(groups.get(i)), state.stripes[i],
+                                (InMemoryCompiledUpdateSet) compiledUpdateSet);
+                    } finally {
+                        stripeLocks[i].writeLock().unlock();
+                    }
+                }
+            }
+            relocate(state);
+        } finally {
+            if (lockAllStripes) {
+                unlockAllStripes();
+            }
+            link(events);
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public void updateOrAdd(ComplexEventChunk<StateEvent> updateOrAddingEventChunk,
+                            CompiledCondition compiledCondition,
+                            CompiledUpdateSet compiledUpdateSet,
+                            AddingStreamEventExtractor addingStreamEventExtractor) {
+        InMemoryCompiledCondition inMemoryCompiledCondition = (InMemoryCompiledCondition) compiledCondition;
+        Operator operator = (Operator) inMemoryCompiledCondition.getOperatorCompiledCondition();
+        List<StateEvent> events = toList(updateOrAddingEventChunk);
+        StripedTableState state = stripedStateHolder.getState();
+        //conditions not matching by the primary key may match and insert events of any stripe
+        boolean lockAllStripes = !isPrimaryKeyOperator(operator) || isPrimaryKeyUpdated(compiledUpdateSet);
+        if (lockAllStripes) {
+            lockAllStripes();
+        }
+        try {
+            if (isPrimaryKeyOperator(operator)) {
+                List<List<StateEvent>> groups = new ArrayList<>(Collections.nCopies(stripeCount, null));
+                for (StateEvent event : events) {
+                    //overwriting operators replace the event having the primary key of the adding event
+                    addToGroup(groups, stripeOf(primaryKeyOf(
+                            addingStreamEventExtractor.getAddingStreamEvent(event))), event);
+                }
+                for (int i = 0; i < stripeCount; i++) {
+                    if (groups.get(i) != null) {
+                        stripeLocks[i].writeLock().lock();
+                        try {
+                            ComplexEventChunk<StateEvent> failedEvents = operator.tryUpdate(link(groups.get(i)),
+                                    state.stripes[i], (InMemoryCompiledUpdateSet) compiledUpdateSet,
+                                    addingStreamEventExtractor);
+                            if (failedEvents != null && failedEvents.getFirst() != null) {
+                                state.stripes[i].add(reduceEventsForUpdateOrInsert(addingStreamEventExtractor,
+                                        inMemoryCompiledCondition, (InMemoryCompiledUpdateSet) compiledUpdateSet,
+                                        failedEvents));
+                            }
+                        } finally {
+                            stripeLocks[i].writeLock().unlock();
+                        }
+                    }
+                }
+                relocate(state);
+            } else {
+                Set<StateEvent> updatedEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (int i = 0; i < stripeCount; i++) {
+                    ComplexEventChunk<StateEvent> stripeEventChunk = link(events);
+                    stripeLocks[i].writeLock().lock();
+                    try {
+                        operator.tryUpdate(stripeEventChunk, state.stripes[i],
+                                (InMemoryCompiledUpdateSet) compiledUpdateSet, addingStreamEventExtractor);
+                    } finally {
+                        stripeLocks[i].writeLock().unlock();
+                    }
+                    //events left in the chunk are the ones that matched events of the stripe
+                    stripeEventChunk.reset();
+                    while (stripeEventChunk.hasNext()) {
+                        updatedEvents.add(stripeEventChunk.next());
+                    }
+                }
+                relocate(state);
+                List<StateEvent> failedEvents = new ArrayList<>();
+                for (StateEvent event : events) {
+                    if (!updatedEvents.contains(event)) {
+                        failedEvents.add(event);
+                    }
+                }
+                if (!failedEvents.isEmpty()) {
+                    ComplexEventChunk<StreamEvent> toInsertEventChunk = reduceEventsForUpdateOrInsert(
+                            addingStreamEventExtractor, inMemoryCompiledCondition,
+                            (InMemoryCompiledUpdateSet) compiledUpdateSet, link(failedEvents));
+                    link(events);
+                    add(toInsertEventChunk);
+                }
+            }
+        } finally {
+            if (lockAllStripes) {
+                unlockAllStripes();
+            }
+            link(events);
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
+        Operator operator = (Operator) ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            if (isPrimaryKeyOperator(operator)) {
+                return contains(operator, matchingEvent, state, stripeOf(operator, matchingEvent));
+            }
+            for (int i = 0; i < stripeCount; i++) {
+                if (contains(operator, matchingEvent, state, i)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    private boolean contains(Operator operator, StateEvent matchingEvent, StripedTableState state, int stripe) {
+        stripeLocks[stripe].readLock().lock();
+        try {
+            return operator.contains(matchingEvent, state.stripes[stripe]);
+        } finally {
+            stripeLocks[stripe].readLock().unlock();
+        }
+    }
+
+    @Override
+    public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
+        Operator operator = (Operator) ((InMemoryCompiledCondition) compiledCondition).getOperatorCompiledCondition();
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            if (isPrimaryKeyOperator(operator)) {
+                return find(operator, matchingEvent, state, stripeOf(operator, matchingEvent));
+            }
+            ComplexEventChunk<StreamEvent> foundEventChunk = new ComplexEventChunk<>();
+            for (int i = 0; i < stripeCount; i++) {
+                StreamEvent foundEvents = find(operator, matchingEvent, state, i);
+                if (foundEvents != null) {
+                    foundEventChunk.add(foundEvents);
+                }
+            }
+            return foundEventChunk.getFirst();
+        } finally {
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    private StreamEvent find(Operator operator, StateEvent matchingEvent, StripedTableState state, int stripe) {
+        stripeLocks[stripe].readLock().lock();
+        try {
+            return operator.find(matchingEvent, state.stripes[stripe], tableStreamEventCloner);
+        } finally {
+            stripeLocks[stripe].readLock().unlock();
+        }
+    }
+
+    @Override
+    public CompiledCondition compileCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                              List<VariableExpressionExecutor> variableExpressionExecutors,
+                                              Map<String, Table> tableMap, SiddhiQueryContext siddhiQueryContext) {
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            //all stripes have the same indexes, hence the operator compiled against one applies to all
+            return new InMemoryCompiledCondition(OperatorParser.constructOperator(state.stripes[0], condition,
+                    matchingMetaInfoHolder, variableExpressionExecutors, tableMap, siddhiQueryContext),
+                    ExpressionParser.parseExpression(condition, matchingMetaInfoHolder.getMetaStateEvent(),
+                            matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors,
+                            false, 0, ProcessingMode.BATCH,
+                            false, siddhiQueryContext),
+                    matchingMetaInfoHolder.getStoreEventIndex()
+            );
+        } finally {
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    protected StreamEvent[] find(CompiledCondition compiledCondition, StateEvent[] matchingEvents) {
+        StreamEvent[] foundEvents = new StreamEvent[matchingEvents.length];
+        for (int i = 0; i < matchingEvents.length; i++) {
+            foundEvents[i] = find(compiledCondition, matchingEvents[i]);
+        }
+        return foundEvents;
+    }
+
+    @Override
+    protected String indexJoinAttributes(List<String> equalityAttributes) {
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            String indexedAttribute = null;
+            for (int i = 0; i < stripeCount; i++) {
+                if (state.eventHolders[i] instanceof IndexEventHolder) {
+                    stripeLocks[i].writeLock().lock();
+                    try {
+                        indexedAttribute = indexJoinAttributes((IndexEventHolder) state.eventHolders[i],
+                                equalityAttributes);
+                    } finally {
+                        stripeLocks[i].writeLock().unlock();
+                    }
+                }
+            }
+            return indexedAttribute;
+        } finally {
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public int size() {
+        StripedTableState state = stripedStateHolder.getState();
+        try {
+            int size = 0;
+            for (int i = 0; i < stripeCount; i++) {
+                stripeLocks[i].readLock().lock();
+                try {
+                    size += state.eventHolders[i].size();
+                } finally {
+                    stripeLocks[i].readLock().unlock();
+                }
+            }
+            return size;
+        } finally {
+            stripedStateHolder.returnState(state);
+        }
+    }
+
+    public int getStripeCount() {
+        return stripeCount;
+    }
+
+    /**
+     * Moves the events whose primary key got updated to a key owned by another stripe, to that stripe. Called once
+     * all stripes are updated, such that moved events are not updated twice. The caller holds the locks of all
+     * stripes, hence the moved events are not missed by concurrent readers.
+     */
+    private void relocate(StripedTableState state) {
+        for (int i = 0; i < stripeCount; i++) {
+            if (state.stripes[i].relocatedEvents.getFirst() != null) {
+                ComplexEventChunk<StreamEvent> relocatedEvents;
+                stripeLocks[i].writeLock().lock();
+                try {
+                    relocatedEvents = state.stripes[i].relocatedEvents;
+                    state.stripes[i].relocatedEvents = new ComplexEventChunk<>();
+                } finally {
+                    stripeLocks[i].writeLock().unlock();
+                }
+                add(relocatedEvents);
+            }
+        }
+    }
+
+    private boolean isPrimaryKeyUpdated(CompiledUpdateSet compiledUpdateSet) {
+        Map<Integer, ExpressionExecutor> expressionExecutorMap =
+                ((InMemoryCompiledUpdateSet) compiledUpdateSet).getExpressionExecutorMap();
+        for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+            if (expressionExecutorMap.containsKey(primaryKeyReferenceHolder.getPrimaryKeyPosition())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Acquires the write locks of all stripes in stripe order. Other operations hold at most one stripe lock at a
+     * time, hence acquiring them in a fixed order cannot deadlock.
+     */
+    private void lockAllStripes() {
+        for (int i = 0; i < stripeCount; i++) {
+            stripeLocks[i].writeLock().lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = stripeCount - 1; i >= 0; i--) {
+            stripeLocks[i].writeLock().unlock();
+        }
+    }
+
+    private boolean isPrimaryKeyOperator(Operator operator) {
+        return operator instanceof OverwriteTableIndexOperator;
+    }
+
+    private int stripeOf(Operator operator, StateEvent matchingEvent) {
+        CollectionExecutor collectionExecutor = ((OverwriteTableIndexOperator) operator).getCollectionExecutor();
+        if (collectionExecutor instanceof CompareCollectionExecutor) {
+            return stripeOf(((CompareCollectionExecutor) collectionExecutor).getValueExpressionExecutor()
+                    .execute(matchingEvent));
+        } else {
+            return stripeOf(((AndMultiPrimaryKeyCollectionExecutor) collectionExecutor)
+                    .getPrimaryKeyValue(matchingEvent));
+        }
+    }
+
+    private int stripeOf(Object primaryKey) {
+        if (primaryKey == null) {
+            return 0;
+        }
+        //numeric keys are hashed by value such that int and long representations of a key match the same stripe
+        int hash = primaryKey instanceof Number ? Long.hashCode(((Number) primaryKey).longValue()) :
+                primaryKey.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % stripeCount;
+    }
+
+    private Object primaryKeyOf(StreamEvent streamEvent) {
+        Object[] data = streamEvent.getOutputData();
+        if (primaryKeyReferenceHolders.length == 1) {
+            return data[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(data[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Groups the events by the stripe owning the primary key they match, or returns null when the operator does
+     * not match by the primary key and all events have to be applied to each stripe.
+     */
+    private List<List<StateEvent>> groupByStripe(Operator operator, List<StateEvent> events) {
+        if (!isPrimaryKeyOperator(operator)) {
+            return null;
+        }
+        List<List<StateEvent>> groups = new ArrayList<>(Collections.nCopies(stripeCount, null));
+        for (StateEvent event : events) {
+            addToGroup(groups, stripeOf(operator, event), event);
+        }
+        return groups;
+    }
+
+    private static <E extends ComplexEvent> void addToGroup(List<List<E>> groups, int stripe, E event) {
+        List<E> group = groups.get(stripe);
+        if (group == null) {
+            group = new ArrayList<>();
+            groups.set(stripe, group);
+        }
+        group.add(event);
+    }
+
+    private static <E extends ComplexEvent> List<E> toList(ComplexEventChunk<E> eventChunk) {
+        List<E> events = new ArrayList<>();
+        eventChunk.reset();
+        while (eventChunk.hasNext()) {
+            events.add(eventChunk.next());
+        }
+        return events;
+    }
+
+    /**
+     * Chains the given events in order, as the events are rechained per stripe and have to be restored to the
+     * order of the chunk they came from once the operation completes.
+     */
+    private static <E extends ComplexEvent> ComplexEventChunk<E> link(List<E> events) {
+        ComplexEventChunk<E> eventChunk = new ComplexEventChunk<>();
+        if (!events.isEmpty()) {
+            for (int i = 0; i < events.size() - 1; i++) {
+                events.get(i).setNext(events.get(i + 1));
+            }
+            events.get(events.size() - 1).setNext(null);
+            eventChunk.add(events.get(0));
+        }
+        return eventChunk;
+    }
+
+    /**
+     * Event holder of a stripe, which diverts the events added by updates changing the primary key to a stripe
+     * other than its own, such that they can be moved to the owning stripe.
+     */
+    private class StripeEventHolder implements IndexedEventHolder {
+
+        private final int stripe;
+        private final IndexedEventHolder eventHolder;
+        private ComplexEventChunk<StreamEvent> relocatedEvents = new ComplexEventChunk<>();
+
+        StripeEventHolder(int stripe, IndexedEventHolder eventHolder) {
+            this.stripe = stripe;
+            this.eventHolder = eventHolder;
+        }
+
+        @Override
+        public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+            addingEventChunk.reset();
+            while (addingEventChunk.hasNext()) {
+                StreamEvent streamEvent = addingEventChunk.next();
+                if (stripeOf(primaryKeyOf(streamEvent)) != stripe) {
+                    addingEventChunk.remove();
+                    relocatedEvents.add(streamEvent);
+                }
+            }
+            if (addingEventChunk.getFirst() != null) {
+                eventHolder.add(addingEventChunk);
+            }
+        }
+
+        @Override
+        public boolean isAttributeIndexed(String attribute) {
+            return eventHolder.isAttributeIndexed(attribute);
+        }
+
+        @Override
+        public boolean isAttributeIndexed(int position) {
+            return eventHolder.isAttributeIndexed(position);
+        }
+
+        @Override
+        public Collection<StreamEvent> getAllEvents() {
+            return eventHolder.getAllEvents();
+        }
+
+        @Override
+        public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+            return eventHolder.findEvents(attribute, operator, value);
+        }
+
+        @Override
+        public void deleteAll() {
+            eventHolder.deleteAll();
+        }
+
+        @Override
+        public void deleteAll(Collection<StreamEvent> storeEventSet) {
+            eventHolder.deleteAll(storeEventSet);
+        }
+
+        @Override
+        public void delete(String attribute, Compare.Operator operator, Object value) {
+            eventHolder.delete(attribute, operator, value);
+        }
+
+        @Override
+        public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+            return eventHolder.containsEventSet(attribute, operator, value);
+        }
+
+        @Override
+        public void overwrite(StreamEvent streamEvent) {
+            eventHolder.overwrite(streamEvent);
+        }
+
+        @Override
+        public void updateEvent(StreamEvent storeEvent) {
+            eventHolder.updateEvent(storeEvent);
+        }
+
+        @Override
+        public Set<Object> getAllPrimaryKeyValues() {
+            return eventHolder.getAllPrimaryKeyValues();
+        }
+
+        @Override
+        public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+            return eventHolder.getPrimaryKeyReferenceHolders();
+        }
+
+        @Override
+        public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+            return eventHolder.isMultiPrimaryKeyAttribute(attributeName);
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return eventHolder.getSnapshot();
+        }
+
+        @Override
+        public void restore(SnapshotStateList snapshotStatelist) {
+            eventHolder.restore(snapshotStatelist);
+        }
+
+        @Override
+        public int size() {
+            return eventHolder.size();
+        }
+    }
+
+    /**
+     * class to store the state of the striped table
+     */
+    public class StripedTableState extends State {
+        private final IndexedEventHolder[] eventHolders;
+        private final StripeEventHolder[] stripes;
+
+        StripedTableState(IndexedEventHolder[] eventHolders, StripeEventHolder[] stripes) {
+            this.eventHolders = eventHolders;
+            this.stripes = stripes;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put(STRIPE_COUNT, eventHolders.length);
+            for (int i = 0; i < eventHolders.length; i++) {
+                stripeLocks[i].readLock().lock();
+                try {
+                    state.put(EVENT_HOLDER + i, eventHolders[i].getSnapshot());
+                } finally {
+                    stripeLocks[i].readLock().unlock();
+                }
+            }
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            Integer restoredStripeCount = (Integer) state.get(STRIPE_COUNT);
+            if (restoredStripeCount == null) {
+                //snapshots taken before the stripe count was persisted only hold the event holders
+                restoredStripeCount = 0;
+                while (state.containsKey(EVENT_HOLDER + restoredStripeCount)) {
+                    restoredStripeCount++;
+                }
+            }
+            if (restoredStripeCount != eventHolders.length) {
+                redistribute(state, restoredStripeCount);
+                return;
+            }
+            for (int i = 0; i < eventHolders.length; i++) {
+                stripeLocks[i].writeLock().lock();
+                try {
+                    eventHolders[i].restore((SnapshotStateList) state.get(EVENT_HOLDER + i));
+                } finally {
+                    stripeLocks[i].writeLock().unlock();
+                }
+            }
+        }
+
+        /**
+         * Restores a snapshot taken with a different number of stripes, by restoring each persisted stripe into a
+         * temporary event holder and adding its events to the stripes owning their primary keys.
+         */
+        private void redistribute(Map<String, Object> state, int restoredStripeCount) {
+            List<List<StreamEvent>> groups = new ArrayList<>(Collections.nCopies(eventHolders.length, null));
+            for (int i = 0; i < restoredStripeCount; i++) {
+                EventHolder restoredEventHolder = createEventHolder(tableDefinition, storeEventPool,
+                        siddhiAppContext);
+                restoredEventHolder.restore((SnapshotStateList) state.get(EVENT_HOLDER + i));
+                for (StreamEvent event : ((IndexedEventHolder) restoredEventHolder).getAllEvents()) {
+                    addToGroup(groups, stripeOf(primaryKeyOf(event)), event);
+                }
+            }
+            lockAllStripes();
+            try {
+                for (int i = 0; i < eventHolders.length; i++) {
+                    eventHolders[i].deleteAll();
+                    if (groups.get(i) != null) {
+                        eventHolders[i].add(link(groups.get(i)));
+                    }
+                }
+            } finally {
+                unlockAllStripes();
+            }
+        }
+    }
+}
@@ -214,6 +214,56 @@ public abstract class Table implements FindableProcessor, MemoryCalculable {
     protected abstract StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent)
             throws ConnectionUnavailableException;
 
+    /**
+     * Find the events matching each of the given matching events, such that tables can serve the lookups of a
+     * whole event chunk at once.
+     *
+     * @param matchingEvents    events to be matched
+     * @param compiledCondition compiled condition
+     * @return matching events, in the order of the given matching events
+     */
+    public StreamEvent[] find(StateEvent[] matchingEvents, CompiledCondition compiledCondition) {
+        if (isConnected.get()) {
+            try {
+                if (latencyTrackerFind != null &&
+                        Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                    latencyTrackerFind.markIn();
+                }
+                StreamEvent[] results = find(compiledCondition, matchingEvents);
+                if (throughputTrackerFind != null &&
+                        Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                    throughputTrackerFind.eventsIn(matchingEvents.length);
+                }
+                return results;
+            } catch (ConnectionUnavailableException e) {
+                isConnected.set(false);
+                LOG.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                        " Connection unavailable at Table '" + tableDefinition.getId() +
+                        "', will retry connection immediately.", e);
+                connectWithRetry();
+            } finally {
+                if (latencyTrackerFind != null &&
+                        Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                    latencyTrackerFind.markOut();
+                }
+            }
+        }
+        StreamEvent[] results = new StreamEvent[matchingEvents.length];
+        for (int i = 0; i < matchingEvents.length; i++) {
+            results[i] = find(matchingEvents[i], compiledCondition);
+        }
+        return results;
+    }
+
+    protected StreamEvent[] find(CompiledCondition compiledCondition, StateEvent[] matchingEvents)
+            throws ConnectionUnavailableException {
+        StreamEvent[] results = new StreamEvent[matchingEvents.length];
+        for (int i = 0; i < matchingEvents.length; i++) {
+            results[i] = find(compiledCondition, matchingEvents[i]);
+        }
+        return results;
+    }
+
     public void deleteEvents(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition,
                              int noOfEvents) {
         if (isConnected.get()) {
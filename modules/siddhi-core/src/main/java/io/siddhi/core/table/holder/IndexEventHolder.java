@@ -28,21 +28,27 @@ import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.exception.SiddhiAppRuntimeException;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.snapshot.SnapshotCopier;
+import io.siddhi.core.util.snapshot.SnapshotCopyable;
 import io.siddhi.core.util.snapshot.SnapshotRequest;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.condition.Compare;
 import org.apache.log4j.Logger;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -57,13 +63,14 @@ import static io.siddhi.core.event.stream.Operation.Operator.REMOVE;
  * EventHolder implementation where events will be indexed and stored. This will offer faster access compared to
  * other EventHolder implementations. User can only add unique events based on a given primary key.
  */
-public class IndexEventHolder implements IndexedEventHolder, Serializable {
+public class IndexEventHolder implements IndexedEventHolder, SnapshotCopyable, Serializable {
 
     private static final Logger log = Logger.getLogger(IndexEventHolder.class);
     private static final long serialVersionUID = 1272291743721603253L;
     private static final float FULL_SNAPSHOT_THRESHOLD = 2.1f;
+    private static final Comparator<Object> NUMERIC_KEY_COMPARATOR = new NumericKeyComparator();
     protected final Map<Object, StreamEvent> primaryKeyData;
-    protected final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    protected final Map<String, NavigableMap<Object, Set<StreamEvent>>> indexData;
     private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private final String tableName;
     private final String siddhiAppName;
@@ -72,6 +79,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private StreamEventFactory tableStreamEventFactory;
     private StreamEventConverter eventConverter;
     private Map<String, Integer> indexMetaData;
+    private final transient AbstractDefinition tableDefinition;
     private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
     private ArrayList<Operation> operationChangeLog = new ArrayList<>();
@@ -93,7 +101,8 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (primaryKeyReferenceHolders != null) {
             if (isPrimaryNumeric) {
-                primaryKeyData = new TreeMap<Object, StreamEvent>();
+                primaryKeyData = createNavigableMap(tableDefinition.getAttributeType(
+                        primaryKeyReferenceHolders[0].getPrimaryKeyAttribute()));
             } else {
                 primaryKeyData = new HashMap<Object, StreamEvent>();
             }
@@ -114,16 +123,108 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         } else {
             primaryKeyData = null;
         }
-        if (indexMetaData.size() > 0) {
-            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
-            for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+        indexData = new HashMap<String, NavigableMap<Object, Set<StreamEvent>>>();
+        for (String indexAttributeName : indexMetaData.keySet()) {
+            indexData.put(indexAttributeName, createNavigableMap(tableDefinition.getAttributeType(
+                    indexAttributeName)));
+        }
+        allIndexMetaData.putAll(indexMetaData);
+        this.tableDefinition = tableDefinition;
+    }
+
+    /**
+     * Copy the events and the indexes of the given holder, such that the copy shares no events with it.
+     */
+    private IndexEventHolder(IndexEventHolder holder) {
+        this.tableStreamEventFactory = holder.tableStreamEventFactory;
+        this.eventConverter = holder.eventConverter;
+        this.primaryKeyReferenceHolders = holder.primaryKeyReferenceHolders;
+        this.indexMetaData = new HashMap<>(holder.indexMetaData);
+        this.tableName = holder.tableName;
+        this.siddhiAppName = holder.siddhiAppName;
+        this.siddhiAppContext = holder.siddhiAppContext;
+        this.primaryKeyAttributes = holder.primaryKeyAttributes;
+        this.tableDefinition = holder.tableDefinition;
+        this.multiPrimaryKeyMetaData = holder.multiPrimaryKeyMetaData;
+        this.allIndexMetaData = new HashMap<>(holder.allIndexMetaData);
+        this.eventsCount = holder.eventsCount;
+
+        Map<StreamEvent, StreamEvent> eventCopies = new IdentityHashMap<>();
+        if (holder.primaryKeyData != null) {
+            if (holder.primaryKeyData instanceof NavigableMap) {
+                primaryKeyData = createNavigableMap(tableDefinition.getAttributeType(
+                        primaryKeyReferenceHolders[0].getPrimaryKeyAttribute()));
+            } else {
+                primaryKeyData = new HashMap<Object, StreamEvent>(holder.primaryKeyData.size());
+            }
+            for (Map.Entry<Object, StreamEvent> entry : holder.primaryKeyData.entrySet()) {
+                primaryKeyData.put(entry.getKey(), eventCopies.computeIfAbsent(entry.getValue(),
+                        SnapshotCopier::copyStreamEvent));
             }
-            allIndexMetaData.putAll(indexMetaData);
         } else {
-            indexData = null;
+            primaryKeyData = null;
         }
+        indexData = new HashMap<String, NavigableMap<Object, Set<StreamEvent>>>();
+        for (Map.Entry<String, NavigableMap<Object, Set<StreamEvent>>> index : holder.indexData.entrySet()) {
+            NavigableMap<Object, Set<StreamEvent>> indexMap = createNavigableMap(
+                    tableDefinition.getAttributeType(index.getKey()));
+            for (Map.Entry<Object, Set<StreamEvent>> entry : index.getValue().entrySet()) {
+                Set<StreamEvent> events = new HashSet<StreamEvent>(entry.getValue().size());
+                for (StreamEvent streamEvent : entry.getValue()) {
+                    events.add(eventCopies.computeIfAbsent(streamEvent, SnapshotCopier::copyStreamEvent));
+                }
+                indexMap.put(entry.getKey(), events);
+            }
+            indexData.put(index.getKey(), indexMap);
+        }
+    }
+
+    /**
+     * Index the given attribute, indexing the events already held.
+     *
+     * @param attribute name of the attribute to be indexed
+     */
+    public void addIndex(String attribute) {
+        if (isAttributeIndexed(attribute)) {
+            return;
+        }
+        int position = tableDefinition.getAttributePosition(attribute);
+        indexData.put(attribute, buildIndex(attribute, position));
+        indexMetaData.put(attribute, position);
+        allIndexMetaData.put(attribute, position);
+    }
+
+    private NavigableMap<Object, Set<StreamEvent>> buildIndex(String attribute, int position) {
+        NavigableMap<Object, Set<StreamEvent>> indexMap = createNavigableMap(
+                tableDefinition.getAttributeType(attribute));
+        for (StreamEvent streamEvent : getAllEvents()) {
+            Object key = streamEvent.getOutputData()[position];
+            if (isIndexableKey(key)) {
+                indexMap.computeIfAbsent(key, indexKey -> new HashSet<StreamEvent>()).add(streamEvent);
+            }
+        }
+        return indexMap;
+    }
+
+    /**
+     * Null values cannot be kept in the sorted index maps; they are left out of the indexes when the events are
+     * held by their primary key, as null never matches an indexed comparison.
+     */
+    private boolean isIndexableKey(Object key) {
+        return key != null || primaryKeyData == null;
+    }
 
+    /**
+     * Create a sorted map for the keys of the given type, int and long keys are kept unboxed. Float and double keys
+     * are compared by their numeric value, such that they can be looked up by values of any numeric type.
+     */
+    private static <V> NavigableMap<Object, V> createNavigableMap(Attribute.Type keyType) {
+        if (keyType == Attribute.Type.INT || keyType == Attribute.Type.LONG) {
+            return new LongKeyNavigableMap<V>(keyType == Attribute.Type.INT);
+        } else if (keyType == Attribute.Type.FLOAT || keyType == Attribute.Type.DOUBLE) {
+            return new TreeMap<Object, V>(NUMERIC_KEY_COMPARATOR);
+        }
+        return new TreeMap<Object, V>();
     }
 
     public void replace(Object key, StreamEvent streamEvent) {
@@ -199,8 +300,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                NavigableMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
                 Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+                if (!isIndexableKey(key)) {
+                    continue;
+                }
                 Set<StreamEvent> values = indexMap.get(key);
                 if (values == null) {
                     values = new HashSet<StreamEvent>();
@@ -255,8 +359,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                NavigableMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
                 Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+                if (!isIndexableKey(key)) {
+                    continue;
+                }
                 if (deletedEvent != null) {
                     Set<StreamEvent> values = indexMap.get(key);
                     values.remove(deletedEvent);
@@ -280,11 +387,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     public Collection<StreamEvent> getAllEvents() {
         if (primaryKeyData != null) {
             return primaryKeyData.values();
-        } else if (indexData != null) {
+        } else if (!indexData.isEmpty()) {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
+            Iterator<NavigableMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
             if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
+                NavigableMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
                 for (Set<StreamEvent> streamEvents : aIndexData.values()) {
                     resultEventSet.addAll(streamEvents);
                 }
@@ -312,13 +419,13 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
             switch (operator) {
                 case LESS_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).headMap(value, false).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, false).values();
                 case GREATER_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false).values();
                 case LESS_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).headMap(value, true).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, true).values();
                 case GREATER_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true).values();
                 case EQUAL:
                     resultEventSet = new HashSet<StreamEvent>();
                     resultEvent = primaryKeyData.get(value);
@@ -340,7 +447,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            NavigableMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             Set<StreamEvent> resultEvents;
             switch (operator) {
@@ -405,7 +512,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             primaryKeyData.clear();
         }
         if (indexData != null) {
-            for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            for (NavigableMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
                 aIndexedData.clear();
             }
         }
@@ -433,10 +540,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         if (primaryKeyData != null) {
             Object primaryKey = constructPrimaryKey(streamEvent, primaryKeyReferenceHolders);
             StreamEvent deletedEvent = primaryKeyData.remove(primaryKey);
-            if (indexData != null) {
+            if (deletedEvent != null) {
                 deleteFromIndexes(deletedEvent);
             }
-        } else if (indexData != null) {
+        } else {
             deleteFromIndexes(streamEvent);
         }
     }
@@ -457,7 +564,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             headMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -466,7 +573,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             tailMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -475,7 +582,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             headMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -484,7 +591,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     }
                     return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             tailMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -569,20 +676,20 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
             switch (operator) {
                 case LESS_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
                 case GREATER_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
                 case GREATER_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
                 case EQUAL:
                     return primaryKeyData.get(value) != null;
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            NavigableMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             switch (operator) {
 
@@ -612,8 +719,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
                 if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                    NavigableMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
                     Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
+                    if (!isIndexableKey(key)) {
+                        continue;
+                    }
                     Set<StreamEvent> values = indexMap.get(key);
                     if (values != null) {
                         values.remove(deletedEvent);
@@ -629,8 +739,11 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
         if (indexMetaData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+                NavigableMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
                 Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
+                if (!isIndexableKey(key)) {
+                    continue;
+                }
                 Set<StreamEvent> values = indexMap.get(key);
                 if (values != null) {
                     values.remove(toDeleteEvent);
@@ -659,6 +772,14 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         }
     }
 
+    /**
+     * The events of the table are updated in place, hence a full snapshot is captured as a structural copy.
+     */
+    @Override
+    public Object copyForSnapshot() {
+        return new IndexEventHolder(this);
+    }
+
     public void restore(SnapshotStateList snapshotStatelist) {
         TreeMap<Long, Snapshot> revisions = snapshotStatelist.getSnapshotStates();
         Iterator<Map.Entry<Long, Snapshot>> itr = revisions.entrySet().iterator();
@@ -672,9 +793,16 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                     primaryKeyData.clear();
                     primaryKeyData.putAll(snapshotEventHolder.primaryKeyData);
                 }
-                if (indexData != null) {
-                    indexData.clear();
+                indexData.clear();
+                if (snapshotEventHolder.indexData != null) {
                     indexData.putAll(snapshotEventHolder.indexData);
+                    indexData.keySet().retainAll(indexMetaData.keySet());
+                }
+                for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+                    if (!indexData.containsKey(indexEntry.getKey())) {
+                        //indexes added after the snapshot was taken
+                        indexData.put(indexEntry.getKey(), buildIndex(indexEntry.getKey(), indexEntry.getValue()));
+                    }
                 }
                 forceFullSnapshot = false;
             } else {
@@ -708,6 +836,22 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     @Override
     public int size() {
-        return primaryKeyData.size();
+        if (primaryKeyData != null) {
+            return primaryKeyData.size();
+        }
+        return getAllEvents().size();
+    }
+
+    /**
+     * Compares numeric index keys by their value irrespective of their type.
+     */
+    private static class NumericKeyComparator implements Comparator<Object>, Serializable {
+
+        private static final long serialVersionUID = 3120470457823960371L;
+
+        @Override
+        public int compare(Object key1, Object key2) {
+            return Double.compare(((Number) key1).doubleValue(), ((Number) key2).doubleValue());
+        }
     }
 }
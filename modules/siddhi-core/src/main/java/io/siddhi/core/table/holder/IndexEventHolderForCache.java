@@ -27,8 +27,8 @@ import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
 
 /**
  * Exgtension of IndexEventHolder that implements hook handleCachePolicyAttributeUpdate for cache usage
@@ -59,7 +59,7 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
             StreamEvent foundEvent;
             switch (operator) {
                 case LESS_THAN:
-                    foundEvent = (StreamEvent) ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    foundEvent = (StreamEvent) ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             lowerKey(value);
                     if (foundEvent != null) {
                         handleCachePolicyAttributeUpdate(foundEvent);
@@ -68,7 +68,7 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                         return false;
                     }
                 case GREATER_THAN:
-                    foundEvent = (StreamEvent) ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    foundEvent = (StreamEvent) ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             higherKey(value);
                     if (foundEvent != null) {
                         handleCachePolicyAttributeUpdate(foundEvent);
@@ -77,7 +77,7 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                         return false;
                     }
                 case LESS_THAN_EQUAL:
-                    foundEvent = (StreamEvent) ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    foundEvent = (StreamEvent) ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             ceilingKey(value);
                     if (foundEvent != null) {
                         handleCachePolicyAttributeUpdate(foundEvent);
@@ -86,7 +86,7 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                         return false;
                     }
                 case GREATER_THAN_EQUAL:
-                    foundEvent = (StreamEvent) ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    foundEvent = (StreamEvent) ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             floorKey(value);
                     if (foundEvent != null) {
                         handleCachePolicyAttributeUpdate(foundEvent);
@@ -106,7 +106,7 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            NavigableMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             switch (operator) {
 
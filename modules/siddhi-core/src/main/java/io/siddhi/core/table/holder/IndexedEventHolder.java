@@ -47,6 +47,16 @@ public interface IndexedEventHolder extends EventHolder {
 
     void overwrite(StreamEvent streamEvent);
 
+    /**
+     * Notify the holder that the output data of a store event returned by it has been modified in place, such that
+     * holders that do not hold the returned event instances can persist the modification.
+     *
+     * @param storeEvent modified store event
+     */
+    default void updateEvent(StreamEvent storeEvent) {
+
+    }
+
     Set<Object> getAllPrimaryKeyValues();
 
     PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders();
@@ -0,0 +1,601 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * {@link NavigableMap} for int and long keys, that keeps the keys unboxed in an open addressing hash table and
+ * maintains a sorted key array for navigation and range views, instead of allocating tree nodes per entry. Sorted keys
+ * of newly added entries are merged lazily, when the map is navigated.
+ * <p>
+ * Null keys and values are not supported, keys that are not integral numbers only match range lookups, and
+ * descending views are not supported. Range views returned by headMap, tailMap and subMap write through to this map.
+ *
+ * @param <V> type of the values
+ */
+public class LongKeyNavigableMap<V> extends AbstractMap<Object, V> implements NavigableMap<Object, V>,
+        Serializable {
+
+    private static final long serialVersionUID = -1638421879153512394L;
+
+    private final Store<V> store;
+    private final long low;
+    private final long high;
+    private final boolean bounded;
+    private transient Set<Map.Entry<Object, V>> entrySet;
+
+    /**
+     * @param intKeys whether the keys are to be returned as {@link Integer}s instead of {@link Long}s
+     */
+    public LongKeyNavigableMap(boolean intKeys) {
+        this(new Store<V>(intKeys), Long.MIN_VALUE, Long.MAX_VALUE, false);
+    }
+
+    private LongKeyNavigableMap(Store<V> store, long low, long high, boolean bounded) {
+        this.store = store;
+        this.low = low;
+        this.high = high;
+        this.bounded = bounded;
+    }
+
+    private static boolean isIntegral(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return true;
+        }
+        double value = ((Number) key).doubleValue();
+        return value == Math.rint(value) && value >= Long.MIN_VALUE && value <= Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the smallest long key that is greater than (or equal to when inclusive) the given key
+     */
+    private static long lowerBound(Object key, boolean inclusive) {
+        if (isIntegral(key)) {
+            long value = ((Number) key).longValue();
+            if (inclusive) {
+                return value;
+            }
+            return value == Long.MAX_VALUE ? Long.MAX_VALUE : value + 1;
+        }
+        return (long) Math.ceil(((Number) key).doubleValue());
+    }
+
+    /**
+     * @return the largest long key that is less than (or equal to when inclusive) the given key
+     */
+    private static long upperBound(Object key, boolean inclusive) {
+        if (isIntegral(key)) {
+            long value = ((Number) key).longValue();
+            if (inclusive) {
+                return value;
+            }
+            return value == Long.MIN_VALUE ? Long.MIN_VALUE : value - 1;
+        }
+        return (long) Math.floor(((Number) key).doubleValue());
+    }
+
+    private boolean inRange(long key) {
+        return key >= low && key <= high;
+    }
+
+    private boolean isExcluded(Object key, boolean inclusive, boolean lowerSide) {
+        if (!isIntegral(key)) {
+            return false;
+        }
+        long value = ((Number) key).longValue();
+        return !inclusive && (lowerSide ? value == Long.MAX_VALUE : value == Long.MIN_VALUE);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!isIntegral(key)) {
+            return null;
+        }
+        long longKey = ((Number) key).longValue();
+        return inRange(longKey) ? store.get(longKey) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(Object key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported by " + getClass().getName());
+        }
+        if (!isIntegral(key)) {
+            throw new IllegalArgumentException("Key '" + key + "' is not an integral number");
+        }
+        long longKey = ((Number) key).longValue();
+        if (!inRange(longKey)) {
+            throw new IllegalArgumentException("Key '" + key + "' is out of range");
+        }
+        return store.put(longKey, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!isIntegral(key)) {
+            return null;
+        }
+        long longKey = ((Number) key).longValue();
+        return inRange(longKey) ? store.remove(longKey) : null;
+    }
+
+    @Override
+    public int size() {
+        if (!bounded) {
+            return store.size;
+        }
+        int size = 0;
+        for (Iterator<Map.Entry<Object, V>> iterator = entrySet().iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bounded ? !entrySet().iterator().hasNext() : store.size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (bounded) {
+            super.clear();
+        } else {
+            store.clear();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<Object, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<Object, V>>() {
+                @Override
+                public Iterator<Map.Entry<Object, V>> iterator() {
+                    return new EntryIterator(low, high);
+                }
+
+                @Override
+                public int size() {
+                    return LongKeyNavigableMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private Map.Entry<Object, V> firstEntryIn(long from, long to) {
+        if (from > to) {
+            return null;
+        }
+        EntryIterator iterator = new EntryIterator(from, to);
+        return iterator.hasNext() ? iterator.nextEntry(false) : null;
+    }
+
+    private Map.Entry<Object, V> lastEntryIn(long from, long to) {
+        if (from > to) {
+            return null;
+        }
+        store.sort();
+        long[] sortedKeys = store.sortedKeys;
+        for (int i = store.indexOf(to, true) - 1; i >= 0 && sortedKeys[i] >= from; i--) {
+            V value = store.get(sortedKeys[i]);
+            if (value != null) {
+                return new SimpleImmutableEntry<>(store.box(sortedKeys[i]), value);
+            }
+        }
+        return null;
+    }
+
+    private static Object key(Map.Entry<Object, ?> entry) {
+        return entry == null ? null : entry.getKey();
+    }
+
+    @Override
+    public Map.Entry<Object, V> lowerEntry(Object key) {
+        return isExcluded(key, false, false) ? null : lastEntryIn(low, Math.min(high, upperBound(key, false)));
+    }
+
+    @Override
+    public Object lowerKey(Object key) {
+        return key(lowerEntry(key));
+    }
+
+    @Override
+    public Map.Entry<Object, V> floorEntry(Object key) {
+        return lastEntryIn(low, Math.min(high, upperBound(key, true)));
+    }
+
+    @Override
+    public Object floorKey(Object key) {
+        return key(floorEntry(key));
+    }
+
+    @Override
+    public Map.Entry<Object, V> ceilingEntry(Object key) {
+        return firstEntryIn(Math.max(low, lowerBound(key, true)), high);
+    }
+
+    @Override
+    public Object ceilingKey(Object key) {
+        return key(ceilingEntry(key));
+    }
+
+    @Override
+    public Map.Entry<Object, V> higherEntry(Object key) {
+        return isExcluded(key, false, true) ? null : firstEntryIn(Math.max(low, lowerBound(key, false)), high);
+    }
+
+    @Override
+    public Object higherKey(Object key) {
+        return key(higherEntry(key));
+    }
+
+    @Override
+    public Map.Entry<Object, V> firstEntry() {
+        return firstEntryIn(low, high);
+    }
+
+    @Override
+    public Map.Entry<Object, V> lastEntry() {
+        return lastEntryIn(low, high);
+    }
+
+    @Override
+    public Map.Entry<Object, V> pollFirstEntry() {
+        Map.Entry<Object, V> entry = firstEntry();
+        if (entry != null) {
+            remove(entry.getKey());
+        }
+        return entry;
+    }
+
+    @Override
+    public Map.Entry<Object, V> pollLastEntry() {
+        Map.Entry<Object, V> entry = lastEntry();
+        if (entry != null) {
+            remove(entry.getKey());
+        }
+        return entry;
+    }
+
+    @Override
+    public Object firstKey() {
+        Map.Entry<Object, V> entry = firstEntry();
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.getKey();
+    }
+
+    @Override
+    public Object lastKey() {
+        Map.Entry<Object, V> entry = lastEntry();
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.getKey();
+    }
+
+    @Override
+    public NavigableMap<Object, V> subMap(Object fromKey, boolean fromInclusive, Object toKey, boolean toInclusive) {
+        if (isExcluded(fromKey, fromInclusive, true) || isExcluded(toKey, toInclusive, false)) {
+            return new LongKeyNavigableMap<>(store, 0, -1, true);
+        }
+        return new LongKeyNavigableMap<>(store, Math.max(low, lowerBound(fromKey, fromInclusive)),
+                Math.min(high, upperBound(toKey, toInclusive)), true);
+    }
+
+    @Override
+    public NavigableMap<Object, V> headMap(Object toKey, boolean inclusive) {
+        if (isExcluded(toKey, inclusive, false)) {
+            return new LongKeyNavigableMap<>(store, 0, -1, true);
+        }
+        return new LongKeyNavigableMap<>(store, low, Math.min(high, upperBound(toKey, inclusive)), true);
+    }
+
+    @Override
+    public NavigableMap<Object, V> tailMap(Object fromKey, boolean inclusive) {
+        if (isExcluded(fromKey, inclusive, true)) {
+            return new LongKeyNavigableMap<>(store, 0, -1, true);
+        }
+        return new LongKeyNavigableMap<>(store, Math.max(low, lowerBound(fromKey, inclusive)), high, true);
+    }
+
+    @Override
+    public SortedMap<Object, V> subMap(Object fromKey, Object toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<Object, V> headMap(Object toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<Object, V> tailMap(Object fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    @Override
+    public Comparator<? super Object> comparator() {
+        return null;
+    }
+
+    @Override
+    public NavigableMap<Object, V> descendingMap() {
+        throw new UnsupportedOperationException("Descending views are not supported by " + getClass().getName());
+    }
+
+    @Override
+    public NavigableSet<Object> navigableKeySet() {
+        throw new UnsupportedOperationException("Navigable key sets are not supported by " + getClass().getName());
+    }
+
+    @Override
+    public NavigableSet<Object> descendingKeySet() {
+        throw new UnsupportedOperationException("Descending views are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Iterates the entries in the ascending order of keys, within the given inclusive bounds.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<Object, V>> {
+
+        private final long to;
+        private final long[] sortedKeys;
+        private final int sortedSize;
+        private int index;
+        private long lastKey;
+        private boolean canRemove;
+
+        private EntryIterator(long from, long to) {
+            this.to = to;
+            store.sort();
+            this.sortedKeys = store.sortedKeys;
+            this.sortedSize = store.sortedSize;
+            this.index = from > to ? sortedSize : store.indexOf(from, false);
+            advance();
+        }
+
+        private void advance() {
+            while (index < sortedSize && sortedKeys[index] <= to && store.get(sortedKeys[index]) == null) {
+                index++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < sortedSize && sortedKeys[index] <= to;
+        }
+
+        @Override
+        public Map.Entry<Object, V> next() {
+            return nextEntry(true);
+        }
+
+        private Map.Entry<Object, V> nextEntry(boolean writeThrough) {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long key = sortedKeys[index++];
+            V value = store.get(key);
+            lastKey = key;
+            canRemove = true;
+            advance();
+            if (!writeThrough) {
+                return new SimpleImmutableEntry<>(store.box(key), value);
+            }
+            return new SimpleEntry<Object, V>(store.box(key), value) {
+                private static final long serialVersionUID = 4612308764525237341L;
+
+                @Override
+                public V setValue(V value) {
+                    store.put(key, value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            store.remove(lastKey);
+        }
+    }
+
+    /**
+     * Open addressing hash table with linear probing, shared by a map and its range views.
+     */
+    private static class Store<V> implements Serializable {
+
+        private static final long serialVersionUID = 2920135469283120345L;
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final boolean intKeys;
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size;
+        private long[] sortedKeys = new long[INITIAL_CAPACITY];
+        private int sortedSize;
+        private long[] addedKeys = new long[INITIAL_CAPACITY];
+        private int addedSize;
+        private int removedSize;
+
+        private Store(boolean intKeys) {
+            this.intKeys = intKeys;
+        }
+
+        private static int hash(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private Object box(long key) {
+            return intKeys ? (Object) (int) key : (Object) key;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(long key) {
+            return (V) values[slot(key)];
+        }
+
+        @SuppressWarnings("unchecked")
+        private V put(long key, V value) {
+            int slot = slot(key);
+            V previous = (V) values[slot];
+            values[slot] = value;
+            if (previous == null) {
+                keys[slot] = key;
+                size++;
+                if (addedSize == addedKeys.length) {
+                    addedKeys = Arrays.copyOf(addedKeys, addedSize * 2);
+                }
+                addedKeys[addedSize++] = key;
+                if (size * 4 > keys.length * 3) {
+                    resize(keys.length * 2);
+                }
+            }
+            return previous;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V remove(long key) {
+            int slot = slot(key);
+            V previous = (V) values[slot];
+            if (previous == null) {
+                return null;
+            }
+            values[slot] = null;
+            size--;
+            removedSize++;
+            // shift back the following entries of the probe sequence, to keep them reachable without tombstones
+            int mask = keys.length - 1;
+            int emptySlot = slot;
+            for (int i = (slot + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+                int homeSlot = hash(keys[i]) & mask;
+                if (((i - homeSlot) & mask) >= ((i - emptySlot) & mask)) {
+                    keys[emptySlot] = keys[i];
+                    values[emptySlot] = values[i];
+                    values[i] = null;
+                    emptySlot = i;
+                }
+            }
+            return previous;
+        }
+
+        private void clear() {
+            keys = new long[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            size = 0;
+            sortedKeys = new long[INITIAL_CAPACITY];
+            sortedSize = 0;
+            addedSize = 0;
+            removedSize = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[capacity];
+            values = new Object[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /**
+         * Merge the keys added since the last merge into the sorted keys, dropping the removed keys.
+         */
+        private synchronized void sort() {
+            if (addedSize == 0 && removedSize <= size) {
+                return;
+            }
+            Arrays.sort(addedKeys, 0, addedSize);
+            long[] merged = new long[Math.max(INITIAL_CAPACITY, size)];
+            int mergedSize = 0;
+            int i = 0;
+            int j = 0;
+            while (i < sortedSize || j < addedSize) {
+                long key;
+                if (j == addedSize || (i < sortedSize && sortedKeys[i] <= addedKeys[j])) {
+                    key = sortedKeys[i++];
+                } else {
+                    key = addedKeys[j++];
+                }
+                if ((mergedSize == 0 || merged[mergedSize - 1] != key) && get(key) != null) {
+                    merged[mergedSize++] = key;
+                }
+            }
+            sortedKeys = merged;
+            sortedSize = mergedSize;
+            addedSize = 0;
+            removedSize = 0;
+        }
+
+        /**
+         * @return index of the first sorted key that is greater than (or equal to when not after) the given key
+         */
+        private int indexOf(long key, boolean after) {
+            int lowIndex = 0;
+            int highIndex = sortedSize;
+            while (lowIndex < highIndex) {
+                int mid = (lowIndex + highIndex) >>> 1;
+                if (sortedKeys[mid] < key || (after && sortedKeys[mid] == key)) {
+                    lowIndex = mid + 1;
+                } else {
+                    highIndex = mid;
+                }
+            }
+            return lowIndex;
+        }
+    }
+}
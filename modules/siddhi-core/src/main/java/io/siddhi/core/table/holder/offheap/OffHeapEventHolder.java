@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder.offheap;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.expression.condition.Compare;
+import org.apache.log4j.Logger;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link IndexedEventHolder} that keeps the table rows and their indexes in off-heap memory, such that large tables
+ * do not add to the garbage collection overhead. Events are materialized from the stored rows when they are read.
+ */
+public class OffHeapEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(OffHeapEventHolder.class);
+
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final Map<String, Integer> indexMetaData;
+    private final Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private final Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private final Map<String, OffHeapOrderedIndex> indexData = new HashMap<>();
+    private final Attribute.Type[] types;
+    private final int segmentSize;
+    private final String tableName;
+    private final String siddhiAppName;
+    private final SiddhiAppContext siddhiAppContext;
+    private final boolean isPrimaryNumeric;
+    private String primaryKeyAttributes = null;
+    private OffHeapRowStore rowStore;
+    private OffHeapHashIndex primaryKeyData;
+    private OffHeapOrderedIndex primaryKeyOrderedData;
+
+    public OffHeapEventHolder(PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders, boolean isPrimaryNumeric,
+                              Map<String, Integer> indexMetaData, int segmentSize,
+                              AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.isPrimaryNumeric = isPrimaryNumeric;
+        this.indexMetaData = indexMetaData;
+        this.segmentSize = segmentSize;
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+        this.siddhiAppContext = siddhiAppContext;
+        this.types = tableDefinition.getAttributeList().stream().map(Attribute::getType)
+                .toArray(Attribute.Type[]::new);
+        if (primaryKeyReferenceHolders != null) {
+            if (primaryKeyReferenceHolders.length == 1) {
+                allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
+                        primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+                primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+            } else {
+                StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                            primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                    primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                            .append(SiddhiConstants.KEY_DELIMITER);
+                }
+                primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+            }
+        }
+        allIndexMetaData.putAll(indexMetaData);
+        initStore(new OffHeapRowStore(types, segmentSize));
+    }
+
+    private void initStore(OffHeapRowStore rowStore) {
+        this.rowStore = rowStore;
+        if (primaryKeyReferenceHolders != null) {
+            primaryKeyData = new OffHeapHashIndex(this::constructPrimaryKey);
+            if (isPrimaryNumeric) {
+                int position = primaryKeyReferenceHolders[0].getPrimaryKeyPosition();
+                primaryKeyOrderedData = new OffHeapOrderedIndex(rowId -> rowStore.read(rowId, position),
+                        rowStore::isLive);
+            }
+        }
+        indexData.clear();
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            int position = indexEntry.getValue();
+            indexData.put(indexEntry.getKey(), new OffHeapOrderedIndex(rowId -> rowStore.read(rowId, position),
+                    rowStore::isLive));
+        }
+        for (int rowId = 0; rowId < rowStore.getRowCount(); rowId++) {
+            if (rowStore.isLive(rowId)) {
+                addToIndexes(constructPrimaryKey(rowId), rowId);
+            }
+        }
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexMetaData.containsValue(position);
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        if (primaryKeyData == null) {
+            return null;
+        }
+        Set<Object> primaryKeyValues = new HashSet<>();
+        for (int rowId = 0; rowId < rowStore.getRowCount(); rowId++) {
+            if (rowStore.isLive(rowId)) {
+                primaryKeyValues.add(constructPrimaryKey(rowId));
+            }
+        }
+        return primaryKeyValues;
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        compactIfNeeded();
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            add(complexEvent.getTimestamp(), complexEvent.getOutputData());
+        }
+    }
+
+    private void add(long timestamp, Object[] data) {
+        Object primaryKey = null;
+        if (primaryKeyData != null) {
+            primaryKey = constructPrimaryKey(data);
+            if (primaryKeyData.containsKey(primaryKey)) {
+                Exception e = new SiddhiAppRuntimeException("Siddhi App '" + siddhiAppName + "' table '" +
+                        tableName + "' dropping event : " + toString(timestamp, data) + ", as there is already an " +
+                        "event stored with primary key '" + primaryKey + "'");
+                if (siddhiAppContext.getRuntimeExceptionListener() != null) {
+                    siddhiAppContext.getRuntimeExceptionListener().exceptionThrown(e);
+                }
+                log.error(e.getMessage(), e);
+                return;
+            }
+        }
+        addToIndexes(primaryKey, rowStore.insert(timestamp, data));
+    }
+
+    private void addToIndexes(Object primaryKey, int rowId) {
+        if (primaryKeyData != null) {
+            primaryKeyData.put(primaryKey, rowId);
+            if (primaryKeyOrderedData != null) {
+                primaryKeyOrderedData.add(rowId);
+            }
+        }
+        for (OffHeapOrderedIndex index : indexData.values()) {
+            index.add(rowId);
+        }
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        compactIfNeeded();
+        if (primaryKeyData != null) {
+            int rowId = primaryKeyData.get(constructPrimaryKey(streamEvent.getOutputData()));
+            if (rowId != -1) {
+                replaceRow(rowId, streamEvent.getTimestamp(), streamEvent.getOutputData());
+                return;
+            }
+        }
+        add(streamEvent.getTimestamp(), streamEvent.getOutputData());
+    }
+
+    @Override
+    public void updateEvent(StreamEvent storeEvent) {
+        if (storeEvent instanceof OffHeapStreamEvent && ((OffHeapStreamEvent) storeEvent).getRowStore() == rowStore) {
+            int rowId = ((OffHeapStreamEvent) storeEvent).getRowId();
+            if (rowStore.isLive(rowId)) {
+                replaceRow(rowId, storeEvent.getTimestamp(), storeEvent.getOutputData());
+            }
+        } else {
+            overwrite(storeEvent);
+        }
+    }
+
+    /**
+     * Replace the data of a row in place, unless an indexed attribute is changed where the row is reinserted so
+     * that the indexes stay consistent.
+     */
+    private void replaceRow(int rowId, long timestamp, Object[] data) {
+        boolean indexedAttributeChanged = false;
+        for (Integer position : allIndexMetaData.values()) {
+            if (!Objects.equals(rowStore.read(rowId, position), data[position])) {
+                indexedAttributeChanged = true;
+                break;
+            }
+        }
+        if (!indexedAttributeChanged) {
+            for (Integer position : multiPrimaryKeyMetaData.values()) {
+                if (!Objects.equals(rowStore.read(rowId, position), data[position])) {
+                    indexedAttributeChanged = true;
+                    break;
+                }
+            }
+        }
+        if (indexedAttributeChanged) {
+            deleteRow(rowId);
+            add(timestamp, data);
+        } else {
+            rowStore.update(rowId, timestamp, data);
+        }
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        OffHeapRowStore currentRowStore = rowStore;
+        return new AbstractCollection<StreamEvent>() {
+            @Override
+            public Iterator<StreamEvent> iterator() {
+                return new Iterator<StreamEvent>() {
+                    private int nextRowId = nextLiveRow(0);
+
+                    private int nextLiveRow(int rowId) {
+                        while (rowId < currentRowStore.getRowCount() && !currentRowStore.isLive(rowId)) {
+                            rowId++;
+                        }
+                        return rowId;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextRowId < currentRowStore.getRowCount();
+                    }
+
+                    @Override
+                    public StreamEvent next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        StreamEvent streamEvent = new OffHeapStreamEvent(currentRowStore, nextRowId);
+                        nextRowId = nextLiveRow(nextRowId + 1);
+                        return streamEvent;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return currentRowStore.getLiveRowCount();
+            }
+        };
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        Set<StreamEvent> resultEventSet = new HashSet<>();
+        forEachRow(attribute, operator, value, rowId -> resultEventSet.add(new OffHeapStreamEvent(rowStore, rowId)));
+        return resultEventSet;
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case EQUAL:
+                    return primaryKeyData.containsKey(value);
+                case NOT_EQUAL:
+                    return primaryKeyData.size() > 1 ||
+                            (primaryKeyData.size() == 1 && !primaryKeyData.containsKey(value));
+                default:
+                    return getOrderedIndex(attribute, operator, value).exists(operator, value);
+            }
+        }
+        return getOrderedIndex(attribute, operator, value).exists(operator, value);
+    }
+
+    @Override
+    public void deleteAll() {
+        initStore(new OffHeapRowStore(types, segmentSize));
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (streamEvent instanceof OffHeapStreamEvent &&
+                    ((OffHeapStreamEvent) streamEvent).getRowStore() == rowStore) {
+                int rowId = ((OffHeapStreamEvent) streamEvent).getRowId();
+                if (rowStore.isLive(rowId)) {
+                    deleteRow(rowId);
+                }
+            } else if (primaryKeyData != null) {
+                int rowId = primaryKeyData.get(constructPrimaryKey(streamEvent.getOutputData()));
+                if (rowId != -1) {
+                    deleteRow(rowId);
+                }
+            } else {
+                Object[] data = streamEvent.getOutputData();
+                for (int rowId = 0; rowId < rowStore.getRowCount(); rowId++) {
+                    if (rowStore.isLive(rowId) && Arrays.equals(rowStore.read(rowId), data)) {
+                        deleteRow(rowId);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        List<Integer> rowIds = new ArrayList<>();
+        forEachRow(attribute, operator, value, rowIds::add);
+        for (Integer rowId : rowIds) {
+            deleteRow(rowId);
+        }
+    }
+
+    private void deleteRow(int rowId) {
+        if (primaryKeyData != null) {
+            primaryKeyData.remove(constructPrimaryKey(rowId));
+        }
+        rowStore.delete(rowId);
+    }
+
+    private void forEachRow(String attribute, Compare.Operator operator, Object value, IntConsumer consumer) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            int matchingRowId;
+            switch (operator) {
+                case EQUAL:
+                    matchingRowId = primaryKeyData.get(value);
+                    if (matchingRowId != -1) {
+                        consumer.accept(matchingRowId);
+                    }
+                    return;
+                case NOT_EQUAL:
+                    matchingRowId = primaryKeyData.get(value);
+                    for (int rowId = 0; rowId < rowStore.getRowCount(); rowId++) {
+                        if (rowId != matchingRowId && rowStore.isLive(rowId)) {
+                            consumer.accept(rowId);
+                        }
+                    }
+                    return;
+                default:
+                    break;
+            }
+        }
+        getOrderedIndex(attribute, operator, value).forEach(operator, value, consumer);
+    }
+
+    private OffHeapOrderedIndex getOrderedIndex(String attribute, Compare.Operator operator, Object value) {
+        OffHeapOrderedIndex index;
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            index = primaryKeyOrderedData;
+        } else {
+            index = indexData.get(attribute);
+        }
+        if (index == null) {
+            throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " +
+                    getClass().getName() + " on attribute '" + attribute + "'");
+        }
+        return index;
+    }
+
+    private Object constructPrimaryKey(int rowId) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return rowStore.read(rowId, primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(rowStore.read(rowId, primaryKeyReferenceHolder.getPrimaryKeyPosition()))
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private Object constructPrimaryKey(Object[] data) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return data[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                stringBuilder.append(data[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (rowStore.needsCompaction()) {
+            OffHeapRowStore compactedRowStore = new OffHeapRowStore(types, segmentSize);
+            for (int rowId = 0; rowId < rowStore.getRowCount(); rowId++) {
+                if (rowStore.isLive(rowId)) {
+                    compactedRowStore.copy(rowStore, rowId);
+                }
+            }
+            initStore(compactedRowStore);
+        }
+    }
+
+    private String toString(long timestamp, Object[] data) {
+        return "StreamEvent{ timestamp=" + timestamp + ", outputData=" + Arrays.toString(data) + "}";
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        // Exported rows are copied out of the off-heap segments, hence they are not copied again when captured
+        return new Snapshot(new ArrayList<>(rowStore.export()), false, true);
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        Snapshot snapshot = snapshotStatelist.getSnapshotStates().lastEntry().getValue();
+        OffHeapRowStore restoredRowStore = new OffHeapRowStore(types, segmentSize);
+        restoredRowStore.load((List<byte[]>) snapshot.getState());
+        initStore(restoredRowStore);
+    }
+
+    @Override
+    public int size() {
+        return rowStore.getLiveRowCount();
+    }
+}
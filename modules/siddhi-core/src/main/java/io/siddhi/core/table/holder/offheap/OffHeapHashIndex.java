@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Open addressing hash index kept in off-heap memory, mapping unique keys to row ids of an {@link OffHeapRowStore}.
+ * Only the key hash and the row id are kept in the index, and keys are resolved through the given key reader.
+ */
+public class OffHeapHashIndex {
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1L << 32;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final IntFunction<Object> keyReader;
+    private LongBuffer entries;
+    private int size;
+    private int usedSlots;
+
+    public OffHeapHashIndex(IntFunction<Object> keyReader) {
+        this.keyReader = keyReader;
+        this.entries = allocate(INITIAL_CAPACITY);
+    }
+
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * 8).asLongBuffer();
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long entry(int hash, int rowId) {
+        return ((long) hash << 32) | ((rowId + 1) & 0xFFFFFFFFL);
+    }
+
+    private static int rowId(long entry) {
+        return (int) entry - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key key to lookup
+     * @return row id of the key or -1 if the key does not exist
+     */
+    public int get(Object key) {
+        int slot = find(key, hash(key));
+        return slot < 0 ? -1 : rowId(entries.get(slot));
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    /**
+     * Add the key of the given row, replacing the existing row id of the key if any.
+     *
+     * @param key   key of the row
+     * @param rowId id of the row
+     */
+    public void put(Object key, int rowId) {
+        int hash = hash(key);
+        int slot = find(key, hash);
+        if (slot >= 0) {
+            entries.put(slot, entry(hash, rowId));
+            return;
+        }
+        if ((usedSlots + 1) * 4 > entries.capacity() * 3) {
+            rehash(size * 2 > entries.capacity() / 2 ? entries.capacity() * 2 : entries.capacity());
+        }
+        insert(hash, rowId);
+        size++;
+    }
+
+    public int remove(Object key) {
+        int slot = find(key, hash(key));
+        if (slot < 0) {
+            return -1;
+        }
+        int rowId = rowId(entries.get(slot));
+        entries.put(slot, TOMBSTONE);
+        size--;
+        return rowId;
+    }
+
+    public void clear() {
+        entries = allocate(INITIAL_CAPACITY);
+        size = 0;
+        usedSlots = 0;
+    }
+
+    private int find(Object key, int hash) {
+        int mask = entries.capacity() - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long entry = entries.get(slot);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE && (int) (entry >>> 32) == hash &&
+                    Objects.equals(keyReader.apply(rowId(entry)), key)) {
+                return slot;
+            }
+        }
+    }
+
+    private void insert(int hash, int rowId) {
+        int mask = entries.capacity() - 1;
+        int slot = hash & mask;
+        while (entries.get(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        entries.put(slot, entry(hash, rowId));
+        usedSlots++;
+    }
+
+    private void rehash(int capacity) {
+        LongBuffer oldEntries = entries;
+        entries = allocate(capacity);
+        usedSlots = 0;
+        for (int i = 0; i < oldEntries.capacity(); i++) {
+            long entry = oldEntries.get(i);
+            if (entry != EMPTY && entry != TOMBSTONE) {
+                insert((int) (entry >>> 32), rowId(entry));
+            }
+        }
+    }
+}
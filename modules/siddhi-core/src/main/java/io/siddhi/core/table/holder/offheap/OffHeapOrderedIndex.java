@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder.offheap;
+
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Ordered index kept in off-heap memory, mapping non unique keys to row ids of an {@link OffHeapRowStore}.
+ * Row ids are kept in sorted runs of geometrically decreasing sizes which are merged as new runs are added, and rows
+ * that are no longer live are dropped when runs are merged.
+ */
+public class OffHeapOrderedIndex {
+
+    private static final int BUFFER_SIZE = 256;
+
+    private final IntFunction<Object> keyReader;
+    private final IntPredicate liveRowChecker;
+    private final List<IntBuffer> runs = new ArrayList<>();
+    private int[] buffer = new int[BUFFER_SIZE];
+    private int bufferSize;
+
+    public OffHeapOrderedIndex(IntFunction<Object> keyReader, IntPredicate liveRowChecker) {
+        this.keyReader = keyReader;
+        this.liveRowChecker = liveRowChecker;
+    }
+
+    @SuppressWarnings("unchecked")
+    static int compare(Object key, Object otherKey) {
+        if (key.getClass() != otherKey.getClass() && key instanceof Number && otherKey instanceof Number) {
+            return Double.compare(((Number) key).doubleValue(), ((Number) otherKey).doubleValue());
+        }
+        return ((Comparable<Object>) key).compareTo(otherKey);
+    }
+
+    /**
+     * Add the given row to the index, rows having null keys are not indexed.
+     *
+     * @param rowId id of the row
+     */
+    public void add(int rowId) {
+        if (keyReader.apply(rowId) == null) {
+            return;
+        }
+        buffer[bufferSize++] = rowId;
+        if (bufferSize == buffer.length) {
+            flush();
+        }
+    }
+
+    public void clear() {
+        runs.clear();
+        bufferSize = 0;
+    }
+
+    /**
+     * Pass the live rows whose keys satisfy the given condition to the consumer.
+     *
+     * @param operator compare operator to be applied in the form of 'key operator value'
+     * @param value    value to compare with
+     * @param consumer consumer of the matching row ids
+     */
+    public void forEach(Compare.Operator operator, Object value, IntConsumer consumer) {
+        for (IntBuffer run : runs) {
+            int size = run.limit();
+            int lower = lowerBound(run, value, false);
+            int upper = lowerBound(run, value, true);
+            switch (operator) {
+                case LESS_THAN:
+                    consume(run, 0, lower, consumer);
+                    break;
+                case LESS_THAN_EQUAL:
+                    consume(run, 0, upper, consumer);
+                    break;
+                case GREATER_THAN:
+                    consume(run, upper, size, consumer);
+                    break;
+                case GREATER_THAN_EQUAL:
+                    consume(run, lower, size, consumer);
+                    break;
+                case EQUAL:
+                    consume(run, lower, upper, consumer);
+                    break;
+                case NOT_EQUAL:
+                    consume(run, 0, lower, consumer);
+                    consume(run, upper, size, consumer);
+                    break;
+                default:
+                    throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " +
+                            getClass().getName());
+            }
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            int rowId = buffer[i];
+            if (liveRowChecker.test(rowId) && matches(compare(keyReader.apply(rowId), value), operator)) {
+                consumer.accept(rowId);
+            }
+        }
+    }
+
+    public boolean exists(Compare.Operator operator, Object value) {
+        boolean[] exists = new boolean[1];
+        forEach(operator, value, rowId -> exists[0] = true);
+        return exists[0];
+    }
+
+    private static boolean matches(int comparison, Compare.Operator operator) {
+        switch (operator) {
+            case LESS_THAN:
+                return comparison < 0;
+            case LESS_THAN_EQUAL:
+                return comparison <= 0;
+            case GREATER_THAN:
+                return comparison > 0;
+            case GREATER_THAN_EQUAL:
+                return comparison >= 0;
+            case EQUAL:
+                return comparison == 0;
+            case NOT_EQUAL:
+                return comparison != 0;
+            default:
+                throw new OperationNotSupportedException(operator + " not supported by " +
+                        OffHeapOrderedIndex.class.getName());
+        }
+    }
+
+    private void consume(IntBuffer run, int from, int to, IntConsumer consumer) {
+        for (int i = from; i < to; i++) {
+            int rowId = run.get(i);
+            if (liveRowChecker.test(rowId)) {
+                consumer.accept(rowId);
+            }
+        }
+    }
+
+    private int lowerBound(IntBuffer run, Object value, boolean inclusive) {
+        int low = 0;
+        int high = run.limit();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(keyReader.apply(run.get(mid)), value);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void flush() {
+        Integer[] rowIds = new Integer[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            rowIds[i] = buffer[i];
+        }
+        Arrays.sort(rowIds, (rowId, otherRowId) -> compare(keyReader.apply(rowId), keyReader.apply(otherRowId)));
+        IntBuffer run = ByteBuffer.allocateDirect(bufferSize * 4).asIntBuffer();
+        for (Integer rowId : rowIds) {
+            if (liveRowChecker.test(rowId)) {
+                run.put(rowId);
+            }
+        }
+        run.flip();
+        bufferSize = 0;
+        runs.add(run);
+        while (runs.size() > 1 && runs.get(runs.size() - 2).limit() <= runs.get(runs.size() - 1).limit() * 2) {
+            IntBuffer last = runs.remove(runs.size() - 1);
+            IntBuffer previous = runs.remove(runs.size() - 1);
+            runs.add(merge(previous, last));
+        }
+    }
+
+    private IntBuffer merge(IntBuffer run, IntBuffer otherRun) {
+        IntBuffer merged = ByteBuffer.allocateDirect((run.limit() + otherRun.limit()) * 4).asIntBuffer();
+        int i = nextLive(run, 0);
+        int j = nextLive(otherRun, 0);
+        while (i < run.limit() && j < otherRun.limit()) {
+            if (compare(keyReader.apply(run.get(i)), keyReader.apply(otherRun.get(j))) <= 0) {
+                merged.put(run.get(i));
+                i = nextLive(run, i + 1);
+            } else {
+                merged.put(otherRun.get(j));
+                j = nextLive(otherRun, j + 1);
+            }
+        }
+        for (; i < run.limit(); i = nextLive(run, i + 1)) {
+            merged.put(run.get(i));
+        }
+        for (; j < otherRun.limit(); j = nextLive(otherRun, j + 1)) {
+            merged.put(otherRun.get(j));
+        }
+        merged.flip();
+        return merged;
+    }
+
+    private int nextLive(IntBuffer run, int index) {
+        while (index < run.limit() && !liveRowChecker.test(run.get(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder.offheap;
+
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores table rows in a binary layout within off-heap memory segments. Rows are addressed by row ids that are
+ * assigned in insertion order and are never reused, hence a deleted row keeps its bytes till the store is compacted
+ * into a new store.
+ * <p>
+ * Each row is laid out as the row length, the timestamp, a null bitmap, the fixed size attributes (int, long, float,
+ * double and bool) and finally the length prefixed variable size attributes (string and object), so that the fixed
+ * size attributes can be read at constant offsets.
+ */
+public class OffHeapRowStore {
+
+    private static final long DELETED = Long.MIN_VALUE;
+    private static final int INITIAL_ROW_CAPACITY = 1024;
+
+    private final Attribute.Type[] types;
+    private final int segmentSize;
+    private final int nullBitmapOffset;
+    private final int[] attributeOffsets;
+    private final int[] variableAttributes;
+    private final int fixedSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer currentSegment;
+    private LongBuffer addresses;
+    private int rowCount;
+    private int liveRowCount;
+    private long usedBytes;
+    private long wastedBytes;
+
+    public OffHeapRowStore(Attribute.Type[] types, int segmentSize) {
+        this.types = types;
+        this.segmentSize = segmentSize;
+        this.nullBitmapOffset = 4 + 8;
+        this.attributeOffsets = new int[types.length];
+        int offset = nullBitmapOffset + (types.length + 7) / 8;
+        List<Integer> variableAttributeList = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            int size = fixedSize(types[i]);
+            if (size > 0) {
+                attributeOffsets[i] = offset;
+                offset += size;
+            } else {
+                attributeOffsets[i] = -1;
+                variableAttributeList.add(i);
+            }
+        }
+        this.fixedSize = offset;
+        this.variableAttributes = variableAttributeList.stream().mapToInt(Integer::intValue).toArray();
+        this.addresses = ByteBuffer.allocateDirect(INITIAL_ROW_CAPACITY * 8).asLongBuffer();
+    }
+
+    private static int fixedSize(Attribute.Type type) {
+        switch (type) {
+            case INT:
+            case FLOAT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case BOOL:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    public Attribute.Type[] getTypes() {
+        return types;
+    }
+
+    /**
+     * @return number of row ids assigned so far, including the ones of deleted rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getLiveRowCount() {
+        return liveRowCount;
+    }
+
+    public boolean isLive(int rowId) {
+        return rowId >= 0 && rowId < rowCount && addresses.get(rowId) >= 0;
+    }
+
+    /**
+     * @return true if deleted or relocated rows occupy more memory than the live rows
+     */
+    public boolean needsCompaction() {
+        return (rowCount - liveRowCount > INITIAL_ROW_CAPACITY && rowCount - liveRowCount > liveRowCount) ||
+                (wastedBytes > segmentSize && wastedBytes > usedBytes - wastedBytes);
+    }
+
+    public int insert(long timestamp, Object[] data) {
+        byte[][] variableData = encodeVariableData(data);
+        int rowSize = rowSize(variableData);
+        long address = allocate(rowSize);
+        write(address, rowSize, timestamp, data, variableData);
+        return addRow(address);
+    }
+
+    /**
+     * Replace the data of an existing row, keeping its row id.
+     *
+     * @param rowId     id of a live row
+     * @param timestamp timestamp of the row
+     * @param data      new data of the row
+     */
+    public void update(int rowId, long timestamp, Object[] data) {
+        byte[][] variableData = encodeVariableData(data);
+        int rowSize = rowSize(variableData);
+        long address = addresses.get(rowId);
+        ByteBuffer segment = segments.get(segmentIndex(address));
+        int existingRowSize = segment.getInt(offset(address));
+        if (rowSize <= existingRowSize) {
+            write(address, existingRowSize, timestamp, data, variableData);
+        } else {
+            wastedBytes += existingRowSize;
+            address = allocate(rowSize);
+            write(address, rowSize, timestamp, data, variableData);
+            addresses.put(rowId, address);
+        }
+    }
+
+    public void delete(int rowId) {
+        long address = addresses.get(rowId);
+        if (address >= 0) {
+            wastedBytes += segments.get(segmentIndex(address)).getInt(offset(address));
+            addresses.put(rowId, address | DELETED);
+            liveRowCount--;
+        }
+    }
+
+    public void clear() {
+        segments.clear();
+        currentSegment = null;
+        addresses = ByteBuffer.allocateDirect(INITIAL_ROW_CAPACITY * 8).asLongBuffer();
+        rowCount = 0;
+        liveRowCount = 0;
+        usedBytes = 0;
+        wastedBytes = 0;
+    }
+
+    public long getTimestamp(int rowId) {
+        long address = addresses.get(rowId);
+        return segments.get(segmentIndex(address)).getLong(offset(address) + 4);
+    }
+
+    public Object[] read(int rowId) {
+        Object[] data = new Object[types.length];
+        long address = addresses.get(rowId);
+        ByteBuffer segment = segments.get(segmentIndex(address));
+        int rowOffset = offset(address);
+        for (int i = 0; i < types.length; i++) {
+            if (attributeOffsets[i] != -1) {
+                data[i] = readFixed(segment, rowOffset, i);
+            }
+        }
+        int offset = rowOffset + fixedSize;
+        for (int attributeIndex : variableAttributes) {
+            int length = segment.getInt(offset);
+            offset += 4;
+            if (!isNull(segment, rowOffset, attributeIndex)) {
+                data[attributeIndex] = decodeVariable(segment, offset, length, types[attributeIndex]);
+            }
+            offset += length;
+        }
+        return data;
+    }
+
+    /**
+     * Read a single attribute of a row. Attributes of deleted rows are still readable till the store is compacted.
+     *
+     * @param rowId    id of the row
+     * @param position position of the attribute
+     * @return value of the attribute
+     */
+    public Object read(int rowId, int position) {
+        long address = addresses.get(rowId) & ~DELETED;
+        return read(segments.get(segmentIndex(address)), offset(address), position);
+    }
+
+    private Object read(ByteBuffer segment, int rowOffset, int position) {
+        if (attributeOffsets[position] != -1) {
+            return readFixed(segment, rowOffset, position);
+        }
+        int offset = rowOffset + fixedSize;
+        for (int attributeIndex : variableAttributes) {
+            int length = segment.getInt(offset);
+            offset += 4;
+            if (attributeIndex == position) {
+                if (isNull(segment, rowOffset, attributeIndex)) {
+                    return null;
+                }
+                return decodeVariable(segment, offset, length, types[attributeIndex]);
+            }
+            offset += length;
+        }
+        throw new IndexOutOfBoundsException("No attribute at position " + position);
+    }
+
+    /**
+     * Copy a live row of another store with the same layout, as is.
+     *
+     * @param source store to copy the row from
+     * @param rowId  id of the row in the source store
+     * @return id of the row in this store
+     */
+    public int copy(OffHeapRowStore source, int rowId) {
+        long sourceAddress = source.addresses.get(rowId);
+        ByteBuffer sourceSegment = source.segments.get(segmentIndex(sourceAddress));
+        int sourceOffset = offset(sourceAddress);
+        int rowSize = sourceSegment.getInt(sourceOffset);
+        long address = allocate(rowSize);
+        ByteBuffer row = sourceSegment.duplicate();
+        row.limit(sourceOffset + rowSize).position(sourceOffset);
+        ByteBuffer target = segments.get(segmentIndex(address)).duplicate();
+        target.position(offset(address));
+        target.put(row);
+        return addRow(address);
+    }
+
+    /**
+     * Export the live rows in their binary layout, grouped into chunks of about the segment size.
+     *
+     * @return exported rows
+     */
+    public List<byte[]> export() {
+        List<byte[]> chunks = new ArrayList<>();
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        for (int rowId = 0; rowId < rowCount; rowId++) {
+            long address = addresses.get(rowId);
+            if (address < 0) {
+                continue;
+            }
+            ByteBuffer row = segments.get(segmentIndex(address)).duplicate();
+            int offset = offset(address);
+            byte[] bytes = new byte[row.getInt(offset)];
+            row.position(offset);
+            row.get(bytes);
+            chunk.write(bytes, 0, bytes.length);
+            if (chunk.size() >= segmentSize) {
+                chunks.add(chunk.toByteArray());
+                chunk.reset();
+            }
+        }
+        if (chunk.size() > 0) {
+            chunks.add(chunk.toByteArray());
+        }
+        return chunks;
+    }
+
+    /**
+     * Import rows exported by a store with the same layout.
+     *
+     * @param chunks exported rows
+     */
+    public void load(List<byte[]> chunks) {
+        for (byte[] chunk : chunks) {
+            ByteBuffer source = ByteBuffer.wrap(chunk);
+            while (source.hasRemaining()) {
+                int rowSize = source.getInt(source.position());
+                long address = allocate(rowSize);
+                ByteBuffer row = source.duplicate();
+                row.limit(source.position() + rowSize);
+                ByteBuffer target = segments.get(segmentIndex(address)).duplicate();
+                target.position(offset(address));
+                target.put(row);
+                source.position(source.position() + rowSize);
+                addRow(address);
+            }
+        }
+    }
+
+    private int addRow(long address) {
+        if (rowCount == addresses.capacity()) {
+            LongBuffer newAddresses = ByteBuffer.allocateDirect(addresses.capacity() * 2 * 8).asLongBuffer();
+            LongBuffer oldAddresses = addresses.duplicate();
+            oldAddresses.clear();
+            newAddresses.put(oldAddresses);
+            newAddresses.clear();
+            addresses = newAddresses;
+        }
+        addresses.put(rowCount, address);
+        liveRowCount++;
+        return rowCount++;
+    }
+
+    private long allocate(int rowSize) {
+        if (currentSegment == null || currentSegment.remaining() < rowSize) {
+            currentSegment = ByteBuffer.allocateDirect(Math.max(segmentSize, rowSize));
+            segments.add(currentSegment);
+        }
+        int offset = currentSegment.position();
+        currentSegment.position(offset + rowSize);
+        usedBytes += rowSize;
+        return ((long) (segments.size() - 1) << 32) | offset;
+    }
+
+    private void write(long address, int rowSize, long timestamp, Object[] data, byte[][] variableData) {
+        ByteBuffer segment = segments.get(segmentIndex(address));
+        int rowOffset = offset(address);
+        segment.putInt(rowOffset, rowSize);
+        segment.putLong(rowOffset + 4, timestamp);
+        for (int i = rowOffset + nullBitmapOffset; i < rowOffset + attributeOffsetsStart(); i++) {
+            segment.put(i, (byte) 0);
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (data[i] == null) {
+                int bitmapIndex = rowOffset + nullBitmapOffset + (i >> 3);
+                segment.put(bitmapIndex, (byte) (segment.get(bitmapIndex) | (1 << (i & 7))));
+            } else if (attributeOffsets[i] != -1) {
+                writeFixed(segment, rowOffset + attributeOffsets[i], types[i], data[i]);
+            }
+        }
+        ByteBuffer variableSegment = segment.duplicate();
+        variableSegment.position(rowOffset + fixedSize);
+        for (int i = 0; i < variableAttributes.length; i++) {
+            byte[] bytes = variableData[i];
+            if (bytes == null) {
+                variableSegment.putInt(0);
+            } else {
+                variableSegment.putInt(bytes.length);
+                variableSegment.put(bytes);
+            }
+        }
+    }
+
+    private int attributeOffsetsStart() {
+        return nullBitmapOffset + (types.length + 7) / 8;
+    }
+
+    private int rowSize(byte[][] variableData) {
+        int size = fixedSize;
+        for (byte[] bytes : variableData) {
+            size += 4 + (bytes == null ? 0 : bytes.length);
+        }
+        return size;
+    }
+
+    private byte[][] encodeVariableData(Object[] data) {
+        byte[][] variableData = new byte[variableAttributes.length][];
+        for (int i = 0; i < variableAttributes.length; i++) {
+            Object value = data[variableAttributes[i]];
+            if (value != null) {
+                if (types[variableAttributes[i]] == Attribute.Type.STRING) {
+                    variableData[i] = ((String) value).getBytes(StandardCharsets.UTF_8);
+                } else {
+                    variableData[i] = serialize(value);
+                }
+            }
+        }
+        return variableData;
+    }
+
+    private boolean isNull(ByteBuffer segment, int rowOffset, int position) {
+        return (segment.get(rowOffset + nullBitmapOffset + (position >> 3)) & (1 << (position & 7))) != 0;
+    }
+
+    private Object readFixed(ByteBuffer segment, int rowOffset, int position) {
+        if (isNull(segment, rowOffset, position)) {
+            return null;
+        }
+        int offset = rowOffset + attributeOffsets[position];
+        switch (types[position]) {
+            case INT:
+                return segment.getInt(offset);
+            case LONG:
+                return segment.getLong(offset);
+            case FLOAT:
+                return segment.getFloat(offset);
+            case DOUBLE:
+                return segment.getDouble(offset);
+            default:
+                return segment.get(offset) != 0;
+        }
+    }
+
+    private void writeFixed(ByteBuffer segment, int offset, Attribute.Type type, Object value) {
+        switch (type) {
+            case INT:
+                segment.putInt(offset, (Integer) value);
+                break;
+            case LONG:
+                segment.putLong(offset, (Long) value);
+                break;
+            case FLOAT:
+                segment.putFloat(offset, (Float) value);
+                break;
+            case DOUBLE:
+                segment.putDouble(offset, (Double) value);
+                break;
+            default:
+                segment.put(offset, (byte) ((Boolean) value ? 1 : 0));
+        }
+    }
+
+    private Object decodeVariable(ByteBuffer segment, int offset, int length, Attribute.Type type) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = segment.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        if (type == Attribute.Type.STRING) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return inputStream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SiddhiAppRuntimeException("Cannot deserialize object attribute stored off-heap, " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(value);
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Cannot serialize object attribute '" + value + "' to store it " +
+                    "off-heap, " + e.getMessage(), e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static int segmentIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
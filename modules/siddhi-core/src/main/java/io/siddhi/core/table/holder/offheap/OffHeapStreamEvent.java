@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder.offheap;
+
+import io.siddhi.core.event.stream.StreamEvent;
+
+/**
+ * {@link StreamEvent} materialized from a row of an {@link OffHeapRowStore}, which keeps the reference to its row.
+ */
+public class OffHeapStreamEvent extends StreamEvent {
+
+    private static final long serialVersionUID = -2385309452113396235L;
+    private final transient OffHeapRowStore rowStore;
+    private final int rowId;
+
+    public OffHeapStreamEvent(OffHeapRowStore rowStore, int rowId) {
+        super(0, 0, rowStore.getTypes().length);
+        this.rowStore = rowStore;
+        this.rowId = rowId;
+        setOutputData(rowStore.read(rowId));
+        setTimestamp(rowStore.getTimestamp(rowId));
+        setType(Type.CURRENT);
+    }
+
+    public OffHeapRowStore getRowStore() {
+        return rowStore;
+    }
+
+    public int getRowId() {
+        return rowId;
+    }
+}
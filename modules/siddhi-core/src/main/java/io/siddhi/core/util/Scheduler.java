@@ -18,7 +18,6 @@
 
 package io.siddhi.core.util;
 
-import com.google.common.collect.TreeMultimap;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.ComplexEventChunk;
@@ -26,81 +25,42 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.lock.LockWrapper;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
-import io.siddhi.core.util.timestamp.TimestampGeneratorImpl;
 import org.apache.log4j.Logger;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Scheduler implementation to take periodic snapshots
+ * Scheduler implementation to send TIMER events to the processors at the requested times, which registers the
+ * notification times of its states with the Siddhi App wide {@link TimerWheel}.
  */
 public class Scheduler implements ExternalReferencedHolder {
 
     private static final Logger log = Logger.getLogger(Scheduler.class);
     private final ThreadBarrier threadBarrier;
     private final Schedulable singleThreadEntryValve;
-    private final Semaphore mutex;
+    private final TimerWheel timerWheel;
     protected String queryName;
     private SiddhiQueryContext siddhiQueryContext;
     private LockWrapper lockWrapper;
-    private ScheduledExecutorService scheduledExecutorService;
     private StreamEventFactory streamEventFactory;
     private LatencyTracker latencyTracker;
     private StateHolder<SchedulerState> stateHolder;
-    private boolean stop;
+    private volatile boolean stop;
 
 
     public Scheduler(Schedulable singleThreadEntryValve, SiddhiQueryContext siddhiQueryContext) {
         this.threadBarrier = siddhiQueryContext.getSiddhiAppContext().getThreadBarrier();
         this.siddhiQueryContext = siddhiQueryContext;
         this.singleThreadEntryValve = singleThreadEntryValve;
-        this.scheduledExecutorService = siddhiQueryContext.getSiddhiAppContext().getScheduledExecutorService();
-        this.mutex = new Semaphore(1);
-
-        siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator()
-                .addTimeChangeListener(new TimestampGeneratorImpl.TimeChangeListener() {
-                    @Override
-                    public synchronized void onTimeChange(long currentTimestamp) {
-                        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
-                        try {
-                            TreeMultimap<Long, SchedulerState> sortedExpires = TreeMultimap.create();
-                            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry :
-                                    allStates.entrySet()) {
-                                for (Map.Entry<String, SchedulerState> stateEntry :
-                                        allStatesEntry.getValue().entrySet()) {
-                                    Long lastTime = stateEntry.getValue().toNotifyQueue.peek();
-                                    if (lastTime != null && lastTime <= currentTimestamp) {
-                                        sortedExpires.put(lastTime, stateEntry.getValue());
-                                    }
-                                }
-                            }
-                            for (Map.Entry<Long, SchedulerState> entry : sortedExpires.entries()) {
-                                try {
-                                    SiddhiAppContext.startPartitionFlow(entry.getValue().key);
-                                    // If executed in a separate thread, while it is processing,
-                                    // the new event will come into the window. As the result of it,
-                                    // the window will emit the new event as an existing current event.
-                                    sendTimerEvents(entry.getValue());
-                                } finally {
-                                    SiddhiAppContext.stopPartitionFlow();
-                                }
-                            }
-                        } finally {
-                            stateHolder.returnAllStates(allStates);
-                        }
-                    }
-                });
+        this.timerWheel = siddhiQueryContext.getSiddhiAppContext().getTimerWheel();
     }
 
     public void init(LockWrapper lockWrapper, String queryName) {
@@ -113,48 +73,23 @@ public class Scheduler implements ExternalReferencedHolder {
     public void notifyAt(long time) {
         SchedulerState state = stateHolder.getState();
         try {
-            // Insert the time into the queue
-            state.toNotifyQueue.put(time);
-            schedule(time, state, false);     // Let the subclasses to schedule the scheduler
-        } catch (InterruptedException e) {
-            // InterruptedException ignored if scheduledExecutorService has already been shutdown
-            if (!scheduledExecutorService.isShutdown()) {
-                log.error("Error when adding time:" + time + " to toNotifyQueue at Scheduler", e);
+            synchronized (state) {
+                if (!state.toNotifyQueue.isEmpty() && state.lastNotifyTime == time) {
+                    // Identical consecutive deadlines are coalesced into a single TIMER event
+                    return;
+                }
+                state.toNotifyQueue.add(time);
+                state.lastNotifyTime = time;
+                if (!state.registered) {
+                    state.registered = true;
+                    timerWheel.add(time, state);
+                }
             }
         } finally {
             stateHolder.returnState(state);
         }
     }
 
-    private void schedule(long time, SchedulerState state, boolean force) {
-        if (!siddhiQueryContext.getSiddhiAppContext().isPlayback()) {
-            if (!state.running && (state.toNotifyQueue.size() == 1 || force)) {
-                try {
-                    mutex.acquire();
-                    if (!state.running) {
-                        state.running = true;
-                        long timeDiff = time - siddhiQueryContext.getSiddhiAppContext().
-                                getTimestampGenerator().currentTime();
-                        if (timeDiff > 0) {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    timeDiff, TimeUnit.MILLISECONDS);
-                        } else {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    0, TimeUnit.MILLISECONDS);
-                        }
-                    }
-
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Error when scheduling System Time Based Scheduler", e);
-                } finally {
-                    mutex.release();
-                }
-            }
-        }
-    }
-
-
     public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
         this.streamEventFactory = streamEventFactory;
     }
@@ -212,26 +147,7 @@ public class Scheduler implements ExternalReferencedHolder {
      * Schedule events which are not scheduled in the queue when switching back from event time to system current time
      */
     public void switchToLiveMode() {
-        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
-        try {
-            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
-                    Long toNotifyTime = stateEntry.getValue().toNotifyQueue.peek();
-                    if (toNotifyTime != null) {
-                        SiddhiAppContext.startPartitionFlow(allStatesEntry.getKey());
-                        SiddhiAppContext.startGroupByFlow(stateEntry.getKey());
-                        try {
-                            schedule(toNotifyTime, stateEntry.getValue(), true);
-                        } finally {
-                            SiddhiAppContext.stopGroupByFlow();
-                            SiddhiAppContext.stopPartitionFlow();
-                        }
-                    }
-                }
-            }
-        } finally {
-            stateHolder.returnAllStates(allStates);
-        }
+        timerWheel.switchToLiveMode();
     }
 
     /**
@@ -239,15 +155,28 @@ public class Scheduler implements ExternalReferencedHolder {
      * the acquired resources for processing.
      */
     public void switchToPlayBackMode() {
-        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
+        timerWheel.switchToPlayBackMode();
+    }
+
+    /**
+     * Stop sending TIMER events, and remove the registrations of the states from the {@link TimerWheel}. The pending
+     * notification times are retained and get registered again on {@link #start()}.
+     */
+    public void stop() {
+        stop = true;
+        if (stateHolder == null) {
+            return;
+        }
+        Map<String, Map<Object, SchedulerState>> allStates = stateHolder.getAllStates();
         try {
-            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
-                    if (stateEntry.getValue().scheduledFuture != null) {
-                        stateEntry.getValue().scheduledFuture.cancel(true);
+            for (Map<Object, SchedulerState> states : allStates.values()) {
+                for (SchedulerState state : states.values()) {
+                    synchronized (state) {
+                        if (state.registered) {
+                            state.registered = false;
+                            timerWheel.remove(state);
+                        }
                     }
-                    //Make the scheduler running flag to false to make sure scheduler will schedule next time starts
-                    stateEntry.getValue().running = false;
                 }
             }
         } finally {
@@ -255,94 +184,77 @@ public class Scheduler implements ExternalReferencedHolder {
         }
     }
 
-    public void stop() {
-        stop = true;
-    }
-
     public void start() {
         stop = false;
-    }
-
-    private class EventCaller implements Runnable {
-        private SchedulerState state;
-        private String key;
-
-        public EventCaller(SchedulerState state, String key) {
-            this.state = state;
-            this.key = key;
+        if (stateHolder == null) {
+            return;
         }
-
-        /**
-         * When an object implementing interface <code>Runnable</code> is used
-         * to create a thread, starting the thread causes the object's
-         * <code>run</code> method to be called in that separately executing
-         * thread.
-         * <p>
-         * The general contract of the method <code>run</code> is that it may
-         * take any action whatsoever.
-         *
-         * @see Thread#run()
-         */
-        @Override
-        public synchronized void run() {
-            if (stop) {
-                return;
-            }
-            SiddhiAppContext.startPartitionFlow(key);
-            try {
-                if (!siddhiQueryContext.getSiddhiAppContext().isPlayback()) {
-                    sendTimerEvents(state);
-
-                    Long toNotifyTime = state.toNotifyQueue.peek();
-                    long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
-
-                    if (toNotifyTime != null) {
-                        state.scheduledFuture = scheduledExecutorService.
-                                schedule(this, toNotifyTime - currentTime, TimeUnit.MILLISECONDS);
-                    } else {
-                        try {
-                            mutex.acquire();
-                            state.running = false;
-                            if (state.toNotifyQueue.peek() != null) {
-                                state.running = true;
-                                state.scheduledFuture = scheduledExecutorService.schedule(this,
-                                        0, TimeUnit.MILLISECONDS);
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            log.error("Error when scheduling System Time Based Scheduler", e);
-                        } finally {
-                            mutex.release();
+        Map<String, Map<Object, SchedulerState>> allStates = stateHolder.getAllStates();
+        try {
+            for (Map<Object, SchedulerState> states : allStates.values()) {
+                for (SchedulerState state : states.values()) {
+                    synchronized (state) {
+                        Long toNotifyTime = state.toNotifyQueue.peek();
+                        if (!state.registered && toNotifyTime != null) {
+                            state.registered = true;
+                            timerWheel.add(toNotifyTime, state);
                         }
                     }
-                } else {
-                    state.running = false;
                 }
-            } catch (Throwable t) {
-                log.error("Error while executing Scheduled Timer Event Caller, " + t.getMessage(), t);
-            } finally {
-                SiddhiAppContext.stopPartitionFlow();
             }
+        } finally {
+            stateHolder.returnAllStates(allStates);
         }
-
     }
 
-    class SchedulerState extends State implements Comparable {
+    class SchedulerState extends State implements TimerWheel.Timeout {
 
         private final BlockingQueue<Long> toNotifyQueue = new LinkedBlockingQueue<Long>();
-        private final String key;
-        private volatile boolean running = false;
-        private EventCaller eventCaller;
-        private ScheduledFuture scheduledFuture;
+        private final PartitionFlow partitionFlow;
+        private long lastNotifyTime;
+        private boolean registered = false;
 
         public SchedulerState() {
-            this.key = SiddhiAppContext.getPartitionFlowId();
-            this.eventCaller = new EventCaller(this, key);
+            this.partitionFlow = SiddhiAppContext.getPartitionFlow();
         }
 
+        /**
+         * Called by the {@link TimerWheel} when the head of the toNotifyQueue is due, and re-registers the next
+         * notification time if there are any. Nothing is re-registered once the scheduler is stopped, as the due
+         * head is not polled and would otherwise be notified again right away.
+         */
         @Override
-        public boolean canDestroy() {
-            return toNotifyQueue.isEmpty() && (scheduledFuture == null || scheduledFuture.isDone());
+        public void onTimeout() {
+            if (!stop) {
+                SiddhiAppContext.startPartitionFlow(partitionFlow);
+                try {
+                    // If executed in a separate thread, while it is processing,
+                    // the new event will come into the window. As the result of it,
+                    // the window will emit the new event as an existing current event.
+                    sendTimerEvents(this);
+                } catch (Throwable t) {
+                    log.error("Error while executing Scheduled Timer Event Caller, " + t.getMessage(), t);
+                } finally {
+                    SiddhiAppContext.stopPartitionFlow();
+                }
+            }
+            synchronized (this) {
+                if (!registered) {
+                    // Deregistered by stop() while being notified
+                    return;
+                }
+                Long toNotifyTime = toNotifyQueue.peek();
+                if (toNotifyTime != null && !stop) {
+                    timerWheel.add(toNotifyTime, this);
+                } else {
+                    registered = false;
+                }
+            }
+        }
+
+        @Override
+        public synchronized boolean canDestroy() {
+            return toNotifyQueue.isEmpty() && !registered;
         }
 
         @Override
@@ -359,10 +271,5 @@ public class Scheduler implements ExternalReferencedHolder {
                 notifyAt(time);
             }
         }
-
-        @Override
-        public int compareTo(Object o) {
-            return 0;
-        }
     }
 }
@@ -47,7 +47,9 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_NAME = "Name";
     public static final String ANNOTATION_PLAYBACK = "Playback";
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
+    public static final String ANNOTATION_OPTIMIZE = "Optimize";
     public static final String ANNOTATION_ASYNC = "Async";
+    public static final String ANNOTATION_POOL = "Pool";
 
     public static final String ANNOTATION_ON_ERROR = "OnError";
     public static final String FAULT_STREAM_PREFIX = "!";
@@ -58,6 +60,7 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_INDEX = "Index";
     public static final String ANNOTATION_PRIMARY_KEY = "PrimaryKey";
+    public static final String ANNOTATION_CONCURRENCY = "Concurrency";
     public static final String ANNOTATION_STORE = "Store";
     public static final String ANNOTATION_SOURCE = "Source";
     public static final String ANNOTATION_SINK = "Sink";
@@ -68,8 +71,14 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
+    public static final String ANNOTATION_ELEMENT_SIZE = "size";
     public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
     public static final String ANNOTATION_ELEMENT_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ANNOTATION_ELEMENT_MIN_BATCH_SIZE = "batch.size.min";
+    public static final String ANNOTATION_ELEMENT_TARGET_LATENCY = "latency.target";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_INGESTION = "ingestion";
+    public static final String ANNOTATION_ELEMENT_LOCK_STRIPES = "lock.stripes";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
@@ -85,6 +94,7 @@ public final class SiddhiConstants {
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_EVENT_POOL_SIZE = 1024;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -113,6 +123,8 @@ public final class SiddhiConstants {
     public static final String METRIC_TYPE_DELETE = "delete";
     public static final String METRIC_TYPE_UPDATE_OR_INSERT = "updateOrInsert";
     public static final String METRIC_TYPE_CONTAINS = "contains";
+    public static final String METRIC_TYPE_BATCH_SIZE = "batch.size";
+    public static final String METRIC_TYPE_BATCH_LATENCY = "batch.latency";
     public static final String METRIC_DELIMITER = ".";
     public static final String METRIC_AGGREGATE_ANNOTATION = "[+]";
     public static final String EXTENSION_SEPARATOR = ":";
@@ -122,6 +134,7 @@ public final class SiddhiConstants {
     public static final String TRANSPORT_CHANNEL_CREATION_IDENTIFIER = "transportChannelCreationEnabled";
 
     public static final String NAMESPACE_PURGE = "purge";
+    public static final String NAMESPACE_PARALLEL = "parallel";
     public static final String NAMESPACE_RETENTION_PERIOD = "retentionPeriod";
 
     public static final String PARTITION_ID_DEFAULT = "null";
@@ -19,31 +19,113 @@
 package io.siddhi.core.util;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Thread Barrier used to avoid concurrency issues during event processing
+ * Thread Barrier used to avoid concurrency issues during event processing. Threads within the barrier are counted in
+ * striped cells padded to their own cache lines, where a thread always updates the same cell, so that concurrent
+ * threads do not contend on a single counter. Work handed over to other threads is counted separately, and the
+ * counts are summed by the lock holder to check whether the system is stable.
  */
 public class ThreadBarrier {
 
+    // Number of longs between two cells, keeping each cell on its own 128 byte region.
+    private static final int CELL_PADDING = 16;
+    private static final int CELL_COUNT = cellCount();
+
     private ReentrantLock lock = new ReentrantLock();
-    private AtomicInteger counter = new AtomicInteger();
+    private AtomicLongArray cells = new AtomicLongArray(CELL_COUNT * CELL_PADDING);
+    private AtomicInteger handedOverCount = new AtomicInteger();
+    private ThreadLocal<Entry> entries = ThreadLocal.withInitial(Entry::new);
+
+    private static int cellCount() {
+        int cellCount = 1;
+        while (cellCount < Runtime.getRuntime().availableProcessors() * 2) {
+            cellCount <<= 1;
+        }
+        return cellCount;
+    }
 
     public void enter() {
-        if (lock.isLocked()) {
+        Entry entry = entries.get();
+        entry.depth++;
+        register(entry.cell, 1);
+    }
+
+    private void register(int cell, int count) {
+        cells.addAndGet(cell, count);
+        // Checking the lock after registering makes sure the lock holder either sees this thread as active, or
+        // this thread waits till the lock is released.
+        while (lock.isLocked() && !lock.isHeldByCurrentThread()) {
+            cells.addAndGet(cell, -count);
             lock.lock();
             lock.unlock();
+            cells.addAndGet(cell, count);
         }
-        counter.incrementAndGet();
     }
 
+    /**
+     * Register work handed over by a thread to be completed by another thread, which calls
+     * {@link #completeHandOver()} when the work is done. Unlike {@link #enter()} this does not wait while the barrier
+     * is locked, as the handing over thread is already within the barrier.
+     */
+    public void handOver() {
+        handedOverCount.incrementAndGet();
+    }
+
+    public void completeHandOver() {
+        handedOverCount.decrementAndGet();
+    }
 
     public void exit() {
-        counter.decrementAndGet();
+        Entry entry = entries.get();
+        entry.depth--;
+        cells.decrementAndGet(entry.cell);
+    }
+
+    /**
+     * Temporarily leave the barrier, so that a thread about to block on work that can only progress once the barrier
+     * is unlocked does not stop the lock holder from stabilizing. Should be followed by {@link #resume(int)}.
+     *
+     * @return number of times the current thread has entered the barrier
+     */
+    public int suspend() {
+        Entry entry = entries.get();
+        int depth = entry.depth;
+        if (depth > 0) {
+            entry.depth = 0;
+            cells.addAndGet(entry.cell, -depth);
+        }
+        return depth;
+    }
+
+    /**
+     * Re-enter the barrier left through {@link #suspend()}, waiting while the barrier is locked.
+     *
+     * @param depth number of entries returned by {@link #suspend()}
+     */
+    public void resume(int depth) {
+        if (depth > 0) {
+            Entry entry = entries.get();
+            entry.depth = depth;
+            register(entry.cell, depth);
+        }
     }
 
+    /**
+     * Count the threads within the barrier and the work handed over to other threads. The count is exact once the
+     * barrier is locked, as each cell is only updated by the entry and exit pairs of its threads, and work is only
+     * handed over by threads already counted in the cells, which are hence read first.
+     *
+     * @return number of active threads
+     */
     public int getActiveThreads() {
-        return counter.get();
+        long activeThreads = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            activeThreads += cells.get(i * CELL_PADDING);
+        }
+        return (int) (activeThreads + handedOverCount.get());
     }
 
     public void lock() {
@@ -54,4 +136,14 @@ public class ThreadBarrier {
         lock.unlock();
     }
 
+    private static class Entry {
+        private final int cell;
+        private int depth;
+
+        private Entry() {
+            long threadId = Thread.currentThread().getId();
+            cell = (int) ((threadId ^ (threadId >>> 16)) & (CELL_COUNT - 1)) * CELL_PADDING;
+        }
+    }
+
 }
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
+import io.siddhi.core.util.timestamp.TimestampGenerator;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Siddhi App wide hierarchical timing wheel used by the {@link Scheduler}s to get notified at given times.
+ * <p>
+ * Timeouts are hashed into millisecond buckets of the lowest wheel, and the ones falling beyond its span are kept in
+ * coarser overflow wheels and cascaded down as the clock advances. Only non-empty buckets are tracked, hence in
+ * system time mode a single scheduled task wakes up at the next bucket expiry, and in playback mode the wheel is
+ * advanced by the event timestamps. All timeouts expiring in a tick are fired together in deadline order; in system
+ * time mode each tick's timeouts are handed over as a single batch to a dispatcher running on the Siddhi App executor,
+ * so that a slow timeout does not hold up the ticker. The dispatcher drains the batches one after the other, hence
+ * the wheel occupies at most one executor thread regardless of how many timeouts fall due.
+ */
+public class TimerWheel implements ExternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private static final int WHEEL_SIZE = 64;
+    private static final long TICK_IN_MILLISECONDS = 1;
+    private static final Comparator<Entry> DEADLINE_ORDER = Comparator.comparingLong(entry -> entry.deadline);
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final TimestampGenerator timestampGenerator;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final PriorityQueue<Bucket> bucketQueue = new PriorityQueue<>(
+            Comparator.comparingLong(bucket -> bucket.expiration));
+    private final List<Entry> dueEntries = new ArrayList<>();
+    private final Ticker ticker = new Ticker();
+    private final Dispatcher dispatcher = new Dispatcher();
+    private Wheel wheel;
+    private boolean rebase;
+    private boolean stop;
+    private ScheduledFuture tickerFuture;
+    private long tickerTime = Long.MAX_VALUE;
+
+    public TimerWheel(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.timestampGenerator = siddhiAppContext.getTimestampGenerator();
+        this.scheduledExecutorService = siddhiAppContext.getScheduledExecutorService();
+        timestampGenerator.addTimeChangeListener(currentTimestamp -> {
+            if (siddhiAppContext.isPlayback()) {
+                advance(currentTimestamp);
+            }
+        });
+    }
+
+    /**
+     * Register a timeout to be notified once the time reaches the given deadline.
+     *
+     * @param deadline time at which the timeout should be notified
+     * @param timeout  timeout to be notified
+     */
+    public synchronized void add(long deadline, Timeout timeout) {
+        long currentTime = timestampGenerator.currentTime();
+        rebaseIfRequired(currentTime);
+        addEntry(new Entry(deadline, timeout));
+        scheduleTicker(currentTime);
+    }
+
+    /**
+     * Remove all the pending registrations of the given timeout.
+     *
+     * @param timeout timeout to be removed
+     */
+    public synchronized void remove(Timeout timeout) {
+        removeEntries(dueEntries, timeout);
+        for (Bucket bucket : bucketQueue) {
+            removeEntries(bucket.entries, timeout);
+        }
+    }
+
+    /**
+     * Advance the wheel to the given time and notify all the timeouts expired on the way.
+     *
+     * @param currentTime time to advance the wheel to
+     */
+    public void advance(long currentTime) {
+        advance(currentTime, false);
+    }
+
+    private void advance(long currentTime, boolean dispatch) {
+        List<Entry> expiredEntries;
+        synchronized (this) {
+            rebaseIfRequired(currentTime);
+            expiredEntries = new ArrayList<>(dueEntries);
+            dueEntries.clear();
+            Bucket bucket = bucketQueue.peek();
+            while (bucket != null && bucket.expiration <= currentTime) {
+                bucketQueue.poll();
+                wheel.advanceClock(bucket.expiration);
+                for (Entry entry : bucket.flush()) {
+                    if (entry.deadline <= currentTime) {
+                        expiredEntries.add(entry);
+                    } else {
+                        // Cascade the entry down to a finer wheel
+                        addEntry(entry);
+                    }
+                }
+                bucket = bucketQueue.peek();
+            }
+        }
+        if (expiredEntries.isEmpty()) {
+            return;
+        }
+        expiredEntries.sort(DEADLINE_ORDER);
+        if (dispatch) {
+            dispatcher.dispatch(expiredEntries);
+        } else {
+            notifyTimeouts(expiredEntries);
+        }
+    }
+
+    private void notifyTimeouts(List<Entry> entries) {
+        for (Entry entry : entries) {
+            notifyTimeout(entry);
+        }
+    }
+
+    private void notifyTimeout(Entry entry) {
+        try {
+            entry.timeout.onTimeout();
+        } catch (Throwable t) {
+            log.error(ExceptionUtil.getMessageWithContext(t, siddhiAppContext) +
+                    " Error while notifying timeout at " + entry.deadline + ".", t);
+        }
+    }
+
+    private void removeEntries(List<Entry> entries, Timeout timeout) {
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().timeout == timeout) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Start the system time based ticking of the wheel when switching back from event time to system current time.
+     */
+    public synchronized void switchToLiveMode() {
+        rebase = true;
+        scheduleTicker(timestampGenerator.currentTime());
+    }
+
+    /**
+     * Stop the system time based ticking of the wheel as it will be advanced by the event time.
+     */
+    public synchronized void switchToPlayBackMode() {
+        rebase = true;
+        cancelTicker();
+    }
+
+    @Override
+    public synchronized void start() {
+        stop = false;
+        scheduleTicker(timestampGenerator.currentTime());
+    }
+
+    @Override
+    public synchronized void stop() {
+        stop = true;
+        cancelTicker();
+    }
+
+    private void addEntry(Entry entry) {
+        if (wheel == null) {
+            wheel = new Wheel(TICK_IN_MILLISECONDS, timestampGenerator.currentTime());
+        }
+        if (!wheel.add(entry)) {
+            dueEntries.add(entry);
+        }
+    }
+
+    /**
+     * Rebuild the wheels from the given time when the clock is switched between system time and event time,
+     * as the two clocks are not in sync.
+     *
+     * @param currentTime current time of the new clock
+     */
+    private void rebaseIfRequired(long currentTime) {
+        if (rebase) {
+            rebase = false;
+            if (wheel != null) {
+                List<Entry> entries = new ArrayList<>(dueEntries);
+                dueEntries.clear();
+                for (Bucket bucket : bucketQueue) {
+                    entries.addAll(bucket.flush());
+                }
+                bucketQueue.clear();
+                wheel = new Wheel(TICK_IN_MILLISECONDS, currentTime);
+                for (Entry entry : entries) {
+                    addEntry(entry);
+                }
+            }
+        }
+    }
+
+    private void scheduleTicker(long currentTime) {
+        if (stop || siddhiAppContext.isPlayback()) {
+            return;
+        }
+        long nextTime;
+        if (!dueEntries.isEmpty()) {
+            nextTime = currentTime;
+        } else if (!bucketQueue.isEmpty()) {
+            nextTime = bucketQueue.peek().expiration;
+        } else {
+            return;
+        }
+        if (nextTime < tickerTime) {
+            cancelTicker();
+            tickerTime = nextTime;
+            tickerFuture = scheduledExecutorService.schedule(ticker, Math.max(nextTime - currentTime, 0),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelTicker() {
+        if (tickerFuture != null) {
+            tickerFuture.cancel(false);
+            tickerFuture = null;
+        }
+        tickerTime = Long.MAX_VALUE;
+    }
+
+    /**
+     * Callback notified by the {@link TimerWheel} when its deadline is reached.
+     */
+    public interface Timeout {
+        void onTimeout();
+    }
+
+    private static class Entry {
+        private final long deadline;
+        private final Timeout timeout;
+
+        Entry(long deadline, Timeout timeout) {
+            this.deadline = deadline;
+            this.timeout = timeout;
+        }
+    }
+
+    private static class Bucket {
+        private List<Entry> entries = new ArrayList<>();
+        private long expiration = -1;
+
+        /**
+         * Set the expiration of the bucket.
+         *
+         * @param expiration expiration time
+         * @return true if the expiration got changed, and the bucket needs to be (re)queued
+         */
+        boolean setExpiration(long expiration) {
+            if (this.expiration != expiration) {
+                this.expiration = expiration;
+                return true;
+            }
+            return false;
+        }
+
+        List<Entry> flush() {
+            List<Entry> flushedEntries = entries;
+            entries = new ArrayList<>();
+            expiration = -1;
+            return flushedEntries;
+        }
+    }
+
+    /**
+     * A single level of the hierarchical timing wheel, spanning WHEEL_SIZE ticks.
+     */
+    private class Wheel {
+        private final long tick;
+        private final long interval;
+        private final Bucket[] buckets = new Bucket[WHEEL_SIZE];
+        private long currentTime;
+        private Wheel overflowWheel;
+
+        Wheel(long tick, long startTime) {
+            this.tick = tick;
+            this.interval = tick * WHEEL_SIZE;
+            this.currentTime = startTime - Math.floorMod(startTime, tick);
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        /**
+         * Add the entry to the bucket of its deadline.
+         *
+         * @param entry entry to be added
+         * @return false if the entry has already expired
+         */
+        boolean add(Entry entry) {
+            if (entry.deadline < currentTime + tick) {
+                return false;
+            } else if (entry.deadline < currentTime + interval) {
+                long virtualId = Math.floorDiv(entry.deadline, tick);
+                Bucket bucket = buckets[(int) Math.floorMod(virtualId, (long) WHEEL_SIZE)];
+                bucket.entries.add(entry);
+                // Entries with the same deadline tick are coalesced into the same bucket
+                if (bucket.setExpiration(virtualId * tick)) {
+                    bucketQueue.add(bucket);
+                }
+                return true;
+            } else {
+                if (overflowWheel == null) {
+                    overflowWheel = new Wheel(interval, currentTime);
+                }
+                return overflowWheel.add(entry);
+            }
+        }
+
+        void advanceClock(long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - Math.floorMod(time, tick);
+                if (overflowWheel != null) {
+                    overflowWheel.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serially notifies the batches of timeouts expired at each tick on the Siddhi App executor.
+     */
+    private class Dispatcher implements Runnable {
+        private final Deque<List<Entry>> batches = new ArrayDeque<>();
+        private boolean running;
+
+        void dispatch(List<Entry> batch) {
+            synchronized (batches) {
+                batches.add(batch);
+                if (running) {
+                    // The running dispatcher picks up the batch once it is done with the earlier ones
+                    return;
+                }
+                running = true;
+            }
+            ExecutorService executorService = siddhiAppContext.getExecutorService();
+            if (executorService != null) {
+                try {
+                    executorService.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Executor is shutting down, hence notify in the ticker itself
+                }
+            }
+            run();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<Entry> batch;
+                synchronized (batches) {
+                    batch = batches.poll();
+                    if (batch == null) {
+                        running = false;
+                        return;
+                    }
+                }
+                notifyTimeouts(batch);
+            }
+        }
+    }
+
+    private class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            synchronized (TimerWheel.this) {
+                tickerFuture = null;
+                tickerTime = Long.MAX_VALUE;
+            }
+            try {
+                advance(timestampGenerator.currentTime(), true);
+            } finally {
+                synchronized (TimerWheel.this) {
+                    scheduleTicker(timestampGenerator.currentTime());
+                }
+            }
+        }
+    }
+}
@@ -74,6 +74,10 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
         return multiPrimaryKeyExpressionExecutors;
     }
 
+    public Object getPrimaryKeyValue(StateEvent matchingEvent) {
+        return constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors);
+    }
+
     public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
         return indexedEventHolder.findEvents(compositePrimaryKey, Compare.Operator.EQUAL,
                 constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors));
@@ -22,10 +22,12 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.state.StateEvent;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.ColumnarStreamEventQueue;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.table.InMemoryCompiledUpdateSet;
 import io.siddhi.core.util.collection.AddingStreamEventExtractor;
 
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -42,12 +44,11 @@ public class EventChunkOperator implements Operator {
 
     @Override
     public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
-        ComplexEventChunk<StreamEvent> storeEventChunk = (ComplexEventChunk<StreamEvent>) storeEvents;
+        Iterator<StreamEvent> storeEventIterator = iterate(storeEvents);
         ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<>();
 
-        storeEventChunk.reset();
-        while (storeEventChunk.hasNext()) {
-            StreamEvent storeEvent = storeEventChunk.next();
+        while (storeEventIterator.hasNext()) {
+            StreamEvent storeEvent = storeEventIterator.next();
             matchingEvent.setEvent(storeEventPosition, storeEvent);
             if ((Boolean) expressionExecutor.execute(matchingEvent)) {
                 returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
@@ -60,11 +61,10 @@ public class EventChunkOperator implements Operator {
 
     @Override
     public boolean contains(StateEvent matchingEvent, Object storeEvents) {
-        ComplexEventChunk<StreamEvent> storeEventChunk = (ComplexEventChunk<StreamEvent>) storeEvents;
+        Iterator<StreamEvent> storeEventIterator = iterate(storeEvents);
         try {
-            storeEventChunk.reset();
-            while (storeEventChunk.hasNext()) {
-                StreamEvent storeEvent = storeEventChunk.next();
+            while (storeEventIterator.hasNext()) {
+                StreamEvent storeEvent = storeEventIterator.next();
                 matchingEvent.setEvent(storeEventPosition, storeEvent);
                 if ((Boolean) expressionExecutor.execute(matchingEvent)) {
                     return true;
@@ -76,6 +76,19 @@ public class EventChunkOperator implements Operator {
         }
     }
 
+    /**
+     * Store events of windows held in a {@link ColumnarStreamEventQueue} are read from its columns, and the events
+     * returned by its iterator are reused, hence matching events are copied before being returned.
+     */
+    private Iterator<StreamEvent> iterate(Object storeEvents) {
+        if (storeEvents instanceof ColumnarStreamEventQueue) {
+            return ((ColumnarStreamEventQueue) storeEvents).iterator();
+        }
+        ComplexEventChunk<StreamEvent> storeEventChunk = (ComplexEventChunk<StreamEvent>) storeEvents;
+        storeEventChunk.reset();
+        return storeEventChunk;
+    }
+
     @Override
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, Object storeEvents) {
         ComplexEventChunk<StreamEvent> storeEventChunk = (ComplexEventChunk<StreamEvent>) storeEvents;
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.event.handler;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.statistics.EventBufferHolder;
+import io.siddhi.core.util.statistics.HistogramTracker;
+import io.siddhi.core.util.statistics.metrics.Level;
+
+/**
+ * Controls the size of the batches the {@link StreamHandler}s of an async StreamJunction pass to its receivers.
+ * When a target latency is set, the batch size grows while events are queued up and the target is met, and shrinks
+ * when a batch takes longer than the target, trading latency for throughput. The settings can be changed at
+ * runtime.
+ */
+public class AdaptiveBatchController {
+
+    private final EventBufferHolder eventBufferHolder;
+    private final SiddhiAppContext siddhiAppContext;
+    private final HistogramTracker batchSizeTracker;
+    private final HistogramTracker batchLatencyTracker;
+    private volatile int minBatchSize;
+    private volatile int maxBatchSize;
+    private volatile long targetLatency;
+    private volatile int batchSize;
+
+    /**
+     * @param minBatchSize        minimum number of events passed to the receivers at once
+     * @param maxBatchSize        maximum number of events passed to the receivers at once
+     * @param targetLatency       target latency of a batch in nanoseconds, or 0 to always use the maximum batch size
+     * @param eventBufferHolder   buffer of the async StreamJunction, used to observe the queue depth
+     * @param batchSizeTracker    tracker recording the dispatched batch sizes, can be null
+     * @param batchLatencyTracker tracker recording the batch latencies in nanoseconds, can be null
+     * @param siddhiAppContext    context of the Siddhi App
+     */
+    public AdaptiveBatchController(int minBatchSize, int maxBatchSize, long targetLatency,
+                                   EventBufferHolder eventBufferHolder, HistogramTracker batchSizeTracker,
+                                   HistogramTracker batchLatencyTracker, SiddhiAppContext siddhiAppContext) {
+        this.eventBufferHolder = eventBufferHolder;
+        this.batchSizeTracker = batchSizeTracker;
+        this.batchLatencyTracker = batchLatencyTracker;
+        this.siddhiAppContext = siddhiAppContext;
+        configure(minBatchSize, maxBatchSize, targetLatency);
+    }
+
+    /**
+     * Change the batching settings.
+     *
+     * @param minBatchSize  minimum number of events passed to the receivers at once
+     * @param maxBatchSize  maximum number of events passed to the receivers at once
+     * @param targetLatency target latency of a batch in nanoseconds, or 0 to always use the maximum batch size
+     */
+    public synchronized void configure(int minBatchSize, int maxBatchSize, long targetLatency) {
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+            throw new SiddhiAppRuntimeException("Batch size limits should satisfy 0 < min <= max, but found min '" +
+                    minBatchSize + "' and max '" + maxBatchSize + "'");
+        }
+        if (targetLatency < 0) {
+            throw new SiddhiAppRuntimeException("Target latency cannot be negative, but found '" +
+                    targetLatency + "'");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatency = targetLatency;
+        this.batchSize = targetLatency > 0 ? minBatchSize : maxBatchSize;
+    }
+
+    /**
+     * @return the number of events to be buffered before they are passed to the receivers
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getTargetLatency() {
+        return targetLatency;
+    }
+
+    /**
+     * @return true if the latency of the batches needs to be measured
+     */
+    public boolean isTimed() {
+        return targetLatency > 0 || isStatisticsEnabled();
+    }
+
+    /**
+     * Record a batch that was passed to the receivers and adapt the batch size accordingly.
+     *
+     * @param size    number of events in the batch
+     * @param latency time in nanoseconds from buffering the first event of the batch till it was processed by all
+     *                the receivers, or -1 if not measured
+     */
+    public void batchProcessed(int size, long latency) {
+        if (isStatisticsEnabled()) {
+            if (batchSizeTracker != null) {
+                batchSizeTracker.update(size);
+            }
+            if (batchLatencyTracker != null && latency >= 0) {
+                batchLatencyTracker.update(latency);
+            }
+        }
+        long target = targetLatency;
+        if (target <= 0 || latency < 0) {
+            return;
+        }
+        // Concurrent workers may race on these updates, which only delays the adaptation.
+        int currentBatchSize = batchSize;
+        if (latency > target) {
+            batchSize = Math.max(minBatchSize, currentBatchSize >> 1);
+        } else if (size >= currentBatchSize && eventBufferHolder.getBufferedEvents() > currentBatchSize) {
+            batchSize = Math.min(maxBatchSize, currentBatchSize + Math.max(1, currentBatchSize >> 2));
+        }
+    }
+
+    private boolean isStatisticsEnabled() {
+        return (batchSizeTracker != null || batchLatencyTracker != null) &&
+                Level.DETAIL.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0;
+    }
+}
@@ -21,6 +21,7 @@ package io.siddhi.core.util.event.handler;
 import com.lmax.disruptor.EventHandler;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.ThreadBarrier;
 import org.apache.log4j.Logger;
 
 import java.beans.ExceptionListener;
@@ -40,12 +41,25 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     private final ExceptionListener exceptionListener;
     private List<StreamJunction.Receiver> receivers;
     private int batchSize;
+    private AdaptiveBatchController batchController;
+    private ThreadBarrier threadBarrier;
+    private long batchStartTime = -1;
     private List<Event> eventBuffer = new LinkedList<>();
 
     public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
                          String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
                          StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener) {
+        this(receivers, batchSize, null, null, streamName, siddhiAppName, faultStreamJunction, onErrorAction,
+                exceptionListener);
+    }
+
+    public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
+                         AdaptiveBatchController batchController, ThreadBarrier threadBarrier, String streamName,
+                         String siddhiAppName, StreamJunction faultStreamJunction,
+                         StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener) {
         this.receivers = receivers;
+        this.batchController = batchController;
+        this.threadBarrier = threadBarrier;
         this.batchSize = batchSize;
         this.streamName = streamName;
         this.siddhiAppName = siddhiAppName;
@@ -57,32 +71,50 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     public void onEvent(EventExchangeHolder eventExchangeHolder, long sequence, boolean endOfBatch) {
         boolean isProcessed = eventExchangeHolder.getAndSetIsProcessed(true);
         if (!isProcessed) {
+            if (eventBuffer.isEmpty() && batchController != null && batchController.isTimed()) {
+                batchStartTime = System.nanoTime();
+            }
             eventBuffer.add(eventExchangeHolder.getEvent());
-            if (eventBuffer.size() == batchSize || endOfBatch) {
-                for (StreamJunction.Receiver receiver : receivers) {
-                    try {
-                        receiver.receive(eventBuffer);
-                    } catch (Exception e) {
-                        onError(eventBuffer, e);
-                    }
-                }
-                eventBuffer.clear();
+            int currentBatchSize = batchController != null ? batchController.getBatchSize() : batchSize;
+            if (eventBuffer.size() >= currentBatchSize || endOfBatch) {
+                sendEvents();
             }
         } else if (endOfBatch) {
             if (eventBuffer.size() != 0) {
-                for (StreamJunction.Receiver receiver : receivers) {
-                    try {
-                        receiver.receive(eventBuffer);
-                    } catch (Exception e) {
-                        onError(eventBuffer, e);
-                    }
-                }
-                eventBuffer.clear();
+                sendEvents();
             }
         }
 
     }
 
+    private void sendEvents() {
+        if (threadBarrier != null) {
+            threadBarrier.enter();
+        }
+        try {
+            for (StreamJunction.Receiver receiver : receivers) {
+                try {
+                    receiver.receive(eventBuffer);
+                } catch (Exception e) {
+                    onError(eventBuffer, e);
+                }
+            }
+        } finally {
+            if (threadBarrier != null) {
+                threadBarrier.exit();
+            }
+        }
+        if (batchController != null) {
+            long latency = -1;
+            if (batchStartTime != -1) {
+                latency = System.nanoTime() - batchStartTime;
+                batchStartTime = -1;
+            }
+            batchController.batchProcessed(eventBuffer.size(), latency);
+        }
+        eventBuffer.clear();
+    }
+
     private void onError(List<Event> eventBuffer, Exception e) {
         if (exceptionListener != null) {
             exceptionListener.exceptionThrown(e);
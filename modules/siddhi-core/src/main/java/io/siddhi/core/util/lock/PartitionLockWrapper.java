@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.lock;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.partition.PartitionWorkerPool;
+import io.siddhi.core.util.snapshot.state.PartitionFlow;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link LockWrapper} of a query within a partition whose instances are processed by several workers. The events of
+ * a partition key are locked by the lock of the worker processing that key, such that the workers do not serialize
+ * on a single query lock while the events of each key, and the timers of the key, are still processed one at a time.
+ */
+public class PartitionLockWrapper extends LockWrapper {
+
+    private final ReentrantLock[] locks;
+
+    public PartitionLockWrapper(int workerCount) {
+        super("");
+        locks = new ReentrantLock[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        super.setLock(locks[0]);
+    }
+
+    /**
+     * @return the lock of the worker processing the current partition key
+     */
+    @Override
+    public ReentrantLock getLock() {
+        PartitionFlow partitionFlow = SiddhiAppContext.getPartitionFlow();
+        if (partitionFlow == null) {
+            return locks[0];
+        }
+        return locks[PartitionWorkerPool.getWorkerIndex(partitionFlow.getKey(), locks.length)];
+    }
+
+    @Override
+    public void setLock(ReentrantLock lock) {
+        throw new UnsupportedOperationException("Locks of a partitioned query cannot be replaced");
+    }
+
+    @Override
+    public void lock() {
+        getLock().lock();
+    }
+
+    @Override
+    public void unlock() {
+        ReentrantLock lock = getLock();
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+            return;
+        }
+        // The partition key got changed while the lock was held, hence release the lock held by this thread
+        for (ReentrantLock heldLock : locks) {
+            if (heldLock.isHeldByCurrentThread()) {
+                heldLock.unlock();
+                return;
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ package io.siddhi.core.util.parser;
 
 import io.siddhi.core.aggregation.AggregationRuntime;
 import io.siddhi.core.aggregation.IncrementalAggregationProcessor;
+import io.siddhi.core.aggregation.IncrementalAggregationWorkerPool;
 import io.siddhi.core.aggregation.IncrementalDataPurger;
 import io.siddhi.core.aggregation.IncrementalExecutor;
 import io.siddhi.core.aggregation.IncrementalExecutorsInitialiser;
@@ -66,6 +67,7 @@ import io.siddhi.query.api.execution.query.selection.OutputAttribute;
 import io.siddhi.query.api.expression.AttributeFunction;
 import io.siddhi.query.api.expression.Expression;
 import io.siddhi.query.api.expression.Variable;
+import io.siddhi.query.api.expression.constant.Constant;
 import io.siddhi.query.api.expression.constant.StringConstant;
 import io.siddhi.query.api.util.AnnotationHelper;
 
@@ -137,6 +139,10 @@ public class AggregationParser {
 
             String aggregatorName = aggregationDefinition.getId();
             SiddhiQueryContext siddhiQueryContext = new SiddhiQueryContext(siddhiAppContext, aggregatorName);
+            IncrementalAggregationWorkerPool workerPool = createWorkerPool(aggregationDefinition, aggregatorName,
+                    siddhiAppContext);
+            // Group-by keys are processed in parallel shards, hence the states of the keys are shared by the workers
+            siddhiQueryContext.setConcurrentStates(workerPool != null && workerPool.getShardCount() > 1);
 
             StreamRuntime streamRuntime = InputStreamParser.parse(aggregationDefinition.getBasicSingleInputStream(),
                     null, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap, aggregationDefinitionMap,
@@ -340,6 +346,14 @@ public class AggregationParser {
                     processedMetaStreamEvent, processExpressionExecutorsMap, groupByKeyGeneratorMap, incrementalDurations,
                     aggregationTables, siddhiQueryContext, aggregatorName, shouldUpdateTimestamp);
 
+            if (workerPool != null) {
+                // Stages are created from the root executor, in the order the roll-ups flow through them
+                for (TimePeriod.Duration duration : incrementalDurations) {
+                    incrementalExecutorMap.get(duration).setWorkerPool(workerPool);
+                }
+                siddhiAppContext.addEternalReferencedHolder(workerPool);
+            }
+
             isOptimisedLookup = isOptimisedLookup &&
                                 aggregationTables.get(incrementalDurations.get(0)) instanceof QueryableProcessor;
 
@@ -409,6 +423,38 @@ public class AggregationParser {
         }
     }
 
+    private static IncrementalAggregationWorkerPool createWorkerPool(AggregationDefinition aggregationDefinition,
+                                                                     String aggregatorName,
+                                                                     SiddhiAppContext siddhiAppContext) {
+        Annotation parallel = AnnotationHelper.getAnnotation(SiddhiConstants.NAMESPACE_PARALLEL,
+                aggregationDefinition.getAnnotations());
+        if (parallel == null) {
+            return null;
+        }
+        int workerCount = getPositiveInteger(parallel, SiddhiConstants.ANNOTATION_ELEMENT_WORKERS, 1);
+        int bufferSize = getPositiveInteger(parallel, SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE, 1024);
+        return new IncrementalAggregationWorkerPool(aggregatorName, workerCount, bufferSize, siddhiAppContext);
+    }
+
+    private static int getPositiveInteger(Annotation annotation, String elementName, int defaultValue) {
+        String value = annotation.getElement(elementName);
+        if (value == null) {
+            return defaultValue;
+        }
+        int intValue;
+        try {
+            intValue = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Invalid value for " + elementName + ": " + value +
+                    ". Please use an integer", e);
+        }
+        if (intValue <= 0) {
+            throw new SiddhiAppCreationException("Invalid value for " + elementName + ": " + value +
+                    ". Please use a value greater than zero");
+        }
+        return intValue;
+    }
+
     private static Map<TimePeriod.Duration, IncrementalExecutor> buildIncrementalExecutors(
             MetaStreamEvent processedMetaStreamEvent,
             Map<TimePeriod.Duration, List<ExpressionExecutor>> processExpressionExecutorsMap,
@@ -752,12 +798,8 @@ public class AggregationParser {
 
         String attributeName = null;
         Attribute.Type attributeType = null;
+        Constant[] constantParameters = new Constant[0];
         if (attributeFunction.getParameters() != null && attributeFunction.getParameters()[0] != null) {
-            if (attributeFunction.getParameters().length != 1) {
-                throw new SiddhiAppCreationException("Incremental aggregator requires only one parameter. "
-                        + "Found " + attributeFunction.getParameters().length,
-                        attributeFunction.getQueryContextStartIndex(), attributeFunction.getQueryContextEndIndex());
-            }
             if (!(attributeFunction.getParameters()[0] instanceof Variable)) {
                 throw new SiddhiAppCreationException("Incremental aggregator expected a variable. " +
                         "However a parameter of type " + attributeFunction.getParameters()[0].getClass().getTypeName()
@@ -767,9 +809,25 @@ public class AggregationParser {
             }
             attributeName = ((Variable) attributeFunction.getParameters()[0]).getAttributeName();
             attributeType = lastInputStreamDefinition.getAttributeType(attributeName);
+            constantParameters = new Constant[attributeFunction.getParameters().length - 1];
+            for (int i = 1; i < attributeFunction.getParameters().length; i++) {
+                Expression parameter = attributeFunction.getParameters()[i];
+                if (!(parameter instanceof Constant)) {
+                    throw new SiddhiAppCreationException("Incremental aggregator expected a constant after the " +
+                            "first parameter. However a parameter of type " + parameter.getClass().getTypeName() +
+                            " was found", parameter.getQueryContextStartIndex(), parameter.getQueryContextEndIndex());
+                }
+                constantParameters[i - 1] = (Constant) parameter;
+            }
         }
 
-        incrementalAttributeAggregator.init(attributeName, attributeType);
+        try {
+            incrementalAttributeAggregator.init(attributeName, attributeType, constantParameters);
+        } catch (SiddhiAppCreationException e) {
+            e.setQueryContextIndexIfAbsent(attributeFunction.getQueryContextStartIndex(),
+                    attributeFunction.getQueryContextEndIndex(), null, null);
+            throw e;
+        }
 
         Attribute[] baseAttributes = incrementalAttributeAggregator.getBaseAttributes();
         Expression[] baseAttributeInitialValues = incrementalAttributeAggregator
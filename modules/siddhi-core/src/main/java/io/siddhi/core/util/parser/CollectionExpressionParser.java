@@ -48,6 +48,7 @@ import io.siddhi.core.util.collection.expression.NotCollectionExpression;
 import io.siddhi.core.util.collection.expression.NullCollectionExpression;
 import io.siddhi.core.util.collection.expression.OrCollectionExpression;
 import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
+import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.AttributeFunction;
 import io.siddhi.query.api.expression.Expression;
@@ -58,7 +59,13 @@ import io.siddhi.query.api.expression.condition.In;
 import io.siddhi.query.api.expression.condition.IsNull;
 import io.siddhi.query.api.expression.condition.Not;
 import io.siddhi.query.api.expression.condition.Or;
+import io.siddhi.query.api.expression.constant.BoolConstant;
 import io.siddhi.query.api.expression.constant.Constant;
+import io.siddhi.query.api.expression.constant.DoubleConstant;
+import io.siddhi.query.api.expression.constant.FloatConstant;
+import io.siddhi.query.api.expression.constant.IntConstant;
+import io.siddhi.query.api.expression.constant.LongConstant;
+import io.siddhi.query.api.expression.constant.StringConstant;
 import io.siddhi.query.api.expression.math.Add;
 import io.siddhi.query.api.expression.math.Divide;
 import io.siddhi.query.api.expression.math.Mod;
@@ -67,6 +74,7 @@ import io.siddhi.query.api.expression.math.Subtract;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -78,6 +86,10 @@ import java.util.Set;
  */
 public class CollectionExpressionParser {
 
+    //types whose values are kept in the sorted maps of an index, and compare consistently when both sides match
+    private static final Set<Attribute.Type> INDEXABLE_TYPES = EnumSet.of(Attribute.Type.INT, Attribute.Type.LONG,
+            Attribute.Type.FLOAT, Attribute.Type.DOUBLE, Attribute.Type.STRING, Attribute.Type.BOOL);
+
     /**
      * Parse the given expression and create the appropriate Executor by recursively traversing the expression.
      *
@@ -98,6 +110,120 @@ public class CollectionExpressionParser {
         }
     }
 
+    /**
+     * Find the collection attributes the given expression matches by equality, against constants or attributes of
+     * the matching stream, in its top level conjunction. Lookups by the expression can be served by an index on any
+     * of those attributes. Only attributes of an indexable type, matched against a value of the same type, are
+     * returned, as the sorted index maps cannot compare objects or mixed numeric types.
+     *
+     * @param expression             Expression to be analysed
+     * @param matchingMetaInfoHolder matchingMetaInfoHolder
+     * @return names of the collection attributes matched by equality
+     */
+    public static List<String> findEqualityAttributes(Expression expression,
+                                                      MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        List<String> attributes = new ArrayList<>();
+        collectEqualityAttributes(expression, matchingMetaInfoHolder, attributes);
+        return attributes;
+    }
+
+    private static void collectEqualityAttributes(Expression expression,
+                                                  MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                  List<String> attributes) {
+        if (expression instanceof And) {
+            collectEqualityAttributes(((And) expression).getLeftExpression(), matchingMetaInfoHolder, attributes);
+            collectEqualityAttributes(((And) expression).getRightExpression(), matchingMetaInfoHolder, attributes);
+        } else if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression left = ((Compare) expression).getLeftExpression();
+            Expression right = ((Compare) expression).getRightExpression();
+            String attribute = null;
+            Expression value = null;
+            if (isCollectionAttribute(left, matchingMetaInfoHolder) &&
+                    isMatchingValue(right, matchingMetaInfoHolder)) {
+                attribute = ((Variable) left).getAttributeName();
+                value = right;
+            } else if (isCollectionAttribute(right, matchingMetaInfoHolder) &&
+                    isMatchingValue(left, matchingMetaInfoHolder)) {
+                attribute = ((Variable) right).getAttributeName();
+                value = left;
+            }
+            if (attribute != null && !isIndexable(attribute, value, matchingMetaInfoHolder)) {
+                attribute = null;
+            }
+            if (attribute != null && !attributes.contains(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+    }
+
+    private static boolean isIndexable(String attribute, Expression value,
+                                       MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        Attribute.Type attributeType = matchingMetaInfoHolder.getStoreDefinition().getAttributeType(attribute);
+        return INDEXABLE_TYPES.contains(attributeType) &&
+                attributeType == getMatchingValueType(value, matchingMetaInfoHolder);
+    }
+
+    /**
+     * Get the type of a constant or of an attribute of a stream being matched, or null if it cannot be resolved.
+     */
+    private static Attribute.Type getMatchingValueType(Expression expression,
+                                                       MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        if (expression instanceof StringConstant) {
+            return Attribute.Type.STRING;
+        } else if (expression instanceof IntConstant) {
+            return Attribute.Type.INT;
+        } else if (expression instanceof LongConstant) {
+            return Attribute.Type.LONG;
+        } else if (expression instanceof FloatConstant) {
+            return Attribute.Type.FLOAT;
+        } else if (expression instanceof DoubleConstant) {
+            return Attribute.Type.DOUBLE;
+        } else if (expression instanceof BoolConstant) {
+            return Attribute.Type.BOOL;
+        } else if (!(expression instanceof Variable)) {
+            return null;
+        }
+        Variable variable = (Variable) expression;
+        if (isMatchingStreamVariable(variable, matchingMetaInfoHolder)) {
+            return matchingMetaInfoHolder.getMatchingStreamDefinition().getAttributeType(
+                    variable.getAttributeName());
+        }
+        MetaStreamEvent[] metaStreamEvents = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvents();
+        for (int i = 0; i < metaStreamEvents.length; i++) {
+            if (i == matchingMetaInfoHolder.getStoreEventIndex() || variable.getStreamId() == null) {
+                continue;
+            }
+            AbstractDefinition definition = metaStreamEvents[i].getLastInputDefinition();
+            if ((variable.getStreamId().equals(metaStreamEvents[i].getInputReferenceId()) ||
+                    variable.getStreamId().equals(definition.getId())) &&
+                    Arrays.asList(definition.getAttributeNameArray()).contains(variable.getAttributeName())) {
+                return definition.getAttributeType(variable.getAttributeName());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCollectionAttribute(Expression expression,
+                                                 MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        return expression instanceof Variable && !isMatchingStreamVariable((Variable) expression,
+                matchingMetaInfoHolder) && isCollectionVariable(matchingMetaInfoHolder, (Variable) expression);
+    }
+
+    private static boolean isMatchingValue(Expression expression, MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        if (expression instanceof Constant) {
+            return true;
+        }
+        return expression instanceof Variable && (isMatchingStreamVariable((Variable) expression,
+                matchingMetaInfoHolder) || !isCollectionVariable(matchingMetaInfoHolder, (Variable) expression));
+    }
+
+    private static boolean isMatchingStreamVariable(Variable variable,
+                                                    MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        //unqualified attributes are resolved to the matching stream first, as done when parsing the expression
+        return variable.getStreamId() == null && Arrays.asList(matchingMetaInfoHolder.getMatchingStreamDefinition()
+                .getAttributeNameArray()).contains(variable.getAttributeName());
+    }
+
     /**
      * Parse the given expression and create the appropriate Executor by recursively traversing the expression.
      *
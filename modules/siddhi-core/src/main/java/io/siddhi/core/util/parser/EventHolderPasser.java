@@ -30,6 +30,7 @@ import io.siddhi.core.table.holder.IndexEventHolder;
 import io.siddhi.core.table.holder.IndexEventHolderForCache;
 import io.siddhi.core.table.holder.ListEventHolder;
 import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import io.siddhi.core.table.holder.offheap.OffHeapEventHolder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.annotation.Element;
@@ -52,25 +53,57 @@ public class EventHolderPasser {
                                     SiddhiAppContext siddhiAppContext, boolean isCacheTable) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
-        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = null;
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKeys(tableDefinition);
+        Map<String, Integer> indexMetaData = parseIndexes(tableDefinition);
 
-        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
+            boolean isNumeric = isPrimaryKeyNumeric(tableDefinition, primaryKeyReferenceHolders);
+            if (isCacheTable) {
+                return new IndexEventHolderForCache(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
+                        indexMetaData, tableDefinition, siddhiAppContext);
+            } else {
+                return new IndexEventHolder(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
+                        indexMetaData, tableDefinition, siddhiAppContext);
+            }
+        } else {
+            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+            for (Attribute attribute : tableDefinition.getAttributeList()) {
+                metaStreamEvent.addOutputData(attribute);
+            }
+            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventFactory);
+            return new ListEventHolder(tableStreamEventFactory, eventConverter,
+                    new StreamEventClonerHolder(streamEventCloner));
+        }
+    }
 
-        // primaryKey.
+    public static EventHolder parseOffHeap(AbstractDefinition tableDefinition, int segmentSize,
+                                           SiddhiAppContext siddhiAppContext) {
+        PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders = parsePrimaryKeys(tableDefinition);
+        Map<String, Integer> indexMetaData = parseIndexes(tableDefinition);
+        return new OffHeapEventHolder(primaryKeyReferenceHolders,
+                isPrimaryKeyNumeric(tableDefinition, primaryKeyReferenceHolders), indexMetaData, segmentSize,
+                tableDefinition, siddhiAppContext);
+    }
+
+    private static PrimaryKeyReferenceHolder[] parsePrimaryKeys(AbstractDefinition tableDefinition) {
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
                 tableDefinition.getAnnotations());
-        if (primaryKeyAnnotation != null) {
-            if (primaryKeyAnnotation.getElements().size() == 0) {
-                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
-                        "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
-                        tableDefinition.getId() + "'");
-            }
-            primaryKeyReferenceHolders = primaryKeyAnnotation.getElements().stream()
-                    .map(element -> element.getValue().trim())
-                    .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
-                    .toArray(PrimaryKeyReferenceHolder[]::new);
+        if (primaryKeyAnnotation == null) {
+            return null;
         }
+        if (primaryKeyAnnotation.getElements().size() == 0) {
+            throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation " +
+                    "contains " + primaryKeyAnnotation.getElements().size() + " element, at '" +
+                    tableDefinition.getId() + "'");
+        }
+        return primaryKeyAnnotation.getElements().stream()
+                .map(element -> element.getValue().trim())
+                .map(key -> new PrimaryKeyReferenceHolder(key, tableDefinition.getAttributePosition(key)))
+                .toArray(PrimaryKeyReferenceHolder[]::new);
+    }
 
+    private static Map<String, Integer> parseIndexes(AbstractDefinition tableDefinition) {
+        Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
         for (Annotation indexAnnotation : AnnotationHelper.getAnnotations(SiddhiConstants.ANNOTATION_INDEX,
                 tableDefinition.getAnnotations())) {
             if (indexAnnotation.getElements().size() == 0) {
@@ -109,35 +142,18 @@ public class EventHolderPasser {
                     " at '" + tableDefinition.getId() + "'");
         }
 
-        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
-            boolean isNumeric = false;
-            if (primaryKeyReferenceHolders != null) {
-                if (primaryKeyReferenceHolders.length == 1) {
-                    Attribute.Type type = tableDefinition.getAttributeType(
-                            primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
-                    if (type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
-                            type == Attribute.Type.LONG) {
-                        isNumeric = true;
-                    }
-                }
+        return indexMetaData;
+    }
 
-            }
-            if (isCacheTable) {
-                return new IndexEventHolderForCache(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                        indexMetaData, tableDefinition, siddhiAppContext);
-            } else {
-                return new IndexEventHolder(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                        indexMetaData, tableDefinition, siddhiAppContext);
-            }
-        } else {
-            MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
-            for (Attribute attribute : tableDefinition.getAttributeList()) {
-                metaStreamEvent.addOutputData(attribute);
-            }
-            StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, tableStreamEventFactory);
-            return new ListEventHolder(tableStreamEventFactory, eventConverter,
-                    new StreamEventClonerHolder(streamEventCloner));
+    private static boolean isPrimaryKeyNumeric(AbstractDefinition tableDefinition,
+                                               PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders) {
+        if (primaryKeyReferenceHolders != null && primaryKeyReferenceHolders.length == 1) {
+            Attribute.Type type = tableDefinition.getAttributeType(
+                    primaryKeyReferenceHolders[0].getPrimaryKeyAttribute());
+            return type == Attribute.Type.DOUBLE || type == Attribute.Type.FLOAT || type == Attribute.Type.INT ||
+                    type == Attribute.Type.LONG;
         }
+        return false;
     }
 
 
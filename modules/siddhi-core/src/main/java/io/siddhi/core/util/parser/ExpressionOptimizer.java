@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.parser;
+
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.StreamVariableExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.BoolConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
+import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
+import io.siddhi.core.query.selector.QuerySelector;
+import io.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.apache.log4j.Logger;
+
+import java.util.Arrays;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Optimizes the Expression Executors of a parsed single stream query. Attribute positions are inlined into the
+ * variable executors, and sub expressions that only depend on constants are folded into constants. The result is
+ * still an executor tree evaluated through {@link ExpressionExecutor#execute}, hence no code is generated.
+ * Executors that cannot be optimized, such as function extensions and attribute aggregators, are kept as they are.
+ */
+public class ExpressionOptimizer {
+
+    private static final Logger log = Logger.getLogger(ExpressionOptimizer.class);
+
+    private ExpressionOptimizer() {
+
+    }
+
+    /**
+     * Optimize the filter conditions and the select expressions of a single stream query. Should only be called
+     * once the variable positions of the query are updated.
+     *
+     * @param singleStreamRuntime stream runtime of the query
+     * @param querySelector       query selector of the query
+     */
+    public static void optimize(SingleStreamRuntime singleStreamRuntime, QuerySelector querySelector) {
+        Processor processor = singleStreamRuntime.getProcessorChain();
+        while (processor != null) {
+            if (processor instanceof FilterProcessor) {
+                FilterProcessor filterProcessor = (FilterProcessor) processor;
+                filterProcessor.setConditionExecutor(optimize(filterProcessor.getConditionExecutor()));
+            }
+            processor = processor.getNextProcessor();
+        }
+        for (AttributeProcessor attributeProcessor : querySelector.getAttributeProcessorList()) {
+            attributeProcessor.setExpressionExecutor(optimize(attributeProcessor.getExpressionExecutor()));
+        }
+    }
+
+    /**
+     * Optimize the given executor tree. The returned executor produces the same results as the given executor.
+     *
+     * @param expressionExecutor executor to be optimized
+     * @return optimized executor, or the given executor when it cannot be optimized
+     */
+    public static ExpressionExecutor optimize(ExpressionExecutor expressionExecutor) {
+        if (expressionExecutor.getClass() == VariableExpressionExecutor.class) {
+            VariableExpressionExecutor variableExpressionExecutor = (VariableExpressionExecutor) expressionExecutor;
+            int attributeTypeIndex = variableExpressionExecutor.getPosition()[STREAM_ATTRIBUTE_TYPE_INDEX];
+            if (attributeTypeIndex >= BEFORE_WINDOW_DATA_INDEX && attributeTypeIndex <= OUTPUT_DATA_INDEX) {
+                return new StreamVariableExpressionExecutor(variableExpressionExecutor);
+            }
+        } else if (expressionExecutor instanceof ArithmeticExpressionExecutor) {
+            ArithmeticExpressionExecutor arithmeticExecutor = (ArithmeticExpressionExecutor) expressionExecutor;
+            return optimize(expressionExecutor, arithmeticExecutor.getLeftExpressionExecutor(),
+                    arithmeticExecutor.getRightExpressionExecutor());
+        } else if (expressionExecutor instanceof CompareConditionExpressionExecutor) {
+            CompareConditionExpressionExecutor compareExecutor =
+                    (CompareConditionExpressionExecutor) expressionExecutor;
+            return optimize(expressionExecutor, compareExecutor.getLeftExpressionExecutor(),
+                    compareExecutor.getRightExpressionExecutor());
+        } else if (expressionExecutor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) expressionExecutor;
+            return optimize(expressionExecutor, andExecutor.getLeftConditionExecutor(),
+                    andExecutor.getRightConditionExecutor());
+        } else if (expressionExecutor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) expressionExecutor;
+            return optimize(expressionExecutor, orExecutor.getLeftConditionExecutor(),
+                    orExecutor.getRightConditionExecutor());
+        } else if (expressionExecutor instanceof NotConditionExpressionExecutor) {
+            return optimize(expressionExecutor,
+                    ((NotConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+        } else if (expressionExecutor instanceof BoolConditionExpressionExecutor) {
+            return optimize(expressionExecutor,
+                    ((BoolConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+        }
+        return expressionExecutor;
+    }
+
+    /**
+     * Check whether the given executor tree only reads the attributes of the current stream event and constants,
+     * so that it can be evaluated against any view of the event such as a
+     * {@link io.siddhi.core.event.stream.converter.ColumnarEventCursor}.
+     *
+     * @param expressionExecutor executor to be checked
+     * @return true if the executor tree only depends on the current stream event
+     */
+    public static boolean dependsOnlyOnStreamAttributes(ExpressionExecutor expressionExecutor) {
+        if (expressionExecutor instanceof ConstantExpressionExecutor) {
+            return true;
+        } else if (expressionExecutor instanceof VariableExpressionExecutor) {
+            int attributeTypeIndex = ((VariableExpressionExecutor) expressionExecutor)
+                    .getPosition()[STREAM_ATTRIBUTE_TYPE_INDEX];
+            return attributeTypeIndex >= BEFORE_WINDOW_DATA_INDEX && attributeTypeIndex <= OUTPUT_DATA_INDEX;
+        } else if (expressionExecutor instanceof ArithmeticExpressionExecutor) {
+            ArithmeticExpressionExecutor arithmeticExecutor = (ArithmeticExpressionExecutor) expressionExecutor;
+            return dependsOnlyOnStreamAttributes(arithmeticExecutor.getLeftExpressionExecutor()) &&
+                    dependsOnlyOnStreamAttributes(arithmeticExecutor.getRightExpressionExecutor());
+        } else if (expressionExecutor instanceof CompareConditionExpressionExecutor) {
+            CompareConditionExpressionExecutor compareExecutor =
+                    (CompareConditionExpressionExecutor) expressionExecutor;
+            return dependsOnlyOnStreamAttributes(compareExecutor.getLeftExpressionExecutor()) &&
+                    dependsOnlyOnStreamAttributes(compareExecutor.getRightExpressionExecutor());
+        } else if (expressionExecutor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) expressionExecutor;
+            return dependsOnlyOnStreamAttributes(andExecutor.getLeftConditionExecutor()) &&
+                    dependsOnlyOnStreamAttributes(andExecutor.getRightConditionExecutor());
+        } else if (expressionExecutor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) expressionExecutor;
+            return dependsOnlyOnStreamAttributes(orExecutor.getLeftConditionExecutor()) &&
+                    dependsOnlyOnStreamAttributes(orExecutor.getRightConditionExecutor());
+        } else if (expressionExecutor instanceof NotConditionExpressionExecutor) {
+            return dependsOnlyOnStreamAttributes(
+                    ((NotConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+        } else if (expressionExecutor instanceof BoolConditionExpressionExecutor) {
+            return dependsOnlyOnStreamAttributes(
+                    ((BoolConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+        }
+        return false;
+    }
+
+    private static ExpressionExecutor optimize(ExpressionExecutor expressionExecutor,
+                                               ExpressionExecutor... operandExecutors) {
+        ExpressionExecutor[] optimizedOperandExecutors = new ExpressionExecutor[operandExecutors.length];
+        boolean constant = true;
+        boolean changed = false;
+        for (int i = 0; i < operandExecutors.length; i++) {
+            optimizedOperandExecutors[i] = optimize(operandExecutors[i]);
+            constant &= optimizedOperandExecutors[i] instanceof ConstantExpressionExecutor;
+            changed |= optimizedOperandExecutors[i] != operandExecutors[i];
+        }
+        if (!changed && !constant) {
+            return expressionExecutor;
+        }
+        ExpressionExecutor optimizedExecutor = expressionExecutor;
+        if (changed) {
+            Class<?>[] parameterTypes = new Class<?>[operandExecutors.length];
+            Arrays.fill(parameterTypes, ExpressionExecutor.class);
+            try {
+                optimizedExecutor = expressionExecutor.getClass().getConstructor(parameterTypes)
+                        .newInstance((Object[]) optimizedOperandExecutors);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Cannot optimize '" + expressionExecutor.getClass().getName() + "', hence using " +
+                        "the executor as it is.", e);
+                return expressionExecutor;
+            }
+        }
+        if (constant) {
+            // Operands are constants, hence the result does not depend on the event.
+            return new ConstantExpressionExecutor(optimizedExecutor.execute(null), optimizedExecutor.getReturnType());
+        }
+        return optimizedExecutor;
+    }
+}
@@ -21,6 +21,7 @@ package io.siddhi.core.util.parser;
 import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.holder.ColumnarStreamEventQueue;
 import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.ExpressionExecutor;
@@ -88,7 +89,8 @@ public class OperatorParser {
             } else {
                 return new IndexOperator(collectionExecutor, siddhiQueryContext.getName());
             }
-        } else if (storeEvents instanceof ComplexEventChunk) {
+        } else if (storeEvents instanceof ComplexEventChunk || storeEvents instanceof ColumnarStreamEventQueue) {
+            // ColumnarStreamEventQueue is searched by iterating its columns
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
                     variableExpressionExecutors, false, 0,
@@ -69,7 +69,8 @@ public class PartitionParser {
                     siddhiAppRuntimeBuilder.getAggregationMap(),
                     siddhiAppRuntimeBuilder.getWindowMap(),
                     siddhiAppRuntimeBuilder.getLockSynchronizer(),
-                    String.valueOf(queryIndex), true, partitionRuntime.getPartitionName());
+                    String.valueOf(queryIndex), true, partitionRuntime.getPartitionName(),
+                    partitionRuntime.getWorkerPool() == null ? 1 : partitionRuntime.getWorkerPool().getWorkerCount());
             queryIndex++;
             MetaStateEvent metaStateEvent = createMetaEventForPartitioner(queryRuntime.getMetaComplexEvent());
             partitionRuntime.addQuery(queryRuntime);
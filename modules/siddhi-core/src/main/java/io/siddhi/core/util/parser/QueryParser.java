@@ -35,8 +35,15 @@ import io.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.output.callback.OutputCallback;
 import io.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import io.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
 import io.siddhi.core.query.output.ratelimit.snapshot.WrappedSnapshotOutputRateLimiter;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
+import io.siddhi.core.query.processor.stream.window.ExternalTimeWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.LengthBatchWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.LengthWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.TimeBatchWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.TimeWindowProcessor;
 import io.siddhi.core.query.selector.QuerySelector;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.table.record.AbstractQueryableRecordTable;
@@ -45,9 +52,11 @@ import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.operator.CompiledSelection;
 import io.siddhi.core.util.lock.LockSynchronizer;
 import io.siddhi.core.util.lock.LockWrapper;
+import io.siddhi.core.util.lock.PartitionLockWrapper;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.window.Window;
+import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.annotation.Element;
 import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.exception.DuplicateDefinitionException;
@@ -58,10 +67,14 @@ import io.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import io.siddhi.query.api.execution.query.output.ratelimit.SnapshotOutputRate;
 import io.siddhi.query.api.execution.query.output.stream.OutputStream;
 import io.siddhi.query.api.util.AnnotationHelper;
+import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -69,6 +82,12 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class QueryParser {
 
+    private static final Logger log = Logger.getLogger(QueryParser.class);
+    // Windows that only retain clones of the events they receive, and that drop the expired events they emit.
+    private static final Set<Class<? extends Processor>> POOL_SAFE_WINDOWS = new HashSet<>(Arrays.asList(
+            LengthWindowProcessor.class, LengthBatchWindowProcessor.class, TimeWindowProcessor.class,
+            TimeBatchWindowProcessor.class, ExternalTimeWindowProcessor.class));
+
     /**
      * Parse a query and return corresponding QueryRuntime.
      *
@@ -96,6 +115,40 @@ public class QueryParser {
                                          Map<String, AggregationRuntime> aggregationMap, Map<String, Window> windowMap,
                                          LockSynchronizer lockSynchronizer,
                                          String queryIndex, boolean partitioned, String partitionId) {
+        return parse(query, siddhiAppContext, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
+                aggregationDefinitionMap, tableMap, aggregationMap, windowMap, lockSynchronizer, queryIndex,
+                partitioned, partitionId, 1);
+    }
+
+    /**
+     * Parse a query and return corresponding QueryRuntime.
+     *
+     * @param query                    query to be parsed.
+     * @param siddhiAppContext         associated Siddhi app context.
+     * @param streamDefinitionMap      keyvalue containing user given stream definitions.
+     * @param tableDefinitionMap       keyvalue containing table definitions.
+     * @param windowDefinitionMap      keyvalue containing window definition map.
+     * @param aggregationDefinitionMap keyvalue containing aggregation definition map.
+     * @param tableMap                 keyvalue containing event tables.
+     * @param aggregationMap           keyvalue containing aggrigation runtimes.
+     * @param windowMap                keyvalue containing event window map.
+     * @param lockSynchronizer         Lock synchronizer for sync the lock across queries.
+     * @param queryIndex               query index to identify unknown query by number
+     * @param partitioned              is the query partitioned
+     * @param partitionId              The ID of the partition
+     * @param partitionWorkers         number of workers processing the partition instances of the query in parallel
+     * @return queryRuntime
+     */
+    public static QueryRuntimeImpl parse(Query query, SiddhiAppContext siddhiAppContext,
+                                         Map<String, AbstractDefinition> streamDefinitionMap,
+                                         Map<String, AbstractDefinition> tableDefinitionMap,
+                                         Map<String, AbstractDefinition> windowDefinitionMap,
+                                         Map<String, AbstractDefinition> aggregationDefinitionMap,
+                                         Map<String, Table> tableMap,
+                                         Map<String, AggregationRuntime> aggregationMap, Map<String, Window> windowMap,
+                                         LockSynchronizer lockSynchronizer,
+                                         String queryIndex, boolean partitioned, String partitionId,
+                                         int partitionWorkers) {
         List<VariableExpressionExecutor> executors = new ArrayList<>();
         QueryRuntimeImpl queryRuntime;
         Element nameElement = null;
@@ -112,6 +165,8 @@ public class QueryParser {
             }
             SiddhiQueryContext siddhiQueryContext = new SiddhiQueryContext(siddhiAppContext, queryName, partitionId);
             siddhiQueryContext.setPartitioned(partitioned);
+            // Partition instances processed by several workers use the state holders of the query concurrently
+            siddhiQueryContext.setConcurrentStates(partitionWorkers > 1);
             latencyTracker = QueryParserHelper.createLatencyTracker(siddhiAppContext, siddhiQueryContext.getName(),
                     SiddhiConstants.METRIC_INFIX_QUERIES, null);
             siddhiQueryContext.setLatencyTracker(latencyTracker);
@@ -137,6 +192,19 @@ public class QueryParser {
                     query, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
                     aggregationDefinitionMap, tableMap, windowMap, aggregationMap, executors,
                     outputExpectsExpiredEvents, siddhiQueryContext);
+            if (query.getInputStream() instanceof SingleInputStream) {
+                Window sharedWindow = windowMap.get(((SingleInputStream) query.getInputStream()).getStreamId());
+                if (sharedWindow != null && sharedWindow.isShared()) {
+                    // Process the events of a shared window as the window the query originally declared
+                    ((SingleStreamRuntime) streamRuntime).setProcessingMode(sharedWindow.getProcessingMode());
+                    ((SingleStreamRuntime) streamRuntime).setFifoExpiry(sharedWindow.isFifoExpiry());
+                }
+            }
+            siddhiQueryContext.setFifoExpiry(streamRuntime instanceof SingleStreamRuntime &&
+                    ((SingleStreamRuntime) streamRuntime).isFifoExpiry());
+            if (streamRuntime instanceof SingleStreamRuntime) {
+                siddhiQueryContext.setPaneSpec(((SingleStreamRuntime) streamRuntime).getPaneSpec());
+            }
             QuerySelector selector;
             if (streamRuntime.getQuerySelector() != null) {
                 selector = streamRuntime.getQuerySelector();
@@ -160,10 +228,7 @@ public class QueryParser {
                     null, query.getAnnotations());
             if (synchronizedElement != null) {
                 if (!("false".equalsIgnoreCase(synchronizedElement.getValue()))) {
-                    lockWrapper = new LockWrapper(""); // Query LockWrapper does not need a unique
-                    // id since it will
-                    // not be passed to the LockSynchronizer.
-                    lockWrapper.setLock(new ReentrantLock());   // LockWrapper does not have a default lock
+                    lockWrapper = createQueryLock(partitionWorkers);
                 }
             } else {
                 if (isWindow || !(streamRuntime instanceof SingleStreamRuntime)) {
@@ -201,15 +266,11 @@ public class QueryParser {
                                     .getLock();
                         } else {
                             // Join does not contain any Window
-                            lockWrapper = new LockWrapper("");  // Query LockWrapper does not need a unique
-                            // id since
-                            // it will not be passed to the LockSynchronizer.
-                            lockWrapper.setLock(new ReentrantLock());   // LockWrapper does not have a default lock
+                            lockWrapper = createQueryLock(partitionWorkers);
                         }
 
                     } else {
-                        lockWrapper = new LockWrapper("");
-                        lockWrapper.setLock(new ReentrantLock());
+                        lockWrapper = createQueryLock(partitionWorkers);
                     }
                 }
             }
@@ -231,8 +292,14 @@ public class QueryParser {
 
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
+            int eventPoolSize = getEventPoolSize(query, streamRuntime, outputRateLimiter, siddhiQueryContext);
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    siddhiQueryContext.getName());
+                    siddhiQueryContext.getName(), eventPoolSize);
+            selector.setRecycleEvents(eventPoolSize > 0);
+            if (siddhiAppContext.isOptimizeExpressions() && streamRuntime instanceof SingleStreamRuntime &&
+                    streamRuntime.getMetaComplexEvent() instanceof MetaStreamEvent) {
+                ExpressionOptimizer.optimize((SingleStreamRuntime) streamRuntime, selector);
+            }
 
             // Update cache compile selection variable expression executors
             if (streamRuntime instanceof JoinStreamRuntime) {
@@ -280,4 +347,79 @@ public class QueryParser {
         }
         return queryRuntime;
     }
+
+    private static LockWrapper createQueryLock(int partitionWorkers) {
+        if (partitionWorkers > 1) {
+            // Each worker of the partition locks the instances of its own partition keys
+            return new PartitionLockWrapper(partitionWorkers);
+        }
+        // Query LockWrapper does not need a unique id since it will not be passed to the LockSynchronizer.
+        LockWrapper lockWrapper = new LockWrapper("");
+        lockWrapper.setLock(new ReentrantLock());   // LockWrapper does not have a default lock
+        return lockWrapper;
+    }
+
+    /**
+     * Get the size of the event pool requested through the query's @pool annotation. Pooling is only enabled when
+     * no processor of the query retains the events that reach the selector, so that the events can be recycled
+     * once the output callbacks have consumed them.
+     *
+     * @param query              query to be parsed
+     * @param streamRuntime      stream runtime of the query
+     * @param outputRateLimiter  output rate limiter of the query
+     * @param siddhiQueryContext context of the query
+     * @return size of the event pool, or 0 if the events should not be pooled
+     */
+    private static int getEventPoolSize(Query query, StreamRuntime streamRuntime, OutputRateLimiter outputRateLimiter,
+                                        SiddhiQueryContext siddhiQueryContext) {
+        Annotation poolAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_POOL,
+                query.getAnnotations());
+        if (poolAnnotation == null) {
+            return 0;
+        }
+        int eventPoolSize = SiddhiConstants.DEFAULT_EVENT_POOL_SIZE;
+        Element sizeElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_POOL,
+                SiddhiConstants.ANNOTATION_ELEMENT_SIZE, query.getAnnotations());
+        if (sizeElement == null) {
+            sizeElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_POOL, null,
+                    query.getAnnotations());
+        }
+        if (sizeElement != null) {
+            try {
+                eventPoolSize = Integer.parseInt(sizeElement.getValue().trim());
+            } catch (NumberFormatException e) {
+                eventPoolSize = -1;
+            }
+            if (eventPoolSize <= 0) {
+                throw new SiddhiAppCreationException("Event pool size of query '" + siddhiQueryContext.getName() +
+                        "' should be a positive integer, but found '" + sizeElement.getValue() + "'",
+                        poolAnnotation, siddhiQueryContext.getSiddhiAppContext());
+            }
+        }
+        if (!(outputRateLimiter instanceof PassThroughOutputRateLimiter) ||
+                !isEventPoolingSupported(streamRuntime)) {
+            log.warn("Query '" + siddhiQueryContext.getName() + "' in Siddhi app '" +
+                    siddhiQueryContext.getSiddhiAppContext().getName() + "' retains its events through its " +
+                    "processors or output rate limiting, hence event pooling is disabled for the query.");
+            return 0;
+        }
+        return eventPoolSize;
+    }
+
+    private static boolean isEventPoolingSupported(StreamRuntime streamRuntime) {
+        if (streamRuntime instanceof JoinStreamRuntime) {
+            // Only the state events created for the join output are pooled.
+            return true;
+        } else if (!(streamRuntime instanceof SingleStreamRuntime)) {
+            return false;
+        }
+        Processor processor = ((SingleStreamRuntime) streamRuntime).getProcessorChain();
+        while (processor != null) {
+            if (!(processor instanceof FilterProcessor) && !POOL_SAFE_WINDOWS.contains(processor.getClass())) {
+                return false;
+            }
+            processor = processor.getNextProcessor();
+        }
+        return true;
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.parser;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.query.processor.stream.window.FifoWindowProcessor;
+import io.siddhi.core.util.SiddhiAppRuntimeBuilder;
+import io.siddhi.core.util.extension.holder.WindowProcessorExtensionHolder;
+import io.siddhi.query.api.SiddhiApp;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.annotation.Element;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.definition.StreamDefinition;
+import io.siddhi.query.api.definition.WindowDefinition;
+import io.siddhi.query.api.execution.ExecutionElement;
+import io.siddhi.query.api.execution.partition.Partition;
+import io.siddhi.query.api.execution.query.Query;
+import io.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import io.siddhi.query.api.execution.query.input.handler.Window;
+import io.siddhi.query.api.execution.query.input.stream.InputStream;
+import io.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import io.siddhi.query.api.execution.query.output.ratelimit.SnapshotOutputRate;
+import io.siddhi.query.api.execution.query.selection.Selector;
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.Variable;
+import io.siddhi.query.api.expression.constant.Constant;
+import io.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class to share the windows of queries that consume the same stream through identical sliding windows. Such
+ * queries are rewritten to consume a single {@link io.siddhi.core.window.Window}, fed by the stream, such that the
+ * events are cloned, retained and expired once for all of them.
+ * <p>
+ * As the events of a shared window are kept in the state of the window instead of the states of its queries, the
+ * shared windows and the names of the queries consuming them are recorded with the snapshots of the Siddhi App, and
+ * snapshots taken with a different set of shared windows are rejected on restore.
+ */
+public class SharedWindowParser {
+
+    private static final String SHARED_WINDOW_PREFIX = "SharedWindow-";
+
+    private SharedWindowParser() {
+
+    }
+
+    /**
+     * Define the shared windows of the given Siddhi App and rewrite the queries consuming them.
+     *
+     * @param siddhiApp               the Siddhi App
+     * @param siddhiAppRuntimeBuilder builder in which the shared windows are defined
+     * @param siddhiAppContext        Siddhi App context
+     * @return the queries to be parsed in place of each query sharing a window, where the query feeding the window
+     * precedes the first of them
+     */
+    public static Map<Query, List<Query>> parse(SiddhiApp siddhiApp, SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder,
+                                                SiddhiAppContext siddhiAppContext) {
+        Map<SharedWindowKey, List<Query>> candidateQueries = new LinkedHashMap<>();
+        Map<Query, String> queryNames = new IdentityHashMap<>();
+        int queryIndex = 1;
+        for (ExecutionElement executionElement : siddhiApp.getExecutionElementList()) {
+            if (!(executionElement instanceof Query)) {
+                if (executionElement instanceof Partition) {
+                    queryIndex += ((Partition) executionElement).getQueryList().size();
+                }
+                continue;
+            }
+            Query query = (Query) executionElement;
+            // Named the same way as the query runtimes, which key the states of the queries in the snapshots
+            Element nameElement = AnnotationHelper.getAnnotationElement("info", "name", query.getAnnotations());
+            queryNames.put(query, nameElement != null ? nameElement.getValue() : "query_" + queryIndex);
+            queryIndex++;
+            if (isShareable(query, siddhiAppRuntimeBuilder, siddhiAppContext)) {
+                SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+                SharedWindowKey key = new SharedWindowKey(inputStream.getStreamId(),
+                        (Window) inputStream.getStreamHandlers().get(0));
+                candidateQueries.computeIfAbsent(key, k -> new ArrayList<>()).add(query);
+            }
+        }
+
+        Map<Query, List<Query>> sharedWindowQueries = new IdentityHashMap<>();
+        List<String> sharedWindowLayout = new ArrayList<>();
+        for (Map.Entry<SharedWindowKey, List<Query>> entry : candidateQueries.entrySet()) {
+            if (entry.getValue().size() < 2) {
+                continue;
+            }
+            String streamId = entry.getKey().streamId;
+            String windowId = SHARED_WINDOW_PREFIX + streamId + "-" + entry.getKey().window.getName();
+            int suffix = 1;
+            while (siddhiAppRuntimeBuilder.getWindowDefinitionMap().containsKey(windowId + "-" + suffix)) {
+                suffix++;
+            }
+            windowId = windowId + "-" + suffix;
+
+            WindowDefinition windowDefinition = WindowDefinition.id(windowId);
+            for (Attribute attribute : siddhiAppRuntimeBuilder.getStreamDefinitionMap().get(streamId)
+                    .getAttributeList()) {
+                windowDefinition.attribute(attribute.getName(), attribute.getType());
+            }
+            windowDefinition.window(entry.getKey().window);
+            siddhiAppRuntimeBuilder.defineWindow(windowDefinition);
+            siddhiAppRuntimeBuilder.getWindowMap().get(windowId).setShared(true);
+
+            List<String> consumerNames = new ArrayList<>();
+            for (Query query : entry.getValue()) {
+                consumerNames.add(queryNames.get(query));
+            }
+            sharedWindowLayout.add(windowId + consumerNames);
+
+            Query feedingQuery = Query.query()
+                    .annotation(Annotation.annotation("info").element("name", windowId))
+                    .from(InputStream.stream(streamId))
+                    .select(Selector.selector())
+                    .insertInto(windowId);
+            for (Query query : entry.getValue()) {
+                List<Query> queries = new ArrayList<>(2);
+                if (feedingQuery != null) {
+                    queries.add(feedingQuery);
+                    feedingQuery = null;
+                }
+                queries.add(rewriteQuery(query, windowId));
+                sharedWindowQueries.put(query, queries);
+            }
+        }
+        if (!sharedWindowLayout.isEmpty()) {
+            siddhiAppContext.getSnapshotService().setSharedWindowLayout(String.join(";", sharedWindowLayout));
+        }
+        return sharedWindowQueries;
+    }
+
+    private static boolean isShareable(Query query, SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder,
+                                       SiddhiAppContext siddhiAppContext) {
+        if (!(query.getInputStream() instanceof SingleInputStream) ||
+                query.getOutputRate() instanceof SnapshotOutputRate) {
+            // Snapshot rate limiting retains the events of the query's own window
+            return false;
+        }
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        AbstractDefinition definition = siddhiAppRuntimeBuilder.getStreamDefinitionMap()
+                .get(inputStream.getStreamId());
+        if (inputStream.isInnerStream() || inputStream.isFaultStream() ||
+                !(definition instanceof StreamDefinition) || definition instanceof WindowDefinition) {
+            return false;
+        }
+        List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+        if (streamHandlers.size() != 1 || !(streamHandlers.get(0) instanceof Window)) {
+            return false;
+        }
+        Window window = (Window) streamHandlers.get(0);
+        Expression[] parameters = window.getParameters();
+        if (parameters != null) {
+            for (Expression parameter : parameters) {
+                if (!(parameter instanceof Constant) && !(parameter instanceof Variable &&
+                        ((Variable) parameter).getStreamId() == null)) {
+                    return false;
+                }
+            }
+        }
+        // Only windows expiring events in their arrival order emit the same events to all their consumers
+        Class windowClass = WindowProcessorExtensionHolder.getInstance(siddhiAppContext)
+                .getExtension(window.getNamespace(), window.getName());
+        return windowClass != null && FifoWindowProcessor.class.isAssignableFrom(windowClass);
+    }
+
+    private static Query rewriteQuery(Query query, String windowId) {
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        // Keep resolving the attributes qualified by the stream id, when the stream is not referred by an alias
+        String streamReferenceId = inputStream.getStreamReferenceId() != null ?
+                inputStream.getStreamReferenceId() : inputStream.getStreamId();
+        SingleInputStream windowStream = new SingleInputStream(streamReferenceId, windowId);
+        windowStream.setQueryContextStartIndex(inputStream.getQueryContextStartIndex());
+        windowStream.setQueryContextEndIndex(inputStream.getQueryContextEndIndex());
+        Query sharedWindowQuery = Query.query()
+                .from(windowStream)
+                .select(query.getSelector())
+                .outStream(query.getOutputStream());
+        if (query.getOutputRate() != null) {
+            sharedWindowQuery.output(query.getOutputRate());
+        }
+        for (Annotation annotation : query.getAnnotations()) {
+            sharedWindowQuery.annotation(annotation);
+        }
+        sharedWindowQuery.setQueryContextStartIndex(query.getQueryContextStartIndex());
+        sharedWindowQuery.setQueryContextEndIndex(query.getQueryContextEndIndex());
+        return sharedWindowQuery;
+    }
+
+    /**
+     * Identifies windows that can be shared, i.e. the same window with the same parameters on the same stream.
+     */
+    private static class SharedWindowKey {
+
+        private final String streamId;
+        private final Window window;
+
+        SharedWindowKey(String streamId, Window window) {
+            this.streamId = streamId;
+            this.window = window;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SharedWindowKey that = (SharedWindowKey) o;
+            return streamId.equals(that.streamId) && window.equals(that.window);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(streamId, window);
+        }
+    }
+}
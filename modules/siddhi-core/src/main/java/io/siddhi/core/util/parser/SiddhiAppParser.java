@@ -29,6 +29,7 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.TimerWheel;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.core.util.timestamp.TimestampGenerator;
@@ -60,6 +61,7 @@ import io.siddhi.query.compiler.exception.SiddhiParserException;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -102,6 +104,22 @@ public class SiddhiAppParser {
                 siddhiAppContext.setEnforceOrder(true);
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_OPTIMIZE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                Element optimizeElement = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_OPTIMIZE,
+                        null, siddhiApp.getAnnotations());
+                if (optimizeElement == null || optimizeElement.getValue().equalsIgnoreCase("true")) {
+                    siddhiAppContext.setOptimizeExpressions(true);
+                } else if (optimizeElement.getValue().equalsIgnoreCase("false")) {
+                    siddhiAppContext.setOptimizeExpressions(false);
+                } else {
+                    throw new SiddhiAppCreationException("@app:optimize only accepts 'true' or 'false', but found '" +
+                            optimizeElement.getValue() + "'",
+                            annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
+                }
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
                     siddhiApp.getAnnotations());
             if (annotation != null) {
@@ -216,6 +234,9 @@ public class SiddhiAppParser {
             } else {
                 siddhiAppContext.setTimestampGenerator(new TimestampGeneratorImpl(siddhiAppContext));
             }
+            TimerWheel timerWheel = new TimerWheel(siddhiAppContext);
+            siddhiAppContext.setTimerWheel(timerWheel);
+            siddhiAppContext.addEternalReferencedHolder(timerWheel);
             siddhiAppContext.setSnapshotService(new SnapshotService(siddhiAppContext));
             siddhiAppContext.setIdGenerator(new IdGenerator());
 
@@ -233,6 +254,8 @@ public class SiddhiAppParser {
         defineFunctionDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getFunctionDefinitionMap(), siddhiAppContext);
         defineAggregationDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getAggregationDefinitionMap(),
                 siddhiAppContext);
+        Map<Query, List<Query>> sharedWindowQueries = SharedWindowParser.parse(siddhiApp, siddhiAppRuntimeBuilder,
+                siddhiAppContext);
         //todo fix for query API usecase
         List<String> findExecutedElements = getFindExecutedElements(siddhiApp);
         for (Window window : siddhiAppRuntimeBuilder.getWindowMap().values()) {
@@ -251,18 +274,24 @@ public class SiddhiAppParser {
         for (ExecutionElement executionElement : siddhiApp.getExecutionElementList()) {
             if (executionElement instanceof Query) {
                 try {
-                    QueryRuntimeImpl queryRuntime = QueryParser.parse((Query) executionElement, siddhiAppContext,
-                            siddhiAppRuntimeBuilder.getStreamDefinitionMap(),
-                            siddhiAppRuntimeBuilder.getTableDefinitionMap(),
-                            siddhiAppRuntimeBuilder.getWindowDefinitionMap(),
-                            siddhiAppRuntimeBuilder.getAggregationDefinitionMap(),
-                            siddhiAppRuntimeBuilder.getTableMap(),
-                            siddhiAppRuntimeBuilder.getAggregationMap(),
-                            siddhiAppRuntimeBuilder.getWindowMap(),
-                            siddhiAppRuntimeBuilder.getLockSynchronizer(),
-                            String.valueOf(queryIndex), false, SiddhiConstants.PARTITION_ID_DEFAULT);
-                    siddhiAppRuntimeBuilder.addQuery(queryRuntime);
-                    siddhiAppContext.addEternalReferencedHolder(queryRuntime);
+                    List<Query> queries = sharedWindowQueries.get(executionElement);
+                    if (queries == null) {
+                        queries = Collections.singletonList((Query) executionElement);
+                    }
+                    for (Query query : queries) {
+                        QueryRuntimeImpl queryRuntime = QueryParser.parse(query, siddhiAppContext,
+                                siddhiAppRuntimeBuilder.getStreamDefinitionMap(),
+                                siddhiAppRuntimeBuilder.getTableDefinitionMap(),
+                                siddhiAppRuntimeBuilder.getWindowDefinitionMap(),
+                                siddhiAppRuntimeBuilder.getAggregationDefinitionMap(),
+                                siddhiAppRuntimeBuilder.getTableMap(),
+                                siddhiAppRuntimeBuilder.getAggregationMap(),
+                                siddhiAppRuntimeBuilder.getWindowMap(),
+                                siddhiAppRuntimeBuilder.getLockSynchronizer(),
+                                String.valueOf(queryIndex), false, SiddhiConstants.PARTITION_ID_DEFAULT);
+                        siddhiAppRuntimeBuilder.addQuery(queryRuntime);
+                        siddhiAppContext.addEternalReferencedHolder(queryRuntime);
+                    }
                     queryIndex++;
                 } catch (Throwable t) {
                     ExceptionUtil.populateQueryContext(t, (Query) executionElement, siddhiAppContext);
@@ -35,6 +35,9 @@ import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
 import io.siddhi.core.query.processor.stream.StreamProcessor;
 import io.siddhi.core.query.processor.stream.function.StreamFunctionProcessor;
+import io.siddhi.core.query.processor.stream.window.FifoWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
+import io.siddhi.core.query.processor.stream.window.PaneWindowProcessor;
 import io.siddhi.core.query.processor.stream.window.WindowProcessor;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.ExceptionUtil;
@@ -97,6 +100,8 @@ public class SingleInputStreamParser {
         EntryValveProcessor entryValveProcessor = null;
         ProcessingMode processingMode = ProcessingMode.BATCH;
         boolean first = true;
+        boolean fifoExpiry = false;
+        PaneSpec paneSpec = null;
         MetaStreamEvent metaStreamEvent;
         if (metaComplexEvent instanceof MetaStateEvent) {
             metaStreamEvent = new MetaStreamEvent();
@@ -149,11 +154,18 @@ public class SingleInputStreamParser {
                 } else {
                     processor.setToLast(currentProcessor);
                 }
+                fifoExpiry = currentProcessor instanceof FifoWindowProcessor;
+                paneSpec = currentProcessor instanceof PaneWindowProcessor ?
+                        ((PaneWindowProcessor) currentProcessor).getPaneSpec() : null;
             }
         }
 
         metaStreamEvent.initializeAfterWindowData();
-        return new SingleStreamRuntime(processStreamReceiver, processor, processingMode, metaComplexEvent);
+        SingleStreamRuntime singleStreamRuntime = new SingleStreamRuntime(processStreamReceiver, processor,
+                processingMode, metaComplexEvent);
+        singleStreamRuntime.setFifoExpiry(fifoExpiry);
+        singleStreamRuntime.setPaneSpec(paneSpec);
+        return singleStreamRuntime;
 
     }
 
@@ -40,6 +40,7 @@ import io.siddhi.core.stream.output.sink.SinkMapper;
 import io.siddhi.core.stream.output.sink.distributed.DistributedTransport;
 import io.siddhi.core.stream.output.sink.distributed.DistributionStrategy;
 import io.siddhi.core.table.InMemoryTable;
+import io.siddhi.core.table.StripedInMemoryTable;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.table.record.RecordTableHandler;
 import io.siddhi.core.table.record.RecordTableHandlerManager;
@@ -207,6 +208,9 @@ public class DefinitionParserHelper {
                         TableExtensionHolder.getInstance(siddhiAppContext));
                 configReader = siddhiAppContext.getSiddhiContext().getConfigManager()
                         .generateConfigReader(extension.getNamespace(), extension.getName());
+            } else if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENCY,
+                    tableDefinition.getAnnotations()) != null) {
+                table = new StripedInMemoryTable();
             } else {
                 table = new InMemoryTable();
             }
@@ -37,10 +37,13 @@ import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import io.siddhi.core.query.processor.stream.window.WindowProcessor;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.operator.IncrementalAggregateCompileCondition;
 import io.siddhi.core.util.lock.LockWrapper;
+import io.siddhi.core.util.statistics.HistogramTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.ThroughputTracker;
@@ -153,24 +156,39 @@ public class QueryParserHelper {
 
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
                                          LockWrapper lockWrapper, String queryName) {
+        initStreamRuntime(runtime, metaComplexEvent, lockWrapper, queryName, 0);
+    }
+
+    /**
+     * Initialize the stream runtime, with pooled event factories when an event pool size is given. Single stream
+     * queries pool their stream events, while join queries pool the state events that they produce.
+     *
+     * @param runtime          stream runtime to be initialized
+     * @param metaComplexEvent meta event of the query
+     * @param lockWrapper      lock of the query
+     * @param queryName        name of the query
+     * @param eventPoolSize    maximum number of recycled events kept for reuse, or 0 to disable pooling
+     */
+    public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
+                                         LockWrapper lockWrapper, String queryName, int eventPoolSize) {
 
         if (runtime instanceof SingleStreamRuntime) {
             initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent,
-                    null, lockWrapper, queryName);
+                    null, lockWrapper, queryName, eventPoolSize);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
-            StateEventFactory stateEventFactory = new StateEventFactory(metaStateEvent);
+            StateEventFactory stateEventFactory = new StateEventFactory(metaStateEvent, eventPoolSize);
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i), i, metaStateEvent, stateEventFactory,
-                        lockWrapper, queryName);
+                        lockWrapper, queryName, 0);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventFactory stateEventFactory,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName, int eventPoolSize) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -178,7 +196,11 @@ public class QueryParserHelper {
         } else {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
-        StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent, eventPoolSize);
+        // Events retained by windows and schedulers outlive the selector, hence they are never taken from the pool.
+        // Only the expired events that windows create when emitting, and no longer hold, are pooled.
+        StreamEventFactory retainedEventFactory = eventPoolSize > 0 ? new StreamEventFactory(metaStreamEvent) :
+                streamEventFactory;
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventFactory(streamEventFactory);
@@ -187,15 +209,21 @@ public class QueryParserHelper {
         Processor processor = singleStreamRuntime.getProcessorChain();
         while (processor != null) {
             if (processor instanceof SchedulingProcessor) {
-                ((SchedulingProcessor) processor).getScheduler().setStreamEventFactory(streamEventFactory);
+                ((SchedulingProcessor) processor).getScheduler().setStreamEventFactory(retainedEventFactory);
                 ((SchedulingProcessor) processor).getScheduler().init(lockWrapper, queryName);
             }
             if (processor instanceof AbstractStreamProcessor) {
                 ((AbstractStreamProcessor) processor)
-                        .setStreamEventCloner(new StreamEventCloner(metaStreamEvent, streamEventFactory));
+                        .setStreamEventCloner(new StreamEventCloner(metaStreamEvent, retainedEventFactory));
                 ((AbstractStreamProcessor) processor).constructStreamEventPopulater(metaStreamEvent,
                         streamEventChainIndex);
             }
+            if (processor instanceof WindowProcessor) {
+                ((WindowProcessor) processor).setExpiredEventFactory(streamEventFactory);
+            }
+            if (eventPoolSize > 0 && processor instanceof FilterProcessor) {
+                ((FilterProcessor) processor).setRecycleEvents(true);
+            }
             if (stateEventFactory != null && processor instanceof JoinProcessor) {
                 if (((JoinProcessor) processor)
                         .getCompiledCondition() instanceof IncrementalAggregateCompileCondition) {
@@ -289,6 +317,36 @@ public class QueryParserHelper {
         return throughputTracker;
     }
 
+    public static HistogramTracker createHistogramTracker(SiddhiAppContext siddhiAppContext, String name,
+                                                          String type, String measurement) {
+        HistogramTracker histogramTracker = null;
+        if (siddhiAppContext.getStatisticsManager() != null) {
+            String metricName =
+                    siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                            SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                            SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                            SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                            SiddhiConstants.METRIC_DELIMITER + type +
+                            SiddhiConstants.METRIC_DELIMITER + name +
+                            SiddhiConstants.METRIC_DELIMITER + measurement;
+            boolean matchExist = false;
+            for (String regex : siddhiAppContext.getIncludedMetrics()) {
+                if (metricName.matches(regex)) {
+                    matchExist = true;
+                    break;
+                }
+            }
+            if (matchExist) {
+                histogramTracker = siddhiAppContext
+                        .getSiddhiContext()
+                        .getStatisticsConfiguration()
+                        .getFactory()
+                        .createHistogramTracker(metricName, siddhiAppContext.getStatisticsManager());
+            }
+        }
+        return histogramTracker;
+    }
+
 
     public static void registerMemoryUsageTracking(String name, Object value, String metricInfixQueries,
                                                    SiddhiAppContext siddhiAppContext,
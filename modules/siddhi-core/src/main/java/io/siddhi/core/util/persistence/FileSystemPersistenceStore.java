@@ -21,16 +21,19 @@ package io.siddhi.core.util.persistence;
 import com.google.common.io.Files;
 import io.siddhi.core.exception.CannotClearSiddhiAppStateException;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
+import io.siddhi.core.util.persistence.util.PersistenceHelper;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 /**
- * Implementation of Persistence Store that would persist snapshots to the file system
+ * Implementation of Persistence Store that would persist snapshots to the file system. Snapshots are streamed to a
+ * temporary file and atomically renamed once they are fully written.
  */
-public class FileSystemPersistenceStore implements PersistenceStore {
+public class FileSystemPersistenceStore implements StreamingPersistenceStore {
 
     private static final Logger log = Logger.getLogger(FileSystemPersistenceStore.class);
     private int numberOfRevisionsToSave;
@@ -38,10 +41,14 @@ public class FileSystemPersistenceStore implements PersistenceStore {
 
     @Override
     public void save(String siddhiAppName, String revision, byte[] snapshot) {
+        save(siddhiAppName, revision, outputStream -> outputStream.write(snapshot));
+    }
+
+    @Override
+    public void save(String siddhiAppName, String revision, SnapshotWriter snapshotWriter) {
         File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
         try {
-            Files.createParentDirs(file);
-            Files.write(snapshot, file);
+            PersistenceHelper.writeAtomically(file, snapshotWriter);
             cleanOldRevisions(siddhiAppName);
             if (log.isDebugEnabled()) {
                 log.debug("Periodic persistence of " + siddhiAppName + " persisted successfully.");
@@ -99,10 +106,20 @@ public class FileSystemPersistenceStore implements PersistenceStore {
         return null;
     }
 
+    @Override
+    public InputStream loadAsStream(String siddhiAppName, String revision) throws IOException {
+        InputStream inputStream = PersistenceHelper.openForRead(
+                new File(folder + File.separator + siddhiAppName + File.separator + revision));
+        if (inputStream != null) {
+            log.info("State loading for " + siddhiAppName + " revision " + revision + " from the file system.");
+        }
+        return inputStream;
+    }
+
     @Override
     public String getLastRevision(String siddhiAppName) {
         File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
+        File[] files = PersistenceHelper.listRevisionFiles(dir);
 
         if (files == null || files.length == 0) {
             return null;
@@ -148,7 +165,7 @@ public class FileSystemPersistenceStore implements PersistenceStore {
 
     private void cleanOldRevisions(String siddhiAppName) {
         File targetDirectory = new File(folder + File.separator + siddhiAppName);
-        File[] files = targetDirectory.listFiles();
+        File[] files = PersistenceHelper.listRevisionFiles(targetDirectory);
         if (files != null) {
             while (files.length > numberOfRevisionsToSave) {
                 String firstRevision = null;
@@ -165,7 +182,7 @@ public class FileSystemPersistenceStore implements PersistenceStore {
                         log.error("Error deleting old revision " + firstRevision);
                     }
                 }
-                files = targetDirectory.listFiles();
+                files = PersistenceHelper.listRevisionFiles(targetDirectory);
                 if (files == null || files.length < 1) {
                     break;
                 }
@@ -27,14 +27,16 @@ import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Implementation of Persistence Store that would persist snapshots to the file system
+ * Implementation of Persistence Store that would persist snapshots to the file system. Snapshots are streamed to a
+ * temporary file and atomically renamed once they are fully written.
  */
-public class IncrementalFileSystemPersistenceStore implements IncrementalPersistenceStore {
+public class IncrementalFileSystemPersistenceStore implements StreamingIncrementalPersistenceStore {
 
     private static final Logger log = Logger.getLogger(IncrementalFileSystemPersistenceStore.class);
     private String folder;
@@ -48,11 +50,15 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
 
     @Override
     public void save(IncrementalSnapshotInfo snapshotInfo, byte[] snapshot) {
+        save(snapshotInfo, outputStream -> outputStream.write(snapshot));
+    }
+
+    @Override
+    public void save(IncrementalSnapshotInfo snapshotInfo, SnapshotWriter snapshotWriter) {
         File file = new File(folder + File.separator + snapshotInfo.getSiddhiAppId() + File.separator +
                 snapshotInfo.getRevision());
         try {
-            Files.createParentDirs(file);
-            Files.write(snapshot, file);
+            PersistenceHelper.writeAtomically(file, snapshotWriter);
             cleanOldRevisions(snapshotInfo);
             if (log.isDebugEnabled()) {
                 log.debug("Incremental persistence of '" + snapshotInfo.getSiddhiAppId() +
@@ -87,11 +93,17 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
         return bytes;
     }
 
+    @Override
+    public InputStream loadAsStream(IncrementalSnapshotInfo snapshotInfo) throws IOException {
+        return PersistenceHelper.openForRead(new File(folder + File.separator + snapshotInfo.getSiddhiAppId() +
+                File.separator + snapshotInfo.getRevision()));
+    }
+
     @Override
     public List<IncrementalSnapshotInfo> getListOfRevisionsToLoad(long restoreTime, String siddhiAppName) {
 
         File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
+        File[] files = PersistenceHelper.listRevisionFiles(dir);
         if (files == null || files.length == 0) {
             return null;
         }
@@ -119,7 +131,7 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
         long restoreTime = -1;
         IncrementalSnapshotInfo lastSnapshotInfo = null;
         File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
+        File[] files = PersistenceHelper.listRevisionFiles(dir);
         if (files == null || files.length == 0) {
             return null;
         }
@@ -170,7 +182,7 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
     private void cleanOldRevisions(IncrementalSnapshotInfo incrementalSnapshotInfo) {
         if (incrementalSnapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.INCREMENT) {
             File dir = new File(folder + File.separator + incrementalSnapshotInfo.getSiddhiAppId());
-            File[] files = dir.listFiles();
+            File[] files = PersistenceHelper.listRevisionFiles(dir);
             if (files != null) {
                 long baseTimeStamp = (incrementalSnapshotInfo.getTime());
                 for (File file : files) {
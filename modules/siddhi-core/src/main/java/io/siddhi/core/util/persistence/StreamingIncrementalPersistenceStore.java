@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.persistence;
+
+import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link IncrementalPersistenceStore} that can save and load snapshots as streams, so that the snapshots do not have
+ * to be held in memory as byte arrays.
+ */
+public interface StreamingIncrementalPersistenceStore extends IncrementalPersistenceStore {
+
+    /**
+     * Save the snapshot written by the given writer. The revision should only become visible once the snapshot is
+     * completely written.
+     *
+     * @param snapshotInfo   information of the snapshot
+     * @param snapshotWriter writer of the snapshot
+     */
+    void save(IncrementalSnapshotInfo snapshotInfo, SnapshotWriter snapshotWriter);
+
+    /**
+     * Open the given snapshot for reading. The caller is responsible for closing the stream.
+     *
+     * @param snapshotInfo information of the snapshot
+     * @return stream of the snapshot, or null if the snapshot does not exist
+     * @throws IOException when the snapshot cannot be opened
+     */
+    InputStream loadAsStream(IncrementalSnapshotInfo snapshotInfo) throws IOException;
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link PersistenceStore} that can save and load snapshots as streams, so that the whole snapshot does not have to
+ * be held in memory as a byte array.
+ */
+public interface StreamingPersistenceStore extends PersistenceStore {
+
+    /**
+     * Save the snapshot written by the given writer. The revision should only become visible once the snapshot is
+     * completely written.
+     *
+     * @param siddhiAppId    name of the Siddhi App
+     * @param revision       revision of the snapshot
+     * @param snapshotWriter writer of the snapshot
+     */
+    void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter);
+
+    /**
+     * Open the snapshot of the given revision for reading. The caller is responsible for closing the stream.
+     *
+     * @param siddhiAppId name of the Siddhi App
+     * @param revision    revision of the snapshot
+     * @return stream of the snapshot, or null if the revision does not exist
+     * @throws IOException when the snapshot cannot be opened
+     */
+    InputStream loadAsStream(String siddhiAppId, String revision) throws IOException;
+
+}
@@ -27,5 +27,8 @@ public class PersistenceConstants {
     public static final String STATE_PERSISTENCE_CONFIGS = "config";
     public static final String DEFAULT_FILE_PERSISTENCE_FOLDER = "siddhi-app-persistence";
     public static final String REVISION_SEPARATOR = "__";
+    public static final String TEMP_REVISION_FILE_PREFIX = ".";
+    public static final int FILE_BUFFER_SIZE = 64 * 1024;
+    public static final int MIN_INCREMENTS_TO_COMPACT = 10;
 
 }
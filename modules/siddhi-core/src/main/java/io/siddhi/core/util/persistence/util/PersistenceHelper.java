@@ -21,11 +21,27 @@ package io.siddhi.core.util.persistence.util;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.exception.PersistenceStoreException;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.persistence.SnapshotWriter;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
+import io.siddhi.core.util.snapshot.AsyncIncrementalSnapshotCompactor;
 import io.siddhi.core.util.snapshot.AsyncIncrementalSnapshotPersistor;
 import io.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
 import io.siddhi.core.util.snapshot.IncrementalSnapshot;
 import io.siddhi.core.util.snapshot.PersistenceReference;
+import org.apache.log4j.Logger;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +51,7 @@ import java.util.concurrent.Future;
  * Helper Class to persist snapshots
  */
 public final class PersistenceHelper {
+    private static final Logger log = Logger.getLogger(PersistenceHelper.class);
 
     public static IncrementalSnapshotInfo convertRevision(String revision) {
         String[] items = revision.replaceAll(SiddhiConstants.KEY_DELIMITER_FILE, SiddhiConstants.KEY_DELIMITER).
@@ -61,6 +78,17 @@ public final class PersistenceHelper {
         return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
     }
 
+    public static PersistenceReference persist(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+            StreamingPersistenceStore persistenceStore, SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        // serialize and stream the snapshot to the store asynchronously
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(fullSnapshot, persistenceStore,
+                siddhiAppContext, revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
     public static PersistenceReference persist(IncrementalSnapshot serializeObj, SiddhiAppContext siddhiAppContext) {
         long revisionTime = System.currentTimeMillis();
         List<Future> incrementalFutures = new ArrayList<>();
@@ -116,7 +144,75 @@ public final class PersistenceHelper {
                 });
             });
         }
+        if (incrementalState != null) {
+            siddhiAppContext.getExecutorService().submit(new AsyncIncrementalSnapshotCompactor(
+                    new ArrayList<>(incrementalFutures), siddhiAppContext.getSnapshotService(), revisionTime));
+        }
         return new PersistenceReference(incrementalFutures,
                 revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
     }
+
+    /**
+     * Write a snapshot to the given file so that the file is either fully written or not present at all. The
+     * snapshot is written in chunks to a hidden temporary file next to the target, synced to the disk and then
+     * atomically renamed to the target file.
+     *
+     * @param file           target file
+     * @param snapshotWriter writer of the snapshot
+     * @throws IOException when the snapshot cannot be written
+     */
+    public static void writeAtomically(File file, SnapshotWriter snapshotWriter) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        File tempFile = new File(directory, PersistenceConstants.TEMP_REVISION_FILE_PREFIX + file.getName());
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel),
+                        PersistenceConstants.FILE_BUFFER_SIZE);
+                snapshotWriter.write(outputStream);
+                outputStream.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cannot sync directory '" + directory + "', as it is not supported by the platform.", e);
+            }
+        }
+    }
+
+    /**
+     * Open the given snapshot file for reading.
+     *
+     * @param file snapshot file
+     * @return buffered stream of the file, or null if the file does not exist
+     * @throws IOException when the file cannot be opened
+     */
+    public static InputStream openForRead(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        return new BufferedInputStream(Files.newInputStream(file.toPath()), PersistenceConstants.FILE_BUFFER_SIZE);
+    }
+
+    /**
+     * List the revision files of the given directory, skipping the snapshots that are still being written.
+     *
+     * @param directory directory of the revisions
+     * @return revision files, or null if the directory does not exist
+     */
+    public static File[] listRevisionFiles(File directory) {
+        return directory.listFiles(file ->
+                !file.getName().startsWith(PersistenceConstants.TEMP_REVISION_FILE_PREFIX));
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values offered to it, using 2^12 registers, with a standard
+ * error of about 1.6%.
+ * <p>
+ * The registers are kept sparse as a list of (register, rank) pairs until they become dense enough, hence sketches
+ * of a few values, such as the ones created per event, stay small.
+ */
+public class HyperLogLog implements MergeableSketch {
+
+    private static final long serialVersionUID = 2178361709317290873L;
+    private static final int PRECISION = 12;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final int SPARSE_LIMIT = REGISTER_COUNT / 16;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private byte[] registers = null;
+    private int[] sparseEntries = new int[2];
+    private int sparseSize = 0;
+    private long cardinality = 0;
+    private boolean changed = false;
+
+    /**
+     * Offer a value to the sketch.
+     *
+     * @param value value to be counted, null values are ignored
+     */
+    public void offer(Object value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * @return the estimated number of distinct values offered to the sketch
+     */
+    public long cardinality() {
+        if (changed) {
+            cardinality = estimate();
+            changed = false;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return registers == null && sparseSize == 0;
+    }
+
+    private long estimate() {
+        double sum;
+        int zeroRegisters;
+        if (registers == null) {
+            sum = REGISTER_COUNT - sparseSize;
+            zeroRegisters = REGISTER_COUNT - sparseSize;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparseEntries[i] & 0xFF));
+            }
+        } else {
+            sum = 0;
+            zeroRegisters = 0;
+            for (byte register : registers) {
+                if (register == 0) {
+                    zeroRegisters++;
+                }
+                sum += 1.0 / (1L << register);
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            // Small range correction using linear counting
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    @Override
+    public void merge(MergeableSketch sketch) {
+        HyperLogLog other = (HyperLogLog) sketch;
+        if (other.registers != null) {
+            if (registers == null) {
+                toDense();
+            }
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (registers[i] < other.registers[i]) {
+                    registers[i] = other.registers[i];
+                    changed = true;
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                update(other.sparseEntries[i] >>> 8, other.sparseEntries[i] & 0xFF);
+            }
+        }
+    }
+
+    @Override
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog();
+        if (registers != null) {
+            copy.registers = registers.clone();
+            copy.sparseEntries = null;
+        } else {
+            copy.sparseEntries = sparseEntries.clone();
+            copy.sparseSize = sparseSize;
+        }
+        copy.cardinality = cardinality;
+        copy.changed = changed;
+        return copy;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+                changed = true;
+            }
+            return;
+        }
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparseEntries[i] >>> 8 == index) {
+                if ((sparseEntries[i] & 0xFF) < rank) {
+                    sparseEntries[i] = index << 8 | rank;
+                    changed = true;
+                }
+                return;
+            }
+        }
+        if (sparseSize == SPARSE_LIMIT) {
+            toDense();
+            registers[index] = (byte) rank;
+            changed = true;
+            return;
+        }
+        if (sparseSize == sparseEntries.length) {
+            sparseEntries = Arrays.copyOf(sparseEntries, sparseSize << 1);
+        }
+        sparseEntries[sparseSize++] = index << 8 | rank;
+        changed = true;
+    }
+
+    private void toDense() {
+        registers = new byte[REGISTER_COUNT];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparseEntries[i] >>> 8] = (byte) (sparseEntries[i] & 0xFF);
+        }
+        sparseEntries = null;
+        sparseSize = 0;
+    }
+
+    private static long hash(Object value) {
+        long hash;
+        if (value instanceof String) {
+            // 64 bit FNV-1a hash of the UTF-8 bytes
+            hash = 0xcbf29ce484222325L;
+            for (byte b : ((String) value).getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer) {
+            hash = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else {
+            hash = value.hashCode();
+        }
+        // Murmur3 finalizer to spread the bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
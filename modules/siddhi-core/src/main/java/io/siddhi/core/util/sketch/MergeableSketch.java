@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.sketch;
+
+import io.siddhi.core.util.snapshot.SnapshotCopyable;
+
+import java.io.Serializable;
+
+/**
+ * Fixed memory summary of a set of values, which can be merged with other summaries of the same type such that
+ * summaries of smaller durations can be rolled up into summaries of larger durations.
+ */
+public interface MergeableSketch extends SnapshotCopyable, Serializable {
+
+    /**
+     * Merge the values summarised by the given sketch into this sketch.
+     *
+     * @param sketch sketch of the same type
+     */
+    void merge(MergeableSketch sketch);
+
+    /**
+     * @return an independent copy of this sketch
+     */
+    MergeableSketch copy();
+
+    @Override
+    default Object copyForSnapshot() {
+        return copy();
+    }
+
+}
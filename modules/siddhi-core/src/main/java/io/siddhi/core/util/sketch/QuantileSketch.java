@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.sketch;
+
+/**
+ * Quantile sketch with relative error guarantees, which maps values into logarithmically sized buckets and keeps a
+ * count per bucket.
+ * <p>
+ * As the counts are exact per bucket, values can also be removed from the sketch, hence it supports sliding windows.
+ * The number of buckets per sign is bounded, and when exceeded the buckets of the values closest to zero are
+ * collapsed, losing accuracy only for those values.
+ */
+public class QuantileSketch implements MergeableSketch {
+
+    private static final long serialVersionUID = -5902743286154711208L;
+    private static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int MAX_BUCKETS = 2048;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final double minIndexableValue;
+    private final Store positiveStore = new Store();
+    private final Store negativeStore = new Store();
+    private long zeroCount = 0;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy relative error of the returned quantiles, between 0 and 1
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.minIndexableValue = Double.MIN_NORMAL * gamma;
+    }
+
+    public void add(double value) {
+        if (value > minIndexableValue) {
+            positiveStore.add(index(value), 1);
+        } else if (value < -minIndexableValue) {
+            negativeStore.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Remove a value previously added to the sketch.
+     *
+     * @param value value to be removed
+     */
+    public void remove(double value) {
+        if (value > minIndexableValue) {
+            positiveStore.remove(index(value));
+        } else if (value < -minIndexableValue) {
+            negativeStore.remove(index(-value));
+        } else if (zeroCount > 0) {
+            zeroCount--;
+        }
+    }
+
+    public long getCount() {
+        return zeroCount + positiveStore.total + negativeStore.total;
+    }
+
+    /**
+     * @param quantile quantile between 0 and 1
+     * @return the estimated value at the given quantile, or null if the sketch is empty
+     */
+    public Double getQuantile(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long cumulativeCount = 0;
+        Store store = negativeStore;
+        if (store.counts != null) {
+            for (int i = store.counts.length - 1; i >= 0; i--) {
+                cumulativeCount += store.counts[i];
+                if (cumulativeCount > rank) {
+                    return -value(store.offset + i);
+                }
+            }
+        }
+        cumulativeCount += zeroCount;
+        if (cumulativeCount > rank) {
+            return 0.0;
+        }
+        store = positiveStore;
+        if (store.counts != null) {
+            for (int i = 0; i < store.counts.length; i++) {
+                cumulativeCount += store.counts[i];
+                if (cumulativeCount > rank) {
+                    return value(store.offset + i);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void merge(MergeableSketch sketch) {
+        QuantileSketch other = (QuantileSketch) sketch;
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge quantile sketches of relative accuracy " +
+                    relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positiveStore.merge(other.positiveStore);
+        negativeStore.merge(other.negativeStore);
+        zeroCount += other.zeroCount;
+    }
+
+    @Override
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.merge(this);
+        return copy;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Bucket counts of a range of bucket indexes.
+     */
+    private static class Store implements java.io.Serializable {
+
+        private static final long serialVersionUID = 4408279862306745160L;
+        private static final int INITIAL_BUCKETS = 8;
+
+        private long[] counts = null;
+        private int offset;
+        private long total = 0;
+
+        void add(int index, long count) {
+            int position = normalize(index) - offset;
+            counts[position] += count;
+            total += count;
+        }
+
+        void remove(int index) {
+            if (counts == null || index >= offset + counts.length) {
+                return;
+            }
+            int position = Math.max(index, offset) - offset;
+            if (counts[position] > 0) {
+                counts[position]--;
+                total--;
+            }
+        }
+
+        void merge(Store other) {
+            if (other.counts == null) {
+                return;
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] > 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        /**
+         * Make sure the store covers the given index, growing or collapsing the buckets when needed.
+         *
+         * @param index bucket index
+         * @return the index of the bucket to be used
+         */
+        private int normalize(int index) {
+            if (counts == null) {
+                counts = new long[INITIAL_BUCKETS];
+                offset = index;
+                return index;
+            }
+            int maxIndex = offset + counts.length - 1;
+            if (index >= offset && index <= maxIndex) {
+                return index;
+            }
+            int newMinIndex = Math.min(index, offset);
+            int newMaxIndex = Math.max(index, maxIndex);
+            if (newMaxIndex - newMinIndex + 1 > MAX_BUCKETS) {
+                // Collapse the buckets of the lowest indexes
+                newMinIndex = newMaxIndex - MAX_BUCKETS + 1;
+            }
+            int length = Math.min(MAX_BUCKETS, Math.max(counts.length << 1, newMaxIndex - newMinIndex + 1));
+            int newOffset = index < offset ? newMaxIndex - length + 1 : newMinIndex;
+            long[] newCounts = new long[length];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    newCounts[Math.max(offset + i, newOffset) - newOffset] += counts[i];
+                }
+            }
+            counts = newCounts;
+            offset = newOffset;
+            return Math.max(index, offset);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot;
+
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * {@link Runnable} which is responsible for merging the persisted increments into new bases, once the snapshots of
+ * the revision are persisted
+ */
+public class AsyncIncrementalSnapshotCompactor implements Runnable {
+    private static final Logger log = Logger.getLogger(AsyncIncrementalSnapshotCompactor.class);
+    private List<Future> persistenceFutures;
+    private SnapshotService snapshotService;
+    private long revisionTime;
+
+    public AsyncIncrementalSnapshotCompactor(List<Future> persistenceFutures, SnapshotService snapshotService,
+                                             long revisionTime) {
+        this.persistenceFutures = persistenceFutures;
+        this.snapshotService = snapshotService;
+        this.revisionTime = revisionTime;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (Future future : persistenceFutures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Skipping compaction of increments as persistence of revision at " + revisionTime +
+                        " failed.", e);
+            }
+            return;
+        }
+        snapshotService.compactIncrementalRevisions(revisionTime);
+    }
+}
@@ -18,17 +18,23 @@
 
 package io.siddhi.core.util.snapshot;
 
+import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.exception.NoPersistenceStoreException;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import org.apache.log4j.Logger;
 
+import java.util.Map;
+
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
     private byte[] snapshots;
+    private Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot;
+    private SiddhiAppContext siddhiAppContext;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
@@ -47,6 +53,23 @@ public class AsyncSnapshotPersistor implements Runnable {
         this.revision = time + PersistenceConstants.REVISION_SEPARATOR + siddhiAppName;
     }
 
+    /**
+     * Create a persistor that streams the given captured snapshot to the {@link StreamingPersistenceStore} without
+     * serializing it to a byte array first.
+     *
+     * @param fullSnapshot     snapshot captured by {@link SnapshotService#captureFullSnapshot()}
+     * @param persistenceStore store to persist the snapshot
+     * @param siddhiAppContext context of the Siddhi App
+     * @param time             time of the revision
+     */
+    public AsyncSnapshotPersistor(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+                                  StreamingPersistenceStore persistenceStore, SiddhiAppContext siddhiAppContext,
+                                  long time) {
+        this(null, persistenceStore, siddhiAppContext.getName(), time);
+        this.fullSnapshot = fullSnapshot;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
     public String getRevision() {
         return revision;
     }
@@ -57,7 +80,12 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            if (fullSnapshot != null) {
+                ((StreamingPersistenceStore) persistenceStore).save(siddhiAppName, revision, outputStream ->
+                        siddhiAppContext.getSnapshotService().serializeFullSnapshot(fullSnapshot, outputStream));
+            } else {
+                persistenceStore.save(siddhiAppName, revision, snapshots);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -19,20 +19,23 @@
 package io.siddhi.core.util.snapshot;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiContext;
 import io.siddhi.core.util.ExceptionUtil;
+import io.siddhi.core.util.snapshot.codec.BinarySnapshotCodec;
+import io.siddhi.core.util.snapshot.codec.SnapshotCodec;
 import org.apache.log4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
- * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa
+ * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa, using the
+ * {@link SnapshotCodec} registered in the {@link SiddhiContext}
  */
 public class ByteSerializer {
     private static final Logger log = Logger.getLogger(ByteSerializer.class);
+    private static final SnapshotCodec DEFAULT_CODEC = new BinarySnapshotCodec();
 
     private ByteSerializer() {
     }
@@ -42,10 +45,7 @@ public class ByteSerializer {
         byte[] out = null;
         if (obj != null) {
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos);
-                oos.writeObject(obj);
-                out = baos.toByteArray();
+                out = getSnapshotCodec(siddhiAppContext).encode(obj);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing byte array.", e);
@@ -64,9 +64,7 @@ public class ByteSerializer {
         Object out = null;
         if (bytes != null) {
             try {
-                ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bios);
-                out = ois.readObject();
+                out = getSnapshotCodec(siddhiAppContext).decode(bytes);
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing to object.", e);
@@ -83,4 +81,45 @@ public class ByteSerializer {
         }
         return out;
     }
+
+    public static void objectToStream(Object obj, OutputStream outputStream, SiddhiAppContext siddhiAppContext)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        getSnapshotCodec(siddhiAppContext).encode(obj, outputStream);
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("For SiddhiApp '" + siddhiAppContext.getName() + "'. Encoded to stream in :" + (end - start) +
+                    " msec");
+        }
+    }
+
+    public static Object streamToObject(InputStream inputStream, SiddhiAppContext siddhiAppContext) {
+        long start = System.currentTimeMillis();
+        Object out;
+        try {
+            out = getSnapshotCodec(siddhiAppContext).decode(inputStream);
+        } catch (IOException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when reading object from stream.", e);
+            return null;
+        } catch (ClassNotFoundException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when reading object from stream.", e);
+            return null;
+        }
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("SiddhiApp '" + siddhiAppContext.getName() + "' decoded from stream in: " + (end - start) +
+                    " milliseconds");
+        }
+        return out;
+    }
+
+    static SnapshotCodec getSnapshotCodec(SiddhiAppContext siddhiAppContext) {
+        SiddhiContext siddhiContext = siddhiAppContext.getSiddhiContext();
+        if (siddhiContext == null || siddhiContext.getSnapshotCodec() == null) {
+            return DEFAULT_CODEC;
+        }
+        return siddhiContext.getSnapshotCodec();
+    }
 }
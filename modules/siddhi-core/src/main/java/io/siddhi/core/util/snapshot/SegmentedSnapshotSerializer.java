@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.util.snapshot.codec.SnapshotCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Serializes full snapshots as independent segments, one per query of each partition, so that segments can be
+ * encoded, verified and decoded in parallel.
+ * <p>
+ * Format : MAGIC, VERSION, ( SEGMENT, partitionId, queryName, length, checksum, bytes )*, MANIFEST, segment count,
+ * ( partitionId, queryName, length, checksum )*
+ * <p>
+ * Each segment holds the PartitionGroupByKey + ElementId + Item states of a query, encoded with the
+ * {@link SnapshotCodec} of the Siddhi App and protected by a CRC32 checksum. The trailing manifest lists all the
+ * segments, hence a truncated snapshot is detected on restore.
+ * <p>
+ * Segments are encoded and decoded on the executor of the Siddhi App, with at most {@link #PARALLELISM} segments in
+ * flight at a time.
+ */
+public final class SegmentedSnapshotSerializer {
+
+    static final int MAGIC = 0x53495347;
+    static final byte VERSION = 1;
+    private static final byte MANIFEST = 0;
+    private static final byte SEGMENT = 1;
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int READ_CHUNK_SIZE = 1 << 16;
+
+    private SegmentedSnapshotSerializer() {
+    }
+
+    /**
+     * Check whether the given bytes are a segmented snapshot.
+     *
+     * @param snapshot serialized snapshot
+     * @return true if the snapshot is segmented
+     */
+    public static boolean isSegmented(byte[] snapshot) {
+        return snapshot != null && snapshot.length > 4 && readMagic(snapshot) == MAGIC;
+    }
+
+    /**
+     * Check whether the given stream contains a segmented snapshot, without consuming it.
+     *
+     * @param snapshot stream supporting mark and reset
+     * @return true if the snapshot is segmented
+     * @throws IOException when the stream cannot be read
+     */
+    public static boolean isSegmented(InputStream snapshot) throws IOException {
+        snapshot.mark(4);
+        try {
+            byte[] header = new byte[4];
+            int read = 0;
+            while (read < header.length) {
+                int count = snapshot.read(header, read, header.length - read);
+                if (count < 0) {
+                    return false;
+                }
+                read += count;
+            }
+            return readMagic(header) == MAGIC;
+        } finally {
+            snapshot.reset();
+        }
+    }
+
+    /**
+     * Regroup a full snapshot by partition and query.
+     *
+     * @param fullSnapshot PartitionId + PartitionGroupByKey + QueryName + ElementId + Item
+     * @return PartitionId + QueryName + PartitionGroupByKey + ElementId + Item
+     */
+    public static Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> groupByQuery(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot) {
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> querySnapshots = new HashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionIdSnapshot :
+                fullSnapshot.entrySet()) {
+            Map<String, Map<String, Map<String, Map<String, Object>>>> partitionQuerySnapshots =
+                    querySnapshots.computeIfAbsent(partitionIdSnapshot.getKey(), k -> new HashMap<>());
+            for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> partitionGroupByKeySnapshot :
+                    partitionIdSnapshot.getValue().entrySet()) {
+                for (Map.Entry<String, Map<String, Map<String, Object>>> querySnapshot :
+                        partitionGroupByKeySnapshot.getValue().entrySet()) {
+                    partitionQuerySnapshots.computeIfAbsent(querySnapshot.getKey(), k -> new HashMap<>())
+                            .put(partitionGroupByKeySnapshot.getKey(), querySnapshot.getValue());
+                }
+            }
+        }
+        return querySnapshots;
+    }
+
+    /**
+     * Encode the segments of the full snapshot in parallel and write them to the stream as they complete, keeping at
+     * most {@link #PARALLELISM} encoded segments in memory.
+     *
+     * @param fullSnapshot     PartitionId + PartitionGroupByKey + QueryName + ElementId + Item
+     * @param outputStream     stream to write the snapshot
+     * @param siddhiAppContext context of the Siddhi App
+     * @throws IOException when a segment cannot be encoded or written
+     */
+    public static void write(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+                             OutputStream outputStream, SiddhiAppContext siddhiAppContext) throws IOException {
+        SnapshotCodec snapshotCodec = ByteSerializer.getSnapshotCodec(siddhiAppContext);
+        List<Callable<Segment>> encodeTasks = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionQuerySnapshots :
+                groupByQuery(fullSnapshot).entrySet()) {
+            for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> querySnapshot :
+                    partitionQuerySnapshots.getValue().entrySet()) {
+                encodeTasks.add(() -> {
+                    byte[] bytes = snapshotCodec.encode(querySnapshot.getValue());
+                    return new Segment(partitionQuerySnapshots.getKey(), querySnapshot.getKey(), bytes,
+                            checksum(bytes));
+                });
+            }
+        }
+        CompletionService<Segment> completionService =
+                new ExecutorCompletionService<>(siddhiAppContext.getExecutorService());
+        List<Future<Segment>> futures = new ArrayList<>();
+        Iterator<Callable<Segment>> encodeTaskIterator = encodeTasks.iterator();
+        while (futures.size() < PARALLELISM && encodeTaskIterator.hasNext()) {
+            futures.add(completionService.submit(encodeTaskIterator.next()));
+        }
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeByte(VERSION);
+        List<Segment> segments = new ArrayList<>(encodeTasks.size());
+        try {
+            for (int i = 0; i < encodeTasks.size(); i++) {
+                Segment segment = take(completionService, "encoding");
+                if (encodeTaskIterator.hasNext()) {
+                    futures.add(completionService.submit(encodeTaskIterator.next()));
+                }
+                dataOutputStream.writeByte(SEGMENT);
+                segment.writeHeader(dataOutputStream);
+                dataOutputStream.write(segment.bytes);
+                segment.bytes = null;
+                segments.add(segment);
+            }
+        } finally {
+            for (Future<Segment> future : futures) {
+                future.cancel(false);
+            }
+        }
+        dataOutputStream.writeByte(MANIFEST);
+        dataOutputStream.writeInt(segments.size());
+        for (Segment segment : segments) {
+            segment.writeHeader(dataOutputStream);
+        }
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Read the segments of a snapshot, verifying and decoding them in parallel.
+     *
+     * @param inputStream      stream of a segmented snapshot
+     * @param siddhiAppContext context of the Siddhi App
+     * @return PartitionId + QueryName + PartitionGroupByKey + ElementId + Item
+     * @throws IOException when the snapshot is not a valid segmented snapshot or a segment is corrupted
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> read(
+            InputStream inputStream, SiddhiAppContext siddhiAppContext) throws IOException {
+        SnapshotCodec snapshotCodec = ByteSerializer.getSnapshotCodec(siddhiAppContext);
+        DataInputStream dataInputStream = new DataInputStream(inputStream instanceof BufferedInputStream ?
+                inputStream : new BufferedInputStream(inputStream));
+        if (dataInputStream.readInt() != MAGIC) {
+            throw new IOException("Snapshot is not a segmented snapshot");
+        }
+        byte version = dataInputStream.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported segmented snapshot version " + version);
+        }
+        ExecutorService executorService = siddhiAppContext.getExecutorService();
+        List<Segment> segments = new ArrayList<>();
+        List<Future<Map<String, Map<String, Map<String, Object>>>>> futures = new ArrayList<>();
+        try {
+            byte marker;
+            while ((marker = dataInputStream.readByte()) == SEGMENT) {
+                Segment segment = Segment.readHeader(dataInputStream);
+                byte[] bytes = readSegment(dataInputStream, segment);
+                if (futures.size() >= PARALLELISM) {
+                    // Wait for the earlier segments to limit the number of segments decoded at a time
+                    get(futures.get(futures.size() - PARALLELISM), "decoding");
+                }
+                segments.add(segment);
+                futures.add(executorService.submit(() -> {
+                    if (checksum(bytes) != segment.checksum) {
+                        throw new IOException("Checksum mismatch in snapshot segment of partition '" +
+                                segment.partitionId + "' and query '" + segment.queryName + "'");
+                    }
+                    return (Map<String, Map<String, Map<String, Object>>>) snapshotCodec.decode(bytes);
+                }));
+            }
+            if (marker != MANIFEST) {
+                throw new IOException("Invalid segment marker " + marker + " in snapshot");
+            }
+            int segmentCount = dataInputStream.readInt();
+            if (segmentCount != segments.size()) {
+                throw new IOException("Snapshot manifest lists " + segmentCount + " segments, but " +
+                        segments.size() + " segments found");
+            }
+            for (Segment segment : segments) {
+                Segment manifestEntry = Segment.readHeader(dataInputStream);
+                if (!segment.matches(manifestEntry)) {
+                    throw new IOException("Snapshot segment of partition '" + segment.partitionId + "' and query '" +
+                            segment.queryName + "' does not match the manifest");
+                }
+            }
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> querySnapshots =
+                    new HashMap<>();
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                querySnapshots.computeIfAbsent(segment.partitionId, k -> new HashMap<>())
+                        .put(segment.queryName, get(futures.get(i), "decoding"));
+            }
+            return querySnapshots;
+        } finally {
+            for (Future<Map<String, Map<String, Map<String, Object>>>> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Read the bytes of the segment, growing the buffer as the bytes arrive so that a corrupted length fails with an
+     * {@link IOException} at the end of the stream instead of allocating the claimed length upfront.
+     *
+     * @param dataInputStream stream positioned at the bytes of the segment
+     * @param segment         header of the segment
+     * @return bytes of the segment
+     * @throws IOException when the length is invalid or the stream ends before the segment
+     */
+    private static byte[] readSegment(DataInputStream dataInputStream, Segment segment) throws IOException {
+        if (segment.length < 0) {
+            throw new IOException("Invalid length " + segment.length + " in snapshot segment of partition '" +
+                    segment.partitionId + "' and query '" + segment.queryName + "'");
+        }
+        byte[] bytes = new byte[Math.min(segment.length, READ_CHUNK_SIZE)];
+        int read = 0;
+        while (read < segment.length) {
+            if (read == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(segment.length, 2L * bytes.length));
+            }
+            int count = dataInputStream.read(bytes, read, bytes.length - read);
+            if (count < 0) {
+                throw new IOException("Snapshot segment of partition '" + segment.partitionId + "' and query '" +
+                        segment.queryName + "' is truncated at " + read + " of " + segment.length + " bytes");
+            }
+            read += count;
+        }
+        return bytes;
+    }
+
+    private static int readMagic(byte[] header) {
+        return (header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | (header[3] & 0xFF);
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length);
+        return crc32.getValue();
+    }
+
+    private static Segment take(CompletionService<Segment> completionService, String operation)
+            throws IOException {
+        try {
+            return get(completionService.take(), operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while " + operation + " snapshot segments", e);
+        }
+    }
+
+    private static <T> T get(Future<T> future, String operation) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while " + operation + " snapshot segments", e);
+        } catch (ExecutionException e) {
+            // executor wraps the checked exceptions of submitted tasks
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw new IOException("Error when " + operation + " snapshot segment", e.getCause());
+        }
+    }
+
+    /**
+     * Serialized states of a query within a partition
+     */
+    private static class Segment {
+        private final String partitionId;
+        private final String queryName;
+        private final int length;
+        private final long checksum;
+        private byte[] bytes;
+
+        private Segment(String partitionId, String queryName, byte[] bytes, long checksum) {
+            this(partitionId, queryName, bytes.length, checksum);
+            this.bytes = bytes;
+        }
+
+        private Segment(String partitionId, String queryName, int length, long checksum) {
+            this.partitionId = partitionId;
+            this.queryName = queryName;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+        private static Segment readHeader(DataInputStream dataInputStream) throws IOException {
+            return new Segment(dataInputStream.readUTF(), dataInputStream.readUTF(), dataInputStream.readInt(),
+                    dataInputStream.readLong());
+        }
+
+        private void writeHeader(DataOutputStream dataOutputStream) throws IOException {
+            dataOutputStream.writeUTF(partitionId);
+            dataOutputStream.writeUTF(queryName);
+            dataOutputStream.writeInt(length);
+            dataOutputStream.writeLong(checksum);
+        }
+
+        private boolean matches(Segment segment) {
+            return partitionId.equals(segment.partitionId) && queryName.equals(segment.queryName) &&
+                    length == segment.length && checksum == segment.checksum;
+        }
+    }
+}
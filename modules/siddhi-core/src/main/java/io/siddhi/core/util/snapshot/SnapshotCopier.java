@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot;
+
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.query.selector.GroupByKey;
+import io.siddhi.core.util.snapshot.codec.JavaSnapshotCodec;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Detaches the state returned by {@link io.siddhi.core.util.snapshot.state.State#snapshot()} from the live
+ * processing elements, so that {@link SnapshotService} only has to hold the {@link io.siddhi.core.util.ThreadBarrier}
+ * while the copy is taken and can serialize it after events start flowing again.
+ * <p>
+ * Event chains, arrays and collections are copied, while immutable values such as strings and boxed primitives are
+ * shared. Attribute values of events are expected to be immutable, as they are shared by cloned events as well.
+ * Holders of larger states copy themselves through {@link SnapshotCopyable}, and detached {@link Snapshot}s are not
+ * copied at all. Any other object is copied through Java serialization, and the capture fails if it cannot be
+ * copied, as the snapshot would otherwise be serialized while the object is being modified.
+ */
+public final class SnapshotCopier {
+    private static final JavaSnapshotCodec JAVA_SNAPSHOT_CODEC = new JavaSnapshotCodec();
+
+    private SnapshotCopier() {
+    }
+
+    public static Object copy(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        if (value instanceof SnapshotCopyable) {
+            return ((SnapshotCopyable) value).copyForSnapshot();
+        }
+        Class<?> type = value.getClass();
+        if (type == StreamEvent.class) {
+            return copyStreamEventChain((StreamEvent) value);
+        } else if (type == StateEvent.class) {
+            return copyStateEventChain((StateEvent) value);
+        } else if (type == Object[].class) {
+            return copyArray((Object[]) value);
+        } else if (type.isArray()) {
+            return copyTypedArray(value, type.getComponentType());
+        } else if (type == HashMap.class) {
+            return copyMap((Map<?, ?>) value, new HashMap<>());
+        } else if (type == LinkedHashMap.class) {
+            return copyMap((Map<?, ?>) value, new LinkedHashMap<>());
+        } else if (type == TreeMap.class) {
+            return copyMap((Map<?, ?>) value, new TreeMap<>(((TreeMap<Object, ?>) value).comparator()));
+        } else if (type == ArrayList.class) {
+            return copyList((List<?>) value, new ArrayList<>(((List<?>) value).size()));
+        } else if (type == LinkedList.class) {
+            return copyList((List<?>) value, new LinkedList<>());
+        } else if (type == HashSet.class) {
+            return copyCollection((Collection<?>) value, new HashSet<>());
+        } else if (type == LinkedBlockingQueue.class) {
+            return copyCollection((Collection<?>) value, new LinkedBlockingQueue<>());
+        } else if (type == Snapshot.class) {
+            Snapshot snapshot = (Snapshot) value;
+            if (snapshot.isDetached()) {
+                return snapshot;
+            }
+            return new Snapshot(copy(snapshot.getState()), snapshot.isIncrementalSnapshot());
+        } else if (type == SnapshotStateList.class) {
+            TreeMap<Long, Snapshot> snapshotStates = new TreeMap<>();
+            for (Map.Entry<Long, Snapshot> entry : ((SnapshotStateList) value).getSnapshotStates().entrySet()) {
+                snapshotStates.put(entry.getKey(), (Snapshot) copy(entry.getValue()));
+            }
+            return new SnapshotStateList(snapshotStates);
+        } else if (type == Operation.class) {
+            Operation operation = (Operation) value;
+            return new Operation(operation.operation, copy(operation.parameters));
+        }
+        try {
+            return JAVA_SNAPSHOT_CODEC.decode(JAVA_SNAPSHOT_CODEC.encode(value));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SiddhiAppRuntimeException("Cannot copy state of type '" + type.getName() + "' for the " +
+                    "snapshot, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy a single event without its next events.
+     *
+     * @param event event to be copied
+     * @return copy of the event
+     */
+    public static StreamEvent copyStreamEvent(StreamEvent event) {
+        StreamEvent copy = new StreamEvent(0, 0, 0);
+        copy.setBeforeWindowData(cloneAttributes(event.getBeforeWindowData()));
+        copy.setOnAfterWindowData(cloneAttributes(event.getOnAfterWindowData()));
+        copy.setOutputData(cloneAttributes(event.getOutputData()));
+        copy.setTimestamp(event.getTimestamp());
+        copy.setType(event.getType());
+        return copy;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Long ||
+                value instanceof Double || value instanceof Float || value instanceof Boolean ||
+                value instanceof Short || value instanceof Byte || value instanceof Character ||
+                value instanceof Enum || value instanceof BigDecimal || value instanceof BigInteger ||
+                value instanceof GroupByKey;
+    }
+
+    private static StreamEvent copyStreamEventChain(StreamEvent streamEvent) {
+        StreamEvent first = null;
+        StreamEvent last = null;
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            StreamEvent copy = copyStreamEvent(event);
+            if (first == null) {
+                first = copy;
+            } else {
+                last.setNext(copy);
+            }
+            last = copy;
+        }
+        return first;
+    }
+
+    private static StateEvent copyStateEventChain(StateEvent stateEvent) {
+        StateEvent first = null;
+        StateEvent last = null;
+        for (StateEvent event = stateEvent; event != null; event = event.getNext()) {
+            StreamEvent[] streamEvents = event.getStreamEvents();
+            Object[] outputData = event.getOutputData();
+            StateEvent copy = new StateEvent(streamEvents.length, outputData == null ? 0 : outputData.length);
+            for (int i = 0; i < streamEvents.length; i++) {
+                if (streamEvents[i] != null) {
+                    copy.setEvent(i, copyStreamEventChain(streamEvents[i]));
+                }
+            }
+            if (outputData != null) {
+                for (int i = 0; i < outputData.length; i++) {
+                    copy.setOutputData(outputData[i], i);
+                }
+            }
+            copy.setId(event.getId());
+            copy.setTimestamp(event.getTimestamp());
+            copy.setType(event.getType());
+            if (first == null) {
+                first = copy;
+            } else {
+                last.setNext(copy);
+            }
+            last = copy;
+        }
+        return first;
+    }
+
+    private static Object[] cloneAttributes(Object[] attributes) {
+        return attributes == null ? null : attributes.clone();
+    }
+
+    private static Object[] copyArray(Object[] array) {
+        Object[] copy = new Object[array.length];
+        for (int i = 0; i < array.length; i++) {
+            copy[i] = copy(array[i]);
+        }
+        return copy;
+    }
+
+    private static Object copyTypedArray(Object array, Class<?> componentType) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(componentType, length);
+        if (componentType.isPrimitive()) {
+            System.arraycopy(array, 0, copy, 0, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                Array.set(copy, i, copy(Array.get(array, i)));
+            }
+        }
+        return copy;
+    }
+
+    private static Map<Object, Object> copyMap(Map<?, ?> map, Map<Object, Object> copy) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(copy(entry.getKey()), copy(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static List<Object> copyList(List<?> list, List<Object> copy) {
+        for (Object item : list) {
+            copy.add(copy(item));
+        }
+        return copy;
+    }
+
+    private static Collection<Object> copyCollection(Collection<?> collection, Collection<Object> copy) {
+        for (Object item : collection) {
+            copy.add(copy(item));
+        }
+        return copy;
+    }
+}
@@ -18,30 +18,50 @@
 package io.siddhi.core.util.snapshot;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
 import io.siddhi.core.exception.CannotClearSiddhiAppStateException;
 import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import io.siddhi.core.exception.NoPersistenceStoreException;
 import io.siddhi.core.exception.PersistenceStoreException;
 import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.ExceptionUtil;
+import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
+import io.siddhi.core.util.snapshot.state.SingleStateHolder;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -51,9 +71,13 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SnapshotService {
     private static final Logger log = Logger.getLogger(SnapshotService.class);
     private static final ThreadLocal<Boolean> skipStateStorageThreadLocal = new ThreadLocal<Boolean>();
+    private static final String SHARED_WINDOW_LAYOUT = "SharedWindowLayout";
     private final ThreadBarrier threadBarrier;
+    private final ReentrantLock incrementalRevisionLock = new ReentrantLock();
+    private final Set<String> nonMergeableIds = new HashSet<>();
     private ConcurrentHashMap<String, PartitionIdStateHolder> partitionIdStates;
     private SiddhiAppContext siddhiAppContext;
+    private String sharedWindowLayout;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
         this.siddhiAppContext = siddhiAppContext;
@@ -87,11 +111,36 @@ public class SnapshotService {
         return null;
     }
 
+    /**
+     * Record the windows shared across the queries of the Siddhi App. The events of a shared window are kept in the
+     * state of the window instead of the states of its queries, hence the layout is persisted with the snapshots, and
+     * snapshots are only restored onto Siddhi Apps sharing the same windows.
+     *
+     * @param sharedWindowLayout description of the shared windows and the queries consuming them
+     */
+    public void setSharedWindowLayout(String sharedWindowLayout) {
+        this.sharedWindowLayout = sharedWindowLayout;
+        Map<String, StateHolder> stateHolderMap = getStateHolderMap(SiddhiConstants.PARTITION_ID_DEFAULT,
+                SHARED_WINDOW_LAYOUT);
+        if (stateHolderMap != null) {
+            stateHolderMap.put(SHARED_WINDOW_LAYOUT, new SingleStateHolder(SharedWindowLayoutState::new));
+        }
+    }
+
     public byte[] fullSnapshot() {
+        return serializeFullSnapshot(captureFullSnapshot());
+    }
+
+    /**
+     * Capture a consistent copy of the state of all processing elements. Processing is blocked only while the
+     * states are copied, the returned copy can be serialized via {@link #serializeFullSnapshot(Map)} after that.
+     *
+     * @return copy of the full state
+     */
+    public Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> captureFullSnapshot() {
         try {
             SnapshotRequest.requestForFullSnapshot(true);
             Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
-            byte[] serializedFullState = null;
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
@@ -103,11 +152,11 @@ public class SnapshotService {
                             partitionIdState.getValue().queryStateHolderMap.entrySet()) {
                         for (Map.Entry<String, StateHolder> elementState :
                                 queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                            Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                             try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                         partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
+                                    for (Map.Entry<Object, State> groupByKeyState :
                                             partitionKeyState.getValue().entrySet()) {
                                         String partitionAndGroupByKey = partitionKeyState.getKey() + "--" +
                                                 groupByKeyState.getKey();
@@ -128,10 +177,12 @@ public class SnapshotService {
                                                                 + "' groupByKey:'" + groupByKeyState.getKey()
                                                                 + "' and itemKey:'" + itemState.getKey() + "'");
                                                     } else {
-                                                        itemSnapshots.put(itemState.getKey(), itemState.getValue());
+                                                        itemSnapshots.put(itemState.getKey(),
+                                                                SnapshotCopier.copy(itemState.getValue()));
                                                     }
                                                 } else {
-                                                    itemSnapshots.put(itemState.getKey(), itemState.getValue());
+                                                    itemSnapshots.put(itemState.getKey(),
+                                                            SnapshotCopier.copy(itemState.getValue()));
                                                 }
                                             }
                                             Map<String, Map<String, Map<String, Map<String, Object>>>>
@@ -167,31 +218,75 @@ public class SnapshotService {
                         }
                     }
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("Snapshot serialization started ...");
-                }
-                serializedFullState = ByteSerializer.objectToByte(fullSnapshot, siddhiAppContext);
-                if (log.isDebugEnabled()) {
-                    log.debug("Snapshot serialization finished.");
-                }
             } finally {
                 threadBarrier.unlock();
             }
             if (log.isDebugEnabled()) {
                 log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
-            return serializedFullState;
+            return fullSnapshot;
         } finally {
             SnapshotRequest.requestForFullSnapshot(false);
         }
     }
 
+    public byte[] serializeFullSnapshot(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot) {
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            SegmentedSnapshotSerializer.write(fullSnapshot, outputStream, siddhiAppContext);
+        } catch (IOException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when serializing snapshot.", e);
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Serialize a snapshot captured via {@link #captureFullSnapshot()} to the given stream, encoding the states of
+     * each query in parallel.
+     *
+     * @param fullSnapshot captured snapshot
+     * @param outputStream stream to write the snapshot
+     * @throws IOException when the snapshot cannot be serialized or written
+     */
+    public void serializeFullSnapshot(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+            OutputStream outputStream) throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        SegmentedSnapshotSerializer.write(fullSnapshot, outputStream, siddhiAppContext);
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+    }
+
     public IncrementalSnapshot incrementalSnapshot() {
+        return serializeIncrementalSnapshot(captureIncrementalSnapshot());
+    }
+
+    /**
+     * Capture a consistent copy of the incremental, incremental base and periodic states of all processing
+     * elements. Processing is blocked only while the states are copied, the returned copy can be serialized via
+     * {@link #serializeIncrementalSnapshot(Map)} after that.
+     *
+     * @return copy of the states by their snapshot type, partition id and element id
+     */
+    public Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>>
+    captureIncrementalSnapshot() {
         try {
             SnapshotRequest.requestForFullSnapshot(false);
-            Map<String, Map<String, byte[]>> incrementalSnapshotMap = new HashMap<>();
-            Map<String, Map<String, byte[]>> incrementalBaseSnapshotMap = new HashMap<>();
-            Map<String, Map<String, byte[]>> periodicSnapshotMap = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> incrementalSnapshotMap = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> incrementalBaseSnapshotMap = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> periodicSnapshotMap = new HashMap<>();
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
@@ -203,11 +298,11 @@ public class SnapshotService {
                             partitionIdState.getValue().queryStateHolderMap.entrySet()) {
                         for (Map.Entry<String, StateHolder> elementState :
                                 queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                            Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                             try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                         partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
+                                    for (Map.Entry<Object, State> groupByKeyState :
                                             partitionKeyState.getValue().entrySet()) {
                                         State state = groupByKeyState.getValue();
                                         Map<String, Object> itemStates = state.snapshot();
@@ -259,38 +354,75 @@ public class SnapshotService {
             if (log.isDebugEnabled()) {
                 log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
-            IncrementalSnapshot snapshot = new IncrementalSnapshot();
-            if (!incrementalSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalState(incrementalSnapshotMap);
-            }
-            if (!incrementalBaseSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
-            }
-            if (!periodicSnapshotMap.isEmpty()) {
-                snapshot.setPeriodicState(periodicSnapshotMap);
-            }
+            Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>> snapshot =
+                    new HashMap<>();
+            snapshot.put(IncrementalSnapshotInfo.SnapshotType.INCREMENT, incrementalSnapshotMap);
+            snapshot.put(IncrementalSnapshotInfo.SnapshotType.BASE, incrementalBaseSnapshotMap);
+            snapshot.put(IncrementalSnapshotInfo.SnapshotType.PERIODIC, periodicSnapshotMap);
             return snapshot;
         } finally {
             SnapshotRequest.requestForFullSnapshot(false);
         }
     }
 
-    private void addToSnapshotIncrements(Map<String, Map<String, byte[]>> incrementalSnapshotMap,
+    public IncrementalSnapshot serializeIncrementalSnapshot(
+            Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>> snapshot) {
+        IncrementalSnapshot incrementalSnapshot = new IncrementalSnapshot();
+        Map<String, Map<String, byte[]>> incrementalSnapshotMap =
+                serializeSnapshotIncrements(snapshot.get(IncrementalSnapshotInfo.SnapshotType.INCREMENT));
+        if (!incrementalSnapshotMap.isEmpty()) {
+            incrementalSnapshot.setIncrementalState(incrementalSnapshotMap);
+        }
+        Map<String, Map<String, byte[]>> incrementalBaseSnapshotMap =
+                serializeSnapshotIncrements(snapshot.get(IncrementalSnapshotInfo.SnapshotType.BASE));
+        if (!incrementalBaseSnapshotMap.isEmpty()) {
+            incrementalSnapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
+        }
+        Map<String, Map<String, byte[]>> periodicSnapshotMap =
+                serializeSnapshotIncrements(snapshot.get(IncrementalSnapshotInfo.SnapshotType.PERIODIC));
+        if (!periodicSnapshotMap.isEmpty()) {
+            incrementalSnapshot.setPeriodicState(periodicSnapshotMap);
+        }
+        return incrementalSnapshot;
+    }
+
+    private Map<String, Map<String, byte[]>> serializeSnapshotIncrements(
+            Map<String, Map<String, Map<String, Object>>> snapshotIncrements) {
+        Map<String, Map<String, byte[]>> serializedSnapshotIncrements = new HashMap<>();
+        if (snapshotIncrements != null) {
+            for (Map.Entry<String, Map<String, Map<String, Object>>> partitionIdSnapshot :
+                    snapshotIncrements.entrySet()) {
+                Map<String, byte[]> serializedPartitionIdSnapshot = new HashMap<>();
+                for (Map.Entry<String, Map<String, Object>> itemSnapshots :
+                        partitionIdSnapshot.getValue().entrySet()) {
+                    serializedPartitionIdSnapshot.put(itemSnapshots.getKey(),
+                            ByteSerializer.objectToByte(itemSnapshots.getValue(), siddhiAppContext));
+                }
+                serializedSnapshotIncrements.put(partitionIdSnapshot.getKey(), serializedPartitionIdSnapshot);
+            }
+        }
+        return serializedSnapshotIncrements;
+    }
+
+    private void addToSnapshotIncrements(Map<String, Map<String, Map<String, Object>>> incrementalSnapshotMap,
                                          Map.Entry<String, PartitionIdStateHolder> partitionIdState,
                                          Map.Entry<String, ElementStateHolder> queryState,
                                          Map.Entry<String, StateHolder> elementState,
-                                         Map.Entry<String, Map<String, State>> partitionKeyState,
-                                         Map.Entry<String, State> groupByKeyState,
+                                         Map.Entry<String, Map<Object, State>> partitionKeyState,
+                                         Map.Entry<Object, State> groupByKeyState,
                                          Map<String, Object> itemSnapshotsIncremental) {
         String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() +
                 PersistenceConstants.REVISION_SEPARATOR + queryState.getKey() +
                 PersistenceConstants.REVISION_SEPARATOR + elementState.getKey();
-        Map<String, byte[]> partitionIdSnapshot =
+        Map<String, Map<String, Object>> partitionIdSnapshot =
                 incrementalSnapshotMap.computeIfAbsent(
                         partitionIdState.getKey(),
                         k -> new HashMap<>());
-        partitionIdSnapshot.put(id, ByteSerializer.objectToByte(
-                itemSnapshotsIncremental, siddhiAppContext));
+        Map<String, Object> itemSnapshots = new HashMap<>();
+        for (Map.Entry<String, Object> itemSnapshot : itemSnapshotsIncremental.entrySet()) {
+            itemSnapshots.put(itemSnapshot.getKey(), SnapshotCopier.copy(itemSnapshot.getValue()));
+        }
+        partitionIdSnapshot.put(id, itemSnapshots);
     }
 
     public Map<String, Object> queryState(String queryName) {
@@ -304,11 +436,11 @@ public class SnapshotService {
                 ElementStateHolder elementStateHolder = partitionIdStateHolder.queryStateHolderMap.get(queryName);
                 if (elementStateHolder != null) {
                     for (Map.Entry<String, StateHolder> elementState : elementStateHolder.elementHolderMap.entrySet()) {
-                        Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                        Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                         try {
-                            for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                            for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                     partitionKeyStates.entrySet()) {
-                                for (Map.Entry<String, State> groupByKeyState :
+                                for (Map.Entry<Object, State> groupByKeyState :
                                         partitionKeyState.getValue().entrySet()) {
                                     String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() + "_"
                                             + queryName + "_" + elementState.getKey();
@@ -335,13 +467,56 @@ public class SnapshotService {
             throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
                     getName() + " failed due to no snapshot.");
         }
-        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot =
-                (Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>)
-                        ByteSerializer.byteToObject(snapshot, siddhiAppContext);
-        if (fullSnapshot == null) {
+        if (SegmentedSnapshotSerializer.isSegmented(snapshot)) {
+            restore(new ByteArrayInputStream(snapshot));
+        } else {
+            restoreQuerySnapshots(groupByQuery(
+                    (Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>)
+                            ByteSerializer.byteToObject(snapshot, siddhiAppContext)));
+        }
+    }
+
+    public void restore(InputStream snapshot) throws CannotRestoreSiddhiAppStateException {
+        if (snapshot == null) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                    getName() + " failed due to no snapshot.");
+        }
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> querySnapshots;
+        try {
+            InputStream bufferedSnapshot = new BufferedInputStream(snapshot);
+            if (SegmentedSnapshotSerializer.isSegmented(bufferedSnapshot)) {
+                querySnapshots = SegmentedSnapshotSerializer.read(bufferedSnapshot, siddhiAppContext);
+            } else {
+                querySnapshots = groupByQuery((Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>)
+                        ByteSerializer.streamToObject(bufferedSnapshot, siddhiAppContext));
+            }
+        } catch (IOException e) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                    getName() + " failed due to invalid snapshot.", e);
+        }
+        restoreQuerySnapshots(querySnapshots);
+    }
+
+    private Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> groupByQuery(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot) {
+        return fullSnapshot == null ? null : SegmentedSnapshotSerializer.groupByQuery(fullSnapshot);
+    }
+
+    /**
+     * Restore the states of all queries in parallel on the executor of the Siddhi App, as the states of each query are
+     * independent of others.
+     *
+     * @param querySnapshots PartitionId + QueryName + PartitionGroupByKey + ElementId + Item
+     * @throws CannotRestoreSiddhiAppStateException when the states cannot be restored
+     */
+    private void restoreQuerySnapshots(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> querySnapshots)
+            throws CannotRestoreSiddhiAppStateException {
+        if (querySnapshots == null) {
             throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
                     getName() + " failed due to invalid snapshot.");
         }
+        validateSharedWindowLayout(querySnapshots);
         try {
             threadBarrier.lock();
             waitForSystemStabilization();
@@ -349,75 +524,48 @@ public class SnapshotService {
                 //cleaning old group by states
                 cleanGroupByStates();
                 //restore data
-                for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionIdSnapshot :
-                        fullSnapshot.entrySet()) {
+                List<Callable<Void>> restoreTasks = new ArrayList<>();
+                for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>
+                        partitionIdSnapshot : querySnapshots.entrySet()) {
                     PartitionIdStateHolder partitionStateHolder = partitionIdStates.get(partitionIdSnapshot.getKey());
                     if (partitionStateHolder == null) {
                         continue;
                     }
-                    for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> partitionGroupByKeySnapshot :
+                    for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> querySnapshot :
                             partitionIdSnapshot.getValue().entrySet()) {
-                        for (Map.Entry<String, Map<String, Map<String, Object>>> querySnapshot :
-                                partitionGroupByKeySnapshot.getValue().entrySet()) {
-                            ElementStateHolder elementStateHolder =
-                                    partitionStateHolder.queryStateHolderMap.get(querySnapshot.getKey());
-                            if (elementStateHolder == null) {
-                                continue;
-                            }
-                            for (Map.Entry<String, Map<String, Object>> elementSnapshot :
-                                    querySnapshot.getValue().entrySet()) {
-                                StateHolder stateHolder =
-                                        elementStateHolder.elementHolderMap.get(elementSnapshot.getKey());
-                                if (stateHolder == null) {
-                                    continue;
-                                }
-                                try {
-                                    String partitionKey = null;
-                                    String groupByKey = null;
-                                    if (partitionGroupByKeySnapshot.getKey() != null) {
-                                        String[] keys = partitionGroupByKeySnapshot.getKey().split("--");
-                                        if (keys.length == 2) {
-                                            if (!keys[0].equals("null")) {
-                                                partitionKey = keys[0];
-                                            }
-                                            if (!keys[1].equals("null")) {
-                                                groupByKey = keys[1];
-                                            }
-                                        }
-                                    }
-                                    SiddhiAppContext.startPartitionFlow(partitionKey);
-                                    SiddhiAppContext.startGroupByFlow(groupByKey);
-                                    State state = stateHolder.getState();
-                                    try {
-                                        if (state == null) {
-                                            continue;
-                                        }
-                                        Map<String, Object> snapshotRestores = new HashMap<>();
-                                        for (Map.Entry<String, Object> itemSnapshot :
-                                                elementSnapshot.getValue().entrySet()) {
-                                            if (itemSnapshot.getValue() instanceof Snapshot) {
-                                                SnapshotStateList snapshotStateList = new SnapshotStateList();
-                                                snapshotStateList.putSnapshotState(0L,
-                                                        (Snapshot) itemSnapshot.getValue());
-                                                snapshotRestores.put(itemSnapshot.getKey(), snapshotStateList);
-                                            } else {
-                                                snapshotRestores.put(itemSnapshot.getKey(),
-                                                        itemSnapshot.getValue());
-                                            }
-                                        }
-                                        state.restore(snapshotRestores);
-                                    } finally {
-                                        stateHolder.returnState(state);
-                                    }
-                                } finally {
-                                    SiddhiAppContext.stopPartitionFlow();
-                                    SiddhiAppContext.stopGroupByFlow();
-                                }
-                            }
+                        ElementStateHolder elementStateHolder =
+                                partitionStateHolder.queryStateHolderMap.get(querySnapshot.getKey());
+                        if (elementStateHolder == null) {
+                            continue;
                         }
+                        restoreTasks.add(() -> {
+                            restoreQuerySnapshot(elementStateHolder, querySnapshot.getValue());
+                            return null;
+                        });
+                    }
+                }
+                List<Future<Void>> futures = new ArrayList<>(restoreTasks.size());
+                try {
+                    for (Callable<Void> restoreTask : restoreTasks) {
+                        if (futures.size() >= SegmentedSnapshotSerializer.PARALLELISM) {
+                            // Limit the number of queries restored at a time
+                            futures.get(futures.size() - SegmentedSnapshotSerializer.PARALLELISM).get();
+                        }
+                        futures.add(siddhiAppContext.getExecutorService().submit(restoreTask));
+                    }
+                    for (Future<Void> future : futures) {
+                        future.get();
+                    }
+                } finally {
+                    for (Future<Void> future : futures) {
+                        future.cancel(false);
                     }
-
                 }
+            } catch (ExecutionException e) {
+                throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
+                        siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
+                        "app has changed since last state persistence. Clean persistence store for a " +
+                        "fresh deployment.", e.getCause());
             } catch (Throwable t) {
                 throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
                         siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
@@ -429,6 +577,89 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Reject snapshots taken while the Siddhi App shared a different set of windows, as the window states of the
+     * queries would otherwise be silently dropped.
+     *
+     * @param querySnapshots PartitionId + QueryName + PartitionGroupByKey + ElementId + Item
+     * @throws CannotRestoreSiddhiAppStateException when the shared windows differ from the ones of the snapshot
+     */
+    private void validateSharedWindowLayout(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> querySnapshots)
+            throws CannotRestoreSiddhiAppStateException {
+        String snapshotLayout = null;
+        Map<String, Map<String, Map<String, Map<String, Object>>>> partitionSnapshot =
+                querySnapshots.get(SiddhiConstants.PARTITION_ID_DEFAULT);
+        if (partitionSnapshot != null && partitionSnapshot.get(SHARED_WINDOW_LAYOUT) != null) {
+            for (Map<String, Map<String, Object>> elementSnapshots :
+                    partitionSnapshot.get(SHARED_WINDOW_LAYOUT).values()) {
+                Map<String, Object> itemSnapshots = elementSnapshots.get(SHARED_WINDOW_LAYOUT);
+                if (itemSnapshots != null) {
+                    snapshotLayout = (String) itemSnapshots.get("Layout");
+                }
+            }
+        }
+        if (!Objects.equals(sharedWindowLayout, snapshotLayout)) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.getName() +
+                    " failed as the windows shared across its queries have changed since last state persistence, " +
+                    "the snapshot shares '" + snapshotLayout + "' while the app shares '" + sharedWindowLayout +
+                    "'. Clean persistence store for a fresh deployment.");
+        }
+    }
+
+    private void restoreQuerySnapshot(ElementStateHolder elementStateHolder,
+                                      Map<String, Map<String, Map<String, Object>>> querySnapshot) {
+        for (Map.Entry<String, Map<String, Map<String, Object>>> partitionGroupByKeySnapshot :
+                querySnapshot.entrySet()) {
+            String partitionKey = null;
+            String groupByKey = null;
+            if (partitionGroupByKeySnapshot.getKey() != null) {
+                String[] keys = partitionGroupByKeySnapshot.getKey().split("--");
+                if (keys.length == 2) {
+                    if (!keys[0].equals("null")) {
+                        partitionKey = keys[0];
+                    }
+                    if (!keys[1].equals("null")) {
+                        groupByKey = keys[1];
+                    }
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> elementSnapshot :
+                    partitionGroupByKeySnapshot.getValue().entrySet()) {
+                StateHolder stateHolder = elementStateHolder.elementHolderMap.get(elementSnapshot.getKey());
+                if (stateHolder == null) {
+                    continue;
+                }
+                try {
+                    SiddhiAppContext.startPartitionFlow(partitionKey);
+                    SiddhiAppContext.startGroupByFlow(groupByKey);
+                    State state = stateHolder.getState();
+                    try {
+                        if (state == null) {
+                            continue;
+                        }
+                        Map<String, Object> snapshotRestores = new HashMap<>();
+                        for (Map.Entry<String, Object> itemSnapshot : elementSnapshot.getValue().entrySet()) {
+                            if (itemSnapshot.getValue() instanceof Snapshot) {
+                                SnapshotStateList snapshotStateList = new SnapshotStateList();
+                                snapshotStateList.putSnapshotState(0L, (Snapshot) itemSnapshot.getValue());
+                                snapshotRestores.put(itemSnapshot.getKey(), snapshotStateList);
+                            } else {
+                                snapshotRestores.put(itemSnapshot.getKey(), itemSnapshot.getValue());
+                            }
+                        }
+                        state.restore(snapshotRestores);
+                    } finally {
+                        stateHolder.returnState(state);
+                    }
+                } finally {
+                    SiddhiAppContext.stopPartitionFlow();
+                    SiddhiAppContext.stopGroupByFlow();
+                }
+            }
+        }
+    }
+
     public void restore(Map<String, Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>>
                                 snapshot)
             throws CannotRestoreSiddhiAppStateException {
@@ -613,6 +844,10 @@ public class SnapshotService {
             if (log.isDebugEnabled()) {
                 log.debug("Restoring revision: " + revision + " ...");
             }
+            if (persistenceStore instanceof StreamingPersistenceStore) {
+                restoreRevisionFromStream((StreamingPersistenceStore) persistenceStore, revision);
+                return;
+            }
             byte[] snapshot = persistenceStore.load(siddhiAppContext.getName(), revision);
             if (snapshot != null) {
                 restore(snapshot);
@@ -630,63 +865,36 @@ public class SnapshotService {
                 log.debug("Restoring revision: " + revision + " ...");
             }
             IncrementalSnapshotInfo restoreSnapshotInfo = PersistenceHelper.convertRevision(revision);
-            List<IncrementalSnapshotInfo> incrementalSnapshotInfos =
-                    incrementalPersistenceStore.getListOfRevisionsToLoad(
-                            restoreSnapshotInfo.getTime(), restoreSnapshotInfo.getSiddhiAppId());
-            if (incrementalSnapshotInfos != null) {
-                incrementalSnapshotInfos.sort(new Comparator<IncrementalSnapshotInfo>() {
-                    @Override
-                    public int compare(IncrementalSnapshotInfo o1, IncrementalSnapshotInfo o2) {
-                        int results = o1.getId().compareTo(o2.getId());
-                        if (results == 0) {
-                            results = Long.compare(o2.getTime(), o1.getTime());
-                            if (results == 0) {
-                                return o2.getType().compareTo(o1.getType());
-                            }
-                        }
-                        return results;
-                    }
-                });
-                String lastId = null;
-                boolean baseFound = false;
-                boolean perioicFound = false;
-                for (Iterator<IncrementalSnapshotInfo> iterator = incrementalSnapshotInfos.iterator();
-                     iterator.hasNext(); ) {
-                    IncrementalSnapshotInfo snapshotInfo = iterator.next();
-                    if (snapshotInfo.getId().equals(lastId)) {
-                        if (baseFound && (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE
-                                || snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.INCREMENT)) {
-                            iterator.remove();
-                        } else if (perioicFound &&
-                                snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
-                            iterator.remove();
-                        } else if (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE) {
-                            baseFound = true;
-                        } else if (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
-                            perioicFound = true;
-                        }
-                    } else {
-                        baseFound = snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE;
-                        perioicFound = snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC;
+            Map<String, Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>>
+                    incrementalState = null;
+            // revisions are loaded while they are not being compacted, as compaction deletes the merged revisions
+            incrementalRevisionLock.lock();
+            try {
+                List<IncrementalSnapshotInfo> incrementalSnapshotInfos =
+                        incrementalPersistenceStore.getListOfRevisionsToLoad(
+                                restoreSnapshotInfo.getTime(), restoreSnapshotInfo.getSiddhiAppId());
+                if (incrementalSnapshotInfos != null) {
+                    filterRevisionsToLoad(incrementalSnapshotInfos);
+                    incrementalState = new HashMap<>();
+                    for (IncrementalSnapshotInfo snapshotInfo : incrementalSnapshotInfos) {
+                        Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>
+                                incrementalStateByPartitionGroupByKey = incrementalState.computeIfAbsent(
+                                snapshotInfo.getPartitionId(), k -> new TreeMap<>());
+                        Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByTime =
+                                incrementalStateByPartitionGroupByKey.computeIfAbsent(
+                                        snapshotInfo.getPartitionGroupByKey(), k -> new TreeMap<>());
+                        Map<Long, Map<IncrementalSnapshotInfo, byte[]>> idByTime =
+                                incrementalStateByTime.computeIfAbsent(snapshotInfo.getId(),
+                                        k -> new TreeMap<>());
+                        Map<IncrementalSnapshotInfo, byte[]> incrementalStateByInfo = idByTime.
+                                computeIfAbsent(snapshotInfo.getTime(), k -> new HashMap<>());
+                        incrementalStateByInfo.put(snapshotInfo, incrementalPersistenceStore.load(snapshotInfo));
                     }
-                    lastId = snapshotInfo.getId();
-                }
-                Map<String, Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>>
-                        incrementalState = new HashMap<>();
-                for (IncrementalSnapshotInfo snapshotInfo : incrementalSnapshotInfos) {
-                    Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>
-                            incrementalStateByPartitionGroupByKey = incrementalState.computeIfAbsent(
-                            snapshotInfo.getPartitionId(), k -> new TreeMap<>());
-                    Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByTime =
-                            incrementalStateByPartitionGroupByKey.computeIfAbsent(snapshotInfo.getPartitionGroupByKey(),
-                                    k -> new TreeMap<>());
-                    Map<Long, Map<IncrementalSnapshotInfo, byte[]>> idByTime =
-                            incrementalStateByTime.computeIfAbsent(snapshotInfo.getId(),
-                                    k -> new TreeMap<>());
-                    Map<IncrementalSnapshotInfo, byte[]> incrementalStateByInfo = idByTime.
-                            computeIfAbsent(snapshotInfo.getTime(), k -> new HashMap<>());
-                    incrementalStateByInfo.put(snapshotInfo, incrementalPersistenceStore.load(snapshotInfo));
                 }
+            } finally {
+                incrementalRevisionLock.unlock();
+            }
+            if (incrementalState != null) {
                 restore(incrementalState);
                 if (log.isDebugEnabled()) {
                     log.debug("Restored revision: " + revision);
@@ -703,6 +911,166 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Merge the increments persisted before the given revision into new bases, for the elements having at least
+     * {@link PersistenceConstants#MIN_INCREMENTS_TO_COMPACT} increments since their base, such that the increments
+     * need not be replayed on restore. The merged base is persisted just after the last merged increment, hence the
+     * incremental persistence store removes the merged revisions. The base of an element is loaded before its
+     * increments, and the elements that are not of a {@link SnapshotableStreamEventQueue} are not loaded again.
+     *
+     * @param revisionTime time of the last persisted revision
+     */
+    public void compactIncrementalRevisions(long revisionTime) {
+        IncrementalPersistenceStore incrementalPersistenceStore =
+                siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore();
+        if (incrementalPersistenceStore == null) {
+            return;
+        }
+        incrementalRevisionLock.lock();
+        try {
+            List<IncrementalSnapshotInfo> incrementalSnapshotInfos =
+                    incrementalPersistenceStore.getListOfRevisionsToLoad(revisionTime - 1, siddhiAppContext.getName());
+            if (incrementalSnapshotInfos == null) {
+                return;
+            }
+            filterRevisionsToLoad(incrementalSnapshotInfos);
+            Map<String, List<IncrementalSnapshotInfo>> revisionsById = new LinkedHashMap<>();
+            for (IncrementalSnapshotInfo snapshotInfo : incrementalSnapshotInfos) {
+                if (snapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                    revisionsById.computeIfAbsent(snapshotInfo.getId(), k -> new ArrayList<>()).add(snapshotInfo);
+                }
+            }
+            for (List<IncrementalSnapshotInfo> revisions : revisionsById.values()) {
+                compactIncrementalRevisions(incrementalPersistenceStore, revisions, revisionTime);
+            }
+        } finally {
+            incrementalRevisionLock.unlock();
+        }
+    }
+
+    private void compactIncrementalRevisions(IncrementalPersistenceStore incrementalPersistenceStore,
+                                             List<IncrementalSnapshotInfo> revisions, long revisionTime) {
+        // revisions are ordered by descending time, and end with the base
+        IncrementalSnapshotInfo baseInfo = revisions.get(revisions.size() - 1);
+        IncrementalSnapshotInfo lastIncrementInfo = revisions.get(0);
+        if (baseInfo.getType() != IncrementalSnapshotInfo.SnapshotType.BASE ||
+                revisions.size() <= PersistenceConstants.MIN_INCREMENTS_TO_COMPACT ||
+                revisions.get(revisions.size() - 2).getTime() == baseInfo.getTime() ||
+                lastIncrementInfo.getTime() + 1 >= revisionTime ||
+                nonMergeableIds.contains(baseInfo.getId())) {
+            return;
+        }
+        Map<String, SnapshotStateList> itemSnapshots = new HashMap<>();
+        for (int i = revisions.size() - 1; i >= 0; i--) {
+            IncrementalSnapshotInfo snapshotInfo = revisions.get(i);
+            byte[] serializedSnapshot = incrementalPersistenceStore.load(snapshotInfo);
+            if (serializedSnapshot == null) {
+                return;
+            }
+            Map<String, Object> singleIncrementSnapshot = (Map<String, Object>)
+                    ByteSerializer.byteToObject(serializedSnapshot, siddhiAppContext);
+            if (singleIncrementSnapshot == null) {
+                return;
+            }
+            for (Map.Entry<String, Object> itemSnapshot : singleIncrementSnapshot.entrySet()) {
+                if (!(itemSnapshot.getValue() instanceof Snapshot) ||
+                        !SnapshotableStreamEventQueue.isMergeable((Snapshot) itemSnapshot.getValue())) {
+                    // The base is checked first, hence the increments of other holders are never loaded again
+                    nonMergeableIds.add(baseInfo.getId());
+                    return;
+                }
+                itemSnapshots.computeIfAbsent(itemSnapshot.getKey(), k -> new SnapshotStateList())
+                        .putSnapshotState(snapshotInfo.getTime(), (Snapshot) itemSnapshot.getValue());
+            }
+        }
+        Map<String, Object> mergedSnapshot = new HashMap<>();
+        for (Map.Entry<String, SnapshotStateList> itemSnapshot : itemSnapshots.entrySet()) {
+            Snapshot snapshot = SnapshotableStreamEventQueue.merge(itemSnapshot.getValue());
+            if (snapshot == null) {
+                nonMergeableIds.add(baseInfo.getId());
+                return;
+            }
+            mergedSnapshot.put(itemSnapshot.getKey(), snapshot);
+        }
+        byte[] serializedSnapshot = ByteSerializer.objectToByte(mergedSnapshot, siddhiAppContext);
+        if (serializedSnapshot == null) {
+            return;
+        }
+        incrementalPersistenceStore.save(new IncrementalSnapshotInfo(baseInfo.getSiddhiAppId(),
+                baseInfo.getPartitionId(), baseInfo.getQueryName(), baseInfo.getElementId(),
+                lastIncrementInfo.getTime() + 1, IncrementalSnapshotInfo.SnapshotType.BASE,
+                baseInfo.getPartitionGroupByKey()), serializedSnapshot);
+        if (log.isDebugEnabled()) {
+            log.debug("Compacted " + (revisions.size() - 1) + " increments of '" + baseInfo.getId() +
+                    "' of Siddhi app '" + siddhiAppContext.getName() + "'");
+        }
+    }
+
+    /**
+     * Order the revisions by their id and descending time, and remove the revisions that are superseded by a
+     * later base or periodic revision of the same id.
+     *
+     * @param incrementalSnapshotInfos revisions to filter
+     */
+    private static void filterRevisionsToLoad(List<IncrementalSnapshotInfo> incrementalSnapshotInfos) {
+        incrementalSnapshotInfos.sort(new Comparator<IncrementalSnapshotInfo>() {
+            @Override
+            public int compare(IncrementalSnapshotInfo o1, IncrementalSnapshotInfo o2) {
+                int results = o1.getId().compareTo(o2.getId());
+                if (results == 0) {
+                    results = Long.compare(o2.getTime(), o1.getTime());
+                    if (results == 0) {
+                        return o2.getType().compareTo(o1.getType());
+                    }
+                }
+                return results;
+            }
+        });
+        String lastId = null;
+        boolean baseFound = false;
+        boolean perioicFound = false;
+        for (Iterator<IncrementalSnapshotInfo> iterator = incrementalSnapshotInfos.iterator();
+             iterator.hasNext(); ) {
+            IncrementalSnapshotInfo snapshotInfo = iterator.next();
+            if (snapshotInfo.getId().equals(lastId)) {
+                if (baseFound && (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE
+                        || snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.INCREMENT)) {
+                    iterator.remove();
+                } else if (perioicFound &&
+                        snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                    iterator.remove();
+                } else if (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE) {
+                    baseFound = true;
+                } else if (snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                    perioicFound = true;
+                }
+            } else {
+                baseFound = snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE;
+                perioicFound = snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC;
+            }
+            lastId = snapshotInfo.getId();
+        }
+    }
+
+    private void restoreRevisionFromStream(StreamingPersistenceStore persistenceStore, String revision)
+            throws CannotRestoreSiddhiAppStateException {
+        try (InputStream snapshot = persistenceStore.loadAsStream(siddhiAppContext.getName(), revision)) {
+            if (snapshot == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("No data found for revision: " + revision);
+                }
+                throw new PersistenceStoreException("No data found for revision: " + revision);
+            }
+            restore(snapshot);
+            if (log.isDebugEnabled()) {
+                log.debug("Restored revision: " + revision);
+            }
+        } catch (IOException e) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.getName() +
+                    " failed as revision " + revision + " cannot be read.", e);
+        }
+    }
+
     public String restoreLastRevision() throws CannotRestoreSiddhiAppStateException {
         PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
         IncrementalPersistenceStore incrementalPersistenceStore =
@@ -771,6 +1139,34 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * State persisting the layout of the shared windows, incremental snapshots are validated when it is restored.
+     */
+    private class SharedWindowLayoutState extends State {
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Layout", sharedWindowLayout);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            Object snapshotLayout = state.get("Layout");
+            if (!Objects.equals(sharedWindowLayout, snapshotLayout)) {
+                throw new SiddhiAppRuntimeException("Windows shared across the queries of Siddhi app " +
+                        siddhiAppContext.getName() + " have changed since last state persistence, the snapshot " +
+                        "shares '" + snapshotLayout + "' while the app shares '" + sharedWindowLayout + "'.");
+            }
+        }
+    }
+
     class PartitionIdStateHolder {
         private final String partitionId;
         private final Map<String, ElementStateHolder> queryStateHolderMap = new HashMap<>();
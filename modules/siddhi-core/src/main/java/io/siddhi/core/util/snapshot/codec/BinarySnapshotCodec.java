@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.codec;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Default {@link SnapshotCodec} writing a compact, tagged binary format.
+ * <p>
+ * Attribute values, collections and Siddhi's own snapshot types ({@link StreamEvent}, {@link StateEvent},
+ * {@link Snapshot}, {@link SnapshotStateList} and {@link Operation}) are written with a one byte type tag and no
+ * class descriptors. Event chains write their attribute layout once and only repeat it when it changes. Any other
+ * object falls back to Java serialization. Snapshots start with a magic number and a format version; bytes
+ * without the magic number are decoded as Java serialized snapshots so that older revisions can still be restored.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+
+    static final int MAGIC = 0x53494442;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BOOLEAN_TRUE = 6;
+    private static final byte BOOLEAN_FALSE = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte BYTES = 10;
+    private static final byte OBJECT_ARRAY = 11;
+    private static final byte HASH_MAP = 12;
+    private static final byte LINKED_HASH_MAP = 13;
+    private static final byte TREE_MAP = 14;
+    private static final byte ARRAY_LIST = 15;
+    private static final byte LINKED_LIST = 16;
+    private static final byte STREAM_EVENT = 17;
+    private static final byte STATE_EVENT = 18;
+    private static final byte SNAPSHOT = 19;
+    private static final byte SNAPSHOT_STATE_LIST = 20;
+    private static final byte OPERATION = 21;
+    private static final byte SERIALIZED = 127;
+
+    private static final byte CHAIN_END = 0;
+    private static final byte SAME_LAYOUT = 1;
+    private static final byte NEW_LAYOUT = 2;
+
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+    private static final Operation.Operator[] OPERATORS = Operation.Operator.values();
+
+    private final JavaSnapshotCodec javaSnapshotCodec = new JavaSnapshotCodec();
+
+    @Override
+    public byte[] encode(Object snapshot) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encode(snapshot, baos);
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream instanceof BufferedOutputStream ||
+                outputStream instanceof ByteArrayOutputStream ? outputStream :
+                new BufferedOutputStream(outputStream, BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeValue(out, snapshot);
+        out.flush();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        return decode(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        InputStream bufferedInputStream = inputStream.markSupported() ? inputStream :
+                new BufferedInputStream(inputStream, BUFFER_SIZE);
+        bufferedInputStream.mark(HEADER_SIZE);
+        DataInputStream in = new DataInputStream(bufferedInputStream);
+        byte[] header = new byte[HEADER_SIZE];
+        int headerSize = 0;
+        int read;
+        while (headerSize < HEADER_SIZE &&
+                (read = in.read(header, headerSize, HEADER_SIZE - headerSize)) != -1) {
+            headerSize += read;
+        }
+        if (headerSize < HEADER_SIZE || !isBinarySnapshot(header)) {
+            bufferedInputStream.reset();
+            return javaSnapshotCodec.decode(bufferedInputStream);
+        }
+        int version = header[4] & 0xFF;
+        if (version > VERSION) {
+            throw new IOException("Snapshot format version " + version + " is newer than the supported version "
+                    + VERSION);
+        }
+        return readValue(in);
+    }
+
+    static boolean isBinarySnapshot(byte[] bytes) {
+        return bytes.length >= HEADER_SIZE && ((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 |
+                (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF)) == MAGIC;
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (type == Integer.class) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == byte[].class) {
+            out.writeByte(BYTES);
+            byte[] bytes = (byte[]) value;
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        } else if (type == Object[].class) {
+            out.writeByte(OBJECT_ARRAY);
+            writeArray(out, (Object[]) value);
+        } else if (type == StreamEvent.class) {
+            out.writeByte(STREAM_EVENT);
+            writeStreamEventChain(out, (StreamEvent) value);
+        } else if (type == StateEvent.class) {
+            out.writeByte(STATE_EVENT);
+            writeStateEventChain(out, (StateEvent) value);
+        } else if (type == HashMap.class) {
+            out.writeByte(HASH_MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else if (type == LinkedHashMap.class) {
+            out.writeByte(LINKED_HASH_MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else if (type == TreeMap.class && ((TreeMap<?, ?>) value).comparator() == null) {
+            out.writeByte(TREE_MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else if (type == ArrayList.class) {
+            out.writeByte(ARRAY_LIST);
+            writeList(out, (List<?>) value);
+        } else if (type == LinkedList.class) {
+            out.writeByte(LINKED_LIST);
+            writeList(out, (List<?>) value);
+        } else if (type == Snapshot.class) {
+            Snapshot snapshot = (Snapshot) value;
+            out.writeByte(SNAPSHOT);
+            out.writeBoolean(snapshot.isIncrementalSnapshot());
+            writeValue(out, snapshot.getState());
+        } else if (type == SnapshotStateList.class) {
+            out.writeByte(SNAPSHOT_STATE_LIST);
+            writeMap(out, ((SnapshotStateList) value).getSnapshotStates());
+        } else if (type == Operation.class) {
+            Operation operation = (Operation) value;
+            out.writeByte(OPERATION);
+            out.writeByte(operation.operation == null ? -1 : operation.operation.ordinal());
+            writeValue(out, operation.parameters);
+        } else {
+            out.writeByte(SERIALIZED);
+            byte[] bytes = javaSnapshotCodec.encode(value);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BOOLEAN_TRUE:
+                return Boolean.TRUE;
+            case BOOLEAN_FALSE:
+                return Boolean.FALSE;
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case BYTES: {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case OBJECT_ARRAY:
+                return readArray(in);
+            case STREAM_EVENT:
+                return readStreamEventChain(in);
+            case STATE_EVENT:
+                return readStateEventChain(in);
+            case HASH_MAP:
+                return readMap(in, new HashMap<>());
+            case LINKED_HASH_MAP:
+                return readMap(in, new LinkedHashMap<>());
+            case TREE_MAP:
+                return readMap(in, new TreeMap<>());
+            case ARRAY_LIST:
+                return readList(in, new ArrayList<>());
+            case LINKED_LIST:
+                return readList(in, new LinkedList<>());
+            case SNAPSHOT: {
+                boolean incremental = in.readBoolean();
+                return new Snapshot(readValue(in), incremental);
+            }
+            case SNAPSHOT_STATE_LIST:
+                return new SnapshotStateList((TreeMap<Long, Snapshot>) readMap(in, new TreeMap<Long, Snapshot>()));
+            case OPERATION: {
+                byte operator = in.readByte();
+                return new Operation(operator < 0 ? null : OPERATORS[operator], readValue(in));
+            }
+            case SERIALIZED: {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                return javaSnapshotCodec.decode(bytes);
+            }
+            default:
+                throw new IOException("Unknown value tag '" + tag + "' found in snapshot");
+        }
+    }
+
+    private void writeStreamEventChain(DataOutputStream out, StreamEvent streamEvent) throws IOException {
+        int beforeWindowDataSize = -1;
+        int onAfterWindowDataSize = -1;
+        int outputDataSize = -1;
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            int eventBeforeWindowDataSize = sizeOf(event.getBeforeWindowData());
+            int eventOnAfterWindowDataSize = sizeOf(event.getOnAfterWindowData());
+            int eventOutputDataSize = sizeOf(event.getOutputData());
+            if (event == streamEvent || eventBeforeWindowDataSize != beforeWindowDataSize ||
+                    eventOnAfterWindowDataSize != onAfterWindowDataSize || eventOutputDataSize != outputDataSize) {
+                beforeWindowDataSize = eventBeforeWindowDataSize;
+                onAfterWindowDataSize = eventOnAfterWindowDataSize;
+                outputDataSize = eventOutputDataSize;
+                out.writeByte(NEW_LAYOUT);
+                writeVarInt(out, beforeWindowDataSize + 1);
+                writeVarInt(out, onAfterWindowDataSize + 1);
+                writeVarInt(out, outputDataSize + 1);
+            } else {
+                out.writeByte(SAME_LAYOUT);
+            }
+            out.writeLong(event.getTimestamp());
+            out.writeByte(event.getType() == null ? -1 : event.getType().ordinal());
+            writeAttributes(out, event.getBeforeWindowData());
+            writeAttributes(out, event.getOnAfterWindowData());
+            writeAttributes(out, event.getOutputData());
+        }
+        out.writeByte(CHAIN_END);
+    }
+
+    private StreamEvent readStreamEventChain(DataInputStream in) throws IOException, ClassNotFoundException {
+        StreamEvent first = null;
+        StreamEvent last = null;
+        int beforeWindowDataSize = -1;
+        int onAfterWindowDataSize = -1;
+        int outputDataSize = -1;
+        byte marker;
+        while ((marker = in.readByte()) != CHAIN_END) {
+            if (marker == NEW_LAYOUT) {
+                beforeWindowDataSize = readVarInt(in) - 1;
+                onAfterWindowDataSize = readVarInt(in) - 1;
+                outputDataSize = readVarInt(in) - 1;
+            } else if (marker != SAME_LAYOUT) {
+                throw new IOException("Unknown event chain marker '" + marker + "' found in snapshot");
+            }
+            StreamEvent event = new StreamEvent(0, 0, 0);
+            event.setTimestamp(in.readLong());
+            byte type = in.readByte();
+            event.setType(type < 0 ? null : EVENT_TYPES[type]);
+            event.setBeforeWindowData(readAttributes(in, beforeWindowDataSize));
+            event.setOnAfterWindowData(readAttributes(in, onAfterWindowDataSize));
+            event.setOutputData(readAttributes(in, outputDataSize));
+            if (first == null) {
+                first = event;
+            } else {
+                last.setNext(event);
+            }
+            last = event;
+        }
+        return first;
+    }
+
+    private void writeStateEventChain(DataOutputStream out, StateEvent stateEvent) throws IOException {
+        for (StateEvent event = stateEvent; event != null; event = event.getNext()) {
+            out.writeByte(NEW_LAYOUT);
+            out.writeLong(event.getId());
+            out.writeLong(event.getTimestamp());
+            out.writeByte(event.getType() == null ? -1 : event.getType().ordinal());
+            StreamEvent[] streamEvents = event.getStreamEvents();
+            writeVarInt(out, streamEvents.length);
+            for (StreamEvent streamEvent : streamEvents) {
+                if (streamEvent == null) {
+                    out.writeBoolean(false);
+                } else {
+                    out.writeBoolean(true);
+                    writeStreamEventChain(out, streamEvent);
+                }
+            }
+            writeVarInt(out, sizeOf(event.getOutputData()) + 1);
+            writeAttributes(out, event.getOutputData());
+        }
+        out.writeByte(CHAIN_END);
+    }
+
+    private StateEvent readStateEventChain(DataInputStream in) throws IOException, ClassNotFoundException {
+        StateEvent first = null;
+        StateEvent last = null;
+        byte marker;
+        while ((marker = in.readByte()) != CHAIN_END) {
+            if (marker != NEW_LAYOUT) {
+                throw new IOException("Unknown event chain marker '" + marker + "' found in snapshot");
+            }
+            long id = in.readLong();
+            long timestamp = in.readLong();
+            byte type = in.readByte();
+            StreamEvent[] streamEvents = new StreamEvent[readVarInt(in)];
+            for (int i = 0; i < streamEvents.length; i++) {
+                if (in.readBoolean()) {
+                    streamEvents[i] = readStreamEventChain(in);
+                }
+            }
+            int outputDataSize = readVarInt(in) - 1;
+            StateEvent event = new StateEvent(streamEvents.length, Math.max(outputDataSize, 0));
+            event.setId(id);
+            event.setTimestamp(timestamp);
+            event.setType(type < 0 ? null : EVENT_TYPES[type]);
+            for (int i = 0; i < streamEvents.length; i++) {
+                event.setEvent(i, streamEvents[i]);
+            }
+            Object[] outputData = readAttributes(in, outputDataSize);
+            if (outputData != null) {
+                for (int i = 0; i < outputData.length; i++) {
+                    event.setOutputData(outputData[i], i);
+                }
+            }
+            if (first == null) {
+                first = event;
+            } else {
+                last.setNext(event);
+            }
+            last = event;
+        }
+        return first;
+    }
+
+    private void writeAttributes(DataOutputStream out, Object[] attributes) throws IOException {
+        if (attributes != null) {
+            for (Object attribute : attributes) {
+                writeValue(out, attribute);
+            }
+        }
+    }
+
+    private Object[] readAttributes(DataInputStream in, int size) throws IOException, ClassNotFoundException {
+        if (size < 0) {
+            return null;
+        }
+        Object[] attributes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            attributes[i] = readValue(in);
+        }
+        return attributes;
+    }
+
+    private void writeArray(DataOutputStream out, Object[] array) throws IOException {
+        writeVarInt(out, array.length);
+        writeAttributes(out, array);
+    }
+
+    private Object[] readArray(DataInputStream in) throws IOException, ClassNotFoundException {
+        return readAttributes(in, readVarInt(in));
+    }
+
+    private void writeMap(DataOutputStream out, Map<?, ?> map) throws IOException {
+        writeVarInt(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> readMap(DataInputStream in, Map<K, V> map) throws IOException, ClassNotFoundException {
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            K key = (K) readValue(in);
+            map.put(key, (V) readValue(in));
+        }
+        return map;
+    }
+
+    private void writeList(DataOutputStream out, List<?> list) throws IOException {
+        writeVarInt(out, list.size());
+        for (Object item : list) {
+            writeValue(out, item);
+        }
+    }
+
+    private List<Object> readList(DataInputStream in, List<Object> list) throws IOException, ClassNotFoundException {
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            list.add(readValue(in));
+        }
+        return list;
+    }
+
+    private static int sizeOf(Object[] attributes) {
+        return attributes == null ? -1 : attributes.length;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Unexpected end of snapshot");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed length found in snapshot");
+    }
+}
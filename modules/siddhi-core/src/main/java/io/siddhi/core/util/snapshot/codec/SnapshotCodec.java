@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec used by {@link io.siddhi.core.util.snapshot.SnapshotService} to convert Siddhi App state snapshots to bytes
+ * and back. Implementations can be registered via
+ * {@link io.siddhi.core.SiddhiManager#setSnapshotCodec(SnapshotCodec)}; {@link BinarySnapshotCodec} is used by default.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Encode the given snapshot.
+     *
+     * @param snapshot the snapshot object graph built by the snapshot service
+     * @return encoded bytes
+     * @throws IOException when the snapshot cannot be encoded
+     */
+    byte[] encode(Object snapshot) throws IOException;
+
+    /**
+     * Decode bytes produced by {@link #encode(Object)}. Implementations should also accept snapshots written by
+     * earlier versions of the codec.
+     *
+     * @param bytes encoded snapshot
+     * @return the snapshot object graph
+     * @throws IOException            when the bytes are not a valid snapshot
+     * @throws ClassNotFoundException when a class referred to by the snapshot cannot be loaded
+     */
+    Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+
+    /**
+     * Encode the given snapshot to a stream. The stream is flushed but not closed.
+     *
+     * @param snapshot     the snapshot object graph built by the snapshot service
+     * @param outputStream stream to write the encoded snapshot to
+     * @throws IOException when the snapshot cannot be encoded or written
+     */
+    default void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(encode(snapshot));
+        outputStream.flush();
+    }
+
+    /**
+     * Decode a snapshot from a stream written by {@link #encode(Object, OutputStream)}. The stream is not closed.
+     *
+     * @param inputStream stream of the encoded snapshot
+     * @return the snapshot object graph
+     * @throws IOException            when the stream is not a valid snapshot
+     * @throws ClassNotFoundException when a class referred to by the snapshot cannot be loaded
+     */
+    default Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return decode(bytes.toByteArray());
+    }
+
+}
@@ -38,7 +38,7 @@ public class EmptyStateHolder implements StateHolder {
     }
 
     @Override
-    public Map<String, State> getAllStates() {
+    public Map<Object, State> getAllStates() {
         return emptyMap;
     }
 
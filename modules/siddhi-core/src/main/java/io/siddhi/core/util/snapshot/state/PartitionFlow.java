@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.state;
+
+import java.util.Arrays;
+
+/**
+ * Handle of a partition key, resolved once when an event enters a partition and carried through the processor
+ * chain. {@link PartitionStateHolder}s with a state slot cache their states of the partition key in the handle,
+ * so that the states are reached without looking up the partition key.
+ */
+public class PartitionFlow {
+
+    private final String key;
+    private volatile PartitionStateHolder.GroupByStates[] slots = new PartitionStateHolder.GroupByStates[0];
+
+    public PartitionFlow(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    PartitionStateHolder.GroupByStates getStates(int slot) {
+        PartitionStateHolder.GroupByStates[] currentSlots = slots;
+        if (slot < currentSlots.length) {
+            return currentSlots[slot];
+        }
+        return null;
+    }
+
+    void setStates(int slot, PartitionStateHolder.GroupByStates states) {
+        PartitionStateHolder.GroupByStates[] currentSlots = slots;
+        if (slot >= currentSlots.length) {
+            currentSlots = Arrays.copyOf(currentSlots, slot + 1);
+            currentSlots[slot] = states;
+            slots = currentSlots;
+        } else {
+            currentSlots[slot] = states;
+        }
+    }
+}
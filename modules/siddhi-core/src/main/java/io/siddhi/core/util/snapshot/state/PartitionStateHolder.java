@@ -33,65 +33,122 @@ import java.util.Set;
 public class PartitionStateHolder implements StateHolder {
     private static final Logger log = Logger.getLogger(PartitionStateHolder.class);
     private StateFactory stateFactory;
-    private Map<String, Map<String, State>> states = new HashMap<>();
+    private Map<String, Map<Object, State>> states = new HashMap<>();
+    private boolean hasStringGroupByKeys = false;
+    private final int slot;
+    private GroupByStates defaultPartitionStates;
 
     public PartitionStateHolder(StateFactory stateFactory) {
+        this(stateFactory, -1);
+    }
+
+    /**
+     * @param stateFactory factory to create new states
+     * @param slot         index at which the states of a partition key are cached in its {@link PartitionFlow},
+     *                     or -1 to always look them up by the partition key
+     */
+    public PartitionStateHolder(StateFactory stateFactory, int slot) {
         this.stateFactory = stateFactory;
+        this.slot = slot;
     }
 
     @Override
     public State getState() {
-        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
-        Map<String, State> partitionStates = states.computeIfAbsent(partitionFlowId, k -> new HashMap<>());
-        return partitionStates.computeIfAbsent(groupByFlowId, s -> stateFactory.createNewState());
+        Object groupByFlowId = SiddhiAppContext.getGroupByFlowId();
+        Map<Object, State> partitionStates = getPartitionStates(SiddhiAppContext.getPartitionFlow(), true);
+        State state = partitionStates.get(groupByFlowId);
+        if (state == null) {
+            if (groupByFlowId instanceof String) {
+                hasStringGroupByKeys = true;
+            } else if (hasStringGroupByKeys && groupByFlowId != null) {
+                // States restored from snapshots are keyed by the String form of their group by key
+                state = partitionStates.remove(groupByFlowId.toString());
+            }
+            if (state == null) {
+                state = stateFactory.createNewState();
+            }
+            partitionStates.put(groupByFlowId, state);
+        }
+        return state;
     }
 
     @Override
     public void returnState(State state) {
-        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
+        PartitionFlow partitionFlow = SiddhiAppContext.getPartitionFlow();
+        Object groupByFlowId = SiddhiAppContext.getGroupByFlowId();
         if (state.activeUseCount == 0) {
             try {
                 if (state.canDestroy()) {
-                    removeState(partitionFlowId, groupByFlowId);
+                    removeState(partitionFlow, groupByFlowId);
                 }
             } catch (Throwable t) {
-                log.error("Dropping partition state for partition key '" + partitionFlowId +
+                log.error("Dropping partition state for partition key '" + SiddhiAppContext.getPartitionFlowId() +
                         "' and the group by key '" + groupByFlowId + "', due to error! " + t.getMessage(), t);
-                removeState(partitionFlowId, groupByFlowId);
+                removeState(partitionFlow, groupByFlowId);
             }
         } else if (state.activeUseCount < 0) {
             throw new SiddhiAppRuntimeException("State active count has reached less then zero for partition key '" +
-                    partitionFlowId + "' and the group by key '" + groupByFlowId + "', current value is " +
-                    state.activeUseCount);
+                    SiddhiAppContext.getPartitionFlowId() + "' and the group by key '" + groupByFlowId +
+                    "', current value is " + state.activeUseCount);
         }
     }
 
-    private void removeState(String partitionFlowId, String groupByFlowId) {
-        Map<String, State> groupByStates = states.get(partitionFlowId);
+    private void removeState(PartitionFlow partitionFlow, Object groupByFlowId) {
+        Map<Object, State> groupByStates = getPartitionStates(partitionFlow, false);
         if (groupByStates != null) {
             groupByStates.remove(groupByFlowId);
             if (groupByStates.isEmpty()) {
-                states.remove(partitionFlowId);
+                detach(states.remove(partitionFlow == null ? null : partitionFlow.getKey()));
             }
         }
     }
 
-    public Map<String, Map<String, State>> getAllStates() {
+    private GroupByStates getPartitionStates(PartitionFlow partitionFlow, boolean create) {
+        GroupByStates groupByStates = null;
+        if (partitionFlow == null) {
+            groupByStates = defaultPartitionStates;
+        } else if (slot >= 0) {
+            groupByStates = partitionFlow.getStates(slot);
+        }
+        if (groupByStates == null || groupByStates.detached) {
+            String partitionFlowId = partitionFlow == null ? null : partitionFlow.getKey();
+            groupByStates = (GroupByStates) states.get(partitionFlowId);
+            if (groupByStates == null) {
+                if (!create) {
+                    return null;
+                }
+                groupByStates = new GroupByStates();
+                states.put(partitionFlowId, groupByStates);
+            }
+            if (partitionFlow == null) {
+                defaultPartitionStates = groupByStates;
+            } else if (slot >= 0) {
+                partitionFlow.setStates(slot, groupByStates);
+            }
+        }
+        return groupByStates;
+    }
+
+    private static void detach(Map<Object, State> groupByStates) {
+        if (groupByStates instanceof GroupByStates) {
+            ((GroupByStates) groupByStates).detached = true;
+        }
+    }
+
+    public Map<String, Map<Object, State>> getAllStates() {
         return states;
     }
 
     @Override
-    public Map<String, State> getAllGroupByStates() {
-        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        return states.computeIfAbsent(partitionFlowId, k -> new HashMap<>());
+    public Map<Object, State> getAllGroupByStates() {
+        return getPartitionStates(SiddhiAppContext.getPartitionFlow(), true);
     }
 
     @Override
     public State cleanGroupByStates() {
         String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        Map<String, State> groupByStates = states.remove(partitionFlowId);
+        Map<Object, State> groupByStates = states.remove(partitionFlowId);
+        detach(groupByStates);
         if (groupByStates != null) {
             return groupByStates.values().stream().findFirst().orElse(null);
         }
@@ -101,10 +158,10 @@ public class PartitionStateHolder implements StateHolder {
     @Override
     public void returnGroupByStates(Map states) {
         String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        for (Iterator<Map.Entry<String, State>> iterator =
-             ((Set<Map.Entry<String, State>>) states.entrySet()).iterator();
+        for (Iterator<Map.Entry<Object, State>> iterator =
+             ((Set<Map.Entry<Object, State>>) states.entrySet()).iterator();
              iterator.hasNext(); ) {
-            Map.Entry<String, State> stateEntry = iterator.next();
+            Map.Entry<Object, State> stateEntry = iterator.next();
             State state = stateEntry.getValue();
             if (state.activeUseCount == 0) {
                 try {
@@ -130,12 +187,12 @@ public class PartitionStateHolder implements StateHolder {
 
     @Override
     public void returnAllStates(Map states) {
-        for (Iterator<Map.Entry<String, Map<String, State>>> statesIterator =
-             ((Set<Map.Entry<String, Map<String, State>>>) states.entrySet()).iterator(); statesIterator.hasNext(); ) {
-            Map.Entry<String, Map<String, State>> statesEntry = statesIterator.next();
-            for (Iterator<Map.Entry<String, State>> stateIterator = statesEntry.getValue().entrySet().iterator();
+        for (Iterator<Map.Entry<String, Map<Object, State>>> statesIterator =
+             ((Set<Map.Entry<String, Map<Object, State>>>) states.entrySet()).iterator(); statesIterator.hasNext(); ) {
+            Map.Entry<String, Map<Object, State>> statesEntry = statesIterator.next();
+            for (Iterator<Map.Entry<Object, State>> stateIterator = statesEntry.getValue().entrySet().iterator();
                  stateIterator.hasNext(); ) {
-                Map.Entry<String, State> stateEntry = stateIterator.next();
+                Map.Entry<Object, State> stateEntry = stateIterator.next();
                 State state = stateEntry.getValue();
                 if (state.activeUseCount == 0) {
                     try {
@@ -157,9 +214,18 @@ public class PartitionStateHolder implements StateHolder {
             }
             if (statesEntry.getValue().isEmpty()) {
                 statesIterator.remove();
+                detach(statesEntry.getValue());
             }
         }
     }
 
+    /**
+     * States of a partition key by their group by key. Marked as detached once removed from the holder, so that
+     * partition flows caching it look the states up again.
+     */
+    static class GroupByStates extends HashMap<Object, State> {
 
+        private static final long serialVersionUID = 8390487164935637468L;
+        boolean detached = false;
+    }
 }
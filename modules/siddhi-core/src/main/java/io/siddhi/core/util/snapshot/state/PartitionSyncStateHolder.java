@@ -30,6 +30,10 @@ public class PartitionSyncStateHolder implements StateHolder {
         partitionStateHolder = new PartitionStateHolder(stateFactory);
     }
 
+    public PartitionSyncStateHolder(StateFactory stateFactory, int slot) {
+        partitionStateHolder = new PartitionStateHolder(stateFactory, slot);
+    }
+
     @Override
     public synchronized State getState() {
         State state = partitionStateHolder.getState();
@@ -44,9 +48,9 @@ public class PartitionSyncStateHolder implements StateHolder {
     }
 
 
-    public synchronized Map<String, Map<String, State>> getAllStates() {
-        Map<String, Map<String, State>> states = partitionStateHolder.getAllStates();
-        for (Map<String, State> groupByStates : states.values()) {
+    public synchronized Map<String, Map<Object, State>> getAllStates() {
+        Map<String, Map<Object, State>> states = partitionStateHolder.getAllStates();
+        for (Map<Object, State> groupByStates : states.values()) {
             for (State state : groupByStates.values()) {
                 state.activeUseCount++;
             }
@@ -55,8 +59,8 @@ public class PartitionSyncStateHolder implements StateHolder {
     }
 
     @Override
-    public synchronized Map<String, State> getAllGroupByStates() {
-        Map<String, State> groupByStates = partitionStateHolder.getAllGroupByStates();
+    public synchronized Map<Object, State> getAllGroupByStates() {
+        Map<Object, State> groupByStates = partitionStateHolder.getAllGroupByStates();
         for (State state : groupByStates.values()) {
             state.activeUseCount++;
         }
@@ -70,7 +74,7 @@ public class PartitionSyncStateHolder implements StateHolder {
 
     @Override
     public synchronized void returnGroupByStates(Map states) {
-        for (State state : ((Map<String, State>) states).values()) {
+        for (State state : ((Map<Object, State>) states).values()) {
             state.activeUseCount--;
         }
         partitionStateHolder.returnGroupByStates(states);
@@ -78,7 +82,7 @@ public class PartitionSyncStateHolder implements StateHolder {
 
     @Override
     public synchronized void returnAllStates(Map states) {
-        for (Map<String, State> groupByStates : ((Map<String, Map<String, State>>) states).values()) {
+        for (Map<Object, State> groupByStates : ((Map<String, Map<Object, State>>) states).values()) {
             for (State state : groupByStates.values()) {
                 state.activeUseCount--;
             }
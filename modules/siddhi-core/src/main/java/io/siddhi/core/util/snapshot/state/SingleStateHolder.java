@@ -28,8 +28,8 @@ import java.util.Map;
  */
 public class SingleStateHolder implements StateHolder {
     private static final Logger log = Logger.getLogger(SingleStateHolder.class);
-    final Map<String, State> groupByStates = new HashMap<>(1);
-    final Map<String, Map<String, State>> allStates = new HashMap<>(1);
+    final Map<Object, State> groupByStates = new HashMap<>(1);
+    final Map<String, Map<Object, State>> allStates = new HashMap<>(1);
     private final StateFactory stateFactory;
     private State state = null;
 
@@ -52,7 +52,7 @@ public class SingleStateHolder implements StateHolder {
         //ignore
     }
 
-    public Map<String, Map<String, State>> getAllStates() {
+    public Map<String, Map<Object, State>> getAllStates() {
         if (state == null) {
             state = stateFactory.createNewState();
             groupByStates.put(null, state);
@@ -67,7 +67,7 @@ public class SingleStateHolder implements StateHolder {
     }
 
     @Override
-    public Map<String, State> getAllGroupByStates() {
+    public Map<Object, State> getAllGroupByStates() {
         if (state == null) {
             state = stateFactory.createNewState();
             groupByStates.put(null, state);
@@ -26,6 +26,7 @@ import java.io.Serializable;
 public class Snapshot implements Serializable {
     private Object state;
     private boolean isIncrementalSnapshot;
+    private transient boolean detached;
 
     public Snapshot(Object state) {
         this.state = state;
@@ -37,6 +38,18 @@ public class Snapshot implements Serializable {
         this.isIncrementalSnapshot = isIncrementalSnapshot;
     }
 
+    /**
+     * @param state                 state to be serialized
+     * @param isIncrementalSnapshot whether the state is an increment of the previous snapshot
+     * @param detached              whether the state is created for the snapshot and not referenced by the
+     *                              processing elements, such that it does not have to be copied when captured
+     */
+    public Snapshot(Object state, boolean isIncrementalSnapshot, boolean detached) {
+        this.state = state;
+        this.isIncrementalSnapshot = isIncrementalSnapshot;
+        this.detached = detached;
+    }
+
     public boolean isIncrementalSnapshot() {
         return isIncrementalSnapshot;
     }
@@ -44,4 +57,8 @@ public class Snapshot implements Serializable {
     public Object getState() {
         return state;
     }
+
+    public boolean isDetached() {
+        return detached;
+    }
 }
@@ -21,7 +21,8 @@ package io.siddhi.core.util.snapshot.state;
 import java.util.Map;
 
 /**
- * Holder to have all the states
+ * Holder to have all the states. Group by states are keyed by the {@link io.siddhi.core.query.selector.GroupByKey}
+ * of their group, or by its String form when restored from a snapshot.
  *
  * @param <S> state
  */
@@ -31,13 +32,13 @@ public interface StateHolder<S extends State> {
 
     void returnState(S state);
 
-    Map<String, Map<String, S>> getAllStates();
+    Map<String, Map<Object, S>> getAllStates();
 
-    void returnAllStates(Map<String, Map<String, S>> states);
+    void returnAllStates(Map<String, Map<Object, S>> states);
 
-    Map<String, S> getAllGroupByStates();
+    Map<Object, S> getAllGroupByStates();
 
     S cleanGroupByStates();
 
-    void returnGroupByStates(Map<String, S> states);
+    void returnGroupByStates(Map<Object, S> states);
 }
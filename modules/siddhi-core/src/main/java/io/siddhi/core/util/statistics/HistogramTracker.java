@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.statistics;
+
+/**
+ * This interface will have the necessary methods to record the distribution of a measured value.
+ */
+public interface HistogramTracker {
+    /**
+     * This method is to record a measured value to calculate its distribution
+     *
+     * @param value measured value
+     */
+    void update(long value);
+
+    /**
+     * @return Name of the histogram tracker
+     */
+    String getName();
+
+}
@@ -31,6 +31,17 @@ public interface StatisticsTrackerFactory {
 
     ThroughputTracker createThroughputTracker(String name, StatisticsManager statisticsManager);
 
+    /**
+     * Create a tracker to record the distribution of a measured value.
+     *
+     * @param name              name of the histogram
+     * @param statisticsManager statistics manager of the Siddhi App
+     * @return histogram tracker, or null if the factory does not support histograms
+     */
+    default HistogramTracker createHistogramTracker(String name, StatisticsManager statisticsManager) {
+        return null;
+    }
+
     BufferedEventsTracker createBufferSizeTracker(StatisticsManager statisticsManager);
 
     MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager);
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import io.siddhi.core.util.statistics.HistogramTracker;
+
+/**
+ * Class to calculate the distribution of Siddhi measurements such as batch sizes.
+ */
+public class SiddhiHistogramMetric implements HistogramTracker {
+    private Histogram histogram;
+    private String name;
+
+    public SiddhiHistogramMetric(String name, MetricRegistry metricRegistry) {
+        this.name = name;
+        histogram = metricRegistry.histogram(this.name);
+    }
+
+    /**
+     * This method is to record a measured value to calculate its distribution
+     *
+     * @param value measured value
+     */
+    @Override
+    public void update(long value) {
+        histogram.update(value);
+    }
+
+    /**
+     * @return Name of the histogram tracker
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+}
@@ -19,6 +19,7 @@
 package io.siddhi.core.util.statistics.metrics;
 
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
+import io.siddhi.core.util.statistics.HistogramTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.StatisticsManager;
@@ -41,6 +42,11 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiThroughputMetric(name, ((SiddhiStatisticsManager) statisticsManager).getRegistry());
     }
 
+    @Override
+    public HistogramTracker createHistogramTracker(String name, StatisticsManager statisticsManager) {
+        return new SiddhiHistogramMetric(name, ((SiddhiStatisticsManager) statisticsManager).getRegistry());
+    }
+
     public BufferedEventsTracker createBufferSizeTracker(StatisticsManager statisticsManager) {
         return new SiddhiBufferedEventsMetric(((SiddhiStatisticsManager) statisticsManager).getRegistry());
     }
@@ -32,6 +32,7 @@ import io.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.query.processor.stream.window.FifoWindowProcessor;
 import io.siddhi.core.query.processor.stream.window.FindableProcessor;
 import io.siddhi.core.query.processor.stream.window.WindowProcessor;
 import io.siddhi.core.stream.StreamJunction;
@@ -109,6 +110,10 @@ public class Window implements FindableProcessor, MemoryCalculable {
     private ThroughputTracker throughputTrackerFind;
     private ThroughputTracker throughputTrackerInsert;
 
+    /**
+     * Whether the window is shared by queries that declared identical windows on the same stream.
+     */
+    private boolean shared;
 
     /**
      * Construct a Window object.
@@ -301,6 +306,18 @@ public class Window implements FindableProcessor, MemoryCalculable {
         return internalWindowProcessor.isStateful();
     }
 
+    public boolean isFifoExpiry() {
+        return internalWindowProcessor instanceof FifoWindowProcessor;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
     /**
      * PublisherProcessor receives events from the last window processor of Window,
      * filter them depending on user defined output type and publish them to the stream junction.
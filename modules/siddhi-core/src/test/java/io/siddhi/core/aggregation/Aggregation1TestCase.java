@@ -2501,4 +2501,152 @@ public class Aggregation1TestCase {
         }
     }
 
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest46"})
+    public void incrementalStreamProcessorTest47() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest47 - Parallel roll-ups");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "" +
+                "@parallel(workers='2', buffer.size='16') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select symbol, avg(price) as avgPrice, sum(price) as totalPrice, (price * quantity) " +
+                "as lastTradeValue  " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...hour ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+
+        stockStreamInputHandler.send(new Object[]{"WSO2", 50f, 60f, 90L, 6, 1496289950000L});
+        stockStreamInputHandler.send(new Object[]{"WSO2", 70f, null, 40L, 10, 1496289950000L});
+
+        stockStreamInputHandler.send(new Object[]{"WSO2", 60f, 44f, 200L, 56, 1496289952000L});
+        stockStreamInputHandler.send(new Object[]{"WSO2", 100f, null, 200L, 16, 1496289952500L});
+
+        stockStreamInputHandler.send(new Object[]{"IBM", 100f, null, 200L, 26, 1496289954000L});
+        stockStreamInputHandler.send(new Object[]{"IBM", 100f, null, 200L, 96, 1496289954500L});
+
+        stockStreamInputHandler.send(new Object[]{"IBM", 100f, null, 200L, 96, 1496293550000L});
+
+        Thread.sleep(2000);
+
+        Event[] events = siddhiAppRuntime.query("from stockAggregation " +
+                "within \"2017-06-** **:**:**\" " +
+                "per \"minutes\"");
+        EventPrinter.print(events);
+
+        Assert.assertNotNull(events);
+        AssertJUnit.assertEquals(3, events.length);
+
+        List<Object[]> eventsOutputList = new ArrayList<>();
+        for (Event event : events) {
+            eventsOutputList.add(event.getData());
+        }
+        List<Object[]> expected = Arrays.asList(
+                new Object[]{1496289900000L, "WSO2", 70.0, 280.0, 1600f},
+                new Object[]{1496289900000L, "IBM", 100.0, 200.0, 9600f},
+                new Object[]{1496293500000L, "IBM", 100.0, 100.0, 9600f}
+        );
+        AssertJUnit.assertTrue("In events matched", SiddhiTestHelper.isUnsortedEventsMatch(eventsOutputList, expected));
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest47"})
+    public void incrementalStreamProcessorTest48() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest48 - Parallel roll-ups of many group-by keys");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "" +
+                "@parallel(workers='4', buffer.size='8') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select symbol, avg(price) as avgPrice, sum(price) as totalPrice, count() as eventCount " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...hour ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+
+        for (int second = 0; second < 10; second++) {
+            for (int key = 0; key < 500; key++) {
+                stockStreamInputHandler.send(new Object[]{"SYMBOL" + key, (float) key, null, 100L, 1,
+                        1496289900000L + second * 1000L});
+            }
+        }
+        stockStreamInputHandler.send(new Object[]{"SYMBOL0", 0f, null, 100L, 1, 1496293550000L});
+
+        Thread.sleep(2000);
+
+        Event[] events = siddhiAppRuntime.query("from stockAggregation " +
+                "within \"2017-06-** **:**:**\" " +
+                "per \"minutes\"");
+
+        Assert.assertNotNull(events);
+        AssertJUnit.assertEquals(501, events.length);
+        for (Event event : events) {
+            if ((Long) event.getData(0) == 1496289900000L) {
+                double price = Double.parseDouble(((String) event.getData(1)).substring("SYMBOL".length()));
+                AssertJUnit.assertEquals(price, event.getData(2));
+                AssertJUnit.assertEquals(price * 10, event.getData(3));
+                AssertJUnit.assertEquals(10L, event.getData(4));
+            }
+        }
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"incrementalStreamProcessorTest48"})
+    public void incrementalStreamProcessorTest49() throws InterruptedException {
+        LOG.info("incrementalStreamProcessorTest49 - Querying parallel roll-ups right after roll-overs");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String stockStream =
+                "define stream stockStream (symbol string, price float, lastClosingPrice float, volume long , " +
+                        "quantity int, timestamp long);";
+        String query = "" +
+                "@parallel(workers='4', buffer.size='4') " +
+                "define aggregation stockAggregation " +
+                "from stockStream " +
+                "select symbol, sum(price) as totalPrice, count() as eventCount " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...hour ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(stockStream + query);
+
+        InputHandler stockStreamInputHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+
+        for (int second = 0; second < 10; second++) {
+            for (int key = 0; key < 200; key++) {
+                stockStreamInputHandler.send(new Object[]{"SYMBOL" + key, 1f, null, 100L, 1,
+                        1496289900000L + second * 1000L});
+            }
+            // The aggregates of the previous second are being rolled up to minutes while querying
+            Event[] events = siddhiAppRuntime.query("from stockAggregation " +
+                    "within \"2017-06-** **:**:**\" " +
+                    "per \"minutes\"");
+
+            Assert.assertNotNull(events);
+            AssertJUnit.assertEquals(200, events.length);
+            long eventCount = 0;
+            for (Event event : events) {
+                eventCount += (Long) event.getData(3);
+            }
+            AssertJUnit.assertEquals("Events aggregated till second " + second, (second + 1) * 200L, eventCount);
+        }
+
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -34,6 +34,7 @@ import org.testng.annotations.Test;
 
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AsyncTestCase {
     private static final Logger log = Logger.getLogger(AsyncTestCase.class);
@@ -401,4 +402,183 @@ public class AsyncTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
 
     }
+
+    @Test(dependsOnMethods = {"asyncTest8"})
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='256', workers='1', batch.size.max='50', batch.size.min='5', " +
+                "latency.target='20', wait.strategy='yielding')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger maxBatchSize = new AtomicInteger(50);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                count.addAndGet(events.length);
+                Assert.assertTrue(events.length <= maxBatchSize.get());
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 115.6f, 100 + i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 1000, count, 10000);
+        siddhiAppRuntime.setStreamBatching("cseEventStream", 1, 10, 0);
+        maxBatchSize.set(10);
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 115.6f, 100 + i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 2000, count, 10000);
+        AssertJUnit.assertEquals(2000, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest9"})
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='1', wait.strategy='polling')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+    }
+
+    @Test(dependsOnMethods = {"asyncTest10"})
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='1024', workers='1', batch.size.max='100', ingestion='ring')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicLong totalVolume = new AtomicLong();
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                count.addAndGet(events.length);
+                totalVolume.set((Long) events[events.length - 1].getData(1));
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 500; j++) {
+                        inputHandler.send(new Object[]{"WSO2", 115.6f, 1});
+                    }
+                } catch (InterruptedException e) {
+                    log.error(e.getMessage(), e);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        SiddhiTestHelper.waitForEvents(100, 2000, count, 10000);
+        AssertJUnit.assertEquals(2000, count.get());
+        AssertJUnit.assertEquals(2000, totalVolume.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"asyncTest11"})
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='1', batch.size.max='4', ingestion='ring')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "@async(buffer.size='16', workers='1', batch.size.max='4', ingestion='ring')" +
+                "define stream outputStream (symbol string, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                count.addAndGet(events.length);
+                try {
+                    // Slow consumer keeping the ring of outputStream full.
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    inputHandler.send(new Object[]{"WSO2", 115.6f, i});
+                }
+            } catch (InterruptedException e) {
+                log.error(e.getMessage(), e);
+            }
+        });
+        producer.start();
+        // The worker of cseEventStream blocks on the full ring of outputStream, whose worker waits on the barrier
+        // locked by the snapshot, hence snapshots only complete as the blocked worker leaves the barrier.
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            siddhiAppRuntime.snapshot();
+        }
+        AssertJUnit.assertTrue(System.currentTimeMillis() - start < 10000);
+        producer.join();
+        SiddhiTestHelper.waitForEvents(100, 1000, count, 10000);
+        AssertJUnit.assertEquals(1000, count.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
 }
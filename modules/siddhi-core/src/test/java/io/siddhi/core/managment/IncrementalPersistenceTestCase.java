@@ -34,6 +34,7 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -1280,4 +1281,75 @@ public class IncrementalPersistenceTestCase {
 
         AssertJUnit.assertEquals(true, eventArrived);
     }
+
+    @Test
+    public void incrementalPersistenceTest13() throws InterruptedException {
+        log.info("Incremental persistence test 13 - compaction of increments of external time window query");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalFileSystemPersistenceStore(storageFilePath));
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest13') " +
+                "" +
+                "define stream StockStream ( symbol string, timestamp long, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.externalTime(timestamp, 5 sec) " +
+                "select symbol, timestamp, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        int increments = 12;
+        for (int i = 0; i <= increments; i++) {
+            inputHandler.send(new Object[]{"IBM", 1000L * i, 100 + i});
+            siddhiAppRuntime.persist();
+            Thread.sleep(100);
+        }
+        File revisionFolder = new File(storageFilePath + File.separator + "incrementalPersistenceTest13");
+        int incrementRevisions = Integer.MAX_VALUE;
+        for (int i = 0; i < 50 && incrementRevisions > 2; i++) {
+            Thread.sleep(100);
+            String[] revisions = revisionFolder.list((dir, name) -> name.endsWith("INCREMENT"));
+            incrementRevisions = revisions == null ? 0 : revisions.length;
+        }
+        AssertJUnit.assertTrue("Increments are not compacted", incrementRevisions <= 2);
+
+        inputHandler.send(new Object[]{"IBM", 1000L * (increments + 1), 200});
+        Long expectedValue = lastValue;
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.error(e.getMessage(), e);
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        lastValue = 0L;
+        inputHandler.send(new Object[]{"IBM", 1000L * (increments + 1), 200});
+        AssertJUnit.assertEquals(expectedValue, lastValue);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(true, eventArrived);
+    }
 }
@@ -28,15 +28,23 @@ import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import io.siddhi.core.util.snapshot.PersistenceReference;
+import io.siddhi.core.util.snapshot.SegmentedSnapshotSerializer;
 import org.apache.log4j.Logger;
 import org.testng.Assert;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -1119,4 +1127,285 @@ public class PersistenceTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test(dependsOnMethods = "persistenceTest13")
+    public void persistenceTest14() throws InterruptedException {
+        log.info("Persistence test 14 - composite and long group by keys.");
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "define stream StockStream (symbol string, price double, volume long);" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream " +
+                "select symbol, volume, sum(price) as totalPrice " +
+                "group by symbol, volume " +
+                "insert into OutStream; " +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream " +
+                "select volume, count() as eventCount " +
+                "group by volume " +
+                "insert into CountStream; ";
+
+        QueryCallback sumCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    if ("IBM".equals(inEvent.getData(0)) && inEvent.getData(1).equals(1L)) {
+                        lastValue = ((Double) inEvent.getData(2)).longValue();
+                    }
+                }
+            }
+        };
+        QueryCallback countCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event inEvent : inEvents) {
+                    if (inEvent.getData(0).equals(2L)) {
+                        firstValue = (Long) inEvent.getData(1);
+                    }
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", sumCallback);
+        siddhiAppRuntime.addCallback("query2", countCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 10.0, 1L});
+        inputHandler.send(new Object[]{"IBM", 20.0, 2L});
+        inputHandler.send(new Object[]{"WSO2", 30.0, 1L});
+        inputHandler.send(new Object[]{"IBM", 5.0, 1L});
+        AssertJUnit.assertEquals(new Long(15), lastValue);
+
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", sumCallback);
+        siddhiAppRuntime.addCallback("query2", countCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"IBM", 1.0, 1L});
+        inputHandler.send(new Object[]{"WSO2", 2.0, 2L});
+
+        AssertJUnit.assertEquals(new Long(16), lastValue);
+        AssertJUnit.assertEquals(2, firstValue);
+        AssertJUnit.assertEquals(6, count);
+        AssertJUnit.assertEquals(true, eventArrived);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = "persistenceTest14")
+    public void persistenceTest15() throws Exception {
+        log.info("Persistence test 15 - streaming file system persistence store.");
+        String location = "target" + File.separator + "persistenceTest15";
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("location", location);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceConstants.STATE_PERSISTENCE_CONFIGS, configs);
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore();
+        persistenceStore.setProperties(properties);
+        persistenceStore.clearAllRevisions("Test");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        byte[] snapshot = siddhiAppRuntime.snapshot();
+        String[] revisions = new File(location + File.separator + "Test").list();
+        AssertJUnit.assertNotNull(revisions);
+        AssertJUnit.assertEquals(1, revisions.length);
+        AssertJUnit.assertEquals(persistenceReference.getRevision(), revisions[0]);
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        siddhiAppRuntime.restore(new ByteArrayInputStream(snapshot));
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        persistenceStore.clearAllRevisions("Test");
+        AssertJUnit.assertEquals(5, count);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest15")
+    public void persistenceTest16() throws Exception {
+        log.info("Persistence test 16 - segmented snapshot of multiple queries.");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream; " +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, count() as totalCount " +
+                "insert into CountStream; ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+        QueryCallback countCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event inEvent : inEvents) {
+                    firstValue = (Long) inEvent.getData(1);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", countCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+        AssertJUnit.assertEquals(2, firstValue);
+
+        byte[] snapshot = siddhiAppRuntime.snapshot();
+        AssertJUnit.assertTrue(SegmentedSnapshotSerializer.isSegmented(snapshot));
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", countCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restore(snapshot);
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+        AssertJUnit.assertEquals(3, firstValue);
+
+        byte[] corruptedSnapshot = snapshot.clone();
+        corruptedSnapshot[corruptedSnapshot.length - 1] ^= 1;
+        try {
+            siddhiAppRuntime.restore(corruptedSnapshot);
+            Assert.fail("Restoring a corrupted snapshot should fail");
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.info("Corrupted snapshot rejected: " + e.getMessage());
+        }
+
+        // locate the length and the payload of the first segment
+        ByteArrayInputStream segmentStream = new ByteArrayInputStream(snapshot);
+        DataInputStream segmentHeader = new DataInputStream(segmentStream);
+        segmentHeader.readInt();
+        segmentHeader.readByte();
+        segmentHeader.readByte();
+        segmentHeader.readUTF();
+        segmentHeader.readUTF();
+        int lengthOffset = snapshot.length - segmentStream.available();
+        int segmentLength = segmentHeader.readInt();
+        AssertJUnit.assertTrue(segmentLength > 0);
+        int payloadOffset = lengthOffset + 4 + 8;
+
+        corruptedSnapshot = snapshot.clone();
+        corruptedSnapshot[payloadOffset + segmentLength / 2] ^= 1;
+        try {
+            siddhiAppRuntime.restore(corruptedSnapshot);
+            Assert.fail("Restoring a snapshot with a corrupted segment should fail");
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.info("Corrupted segment rejected: " + e.getMessage());
+        }
+
+        for (int corruptedLength : new int[]{-1, Integer.MAX_VALUE}) {
+            corruptedSnapshot = snapshot.clone();
+            corruptedSnapshot[lengthOffset] = (byte) (corruptedLength >>> 24);
+            corruptedSnapshot[lengthOffset + 1] = (byte) (corruptedLength >>> 16);
+            corruptedSnapshot[lengthOffset + 2] = (byte) (corruptedLength >>> 8);
+            corruptedSnapshot[lengthOffset + 3] = (byte) corruptedLength;
+            try {
+                siddhiAppRuntime.restore(corruptedSnapshot);
+                Assert.fail("Restoring a snapshot with a corrupted segment length should fail");
+            } catch (CannotRestoreSiddhiAppStateException e) {
+                log.info("Corrupted segment length rejected: " + e.getMessage());
+            }
+        }
+
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+        AssertJUnit.assertEquals(4, firstValue);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(4, count);
+    }
 }
@@ -25,6 +25,11 @@ import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
 import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.query.selector.attribute.aggregator.MonotonicDeque;
+import io.siddhi.core.util.snapshot.SnapshotCopier;
+import io.siddhi.core.util.snapshot.codec.BinarySnapshotCodec;
+import io.siddhi.core.util.snapshot.codec.JavaSnapshotCodec;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 import io.siddhi.query.api.definition.Attribute;
@@ -40,8 +45,10 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class SnapshotableEventQueueTestCase {
@@ -400,4 +407,253 @@ public class SnapshotableEventQueueTestCase {
         Assert.assertEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue2);
     }
 
+    @Test
+    public void incrementalPersistenceTest6() throws InterruptedException, IOException, ClassNotFoundException {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1L});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        snapshotStateList.putSnapshotState(3L, snapshotableStreamEventQueue.getSnapshot());
+
+        snapshotableStreamEventQueue.next();
+        snapshotableStreamEventQueue.next();
+        snapshotableStreamEventQueue.remove();
+        for (int i = 10; i < 15; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+        snapshotStateList.putSnapshotState(4L, snapshotableStreamEventQueue.getSnapshot());
+
+        BinarySnapshotCodec binarySnapshotCodec = new BinarySnapshotCodec();
+        byte[] binarySnapshot = binarySnapshotCodec.encode(snapshotStateList);
+        byte[] javaSnapshot = new JavaSnapshotCodec().encode(snapshotStateList);
+        log.info("Binary snapshot size: " + binarySnapshot.length + ", Java snapshot size: " + javaSnapshot.length);
+        Assert.assertTrue(binarySnapshot.length < javaSnapshot.length);
+
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue2 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        snapshotableStreamEventQueue2.restore((SnapshotStateList) binarySnapshotCodec.decode(binarySnapshot));
+        Assert.assertEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue2);
+
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue3 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        snapshotableStreamEventQueue3.restore((SnapshotStateList) binarySnapshotCodec.decode(javaSnapshot));
+        Assert.assertEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue3);
+    }
+
+    @Test
+    public void incrementalPersistenceTest7() throws InterruptedException, IOException, ClassNotFoundException {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1L});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+
+        Snapshot snapshot = (Snapshot) SnapshotCopier.copy(snapshotableStreamEventQueue.getSnapshot());
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue2 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        snapshotStateList.putSnapshotState(3L, snapshot);
+        snapshotableStreamEventQueue2.restore(snapshotStateList);
+
+        snapshotableStreamEventQueue.next();
+        snapshotableStreamEventQueue.next();
+        snapshotableStreamEventQueue.remove();
+        for (int i = 10; i < 15; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+
+        int count = 0;
+        for (StreamEvent event = (StreamEvent) snapshot.getState(); event != null; event = event.getNext()) {
+            Assert.assertEquals(event.getOutputData()[2], (long) count);
+            count++;
+        }
+        Assert.assertEquals(count, 10);
+        Assert.assertNotEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue2);
+    }
+
+    @Test
+    public void incrementalPersistenceTest8() throws InterruptedException, IOException, ClassNotFoundException {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1L});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+        HashMap<Long, String> snapshots = new HashMap<>();
+        snapshots.put(3L, toString(snapshotableStreamEventQueue.getSnapshot()));
+
+        for (int i = 10; i < 15; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+        // delete the events 2 and 11, one from the base and one from the added events
+        moveTo(snapshotableStreamEventQueue, 2);
+        snapshotableStreamEventQueue.remove();
+        moveTo(snapshotableStreamEventQueue, 10);
+        snapshotableStreamEventQueue.remove();
+        // overwrite the events 4 and 13, one from the base and one from the added events
+        streamEvent.getOutputData()[2] = 100L;
+        moveTo(snapshotableStreamEventQueue, 3);
+        snapshotableStreamEventQueue.overwrite(streamEventCloner.copyStreamEvent(streamEvent));
+        streamEvent.getOutputData()[2] = 200L;
+        moveTo(snapshotableStreamEventQueue, 11);
+        snapshotableStreamEventQueue.overwrite(streamEventCloner.copyStreamEvent(streamEvent));
+        snapshotableStreamEventQueue.poll();
+
+        Snapshot snapshot = snapshotableStreamEventQueue.getSnapshot();
+        Assert.assertTrue(snapshot.isIncrementalSnapshot());
+        snapshots.put(4L, toString(snapshot));
+
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue2 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        for (Map.Entry<Long, String> entry : snapshots.entrySet()) {
+            snapshotStateList.putSnapshotState(entry.getKey(), (Snapshot) fromString(entry.getValue()));
+        }
+        snapshotableStreamEventQueue2.restore(snapshotStateList);
+
+        List<Object> expectedVolumes = Arrays.asList(1L, 3L, 100L, 5L, 6L, 7L, 8L, 9L, 10L, 12L, 200L, 14L);
+        Assert.assertEquals(getVolumes(snapshotableStreamEventQueue.getFirst()), expectedVolumes);
+        Assert.assertEquals(getVolumes(snapshotableStreamEventQueue2.getFirst()), expectedVolumes);
+
+        snapshotStateList = new SnapshotStateList();
+        for (Map.Entry<Long, String> entry : snapshots.entrySet()) {
+            snapshotStateList.putSnapshotState(entry.getKey(), (Snapshot) fromString(entry.getValue()));
+        }
+        Snapshot mergedSnapshot = SnapshotableStreamEventQueue.merge(snapshotStateList);
+        Assert.assertFalse(mergedSnapshot.isIncrementalSnapshot());
+        Assert.assertEquals(getVolumes((StreamEvent) mergedSnapshot.getState()), expectedVolumes);
+    }
+
+    @Test
+    public void incrementalPersistenceTest9() throws InterruptedException, IOException, ClassNotFoundException {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1L});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+        HashMap<Long, String> snapshots = new HashMap<>();
+        snapshots.put(3L, toString(snapshotableStreamEventQueue.getSnapshot()));
+
+        // operations at decreasing indexes need the restore to rewind the iteration
+        moveTo(snapshotableStreamEventQueue, 7);
+        snapshotableStreamEventQueue.remove();
+        moveTo(snapshotableStreamEventQueue, 2);
+        snapshotableStreamEventQueue.remove();
+        streamEvent.getOutputData()[2] = 100L;
+        moveTo(snapshotableStreamEventQueue, 5);
+        snapshotableStreamEventQueue.overwrite(streamEventCloner.copyStreamEvent(streamEvent));
+        streamEvent.getOutputData()[2] = 200L;
+        moveTo(snapshotableStreamEventQueue, 0);
+        snapshotableStreamEventQueue.overwrite(streamEventCloner.copyStreamEvent(streamEvent));
+        snapshots.put(4L, toString(snapshotableStreamEventQueue.getSnapshot()));
+
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue2 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        for (Map.Entry<Long, String> entry : snapshots.entrySet()) {
+            snapshotStateList.putSnapshotState(entry.getKey(), (Snapshot) fromString(entry.getValue()));
+        }
+        snapshotableStreamEventQueue2.restore(snapshotStateList);
+
+        List<Object> expectedVolumes = Arrays.asList(200L, 1L, 3L, 4L, 5L, 100L, 8L, 9L);
+        Assert.assertEquals(getVolumes(snapshotableStreamEventQueue.getFirst()), expectedVolumes);
+        Assert.assertEquals(getVolumes(snapshotableStreamEventQueue2.getFirst()), expectedVolumes);
+    }
+
+    @Test
+    public void snapshotCopyTest1() {
+        MonotonicDeque maxDeque = new MonotonicDeque(true, Attribute.Type.LONG);
+        maxDeque.add(5L);
+        maxDeque.add(3L);
+        Map<String, Object> state = new HashMap<>();
+        state.put("MaxDeque", maxDeque);
+        state.put("Values", new long[]{1L, 2L});
+
+        Map<String, Object> copy = (Map<String, Object>) SnapshotCopier.copy(state);
+        maxDeque.add(10L);
+        ((long[]) state.get("Values"))[0] = 100L;
+
+        Assert.assertEquals(((MonotonicDeque) copy.get("MaxDeque")).peek(), 5L);
+        Assert.assertEquals(((long[]) copy.get("Values"))[0], 1L);
+        Assert.assertEquals(maxDeque.peek(), 10L);
+    }
+
+    @Test(expectedExceptions = SiddhiAppRuntimeException.class)
+    public void snapshotCopyTest2() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Lock", new Object());
+        SnapshotCopier.copy(state);
+    }
+
+    private void moveTo(SnapshotableStreamEventQueue snapshotableStreamEventQueue, int index) {
+        snapshotableStreamEventQueue.reset();
+        for (int i = 0; i <= index; i++) {
+            snapshotableStreamEventQueue.next();
+        }
+    }
+
+    private List<Object> getVolumes(StreamEvent streamEvent) {
+        List<Object> volumes = new ArrayList<>();
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            volumes.add(event.getOutputData()[2]);
+        }
+        return volumes;
+    }
 }
@@ -19,8 +19,19 @@ package io.siddhi.core.query;
 
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.ColumnarEventBatch;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.StreamVariableExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
+import io.siddhi.core.query.QueryRuntimeImpl;
+import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.util.EventPrinter;
@@ -1776,4 +1787,262 @@ public class FilterTestCase2 {
 
 
     }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long, " +
+                "quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[price * 2 > 100.0 and volume / quantity < 500 and not (price - 10 == 90.0)] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                AssertJUnit.assertTrue("IBM".equals(inEvents[0].getData(0)));
+                count.addAndGet(inEvents.length);
+                eventArrived.set(true);
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.5, 1000L, 10});
+        inputHandler.send(new Object[]{"WSO2", 40.0, 1000L, 10});
+        inputHandler.send(new Object[]{"ORACLE", 100.0, 1000L, 10});
+        inputHandler.send(new Object[]{"GOOGLE", 75.5, 1000L, 0});
+        inputHandler.send(new Object[]{"MSFT", null, 1000L, 10});
+        inputHandler.send(new Object[]{"APPLE", 75.5, null, 10});
+        SiddhiTestHelper.waitForEvents(10, 1, count, 100);
+        AssertJUnit.assertEquals(1, count.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest124() throws InterruptedException {
+        log.info("filter test124");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long, " +
+                "quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[quantity + 1 < 0 or price % 2 == 1.5 or volume * 2L >= 400L] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                count.addAndGet(inEvents.length);
+                eventArrived.set(true);
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 10f, 100L, Integer.MAX_VALUE});
+        inputHandler.send(new Object[]{"WSO2", 7.5f, 100L, 10});
+        inputHandler.send(new Object[]{"ORACLE", 10f, 200L, 10});
+        inputHandler.send(new Object[]{"GOOGLE", 10f, 100L, 10});
+        inputHandler.send(new Object[]{"MSFT", null, null, null});
+        SiddhiTestHelper.waitForEvents(10, 3, count, 100);
+        AssertJUnit.assertEquals(3, count.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest125() throws InterruptedException {
+        log.info("filter test125 - optimized expressions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:optimize('true') " +
+                "define stream cseEventStream (symbol string, price double, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[price * 2 > 50.0 * 2 and volume / quantity < 500 and not (10 > 20)] " +
+                "select symbol, price * 2 as doublePrice, volume + quantity * (2 + 3) as total, " +
+                "ifThenElse(quantity > 5, 'high', 'low') as level " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    count.incrementAndGet();
+                    if (count.get() == 1) {
+                        AssertJUnit.assertEquals("IBM", event.getData(0));
+                        AssertJUnit.assertEquals(151.0, event.getData(1));
+                        AssertJUnit.assertEquals(1050L, event.getData(2));
+                        AssertJUnit.assertEquals("high", event.getData(3));
+                    } else {
+                        AssertJUnit.assertEquals("ORACLE", event.getData(0));
+                        AssertJUnit.assertEquals(105L, event.getData(2));
+                        AssertJUnit.assertEquals("low", event.getData(3));
+                    }
+                }
+                eventArrived.set(true);
+            }
+
+        });
+
+        QueryRuntimeImpl queryRuntime = (QueryRuntimeImpl) siddhiAppRuntime.getQueries().iterator().next();
+        AssertJUnit.assertTrue(queryRuntime.getSelector().getAttributeProcessorList().get(0)
+                .getExpressionExecutor() instanceof StreamVariableExpressionExecutor);
+        Processor processor = ((SingleStreamRuntime) queryRuntime.getStreamRuntime()).getProcessorChain();
+        while (!(processor instanceof FilterProcessor)) {
+            processor = processor.getNextProcessor();
+        }
+        AssertJUnit.assertTrue(isOptimized(((FilterProcessor) processor).getConditionExecutor()));
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.5, 1000L, 10});
+        inputHandler.send(new Object[]{"WSO2", 40.0, 1000L, 10});
+        inputHandler.send(new Object[]{"GOOGLE", 75.5, 1000L, 0});
+        inputHandler.send(new Object[]{"ORACLE", 75.5, null, 1});
+        inputHandler.send(new Object[]{"ORACLE", 75.5, 100L, 1});
+        SiddhiTestHelper.waitForEvents(10, 2, count, 100);
+        AssertJUnit.assertEquals(2, count.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    private boolean isOptimized(ExpressionExecutor expressionExecutor) {
+        if (expressionExecutor instanceof StreamVariableExpressionExecutor) {
+            return true;
+        } else if (expressionExecutor instanceof AndConditionExpressionExecutor) {
+            return isOptimized(((AndConditionExpressionExecutor) expressionExecutor).getLeftConditionExecutor()) &&
+                    isOptimized(((AndConditionExpressionExecutor) expressionExecutor).getRightConditionExecutor());
+        } else if (expressionExecutor instanceof CompareConditionExpressionExecutor) {
+            return isOptimized(((CompareConditionExpressionExecutor) expressionExecutor).getLeftExpressionExecutor());
+        } else if (expressionExecutor instanceof ArithmeticExpressionExecutor) {
+            return isOptimized(((ArithmeticExpressionExecutor) expressionExecutor).getLeftExpressionExecutor());
+        }
+        // Constant operands such as not (10 > 20) are folded when optimized.
+        return expressionExecutor instanceof ConstantExpressionExecutor;
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void filterTest125a() {
+        log.info("filter test125a - invalid optimize annotation value");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:optimize('yes') " +
+                "define stream cseEventStream (symbol string, price double, volume long, quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[price > 50.0] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+    }
+
+    @Test
+    public void filterTest126() throws InterruptedException {
+        log.info("filter test126 - columnar event batch");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price double, volume long, quantity int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 50.0 and volume < 500] " +
+                "select symbol, volume * quantity as total " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.lengthBatch(4) " +
+                "select count() as eventCount, sum(quantity) as totalQuantity " +
+                "insert into countStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        AtomicInteger windowCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    count.incrementAndGet();
+                    if (count.get() == 1) {
+                        AssertJUnit.assertEquals("IBM", event.getData(0));
+                        AssertJUnit.assertEquals(1000L, event.getData(1));
+                        AssertJUnit.assertEquals(100L, event.getTimestamp());
+                    } else {
+                        AssertJUnit.assertEquals("ORACLE", event.getData(0));
+                        AssertJUnit.assertEquals(null, event.getData(1));
+                    }
+                }
+                eventArrived.set(true);
+            }
+
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    windowCount.incrementAndGet();
+                    AssertJUnit.assertEquals(4L, event.getData(0));
+                    AssertJUnit.assertEquals(20L, event.getData(1));
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        ColumnarEventBatch batch = new ColumnarEventBatch(
+                siddhiAppRuntime.getStreamDefinitionMap().get("cseEventStream"), 2);
+        int row = batch.addRow(100L);
+        batch.setObject(row, 0, "IBM");
+        batch.setDouble(row, 1, 75.5);
+        batch.setLong(row, 2, 100L);
+        batch.setInt(row, 3, 10);
+        row = batch.addRow(101L);
+        batch.setObject(row, 0, "WSO2");
+        batch.setDouble(row, 1, 40.0);
+        batch.setLong(row, 2, 100L);
+        batch.setInt(row, 3, 5);
+        batch.addRow(102L, new Object[]{"GOOGLE", 75.5, 1000L, 5});
+        row = batch.addRow(103L);
+        batch.setObject(row, 0, "ORACLE");
+        batch.setDouble(row, 1, 75.5);
+        batch.setLong(row, 2, 10L);
+        batch.setNull(row, 3);
+        inputHandler.send(batch);
+
+        batch.clear();
+        batch.addRow(104L, new Object[]{"IBM", 75.5, null, 1});
+        inputHandler.send(batch);
+        SiddhiTestHelper.waitForEvents(10, 2, count, 100);
+        AssertJUnit.assertEquals(2, count.get());
+        AssertJUnit.assertEquals(1, windowCount.get());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
 }
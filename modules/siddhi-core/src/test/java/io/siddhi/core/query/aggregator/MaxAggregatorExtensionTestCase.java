@@ -31,6 +31,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MaxAggregatorExtensionTestCase {
 
     private static final Logger log = Logger.getLogger(MaxAggregatorExtensionTestCase.class);
@@ -180,4 +183,94 @@ public class MaxAggregatorExtensionTestCase {
         execPlanRunTime.shutdown();
     }
 
+    @Test
+    public void maxAttributeAggregatorTest3() throws InterruptedException {
+
+        log.info("maxAttributeAggregator Test #3: sliding max and min over a length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String execPlan = "" +
+                "define stream cseEventStream (symbol string, volume int, price double);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(3) " +
+                "select symbol, max(volume) as maxVolume, min(volume) as minVolume, " +
+                "   max(price) as maxPrice, min(price) as minPrice " +
+                "group by symbol " +
+                "insert into outputStream;";
+
+        SiddhiAppRuntime execPlanRunTime = siddhiManager.createSiddhiAppRuntime(execPlan);
+        List<Object[]> results = new ArrayList<>();
+        execPlanRunTime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    results.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = execPlanRunTime.getInputHandler("cseEventStream");
+
+        execPlanRunTime.start();
+        inputHandler.send(new Object[]{"IBM", 5, -5.5});
+        inputHandler.send(new Object[]{"IBM", 1, -1.5});
+        inputHandler.send(new Object[]{"IBM", 4, -4.5});
+        inputHandler.send(new Object[]{"IBM", 2, -2.5});
+        inputHandler.send(new Object[]{"IBM", 3, -3.5});
+        inputHandler.send(new Object[]{"IBM", 0, 0.5});
+        Thread.sleep(100);
+
+        AssertJUnit.assertEquals(6, results.size());
+        int[] maxVolumes = {5, 5, 5, 4, 4, 3};
+        int[] minVolumes = {5, 1, 1, 1, 2, 0};
+        double[] maxPrices = {-5.5, -1.5, -1.5, -1.5, -2.5, 0.5};
+        double[] minPrices = {-5.5, -5.5, -5.5, -4.5, -4.5, -3.5};
+        for (int i = 0; i < results.size(); i++) {
+            AssertJUnit.assertEquals(maxVolumes[i], results.get(i)[1]);
+            AssertJUnit.assertEquals(minVolumes[i], results.get(i)[2]);
+            AssertJUnit.assertEquals(maxPrices[i], results.get(i)[3]);
+            AssertJUnit.assertEquals(minPrices[i], results.get(i)[4]);
+        }
+        execPlanRunTime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void maxAttributeAggregatorTest4() {
+
+        log.info("maxAttributeAggregator Test #4: unsupported type over a length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String execPlan = "" +
+                "define stream cseEventStream (symbol string, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(3) " +
+                "select max(symbol) as maxSymbol " +
+                "insert into outputStream;";
+
+        siddhiManager.createSiddhiAppRuntime(execPlan);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void minAttributeAggregatorTest4() {
+
+        log.info("minAttributeAggregator Test #4: unsupported type over a length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String execPlan = "" +
+                "define stream cseEventStream (symbol string, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(3) " +
+                "select min(symbol) as minSymbol " +
+                "insert into outputStream;";
+
+        siddhiManager.createSiddhiAppRuntime(execPlan);
+    }
+
 }
@@ -126,4 +126,77 @@ public class PartitionDataPurgingTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testPartitionPurgQuery2() throws InterruptedException {
+        log.info("Partition test with group by");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest') " +
+                "" +
+                "define stream streamA (symbol string, volume int, price int);" +
+                "" +
+                "@purge(enable='true', interval='1 sec', idle.period='1 sec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from streamA " +
+                "   select symbol, volume, sum(price) as total " +
+                "   group by volume " +
+                "   insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int eventCount = count.incrementAndGet();
+                    switch (eventCount) {
+                        case 1:
+                            Assert.assertEquals(event.getData(2), 10L);
+                            break;
+                        case 2:
+                            Assert.assertEquals(event.getData(2), 20L);
+                            break;
+                        case 3:
+                            Assert.assertEquals(event.getData(2), 5L);
+                            break;
+                        case 4:
+                            Assert.assertEquals(event.getData(2), 20L);
+                            break;
+                        case 5:
+                            Assert.assertEquals(event.getData(2), 25L);
+                            break;
+                        case 6:
+                            Assert.assertEquals(event.getData(2), 7L);
+                            break;
+                        case 7:
+                            Assert.assertEquals(event.getData(2), 1L);
+                            break;
+                    }
+                }
+                eventArrived = true;
+            }
+        };
+        siddhiAppRuntime.addCallback("StockQuote", streamCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 1, 10});
+        inputHandler.send(new Object[]{"WSO2", 1, 20});
+        inputHandler.send(new Object[]{"IBM", 2, 5});
+        inputHandler.send(new Object[]{"IBM", 1, 10});
+        inputHandler.send(new Object[]{"WSO2", 1, 5});
+        Thread.sleep(2100);
+        inputHandler.send(new Object[]{"IBM", 1, 7});
+        inputHandler.send(new Object[]{"WSO2", 1, 1});
+
+        SiddhiTestHelper.waitForEvents(100, 7, count, 60000);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(7, count.get());
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -31,6 +31,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionTestCase2 {
@@ -1202,4 +1205,367 @@ public class PartitionTestCase2 {
 
     }
 
+    @Test
+    public void testPartitionQuery51() throws InterruptedException {
+        log.info("Partition test51 - parallel partition");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest51') " +
+                "define stream cseEventStream (symbol string, price float, volume int); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount, sum(volume) as totalVolume " +
+                "   insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        Map<String, Long> lastCounts = new ConcurrentHashMap<>();
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    long eventCount = (Long) event.getData(1);
+                    Long lastCount = lastCounts.put(symbol, eventCount);
+                    if (eventCount != (lastCount == null ? 1 : lastCount + 1) ||
+                            (Long) event.getData(2) != eventCount * 10) {
+                        inOrder.set(false);
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < 10; j++) {
+                inputHandler.send(new Object[]{"SYMBOL" + j, 10f, 10});
+            }
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 10000, count, 60000);
+        AssertJUnit.assertEquals(10000, count.get());
+        AssertJUnit.assertTrue(inOrder.get());
+        for (int j = 0; j < 10; j++) {
+            AssertJUnit.assertEquals(Long.valueOf(1000), lastCounts.get("SYMBOL" + j));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery52() throws InterruptedException {
+        log.info("Partition test52 - parallel partition with window and batched events");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest52') " +
+                "define stream cseEventStream (symbol string, price float, volume int); " +
+                "" +
+                "@parallel(workers='4', buffer.size='8') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.length(5) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        Map<String, Long> lastTotals = new ConcurrentHashMap<>();
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    long totalVolume = (Long) event.getData(1);
+                    Long lastTotal = lastTotals.put(symbol, totalVolume);
+                    long expectedTotal = lastTotal == null ? 10 : Math.min(lastTotal + 10, 50);
+                    if (totalVolume != expectedTotal) {
+                        inOrder.set(false);
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 500; i++) {
+            Event[] events = new Event[20];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(), new Object[]{"SYMBOL" + (j / 2), 10f, 10});
+            }
+            inputHandler.send(events);
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 10000, count, 60000);
+        AssertJUnit.assertEquals(10000, count.get());
+        AssertJUnit.assertTrue(inOrder.get());
+        for (int j = 0; j < 10; j++) {
+            AssertJUnit.assertEquals(Long.valueOf(50), lastTotals.get("SYMBOL" + j));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery53() throws InterruptedException {
+        log.info("Partition test53 - parallel partition with join");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest53') " +
+                "define stream StockStream (symbol string, price float); " +
+                "define stream TwitterStream (symbol string, price float); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of StockStream, symbol of TwitterStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from StockStream#window.length(1) join TwitterStream#window.length(1) " +
+                "       on StockStream.symbol == TwitterStream.symbol " +
+                "   select StockStream.symbol, StockStream.price as stockPrice, TwitterStream.price as tweetPrice " +
+                "   insert into OutStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        AtomicBoolean matched = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    float difference = (Float) event.getData(1) - (Float) event.getData(2);
+                    // Each event joins the latest event of the other stream of its symbol.
+                    if (difference != 0f && difference != 1f) {
+                        matched.set(false);
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler twitterStream = siddhiAppRuntime.getInputHandler("TwitterStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 10; j++) {
+                stockStream.send(new Object[]{"SYMBOL" + j, (float) i});
+            }
+            for (int j = 0; j < 10; j++) {
+                twitterStream.send(new Object[]{"SYMBOL" + j, (float) i});
+            }
+        }
+
+        // Per symbol, each twitter event joins and each stock event but the first joins.
+        SiddhiTestHelper.waitForEvents(100, 3990, count, 60000);
+        AssertJUnit.assertEquals(3990, count.get());
+        AssertJUnit.assertTrue(matched.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery54() throws InterruptedException {
+        log.info("Partition test54 - parallel partition with pattern");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest54') " +
+                "define stream StockStream (symbol string, price float); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from every e1=StockStream -> e2=StockStream[price > e1.price] " +
+                "   select e1.symbol, e1.price as price1, e2.price as price2 " +
+                "   insert into OutStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ((Float) event.getData(2) != (Float) event.getData(1) + 1) {
+                        inOrder.set(false);
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 200; i++) {
+            Event[] events = new Event[10];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(), new Object[]{"SYMBOL" + j, (float) i});
+            }
+            stockStream.send(events);
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 1990, count, 60000);
+        AssertJUnit.assertEquals(1990, count.get());
+        AssertJUnit.assertTrue(inOrder.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery55() throws InterruptedException {
+        log.info("Partition test55 - parallel range partition with overlapping ranges");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest55') " +
+                "define stream cseEventStream (symbol string, price float, volume int); " +
+                "" +
+                "@parallel(workers='2') " +
+                "partition with (volume < 50 as 'small' or volume >= 0 as 'any' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.length(2) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into OutStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        AtomicBoolean valid = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    long totalVolume = (Long) event.getData(1);
+                    // The small partition only holds volume 10 events, while the other holds 10 and 60 pairs.
+                    if (totalVolume != 10 && totalVolume != 20 && totalVolume != 60 && totalVolume != 70) {
+                        valid.set(false);
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Event[]{
+                    new Event(System.currentTimeMillis(), new Object[]{"IBM", 10f, 10}),
+                    new Event(System.currentTimeMillis(), new Object[]{"WSO2", 10f, 60})
+            });
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 1500, count, 60000);
+        AssertJUnit.assertEquals(1500, count.get());
+        AssertJUnit.assertTrue(valid.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery56() throws InterruptedException {
+        log.info("Partition test56 - parallel partition with many keys sent from several threads");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest56') " +
+                "define stream cseEventStream (symbol string, price float, volume int); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, price, count() as eventCount, sum(volume) as totalVolume " +
+                "   group by price " +
+                "   insert into OutStockStream ; " +
+                "" +
+                "   @info(name = 'query2') " +
+                "   from cseEventStream#window.length(3) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into WindowStockStream ; " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        Map<String, Long> lastCounts = new ConcurrentHashMap<>();
+        Map<String, Long> lastTotals = new ConcurrentHashMap<>();
+        AtomicInteger windowCount = new AtomicInteger();
+        AtomicBoolean valid = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String group = event.getData(0) + "-" + event.getData(1);
+                    long eventCount = (Long) event.getData(2);
+                    lastCounts.merge(group, eventCount, Math::max);
+                    lastTotals.merge(group, (Long) event.getData(3), Math::max);
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("WindowStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ((Long) event.getData(1) > 3) {
+                        valid.set(false);
+                    }
+                    windowCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            float price = i % 2 == 0 ? 10f : 20f;
+            producers[i] = new Thread(() -> {
+                try {
+                    for (int round = 0; round < 50; round++) {
+                        for (int key = 0; key < 200; key++) {
+                            inputHandler.send(new Object[]{"SYMBOL" + key, price, 1});
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    log.error(e.getMessage(), e);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 40000, count, 60000);
+        SiddhiTestHelper.waitForEvents(100, 40000, windowCount, 60000);
+        AssertJUnit.assertEquals(40000, count.get());
+        AssertJUnit.assertEquals(40000, windowCount.get());
+        AssertJUnit.assertTrue(valid.get());
+        AssertJUnit.assertEquals(400, lastCounts.size());
+        for (int key = 0; key < 200; key++) {
+            for (float price : new float[]{10f, 20f}) {
+                AssertJUnit.assertEquals(Long.valueOf(100), lastCounts.get("SYMBOL" + key + "-" + price));
+                AssertJUnit.assertEquals(Long.valueOf(100), lastTotals.get("SYMBOL" + key + "-" + price));
+            }
+        }
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -29,6 +29,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class DistinctCountAttributeAggregatorExecutorTestCase {
 
     private static final Logger log = Logger.getLogger(DistinctCountAttributeAggregatorExecutorTestCase.class);
@@ -160,4 +163,172 @@ public class DistinctCountAttributeAggregatorExecutorTestCase {
         AssertJUnit.assertEquals("Event count", 1, count);
     }
 
+    @Test
+    public void distinctCountApproxTest() throws InterruptedException {
+
+        log.info("Distinct Count Approx TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (eventId string, userID string, pageID string); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.lengthBatch(1000) " +
+                "select distinctCountApprox(pageID) as distinctPages " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+        final List<Long> results = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+
+                for (Event event : events) {
+                    results.add((Long) event.getData(0));
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        for (int batch = 0; batch < 2; batch++) {
+            for (int i = 0; i < 1000; i++) {
+                inputHandler.send(new Object[]{"E" + i, "USER_1", "WEB_PAGE_" + (i % (batch == 0 ? 500 : 50))});
+            }
+        }
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 2, count);
+        AssertJUnit.assertTrue("Distinct Pages", Math.abs(results.get(0) - 500) <= 25);
+        AssertJUnit.assertEquals("Distinct Pages", 50L, results.get(1).longValue());
+    }
+
+    @Test
+    public void percentileApproxTest() throws InterruptedException {
+
+        log.info("Percentile Approx TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (symbol string, latency double); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(100) " +
+                "select percentileApprox(latency, 90.0) as p90 " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+        final List<Double> results = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+
+                for (Event event : events) {
+                    results.add((Double) event.getData(0));
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 1; i <= 200; i++) {
+            inputHandler.send(new Object[]{"WSO2", (double) i});
+        }
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Event count", 200, count);
+        // window holds 1 to 100
+        AssertJUnit.assertEquals("P90", 90.0, results.get(99), 2.0);
+        // window holds 101 to 200, expired values are retracted from the sketch
+        AssertJUnit.assertEquals("P90", 190.0, results.get(199), 4.0);
+    }
+
+    @Test
+    public void sketchRollUpTest() throws InterruptedException {
+
+        log.info("Sketch roll-up TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (pageID string, latency double, timestamp long); ";
+
+        String aggregation = "" +
+                "define aggregation pageAggregation " +
+                "from inputStream " +
+                "select distinctCountApprox(pageID) as distinctPages, percentileApprox(latency, 50) as medianLatency " +
+                "aggregate by timestamp every sec...min; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                aggregation);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        // Each second has 100 distinct pages, overlapping by half with the previous second
+        for (int second = 0; second < 3; second++) {
+            for (int i = 0; i < 100; i++) {
+                int page = second * 50 + i;
+                inputHandler.send(new Object[]{"WEB_PAGE_" + page, (double) (second * 100 + i + 1),
+                        1496289900000L + second * 1000L});
+            }
+        }
+        // Roll up the seconds of the first minute
+        inputHandler.send(new Object[]{"WEB_PAGE_0", 1.0, 1496289960000L});
+        Thread.sleep(100);
+
+        Event[] secondEvents = siddhiAppRuntime.query("from pageAggregation " +
+                "within \"2017-06-** **:**:**\" per \"seconds\" " +
+                "select AGG_TIMESTAMP, distinctPages, medianLatency order by AGG_TIMESTAMP");
+        Event[] minuteEvents = siddhiAppRuntime.query("from pageAggregation " +
+                "within \"2017-06-** **:**:**\" per \"minutes\" " +
+                "select AGG_TIMESTAMP, distinctPages, medianLatency order by AGG_TIMESTAMP");
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertNotNull(secondEvents);
+        AssertJUnit.assertEquals("Second count", 4, secondEvents.length);
+        for (int i = 0; i < 3; i++) {
+            AssertJUnit.assertTrue("Distinct pages per second",
+                    Math.abs((Long) secondEvents[i].getData(1) - 100) <= 5);
+        }
+        AssertJUnit.assertNotNull(minuteEvents);
+        AssertJUnit.assertEquals("Minute count", 2, minuteEvents.length);
+        AssertJUnit.assertEquals(1496289900000L, minuteEvents[0].getData(0));
+        // Pages 0 to 199 are seen within the minute, counted once across the merged second sketches
+        AssertJUnit.assertTrue("Distinct pages per minute", Math.abs((Long) minuteEvents[0].getData(1) - 200) <= 10);
+        // Latencies 1 to 300 are seen within the minute
+        AssertJUnit.assertEquals("Median latency per minute", 150.0, (Double) minuteEvents[0].getData(2), 4.0);
+    }
+
+    @Test
+    public void incrementalAggregatorParameterTest() {
+
+        log.info("Incremental aggregator parameter TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (pageID string, latency double, timestamp long); ";
+
+        String aggregation = "" +
+                "define aggregation pageAggregation " +
+                "from inputStream " +
+                "select sum(latency, 2) as totalLatency " +
+                "aggregate by timestamp every sec...min; ";
+
+        try {
+            siddhiManager.createSiddhiAppRuntime(inStreamDefinition + aggregation);
+            AssertJUnit.fail("Incremental aggregator with an additional parameter should not be created");
+        } catch (SiddhiAppCreationException e) {
+            AssertJUnit.assertNotNull(e.getQueryContextStartIndex());
+            AssertJUnit.assertNotNull(e.getQueryContextEndIndex());
+        }
+    }
+
 }
@@ -2234,4 +2234,245 @@ public class IndexTableTestCase {
         }
     }
 
+    @Test
+    public void indexTableTest34() throws InterruptedException {
+        log.info("indexTableTest34");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long);" +
+                "define stream DeleteStockStream (symbol string);" +
+                "@store(type='offheap', segment.size='64') " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume > CheckStockStream.volume " +
+                "select CheckStockStream.symbol as checkSymbol, StockTable.symbol, StockTable.price " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from UpdateStockStream " +
+                "update StockTable " +
+                "   on StockTable.symbol == symbol;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            stockStream.send(new Object[]{"GOOG", 50.0f, 300L});
+            stockStream.send(new Object[]{"IBM", 10.0f, 400L});
+            updateStockStream.send(new Object[]{"IBM", 80.0f, 200L});
+            deleteStockStream.send(new Object[]{"GOOG"});
+            checkStockStream.send(new Object[]{"A", 150L});
+            updateStockStream.send(new Object[]{"WSO2", 57.6f, 250L});
+            checkStockStream.send(new Object[]{"B", 150L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", "IBM", 80.0f},
+                    new Object[]{"B", "IBM", 80.0f},
+                    new Object[]{"B", "WSO2", 57.6f}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isUnsortedEventsMatch(inEventsList,
+                    expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Number of remove events", 0, removeEventCount);
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest35() throws InterruptedException {
+        log.info("indexTableTest35");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, company string, volume long); " +
+                "define stream CheckStockStream (symbol string, company string); " +
+                "define stream DeleteStockStream (symbol string);" +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, company string, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.company == CheckStockStream.company " +
+                "select CheckStockStream.symbol as checkSymbol, StockTable.symbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", "wso2", 100L});
+            stockStream.send(new Object[]{"IBM", "ibm", 200L});
+            stockStream.send(new Object[]{"IBMX", "ibm", 300L});
+            stockStream.send(new Object[]{"NULL", null, 400L});
+            checkStockStream.send(new Event[]{
+                    new Event(System.currentTimeMillis(), new Object[]{"A", "ibm"}),
+                    new Event(System.currentTimeMillis(), new Object[]{"B", "wso2"}),
+                    new Event(System.currentTimeMillis(), new Object[]{"C", "goog"})
+            });
+            deleteStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"D", "ibm"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", "IBM", 200L},
+                    new Object[]{"A", "IBMX", 300L},
+                    new Object[]{"B", "WSO2", 100L},
+                    new Object[]{"D", "IBMX", 300L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 4, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isUnsortedEventsMatch(inEventsList,
+                    expected));
+            AssertJUnit.assertEquals("Number of success events", 4, inEventCount.get());
+            AssertJUnit.assertEquals("Number of remove events", 0, removeEventCount);
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest36() throws InterruptedException {
+        log.info("indexTableTest36 - join on double attributes by double and int values");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price double, volume long); " +
+                "define stream CheckDoubleStream (symbol string, price double); " +
+                "define stream CheckIntStream (symbol string, price int); " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price double, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckDoubleStream join StockTable " +
+                " on StockTable.price == CheckDoubleStream.price " +
+                "select CheckDoubleStream.symbol as checkSymbol, StockTable.symbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckIntStream join StockTable " +
+                " on StockTable.price == CheckIntStream.price " +
+                "select CheckIntStream.symbol as checkSymbol, StockTable.symbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            QueryCallback queryCallback = new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                    eventArrived = true;
+                }
+            };
+            siddhiAppRuntime.addCallback("query2", queryCallback);
+            siddhiAppRuntime.addCallback("query3", queryCallback);
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkDoubleStream = siddhiAppRuntime.getInputHandler("CheckDoubleStream");
+            InputHandler checkIntStream = siddhiAppRuntime.getInputHandler("CheckIntStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.5, 100L});
+            stockStream.send(new Object[]{"IBM", 75.0, 200L});
+            stockStream.send(new Object[]{"IBMX", 75.0, 300L});
+            checkDoubleStream.send(new Object[]{"A", 55.5});
+            checkDoubleStream.send(new Object[]{"B", 55.0});
+            checkIntStream.send(new Object[]{"C", 75});
+            checkIntStream.send(new Object[]{"D", 55});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", "WSO2", 100L},
+                    new Object[]{"C", "IBM", 200L},
+                    new Object[]{"C", "IBMX", 300L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isUnsortedEventsMatch(inEventsList,
+                    expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
 }
@@ -21,10 +21,12 @@ package io.siddhi.core.query.table;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.query.api.exception.AttributeNotExistException;
 import io.siddhi.query.api.exception.DuplicateAnnotationException;
 import io.siddhi.query.compiler.exception.SiddhiParserException;
@@ -2531,6 +2533,236 @@ public class PrimaryKeyTableTestCase {
         }
     }
 
+    @Test
+    public void primaryKeyTableTest40() throws InterruptedException {
+        log.info("primaryKeyTableTest40");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume int); " +
+                "define stream CheckStockStream (symbol string, volume int); " +
+                "define stream DeleteStockStream (volume int); " +
+                "@PrimaryKey('volume') " +
+                "define table StockTable (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume >= CheckStockStream.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.volume < volume;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 300});
+            stockStream.send(new Object[]{"IBM", 55.6f, 100});
+            stockStream.send(new Object[]{"GOOG", 55.6f, 200});
+            stockStream.send(new Object[]{"ORCL", 55.6f, 50});
+            deleteStockStream.send(new Object[]{150});
+            checkStockStream.send(new Object[]{"A", 100});
+            checkStockStream.send(new Object[]{"B", 250});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", "GOOG", 200},
+                    new Object[]{"A", "WSO2", 300},
+                    new Object[]{"B", "WSO2", 300}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Number of remove events", 0, removeEventCount);
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void primaryKeyTableTest41() throws InterruptedException {
+        log.info("primaryKeyTableTest41");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long); " +
+                "define stream RenameStockStream (symbol string, newSymbol string); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "@Concurrency(lock.stripes='4') " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from RenameStockStream " +
+                "update StockTable " +
+                "   set StockTable.symbol = newSymbol " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query5') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume > CheckStockStream.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query5", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            InputHandler renameStockStream = siddhiAppRuntime.getInputHandler("RenameStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 300L});
+            stockStream.send(new Object[]{"IBM", 55.6f, 100L});
+            stockStream.send(new Object[]{"GOOG", 55.6f, 200L});
+            stockStream.send(new Object[]{"ORCL", 55.6f, 50L});
+            updateStockStream.send(new Object[]{"IBM", 60.0f, 400L});
+            updateStockStream.send(new Object[]{"MSFT", 70.0f, 500L});
+            renameStockStream.send(new Object[]{"WSO2", "WSO2X"});
+            deleteStockStream.send(new Object[]{"GOOG"});
+            checkStockStream.send(new Object[]{"A", 150L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", "WSO2X", 300L},
+                    new Object[]{"A", "IBM", 400L},
+                    new Object[]{"A", "MSFT", 500L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Number of remove events", 0, removeEventCount);
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+
+    @Test
+    public void primaryKeyTableTest42() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("primaryKeyTableTest42 - restore striped table with a different stripe count");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String streams = "" +
+                "@app:name('StripedTableApp') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "@Concurrency(lock.stripes='%d') " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume > CheckStockStream.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(String.format(streams, 4) + query);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 20; i++) {
+            stockStream.send(new Object[]{"SYM" + i, 55.6f, (long) i});
+        }
+        siddhiAppRuntime.persist();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(String.format(streams, 3) + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        inEventCount.addAndGet(inEvents.length);
+                    }
+                    eventArrived = true;
+                }
+            });
+            siddhiAppRuntime.start();
+            siddhiAppRuntime.restoreLastRevision();
+            stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            // Dropped as a duplicate only if the restored event is held by the stripe owning its primary key.
+            stockStream.send(new Object[]{"SYM1", 60.0f, 1L});
+            siddhiAppRuntime.getInputHandler("CheckStockStream").send(new Object[]{"A", 0L});
+
+            SiddhiTestHelper.waitForEvents(100, 20, inEventCount, 60000);
+            AssertJUnit.assertEquals("Number of success events", 20, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
 //
 //    @Test
 //    public void primaryKeyTableTest33() throws InterruptedException {
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.window;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.query.processor.stream.window.PaneSpec;
+import io.siddhi.core.query.selector.attribute.aggregator.PaneAggregatorState;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.snapshot.state.PartitionStateHolder;
+import io.siddhi.query.api.definition.Attribute;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HoppingTimeWindowTestCase {
+    private static final Logger log = Logger.getLogger(HoppingTimeWindowTestCase.class);
+    private List<Object[]> outputs;
+
+    @BeforeMethod
+    public void init() {
+        outputs = new ArrayList<>();
+    }
+
+    @Test
+    public void hoppingTimeWindowTest1() throws InterruptedException {
+        log.info("HoppingTime window test1: pane based aggregation");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price double, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.hoppingTime(2 sec, 1 sec) " +
+                "select sum(price) as totalPrice, count() as count, avg(price) as avgPrice, " +
+                "max(price) as maxPrice " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        outputs.add(event.getData());
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(1000, new Object[]{"IBM", 10.0, 1});
+        inputHandler.send(1500, new Object[]{"WSO2", 20.0, 2});
+        inputHandler.send(2100, new Object[]{"IBM", 30.0, 3});
+        inputHandler.send(3200, new Object[]{"WSO2", 40.0, 4});
+        inputHandler.send(4100, new Object[]{"IBM", 50.0, 5});
+
+        AssertJUnit.assertEquals(3, outputs.size());
+        AssertJUnit.assertArrayEquals(new Object[]{30.0, 2L, 15.0, 20.0}, outputs.get(0));
+        AssertJUnit.assertArrayEquals(new Object[]{60.0, 3L, 20.0, 30.0}, outputs.get(1));
+        AssertJUnit.assertArrayEquals(new Object[]{70.0, 2L, 35.0, 40.0}, outputs.get(2));
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void hoppingTimeWindowTest2() throws InterruptedException {
+        log.info("HoppingTime window test2: aggregators that cannot be combined from panes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price double, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.hoppingTime(2 sec, 1 sec) " +
+                "select sum(price) as totalPrice, distinctCount(symbol) as symbols " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        outputs.add(event.getData());
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(1000, new Object[]{"IBM", 10.0, 1});
+        inputHandler.send(1500, new Object[]{"WSO2", 20.0, 2});
+        inputHandler.send(2100, new Object[]{"IBM", 30.0, 3});
+        inputHandler.send(3200, new Object[]{"IBM", 40.0, 4});
+        inputHandler.send(4100, new Object[]{"IBM", 50.0, 5});
+
+        AssertJUnit.assertEquals(3, outputs.size());
+        AssertJUnit.assertArrayEquals(new Object[]{30.0, 2L}, outputs.get(0));
+        AssertJUnit.assertArrayEquals(new Object[]{60.0, 2L}, outputs.get(1));
+        AssertJUnit.assertArrayEquals(new Object[]{70.0, 1L}, outputs.get(2));
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void hoppingTimeWindowTest3() {
+        log.info("HoppingTime window test3: hop larger than the window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String query = "" +
+                "define stream cseEventStream (symbol string, price double, volume int);" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.hoppingTime(1 sec, 2 sec) " +
+                "select sum(price) as totalPrice " +
+                "insert into outputStream ;";
+        siddhiManager.createSiddhiAppRuntime(query);
+    }
+
+    @Test
+    public void hoppingTimeWindowTest4() {
+        log.info("HoppingTime window test4: group states are dropped once their panes leave the window");
+
+        PaneSpec paneSpec = new PaneSpec(2000, 1000);
+        PartitionStateHolder stateHolder = new PartitionStateHolder(() -> new PaneAggregatorState(
+                PaneAggregatorState.Function.SUM, Attribute.Type.DOUBLE, paneSpec));
+        addToPane(stateHolder, "IBM", 1000, 10.0, 2000);
+        addToPane(stateHolder, "WSO2", 1500, 20.0, 2000);
+        addToPane(stateHolder, "WSO2", 2500, 30.0, 3000);
+        AssertJUnit.assertEquals(2, stateHolder.getAllGroupByStates().size());
+
+        PaneAggregatorState.expire(stateHolder, 3000);
+        AssertJUnit.assertEquals(2, stateHolder.getAllGroupByStates().size());
+        PaneAggregatorState.expire(stateHolder, 4000);
+        AssertJUnit.assertEquals(1, stateHolder.getAllGroupByStates().size());
+        PaneAggregatorState.expire(stateHolder, 5000);
+        AssertJUnit.assertEquals(0, stateHolder.getAllGroupByStates().size());
+    }
+
+    @Test
+    public void hoppingTimeWindowTest5() throws InterruptedException {
+        log.info("HoppingTime window test5: pane based aggregation with group by over idle groups");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price double, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.hoppingTime(2 sec, 1 sec) " +
+                "select symbol, sum(price) as totalPrice, count() as count " +
+                "group by symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        outputs.add(event.getData());
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(1000, new Object[]{"IBM", 10.0, 1});
+        inputHandler.send(1500, new Object[]{"WSO2", 20.0, 2});
+        inputHandler.send(2100, new Object[]{"WSO2", 30.0, 3});
+        inputHandler.send(3200, new Object[]{"WSO2", 40.0, 4});
+        inputHandler.send(4100, new Object[]{"WSO2", 50.0, 5});
+        inputHandler.send(5100, new Object[]{"IBM", 60.0, 6});
+        inputHandler.send(6100, new Object[]{"IBM", 70.0, 7});
+
+        AssertJUnit.assertEquals(6, outputs.size());
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM", 10.0, 1L}, outputs.get(0));
+        AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 20.0, 1L}, outputs.get(1));
+        AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 50.0, 2L}, outputs.get(2));
+        AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 70.0, 2L}, outputs.get(3));
+        AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 90.0, 2L}, outputs.get(4));
+        AssertJUnit.assertArrayEquals(new Object[]{"IBM", 60.0, 1L}, outputs.get(5));
+        siddhiAppRuntime.shutdown();
+    }
+
+    private void addToPane(PartitionStateHolder stateHolder, String symbol, long timestamp, double price,
+                           long hopEnd) {
+        SiddhiAppContext.startGroupByFlow(symbol);
+        try {
+            PaneAggregatorState state = (PaneAggregatorState) stateHolder.getState();
+            try {
+                state.add(timestamp, price, hopEnd);
+            } finally {
+                stateHolder.returnState(state);
+            }
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ package io.siddhi.core.query.window;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
@@ -31,6 +32,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class LengthWindowTestCase {
     private static final Logger log = Logger.getLogger(LengthWindowTestCase.class);
     private int inEventCount;
@@ -387,4 +392,337 @@ public class LengthWindowTestCase {
         execPlanRunTime.shutdown();
 
     }
+
+    @Test
+    public void lengthWindowTest6() throws InterruptedException {
+        log.info("Testing length window with pooled events");
+
+        final int length = 4;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "@info(name = 'query1') @pool(size='4') " +
+                "from cseEventStream[volume > 0]#window.length(" + length + ") " +
+                "select symbol, price, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        AssertJUnit.assertEquals("In event order", inEventCount, event.getData(2));
+                    }
+                }
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        removeEventCount++;
+                        AssertJUnit.assertEquals("Remove event order", removeEventCount, event.getData(2));
+                    }
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 100; i++) {
+            inputHandler.send(new Object[]{"IBM", 700f, i});
+            inputHandler.send(new Object[]{"WSO2", 60.5f, -i});
+        }
+        AssertJUnit.assertEquals("In event count", 100, inEventCount);
+        AssertJUnit.assertEquals("Remove event count", 100 - length, removeEventCount);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void lengthWindowTest7() throws InterruptedException {
+        log.info("Testing length window with invalid event pool size");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "@info(name = 'query1') @pool(size='0') " +
+                "from cseEventStream#window.length(4) " +
+                "select symbol, price, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest8() throws InterruptedException {
+        log.info("Testing length window with null attributes and find through join");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price float, volume long, active bool); " +
+                "define stream checkStream (symbol string); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from checkStream join cseEventStream#window.length(3) " +
+                "on checkStream.symbol == cseEventStream.symbol " +
+                "select cseEventStream.symbol, price, volume, active " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    inEventCount++;
+                    switch (inEventCount) {
+                        case 1:
+                        case 2:
+                            AssertJUnit.assertArrayEquals(new Object[]{"WSO2", null, 20L, true}, event.getData());
+                            break;
+                        case 3:
+                            AssertJUnit.assertArrayEquals(new Object[]{"WSO2", 57.6f, null, null}, event.getData());
+                            break;
+                        default:
+                            AssertJUnit.fail("Unexpected event " + event);
+                    }
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler checkStreamHandler = siddhiAppRuntime.getInputHandler("checkStream");
+        siddhiAppRuntime.start();
+        cseEventStreamHandler.send(new Object[]{"IBM", 700f, 10L, false});
+        cseEventStreamHandler.send(new Object[]{"WSO2", null, 20L, true});
+        cseEventStreamHandler.send(new Object[]{"ORACLE", 55.6f, 30L, false});
+        checkStreamHandler.send(new Object[]{"WSO2"});
+        cseEventStreamHandler.send(new Object[]{"WSO2", 57.6f, null, null});
+        checkStreamHandler.send(new Object[]{"WSO2"});
+        checkStreamHandler.send(new Object[]{"IBM"});
+        cseEventStreamHandler.send(new Object[]{"IBM", 75.6f, 40L, true});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals("In event count", 3, inEventCount);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest9() throws InterruptedException {
+        log.info("Testing length window shared across queries");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(2) " +
+                "select symbol, price " +
+                "insert all events into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.length(2) " +
+                "select max(price) as maxPrice " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        AssertJUnit.assertEquals("Shared windows", 1, siddhiAppRuntime.getWindows().size());
+        List<Object> maxPrices = new ArrayList<>();
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+                eventArrived = true;
+            }
+
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    maxPrices.add(event.getData(0));
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 10f, 0});
+        inputHandler.send(new Object[]{"WSO2", 30f, 1});
+        inputHandler.send(new Object[]{"IBM", 20f, 2});
+        inputHandler.send(new Object[]{"WSO2", 5f, 3});
+        AssertJUnit.assertEquals(4, inEventCount);
+        AssertJUnit.assertEquals(2, removeEventCount);
+        AssertJUnit.assertEquals(Arrays.asList(10f, 30f, 30f, 20f), maxPrices);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest10() throws InterruptedException {
+        log.info("Testing that pooled events do not corrupt the events retained by the length window");
+
+        final int length = 5;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "@info(name = 'query1') @pool(size='2') " +
+                "from cseEventStream[volume > 0]#window.length(" + length + ") " +
+                "select symbol, price, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount += inEvents.length;
+                }
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        removeEventCount++;
+                        // Expired events are read from the columns retained by the window into pooled events,
+                        // which must only hold the data of the event they expire, even though they are reused.
+                        AssertJUnit.assertEquals("IBM" + removeEventCount, event.getData(0));
+                        AssertJUnit.assertEquals((float) removeEventCount, event.getData(1));
+                        AssertJUnit.assertEquals(removeEventCount, event.getData(2));
+                    }
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 50; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, (float) i, i});
+            inputHandler.send(new Object[]{"WSO2" + i, -1f, -i});
+        }
+        AssertJUnit.assertEquals("In event count", 50, inEventCount);
+        AssertJUnit.assertEquals("Remove event count", 50 - length, removeEventCount);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest11() throws InterruptedException {
+        log.info("Testing length window find returning several events through join");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "define stream checkStream (minVolume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from checkStream join cseEventStream#window.length(3) " +
+                "on cseEventStream.volume >= checkStream.minVolume " +
+                "select cseEventStream.symbol, price, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        List<Object> symbols = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    inEventCount++;
+                    symbols.add(event.getData(0));
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler checkStreamHandler = siddhiAppRuntime.getInputHandler("checkStream");
+        siddhiAppRuntime.start();
+        cseEventStreamHandler.send(new Object[]{"IBM", 700f, 10L});
+        cseEventStreamHandler.send(new Object[]{"WSO2", 60.5f, 20L});
+        cseEventStreamHandler.send(new Object[]{"ORACLE", 55.6f, 30L});
+        checkStreamHandler.send(new Object[]{0L});
+        cseEventStreamHandler.send(new Object[]{"GOOG", 75.6f, 40L});
+        checkStreamHandler.send(new Object[]{20L});
+        Thread.sleep(100);
+        AssertJUnit.assertEquals("In event count", 6, inEventCount);
+        AssertJUnit.assertEquals(Arrays.asList("IBM", "WSO2", "ORACLE", "WSO2", "ORACLE", "GOOG"), symbols);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest12() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("Testing restoring length window shared across queries");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query1 = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(2) " +
+                "select cseEventStream.symbol, max(cseEventStream.price) as maxPrice " +
+                "insert into outputStream1 ;";
+        String query2 = "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.length(2) " +
+                "select sum(volume) as totalVolume " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query1 + query2);
+        AssertJUnit.assertEquals("Shared windows", 1, siddhiAppRuntime.getWindows().size());
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 10f, 1});
+        inputHandler.send(new Object[]{"WSO2", 30f, 2});
+        byte[] snapshot = siddhiAppRuntime.snapshot();
+        siddhiAppRuntime.shutdown();
+
+        SiddhiAppRuntime restoredRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query1 + query2);
+        List<Object> maxPrices = new ArrayList<>();
+        restoredRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    maxPrices.add(event.getData(1));
+                }
+            }
+
+        });
+        restoredRuntime.start();
+        restoredRuntime.restore(snapshot);
+        restoredRuntime.getInputHandler("cseEventStream").send(new Object[]{"IBM", 20f, 3});
+        AssertJUnit.assertEquals(Arrays.asList(30f), maxPrices);
+        restoredRuntime.shutdown();
+
+        SiddhiAppRuntime unsharedRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query1);
+        AssertJUnit.assertEquals("Shared windows", 0, unsharedRuntime.getWindows().size());
+        unsharedRuntime.start();
+        try {
+            unsharedRuntime.restore(snapshot);
+            Assert.fail("Snapshot of shared windows restored onto queries with their own windows");
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.info("Restoring rejected as expected: " + e.getMessage());
+        } finally {
+            unsharedRuntime.shutdown();
+        }
+    }
 }
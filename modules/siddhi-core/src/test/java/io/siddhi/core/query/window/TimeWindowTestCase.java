@@ -25,11 +25,14 @@ import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.SiddhiTestHelper;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class TimeWindowTestCase {
     private static final Logger log = Logger.getLogger(TimeWindowTestCase.class);
     private int inEventCount;
@@ -222,4 +225,102 @@ public class TimeWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void timeWindowTest7() throws InterruptedException {
+        log.info("timeWindowTest7: partitioned time windows sharing the timer wheel");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.time(1 sec) " +
+                "   select symbol, price, volume " +
+                "   insert all events into outputStream ;" +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        AtomicInteger inCount = new AtomicInteger();
+        AtomicInteger removeCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        removeCount.incrementAndGet();
+                    } else {
+                        inCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"SYM" + i, 10f, i});
+            inputHandler.send(new Object[]{"SYM" + i, 20f, i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 1000, removeCount, 10000);
+        AssertJUnit.assertEquals(1000, inCount.get());
+        AssertJUnit.assertEquals(1000, removeCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void timeWindowTest8() throws InterruptedException {
+        log.info("timeWindowTest8: pooled expired events of the time window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') @pool(size='2') " +
+                "from cseEventStream#window.time(500 milliseconds) " +
+                "select symbol, price, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        AtomicInteger removeCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                }
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        // Expired events are taken from the pool and recycled after each chunk, hence reused ones
+                        // should only carry the data of the event that they expire.
+                        int expected = removeCount.incrementAndGet();
+                        AssertJUnit.assertEquals("IBM" + expected, event.getData(0));
+                        AssertJUnit.assertEquals((float) expected, event.getData(1));
+                        AssertJUnit.assertEquals(expected, event.getData(2));
+                    }
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 10; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, (float) i, i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 10, removeCount, 5000);
+        for (int i = 11; i <= 20; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, (float) i, i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 20, removeCount, 5000);
+        AssertJUnit.assertEquals(20, inEventCount);
+        AssertJUnit.assertEquals(20, removeCount.get());
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
 }
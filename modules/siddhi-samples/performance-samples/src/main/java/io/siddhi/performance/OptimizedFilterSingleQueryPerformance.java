@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+/**
+ * Compares the throughput of the SimpleFilterSingleQuery workload, extended with a projection, when the
+ * expressions are evaluated as parsed and when they are optimized through @app:optimize.
+ */
+public class OptimizedFilterSingleQueryPerformance {
+
+    private static final int EVENT_COUNT = 10000000;
+
+    public static void main(String[] args) throws InterruptedException {
+        String query = "" +
+                "define stream cseEventStream (symbol string, price float, volume long, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[700 > price and volume * 2 >= 100 * 2] " +
+                "select symbol, price * 1.1 as price, volume + 1 as volume, timestamp " +
+                "insert into outputStream ;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        while (true) {
+            run(siddhiManager, "Default", query);
+            run(siddhiManager, "Optimized", "@app:optimize('true') " + query);
+        }
+    }
+
+    private static void run(SiddhiManager siddhiManager, String mode, String siddhiApp) throws InterruptedException {
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            public int eventCount = 0;
+
+            @Override
+            public void receive(Event[] events) {
+                eventCount += events.length;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < EVENT_COUNT; i += 4) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"WSO2", 100f, 80L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"IBM", 975.6f, 100L, System.currentTimeMillis()});
+        }
+        long timeSpent = System.currentTimeMillis() - startTime;
+        System.out.println(mode + " throughput : " + (EVENT_COUNT * 1000L) / Math.max(timeSpent, 1));
+        siddhiAppRuntime.shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.stream.input.InputHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the throughput of concurrent primary key joins against an in-memory table, while another thread keeps
+ * updating the table, with a single table lock and with @Concurrency lock striping.
+ */
+public class TableJoinConcurrencyPerformance {
+
+    private static final int EVENTS_STORED = 100000;
+    private static final int READER_THREADS = 4;
+    private static final int EVENTS_PER_READER = 2000000;
+
+    public static void main(String[] args) throws InterruptedException {
+        String query = "" +
+                "define stream StockInputStream (symbol string, price float, volume int); " +
+                "define stream StockCheckStream (symbol string, volume int); " +
+                "" +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume int); " +
+                "" +
+                "from StockInputStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol; " +
+                "" +
+                "from StockCheckStream join StockTable " +
+                "   on StockTable.symbol == StockCheckStream.symbol " +
+                "select StockCheckStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutputStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        while (true) {
+            run(siddhiManager, "Single lock", query);
+            run(siddhiManager, "Striped", query.replace("@PrimaryKey('symbol')",
+                    "@Concurrency(lock.stripes='16') @PrimaryKey('symbol')"));
+        }
+    }
+
+    private static void run(SiddhiManager siddhiManager, String mode, String siddhiApp)
+            throws InterruptedException {
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        InputHandler stockCheckHandler = siddhiAppRuntime.getInputHandler("StockCheckStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < EVENTS_STORED; i++) {
+            stockInputHandler.send(new Object[]{"" + i, i * 1.0f, i});
+        }
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < READER_THREADS; i++) {
+            readers.add(new Thread(() -> {
+                try {
+                    for (int j = 0; j < EVENTS_PER_READER; j++) {
+                        int number = ThreadLocalRandom.current().nextInt(EVENTS_STORED);
+                        stockCheckHandler.send(new Object[]{"" + number, number});
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int number = ThreadLocalRandom.current().nextInt(EVENTS_STORED);
+                    stockInputHandler.send(new Object[]{"" + number, number * 1.1f, number});
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long startTime = System.currentTimeMillis();
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        long timeSpent = System.currentTimeMillis() - startTime;
+        writer.interrupt();
+        writer.join();
+        System.out.println(mode + " join throughput : " +
+                (READER_THREADS * (long) EVENTS_PER_READER * 1000L) / Math.max(timeSpent, 1));
+        siddhiAppRuntime.shutdown();
+    }
+}